@@ -1,19 +1,31 @@
 package com.andoverrobotics.core.config;
 
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Reader;
-import java.lang.reflect.Field;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * A key-value mapping abstraction that allows for the retrieval of values in a variety of types.
  * <p> <h2>Schemas</h2> Configuration Schemas are small classes that only contain non-private fields
- * that are declared in compatible types. The following is an example:
+ * that are declared in compatible types: <code>int</code>, <code>long</code>, <code>float</code>,
+ * <code>double</code>, <code>boolean</code>, {@link String}, any enum, and arrays of
+ * <code>int</code>, <code>double</code> or {@link String}. The following is an example:
  * <pre>{@code
  *   class ExampleSchema {
  *     int numberOfBlocks;
@@ -31,6 +43,21 @@ import java.util.Properties;
  *   usePredefinedAutonomous=false
  *   selectedProcedureName=auto2
  * }</pre>
+ * <p> Enum values are matched to the names of the constants, case-insensitive. Array values are
+ * separated by commas, and surrounding whitespace is ignored; an empty value is an empty array.
+ * <p> <h2>Layers</h2> Each entry records the layer that supplied it, which is named when the
+ * Configuration is created. {@link #overriddenBy(Configuration)} stacks one Configuration on
+ * another, such as built-in defaults, then a file for each robot, then overrides for one match:
+ * <pre>{@code
+ *   Configuration constants = Configuration.from(defaults, "built-in")
+ *       .overriddenBy(Configuration.fromPropertiesFile("robot.properties"))
+ *       .overriddenBy(Configuration.fromPropertiesFile("match.properties"));
+ * }</pre>
+ * <p> The layers are merged when they are stacked, so retrieving a value from the result never
+ * searches through them; {@link #getLayer(String)} tells which layer supplied each value.
+ * <p> Each Schema class is compiled once, on its first load, into binders that know the type of
+ * each field, and every value is parsed into each type it is valid in when the Configuration is
+ * created. Loading a Schema and retrieving values are therefore cheap enough to repeat every loop.
  * <p>
  *
  * @see InvalidFormatError
@@ -38,26 +65,96 @@ import java.util.Properties;
  */
 public final class Configuration {
 
-  private static final String PROPERTIES_DIRECTORY = "/storage/self/primary/FIRST/config";
+  static final String PROPERTIES_DIRECTORY = "/storage/self/primary/FIRST/config";
+
+  /**
+   * The name of the layer of the entries of Configurations whose layer was not named.
+   */
+  public static final String UNNAMED_LAYER = "unnamed";
+
+  private static final byte INT = 1, DOUBLE = 2, BOOLEAN = 4, LONG = 8, FLOAT = 16;
+
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
 
   private final Map<String, String> map;
 
-  private Configuration(Map<String, String> map) {
+  // The values, and each type in which they parse, indexed by the slot of their key
+  private final Map<String, Integer> slots;
+  private final String[] values;
+  private final String[] layers;
+  private final int[] intValues;
+  private final long[] longValues;
+  private final float[] floatValues;
+  private final double[] doubleValues;
+  private final boolean[] booleanValues;
+  private final byte[] validTypes;
+
+  private Configuration(Map<String, String> map, Map<String, String> layerOfKey) {
     this.map = map;
+
+    int size = map.size();
+    slots = new HashMap<>(size * 2);
+    values = new String[size];
+    layers = new String[size];
+    intValues = new int[size];
+    longValues = new long[size];
+    floatValues = new float[size];
+    doubleValues = new double[size];
+    booleanValues = new boolean[size];
+    validTypes = new byte[size];
+
+    int slot = 0;
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      // A key with a null value is missing
+      if (entry.getValue() == null) {
+        continue;
+      }
+      slots.put(entry.getKey(), slot);
+      layers[slot] = layerOfKey.get(entry.getKey());
+      parse(slot, entry.getValue());
+      slot++;
+    }
+  }
+
+  // Adopts the parsed columns of a snapshot, whose keys are already sorted
+  private Configuration(String[] keys, String[] values, String[] layers, byte[] validTypes,
+      int[] intValues, long[] longValues, float[] floatValues, double[] doubleValues,
+      boolean[] booleanValues) {
+    map = new HashMap<>(keys.length * 2);
+    slots = new HashMap<>(keys.length * 2);
+    for (int slot = 0; slot < keys.length; slot++) {
+      map.put(keys[slot], values[slot]);
+      slots.put(keys[slot], slot);
+    }
+
+    this.values = values;
+    this.layers = layers;
+    this.validTypes = validTypes;
+    this.intValues = intValues;
+    this.longValues = longValues;
+    this.floatValues = floatValues;
+    this.doubleValues = doubleValues;
+    this.booleanValues = booleanValues;
   }
 
   /**
    * Reads a file with the given name from the standard directory for configuration file storage,
    * parses it into {@link Properties} format, and returns a new instance of {@link Configuration}
-   * with the parsed mapping.
+   * with the parsed mapping. The entries belong to a layer named after the file.
    * @param fileName Name of the file to be read
    * @return The Configuration instance whose entries have been read from the given file
    * @throws IOException If the file with the given name cannot be read
    */
   public static Configuration fromPropertiesFile(String fileName)
       throws IOException {
-    return fromProperties(new FileReader(new File(PROPERTIES_DIRECTORY, fileName)));
+    Reader file = new FileReader(new File(PROPERTIES_DIRECTORY, fileName));
+    try {
+      return fromProperties(file, fileName);
+    } finally {
+      file.close();
+    }
   }
+
   /**
    * Parses data from the given {@link Reader} in Java Properties format, and then creates a new
    * instance of {@link Configuration} from the parsed result.
@@ -67,21 +164,125 @@ public final class Configuration {
    */
   public static Configuration fromProperties(Reader file)
       throws IOException {
+    return fromProperties(file, UNNAMED_LAYER);
+  }
+
+  /**
+   * Parses data from the given {@link Reader} in Java Properties format, and then creates a new
+   * instance of {@link Configuration} whose entries belong to the given layer.
+   * @param file The Reader from which to parse data
+   * @param layerName The name of the layer that the data represents
+   * @return The new Configuration instance
+   * @throws IOException if an error is encountered while reading from the given Reader
+   */
+  public static Configuration fromProperties(Reader file, String layerName)
+      throws IOException {
 
     Properties props = new Properties();
     props.load(file);
     // Java's sloppiness here. Properties was done in a rush and wasn't adapted to generics.
-    return Configuration.from(new HashMap(props));
+    return Configuration.from(new HashMap(props), layerName);
   }
 
   /**
    * Creates a new instance of {@link Configuration} from the given String-to-String {@link Map}.
+   * The entries are copied, so later changes to the map do not affect the Configuration.
    *
    * @param map The map to apply to the new Configuration instance
    * @return The new Configuration instance
    */
   public static Configuration from(Map<String, String> map) {
-    return new Configuration(map);
+    return from(map, UNNAMED_LAYER);
+  }
+
+  /**
+   * Creates a new instance of {@link Configuration} from the given String-to-String {@link Map},
+   * whose entries belong to the given layer. The entries are copied, so later changes to the map
+   * do not affect the Configuration.
+   *
+   * @param map The map to apply to the new Configuration instance
+   * @param layerName The name of the layer that the map represents
+   * @return The new Configuration instance
+   */
+  public static Configuration from(Map<String, String> map, String layerName) {
+    Map<String, String> layerOfKey = new HashMap<>(map.size() * 2);
+    for (String key : map.keySet()) {
+      layerOfKey.put(key, layerName);
+    }
+    return new Configuration(new HashMap<>(map), layerOfKey);
+  }
+
+  /**
+   * Stacks the given layer on this Configuration. The result holds every entry of both; where
+   * both hold a key, the value of the given layer wins. Each entry keeps the name of the layer
+   * that supplied it.
+   *
+   * @param layer The Configuration whose entries take precedence
+   * @return The merged Configuration; neither this one nor the given one is changed
+   */
+  public Configuration overriddenBy(Configuration layer) {
+    Map<String, String> merged = new HashMap<>(map);
+    Map<String, String> layerOfKey = new HashMap<>((map.size() + layer.map.size()) * 2);
+    for (Map.Entry<String, Integer> slot : slots.entrySet()) {
+      layerOfKey.put(slot.getKey(), layers[slot.getValue()]);
+    }
+    for (Map.Entry<String, Integer> slot : layer.slots.entrySet()) {
+      merged.put(slot.getKey(), layer.values[slot.getValue()]);
+      layerOfKey.put(slot.getKey(), layer.layers[slot.getValue()]);
+    }
+    return new Configuration(merged, layerOfKey);
+  }
+
+  /**
+   * Retrieves the name of the layer that supplied the value of the given key.
+   * @param key The key whose layer is requested
+   * @return The name of the layer
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public String getLayer(String key) {
+    return layers[slotOf(key)];
+  }
+
+  /**
+   * @return The keys of every entry, which cannot be modified
+   */
+  public Set<String> getKeys() {
+    return Collections.unmodifiableSet(slots.keySet());
+  }
+
+  /**
+   * Writes the entries of this Configuration, in Java Properties format, to a file with the given
+   * name in the standard directory for configuration file storage, which {@link
+   * #fromPropertiesFile(String)} reads back. An existing file is replaced.
+   * @param fileName Name of the file to be written
+   * @param comments A description written at the top of the file, or null for none
+   * @throws IOException If the file with the given name cannot be written
+   */
+  public void toPropertiesFile(String fileName, String comments) throws IOException {
+    File directory = new File(PROPERTIES_DIRECTORY);
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Cannot create " + directory);
+    }
+
+    Writer file = new FileWriter(new File(directory, fileName));
+    try {
+      toProperties(file, comments);
+    } finally {
+      file.close();
+    }
+  }
+
+  /**
+   * Writes the entries of this Configuration to the given {@link Writer} in Java Properties
+   * format, which {@link #fromProperties(Reader)} parses back.
+   * @param file The Writer to which the entries are written
+   * @param comments A description written at the top of the output, or null for none
+   * @throws IOException if an error is encountered while writing to the given Writer
+   */
+  public void toProperties(Writer file, String comments) throws IOException {
+    Properties props = new Properties();
+    props.putAll(map);
+    props.store(file, comments);
   }
 
   /**
@@ -94,9 +295,7 @@ public final class Configuration {
   public <T> T loadToSchema(T schemaInstance) {
     Class<?> schemaClass = schemaInstance.getClass();
     try {
-      for (Field field : schemaClass.getDeclaredFields()) {
-        populateSchemaField(schemaInstance, field);
-      }
+      SchemaBinder.of(schemaClass).bind(this, schemaInstance);
       return schemaInstance;
     } catch (Exception reflectionError) {
       throw new InvalidSchemaError(schemaClass, reflectionError);
@@ -111,12 +310,11 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public int getInt(String key) {
-    String strValue = getString(key);
-    try {
-      return Integer.parseInt(strValue);
-    } catch (NumberFormatException numberException) {
-      throw new InvalidFormatError(key, strValue, "int");
+    int slot = slotOf(key);
+    if ((validTypes[slot] & INT) == 0) {
+      throw new InvalidFormatError(key, values[slot], "int");
     }
+    return intValues[slot];
   }
 
   /**
@@ -127,12 +325,41 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public double getDouble(String key) {
-    String strValue = getString(key);
-    try {
-      return Double.parseDouble(strValue);
-    } catch (NumberFormatException numberException) {
-      throw new InvalidFormatError(key, strValue, "double");
+    int slot = slotOf(key);
+    if ((validTypes[slot] & DOUBLE) == 0) {
+      throw new InvalidFormatError(key, values[slot], "double");
     }
+    return doubleValues[slot];
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a long.
+   * @param key The key for the requesting value
+   * @return The parsed long represented by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value cannot be parsed as a long
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public long getLong(String key) {
+    int slot = slotOf(key);
+    if ((validTypes[slot] & LONG) == 0) {
+      throw new InvalidFormatError(key, values[slot], "long");
+    }
+    return longValues[slot];
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a float.
+   * @param key The key for the requesting value
+   * @return The parsed float represented by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value cannot be parsed as a float
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public float getFloat(String key) {
+    int slot = slotOf(key);
+    if ((validTypes[slot] & FLOAT) == 0) {
+      throw new InvalidFormatError(key, values[slot], "float");
+    }
+    return floatValues[slot];
   }
 
   /**
@@ -144,14 +371,59 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
    */
   public boolean getBoolean(String key) {
-    String value = getString(key);
-    if (value.equalsIgnoreCase("true")) {
-      return true;
-    } else if (value.equalsIgnoreCase("false")) {
-      return false;
-    } else {
-      throw new InvalidFormatError(key, value, "boolean");
+    int slot = slotOf(key);
+    if ((validTypes[slot] & BOOLEAN) == 0) {
+      throw new InvalidFormatError(key, values[slot], "boolean");
     }
+    return booleanValues[slot];
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, matched to the name of a constant of the
+   * given enum, case-insensitive.
+   * @param key The key for the requesting value
+   * @param enumType The enum of which the value names a constant
+   * @param <E> The type of the enum
+   * @return The constant named by the key's corresponding value
+   * @throws InvalidFormatError if the given key's corresponding value names no constant
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public <E extends Enum<E>> E getEnum(String key, Class<E> enumType) {
+    return getEnum(key, enumType.getEnumConstants(), enumType.getSimpleName());
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a comma-separated array of
+   * integers. The value is parsed on every call.
+   * @param key The key for the requesting value
+   * @return A new array of the parsed integers
+   * @throws InvalidFormatError if an element of the key's corresponding value is not an integer
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public int[] getIntArray(String key) {
+    return getIntArray(key, null);
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, parsed as a comma-separated array of
+   * doubles. The value is parsed on every call.
+   * @param key The key for the requesting value
+   * @return A new array of the parsed doubles
+   * @throws InvalidFormatError if an element of the key's corresponding value is not a double
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public double[] getDoubleArray(String key) {
+    return getDoubleArray(key, null);
+  }
+
+  /**
+   * Retrieves the value of the given key in the mapping, split at its commas.
+   * @param key The key for the requesting value
+   * @return A new array of the elements, without surrounding whitespace
+   * @throws NoSuchFieldError if the given key does not exist in this Configuration instance's mapping
+   */
+  public String[] getStringArray(String key) {
+    return split(getString(key));
   }
 
   /**
@@ -161,11 +433,153 @@ public final class Configuration {
    * @throws NoSuchFieldError if the given key does not exist in this mapping
    */
   public String getString(String key) {
-    String value = map.get(key);
-    if (value == null) {
-      throw new NoSuchFieldError(key);
+    return values[slotOf(key)];
+  }
+
+  // Writes the string table, then the columns, with one row per key in sorted order. Each string
+  // is stored once, and the rows refer to it by its index in the table.
+  void writeSnapshot(DataOutputStream out) throws IOException {
+    String[] keys = slots.keySet().toArray(new String[slots.size()]);
+    Arrays.sort(keys);
+    int count = keys.length;
+
+    Map<String, Integer> strings = new LinkedHashMap<>();
+    int[] rows = new int[count];
+    int[] keyIndices = new int[count], valueIndices = new int[count], layerIndices = new int[count];
+    for (int row = 0; row < count; row++) {
+      rows[row] = slots.get(keys[row]);
+      keyIndices[row] = indexOf(strings, keys[row]);
+      valueIndices[row] = indexOf(strings, values[rows[row]]);
+      layerIndices[row] = indexOf(strings, layers[rows[row]]);
+    }
+
+    out.writeInt(strings.size());
+    for (String string : strings.keySet()) {
+      byte[] encoded = string.getBytes(UTF_8);
+      out.writeInt(encoded.length);
+      out.write(encoded);
+    }
+
+    out.writeInt(count);
+    for (int row = 0; row < count; row++) {
+      out.writeInt(keyIndices[row]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeInt(valueIndices[row]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeInt(layerIndices[row]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeByte(validTypes[rows[row]]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeInt(intValues[rows[row]]);
     }
-    return value;
+    for (int row = 0; row < count; row++) {
+      out.writeLong(longValues[rows[row]]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeFloat(floatValues[rows[row]]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeDouble(doubleValues[rows[row]]);
+    }
+    for (int row = 0; row < count; row++) {
+      out.writeBoolean(booleanValues[rows[row]]);
+    }
+  }
+
+  // Reads what writeSnapshot wrote; the columns are copied in bulk, and nothing is parsed again
+  static Configuration readSnapshot(ByteBuffer in) {
+    String[] strings = new String[checkedCount(in)];
+    byte[] encoded = new byte[64];
+    for (int i = 0; i < strings.length; i++) {
+      int length = checkedCount(in);
+      if (length > encoded.length) {
+        encoded = new byte[length];
+      }
+      in.get(encoded, 0, length);
+      strings[i] = new String(encoded, 0, length, UTF_8);
+    }
+
+    int count = checkedCount(in);
+    String[] keys = lookUp(strings, readInts(in, count));
+    String[] values = lookUp(strings, readInts(in, count));
+    String[] layers = lookUp(strings, readInts(in, count));
+
+    byte[] validTypes = new byte[count];
+    in.get(validTypes);
+    int[] intValues = readInts(in, count);
+
+    long[] longValues = new long[count];
+    in.asLongBuffer().get(longValues);
+    in.position(in.position() + count * 8);
+
+    float[] floatValues = new float[count];
+    in.asFloatBuffer().get(floatValues);
+    in.position(in.position() + count * 4);
+
+    double[] doubleValues = new double[count];
+    in.asDoubleBuffer().get(doubleValues);
+    in.position(in.position() + count * 8);
+
+    boolean[] booleanValues = new boolean[count];
+    for (int row = 0; row < count; row++) {
+      booleanValues[row] = in.get() != 0;
+    }
+
+    return new Configuration(keys, values, layers, validTypes, intValues, longValues, floatValues,
+        doubleValues, booleanValues);
+  }
+
+  // Rejects a damaged count before an array of that size is allocated
+  private static int checkedCount(ByteBuffer in) {
+    int count = in.getInt();
+    if (count < 0 || count > in.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    return count;
+  }
+
+  private static int indexOf(Map<String, Integer> strings, String string) {
+    Integer index = strings.get(string);
+    if (index == null) {
+      index = strings.size();
+      strings.put(string, index);
+    }
+    return index;
+  }
+
+  private static int[] readInts(ByteBuffer in, int count) {
+    int[] read = new int[count];
+    in.asIntBuffer().get(read);
+    in.position(in.position() + count * 4);
+    return read;
+  }
+
+  private static String[] lookUp(String[] strings, int[] indices) {
+    String[] found = new String[indices.length];
+    for (int i = 0; i < indices.length; i++) {
+      found[i] = strings[indices[i]];
+    }
+    return found;
+  }
+
+  // Finds the keys that were added, removed or given a different value since the given Configuration
+  Set<String> keysChangedFrom(Configuration previous) {
+    Set<String> changed = new HashSet<>();
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      if (!Objects.equals(entry.getValue(), previous.map.get(entry.getKey()))) {
+        changed.add(entry.getKey());
+      }
+    }
+    for (String key : previous.map.keySet()) {
+      if (!map.containsKey(key)) {
+        changed.add(key);
+      }
+    }
+    return changed;
   }
 
   @Override
@@ -185,29 +599,129 @@ public final class Configuration {
     return Objects.hash(map);
   }
 
-  private <T> void populateSchemaField(T schemaInstance, Field field)
-      throws IllegalAccessException {
+  // The binders of Schema fields pass the constants of their enum, which they look up only once
+  <E> E getEnum(String key, E[] constants, String typeName) {
+    String value = getString(key);
+    for (E constant : constants) {
+      if (((Enum<?>) constant).name().equalsIgnoreCase(value)) {
+        return constant;
+      }
+    }
+    throw new InvalidFormatError(key, value, typeName);
+  }
+
+  // Parses into the given array if it has the right length, so a reloaded Schema keeps its arrays
+  int[] getIntArray(String key, int[] reuse) {
+    String[] elements = split(getString(key));
+    int[] parsed = reuse != null && reuse.length == elements.length
+        ? reuse : new int[elements.length];
+    try {
+      for (int i = 0; i < elements.length; i++) {
+        parsed[i] = Integer.parseInt(elements[i]);
+      }
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, getString(key), "int[]");
+    }
+    return parsed;
+  }
+
+  double[] getDoubleArray(String key, double[] reuse) {
+    String[] elements = split(getString(key));
+    double[] parsed = reuse != null && reuse.length == elements.length
+        ? reuse : new double[elements.length];
+    try {
+      for (int i = 0; i < elements.length; i++) {
+        parsed[i] = Double.parseDouble(elements[i]);
+      }
+    } catch (NumberFormatException numberException) {
+      throw new InvalidFormatError(key, getString(key), "double[]");
+    }
+    return parsed;
+  }
+
+  private static String[] split(String value) {
+    String trimmed = value.trim();
+    if (trimmed.isEmpty()) {
+      return new String[0];
+    }
+    String[] elements = trimmed.split(",");
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = elements[i].trim();
+    }
+    return elements;
+  }
+
+  private int slotOf(String key) {
+    Integer slot = slots.get(key);
+    if (slot == null) {
+      throw new NoSuchFieldError(key);
+    }
+    return slot;
+  }
+
+  private void parse(int slot, String value) {
+    values[slot] = value;
+    byte valid = 0;
+
+    // The format is checked first, so that text values are not run through every number parser
+    if (isInteger(value)) {
+      try {
+        long parsed = Long.parseLong(value);
+        longValues[slot] = parsed;
+        valid |= LONG;
+        if (parsed == (int) parsed) {
+          intValues[slot] = (int) parsed;
+          valid |= INT;
+        }
+      } catch (NumberFormatException outOfRange) {
+        // Retrieving it as an int or a long fails with an InvalidFormatError
+      }
+    }
+    if (mayBeDecimal(value)) {
+      try {
+        doubleValues[slot] = Double.parseDouble(value);
+        valid |= DOUBLE;
+        // Floats share the grammar of doubles, so this cannot fail once the double has parsed
+        floatValues[slot] = Float.parseFloat(value);
+        valid |= FLOAT;
+      } catch (NumberFormatException notADecimal) {
+        // Retrieving it as a float or a double fails with an InvalidFormatError
+      }
+    }
+    if (value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false")) {
+      booleanValues[slot] = value.equalsIgnoreCase("true");
+      valid |= BOOLEAN;
+    }
 
-    String fieldName = field.getName();
-    String typeName = field.getType().getCanonicalName();
+    validTypes[slot] = valid;
+  }
 
-    switch (typeName) {
-      case "int":
-        field.setInt(schemaInstance, getInt(fieldName));
-        break;
-      case "double":
-        field.setDouble(schemaInstance, getDouble(fieldName));
-        break;
-      case "boolean":
-        field.setBoolean(schemaInstance, getBoolean(fieldName));
-        break;
-      case "java.lang.String":
-        field.set(schemaInstance, getString(fieldName));
-        break;
-      default:
-        throw new InvalidSchemaError(schemaInstance.getClass(),
-            new UnsupportedOperationException("Invalid type: " + typeName));
+  // The grammar of Long.parseLong, short of its range
+  private static boolean isInteger(String value) {
+    int start = !value.isEmpty() && (value.charAt(0) == '+' || value.charAt(0) == '-') ? 1 : 0;
+    if (start == value.length()) {
+      return false;
     }
+    for (int i = start; i < value.length(); i++) {
+      if (Character.digit(value.charAt(i), 10) < 0) {
+        return false;
+      }
+    }
+    return true;
   }
 
+  // Rules out most values that Double.parseDouble rejects: it skips surrounding whitespace, and
+  // every number, NaN and Infinity starts with a digit, a sign or a point
+  private static boolean mayBeDecimal(String value) {
+    int start = 0;
+    while (start < value.length() && value.charAt(start) <= ' ') {
+      start++;
+    }
+    if (start == value.length() || value.indexOf(',') >= 0) {
+      return false;
+    }
+    char first = value.charAt(start);
+    return (first >= '0' && first <= '9') || first == '+' || first == '-' || first == '.'
+        || first == 'N' || first == 'I';
+  }
 }
@@ -0,0 +1,171 @@
+package com.andoverrobotics.core.config;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Loads {@link Configuration}s from properties files through a binary snapshot of each, which is
+ * faster to load than the text. <p> The properties file stays the source of truth: its snapshot is
+ * kept next to it, under the same name with {@value #SUFFIX} appended, and records the modification
+ * time and length of the text from which it was generated. When either differs from the text's,
+ * or the snapshot is missing or damaged, the text is parsed and the snapshot generated again, so
+ * editing the text is all that is needed to change a value. <p> A snapshot holds a table of the
+ * distinct keys, values and layer names, followed by columns of each value as parsed into every
+ * type, one row per key in sorted order. It is read through a memory-mapped buffer, and the columns
+ * are copied into the Configuration in bulk, so loading it parses no text and no numbers.
+ *
+ * @see Configuration#fromPropertiesFile(String)
+ */
+public final class ConfigurationSnapshot {
+
+  /**
+   * The suffix appended to the name of a properties file to name its snapshot.
+   */
+  public static final String SUFFIX = ".snapshot";
+
+  private static final int MAGIC = 0x41524353; // "ARCS"
+  private static final int FORMAT_VERSION = 1;
+
+  private ConfigurationSnapshot() {
+  }
+
+  /**
+   * Loads the properties file with the given name from the standard directory for configuration
+   * file storage, through its snapshot.
+   *
+   * @param fileName Name of the properties file to be read
+   * @return The Configuration whose entries have been read from the given file, which belong to a
+   * layer named after the file
+   * @throws IOException If the properties file is missing, or must be parsed and cannot be read
+   */
+  public static Configuration fromPropertiesFile(String fileName) throws IOException {
+    return load(new File(Configuration.PROPERTIES_DIRECTORY, fileName));
+  }
+
+  /**
+   * Loads the given properties file through its snapshot, generating the snapshot if it is
+   * missing or older than the text. A snapshot that cannot be written is skipped, and tried again
+   * on the next load.
+   *
+   * @param propertiesFile The properties file to be read
+   * @return The Configuration whose entries have been read from the given file, which belong to a
+   * layer named after the file
+   * @throws IOException If the properties file is missing, or must be parsed and cannot be read
+   */
+  public static Configuration load(File propertiesFile) throws IOException {
+    if (!propertiesFile.isFile()) {
+      throw new FileNotFoundException(propertiesFile.getPath());
+    }
+    long modified = propertiesFile.lastModified();
+    long length = propertiesFile.length();
+    File snapshotFile = snapshotOf(propertiesFile);
+
+    Configuration cached = read(snapshotFile, modified, length);
+    if (cached != null) {
+      return cached;
+    }
+
+    Configuration parsed;
+    Reader text = new FileReader(propertiesFile);
+    try {
+      parsed = Configuration.fromProperties(text, propertiesFile.getName());
+    } finally {
+      text.close();
+    }
+
+    try {
+      write(parsed, snapshotFile, modified, length);
+    } catch (IOException unwritable) {
+      // The text was read, so only the speed of the next load is lost
+    }
+    return parsed;
+  }
+
+  /**
+   * @param propertiesFile A properties file
+   * @return The file in which the snapshot of the given properties file is kept
+   */
+  public static File snapshotOf(File propertiesFile) {
+    return new File(propertiesFile.getParentFile(), propertiesFile.getName() + SUFFIX);
+  }
+
+  /**
+   * Writes a snapshot of the given Configuration. The snapshot is written to a temporary file that
+   * then replaces the given one, so a snapshot is never read half written.
+   *
+   * @param configuration The Configuration to be written
+   * @param snapshotFile The file to be written
+   * @param sourceModified The modification time of the text from which the Configuration was read
+   * @param sourceLength The length of the text from which the Configuration was read
+   * @throws IOException If the snapshot cannot be written
+   */
+  static void write(Configuration configuration, File snapshotFile, long sourceModified,
+      long sourceLength) throws IOException {
+    File partial = new File(snapshotFile.getParentFile(), snapshotFile.getName() + ".tmp");
+    DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(partial)));
+    try {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeLong(sourceModified);
+      out.writeLong(sourceLength);
+      configuration.writeSnapshot(out);
+    } finally {
+      out.close();
+    }
+
+    if (!partial.renameTo(snapshotFile)) {
+      // Renaming over an existing file fails on some file systems
+      if (!snapshotFile.delete() || !partial.renameTo(snapshotFile)) {
+        partial.delete();
+        throw new IOException("Cannot replace " + snapshotFile);
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot, if it was generated from text with the given modification time and length.
+   *
+   * @param snapshotFile The file to be read
+   * @param sourceModified The modification time of the text
+   * @param sourceLength The length of the text
+   * @return The Configuration held by the snapshot, or null if the snapshot is missing, was
+   * generated from other text, or is damaged
+   */
+  static Configuration read(File snapshotFile, long sourceModified, long sourceLength) {
+    if (!snapshotFile.isFile()) {
+      return null;
+    }
+
+    try {
+      FileInputStream in = new FileInputStream(snapshotFile);
+      ByteBuffer buffer;
+      try {
+        FileChannel channel = in.getChannel();
+        buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+      } finally {
+        // The mapping stays valid after its channel is closed
+        in.close();
+      }
+
+      if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION
+          || buffer.getLong() != sourceModified || buffer.getLong() != sourceLength) {
+        return null;
+      }
+      return Configuration.readSnapshot(buffer);
+    } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException damaged) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,344 @@
+package com.andoverrobotics.core.config;
+
+import com.andoverrobotics.core.utilities.Sleeper;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A {@link Configuration} that follows a properties file as it is edited, so that tuning values
+ * can be changed without restarting the OpMode. <p> A daemon thread, started with {@link
+ * #start()}, polls the modification time and length of the file, and parses it again when either
+ * changes. Each parse produces a new immutable Configuration, which replaces the current one with
+ * a single reference write; {@link #get()} never blocks, and never returns a partially parsed
+ * file. A snapshot is rejected, and the previous one kept, if the file cannot be read, if it
+ * changed while it was being parsed, or if it cannot populate a bound Schema. <p> Schemas are
+ * refreshed in place through a {@link Binding}, which reloads its instance only when the snapshot
+ * has changed since its last load, so reading it every loop costs one volatile read and does not
+ * allocate memory. <p> Since changes are detected by modification time and length, an edit that
+ * keeps the length of the file within the resolution of its modification time may be missed until
+ * the next edit.
+ *
+ * @see Configuration#fromPropertiesFile(String)
+ */
+public class ReloadingConfiguration {
+
+  /**
+   * The default time, in milliseconds, between checks of the file.
+   */
+  public static final long DEFAULT_POLL_PERIOD_MILLIS = 500;
+
+  /**
+   * Receives the snapshots that replace the current Configuration.
+   */
+  public interface Listener {
+
+    /**
+     * Called on the thread that reloaded the file, after the snapshot has been replaced.
+     *
+     * @param snapshot The new Configuration
+     * @param changedKeys The keys that were added, removed or given a different value
+     */
+    void onReload(Configuration snapshot, Set<String> changedKeys);
+  }
+
+  /**
+   * A Schema instance that is loaded again whenever the Configuration is reloaded. A Binding is
+   * meant to be read from one thread, such as the control loop, since its instance is written by
+   * the thread that calls {@link #get()}.
+   *
+   * @param <T> The type of the Schema
+   */
+  public static final class Binding<T> {
+
+    private final ReloadingConfiguration source;
+    private final T schemaInstance;
+    private long loadedVersion;
+
+    private Binding(ReloadingConfiguration source, T schemaInstance, long loadedVersion) {
+      this.source = source;
+      this.schemaInstance = schemaInstance;
+      this.loadedVersion = loadedVersion;
+    }
+
+    /**
+     * Loads the latest snapshot into the Schema instance if it has not been loaded yet.
+     *
+     * @return The Schema instance, which is the same object on every call
+     */
+    public T get() {
+      Snapshot current = source.snapshot;
+      if (current.version != loadedVersion) {
+        current.configuration.loadToSchema(schemaInstance);
+        loadedVersion = current.version;
+      }
+      return schemaInstance;
+    }
+
+    /**
+     * @return Whether a snapshot newer than the one in the Schema instance is available
+     */
+    public boolean isStale() {
+      return source.snapshot.version != loadedVersion;
+    }
+  }
+
+  // The Configuration and its version are swapped together, so a reader never pairs one with the
+  // other's version
+  private static final class Snapshot {
+
+    final Configuration configuration;
+    final long version;
+
+    Snapshot(Configuration configuration, long version) {
+      this.configuration = configuration;
+      this.version = version;
+    }
+  }
+
+  private final File file;
+  private final long pollPeriodMillis;
+  private final Sleeper sleeper;
+
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final List<Class<?>> boundSchemas = new CopyOnWriteArrayList<>();
+
+  private volatile Snapshot snapshot;
+  private volatile Exception failure;
+  private volatile long reloadCount;
+
+  // Only touched by the thread that polls
+  private long loadedModified;
+  private long loadedLength;
+
+  private Thread thread;
+
+  /**
+   * Creates a ReloadingConfiguration that follows the file with the given name in the standard
+   * directory for configuration file storage.
+   *
+   * @param fileName Name of the file to be followed
+   * @return The new ReloadingConfiguration, which has not been started
+   * @throws IOException If the file with the given name cannot be read
+   */
+  public static ReloadingConfiguration fromPropertiesFile(String fileName) throws IOException {
+    return new ReloadingConfiguration(new File(Configuration.PROPERTIES_DIRECTORY, fileName),
+        DEFAULT_POLL_PERIOD_MILLIS, Sleeper.SYSTEM);
+  }
+
+  /**
+   * Creates a ReloadingConfiguration that follows the given properties file, and reads it for the
+   * first time.
+   *
+   * @param file The file to be followed
+   * @param pollPeriodMillis The time, in milliseconds, between checks of the file
+   * @param sleeper The sleeper with which the polling thread waits between checks
+   * @throws IOException If the file cannot be read
+   */
+  public ReloadingConfiguration(File file, long pollPeriodMillis, Sleeper sleeper)
+      throws IOException {
+    if (pollPeriodMillis <= 0) {
+      throw new IllegalArgumentException("The poll period must be positive");
+    }
+    this.file = file;
+    this.pollPeriodMillis = pollPeriodMillis;
+    this.sleeper = sleeper;
+
+    loadedModified = file.lastModified();
+    loadedLength = file.length();
+    snapshot = new Snapshot(read(), 0);
+  }
+
+  /**
+   * @return The current snapshot, which never changes once returned
+   */
+  public Configuration get() {
+    return snapshot.configuration;
+  }
+
+  /**
+   * Loads the current snapshot into the given Schema instance, and binds the instance so that it
+   * follows later snapshots. Snapshots that cannot populate the Schema are rejected from then on.
+   *
+   * @param schemaInstance Configuration Schema instance into which the entries are loaded
+   * @param <T> Type of the given Schema instance
+   * @return The Binding through which the instance is read
+   * @throws InvalidSchemaError if the type of the given Schema instance is not suitable for loading
+   */
+  public <T> Binding<T> bind(T schemaInstance) {
+    // Held so that no snapshot is swapped in without being checked against this Schema
+    synchronized (boundSchemas) {
+      Snapshot current = snapshot;
+      current.configuration.loadToSchema(schemaInstance);
+      boundSchemas.add(schemaInstance.getClass());
+      return new Binding<>(this, schemaInstance, current.version);
+    }
+  }
+
+  /**
+   * Registers a listener for the snapshots that replace the current Configuration.
+   *
+   * @param listener The listener to add
+   */
+  public void addListener(Listener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * @param listener The listener to remove
+   */
+  public void removeListener(Listener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Starts the thread that polls the file. Calling this while the thread runs has no effect.
+   */
+  public synchronized void start() {
+    if (thread != null) {
+      return;
+    }
+    thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        pollLoop();
+      }
+    }, "ReloadingConfiguration-" + file.getName());
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MIN_PRIORITY);
+    thread.start();
+  }
+
+  /**
+   * Stops the thread that polls the file, and waits for it to end.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public void stop() throws InterruptedException {
+    Thread stopped;
+    synchronized (this) {
+      stopped = thread;
+      thread = null;
+    }
+
+    if (stopped != null) {
+      stopped.interrupt();
+      stopped.join();
+    }
+  }
+
+  /**
+   * Checks the file once, and reloads it if it has changed. The polling thread calls this
+   * repeatedly; it may also be called directly when the thread is not running, but not while it
+   * is.
+   *
+   * @return Whether a new snapshot replaced the current one
+   */
+  public boolean poll() {
+    long modified = file.lastModified();
+    long length = file.length();
+    if (modified == loadedModified && length == loadedLength) {
+      return false;
+    }
+
+    Configuration parsed;
+    try {
+      parsed = read();
+    } catch (IOException unreadable) {
+      return reject(unreadable, modified, length);
+    }
+    // A file that changed while it was read may have been parsed half-written
+    if (file.lastModified() != modified || file.length() != length) {
+      return false;
+    }
+
+    Snapshot previous;
+    synchronized (boundSchemas) {
+      try {
+        for (Class<?> schemaClass : boundSchemas) {
+          SchemaBinder.of(schemaClass).check(parsed);
+        }
+      } catch (InvalidFormatError invalid) {
+        return reject(invalid, modified, length);
+      } catch (NoSuchFieldError missing) {
+        return reject(new IllegalStateException("Missing key: " + missing.getMessage()),
+            modified, length);
+      }
+
+      loadedModified = modified;
+      loadedLength = length;
+      failure = null;
+
+      previous = snapshot;
+      if (parsed.equals(previous.configuration)) {
+        return false;
+      }
+      snapshot = new Snapshot(parsed, previous.version + 1);
+      reloadCount++;
+    }
+
+    Set<String> changedKeys = parsed.keysChangedFrom(previous.configuration);
+    for (Listener listener : listeners) {
+      listener.onReload(parsed, changedKeys);
+    }
+    return true;
+  }
+
+  // Keeps the current snapshot, and skips this version of the file until it changes again
+  private boolean reject(Exception cause, long modified, long length) {
+    failure = cause;
+    loadedModified = modified;
+    loadedLength = length;
+    return false;
+  }
+
+  /**
+   * @return The number of snapshots that have replaced the first one
+   */
+  public long getReloadCount() {
+    return reloadCount;
+  }
+
+  /**
+   * @return Why the latest change to the file was rejected, or why a listener failed, or null if
+   * the latest change was accepted
+   */
+  public Exception getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return Whether the polling thread is running
+   */
+  public synchronized boolean isRunning() {
+    return thread != null;
+  }
+
+  private void pollLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        poll();
+      } catch (RuntimeException listenerFailure) {
+        failure = listenerFailure;
+      }
+      try {
+        sleeper.sleep(pollPeriodMillis);
+      } catch (InterruptedException interruption) {
+        return;
+      }
+    }
+  }
+
+  private Configuration read() throws IOException {
+    Reader reader = new FileReader(file);
+    try {
+      return Configuration.fromProperties(reader);
+    } finally {
+      reader.close();
+    }
+  }
+}
@@ -0,0 +1,300 @@
+package com.andoverrobotics.core.config;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The compiled form of a Configuration Schema class: one binder per declared field, each of which
+ * already knows the type of its field, so that {@link Configuration#loadToSchema} neither walks
+ * the class nor inspects type names after the first load of each class. <p> Binders are cached
+ * for the lifetime of the class loader, and are immutable, so they are shared between threads.
+ */
+final class SchemaBinder {
+
+  private static final ConcurrentMap<Class<?>, SchemaBinder> binders =
+      new ConcurrentHashMap<>();
+
+  private final FieldBinder[] fieldBinders;
+
+  private SchemaBinder(FieldBinder[] fieldBinders) {
+    this.fieldBinders = fieldBinders;
+  }
+
+  /**
+   * Retrieves the binder of the given Schema class, compiling it on the first call.
+   *
+   * @param schemaClass The Schema class
+   * @return The binder of the class
+   * @throws InvalidSchemaError if a field of the class is declared in an unsupported type
+   */
+  static SchemaBinder of(Class<?> schemaClass) {
+    SchemaBinder binder = binders.get(schemaClass);
+    if (binder == null) {
+      binder = compile(schemaClass);
+      SchemaBinder existing = binders.putIfAbsent(schemaClass, binder);
+      if (existing != null) {
+        binder = existing;
+      }
+    }
+    return binder;
+  }
+
+  /**
+   * Populates every field of the given Schema instance from the given Configuration.
+   *
+   * @param configuration The Configuration from which the values are read
+   * @param schemaInstance The instance whose fields are populated
+   * @throws IllegalAccessException if a field cannot be written, such as when it is final
+   */
+  void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+    for (FieldBinder fieldBinder : fieldBinders) {
+      fieldBinder.bind(configuration, schemaInstance);
+    }
+  }
+
+  /**
+   * Checks that every field of the Schema can be populated from the given Configuration, without
+   * populating any.
+   *
+   * @param configuration The Configuration to check
+   * @throws InvalidFormatError if a value cannot be parsed into the type of its field
+   * @throws NoSuchFieldError if the value of a field is missing
+   */
+  void check(Configuration configuration) {
+    for (FieldBinder fieldBinder : fieldBinders) {
+      fieldBinder.check(configuration);
+    }
+  }
+
+  private static SchemaBinder compile(Class<?> schemaClass) {
+    Field[] fields = schemaClass.getDeclaredFields();
+    FieldBinder[] fieldBinders = new FieldBinder[fields.length];
+
+    for (int i = 0; i < fields.length; i++) {
+      Field field = fields[i];
+      Class<?> type = field.getType();
+
+      if (type == int.class) {
+        fieldBinders[i] = new IntBinder(field);
+      } else if (type == long.class) {
+        fieldBinders[i] = new LongBinder(field);
+      } else if (type == float.class) {
+        fieldBinders[i] = new FloatBinder(field);
+      } else if (type == double.class) {
+        fieldBinders[i] = new DoubleBinder(field);
+      } else if (type == boolean.class) {
+        fieldBinders[i] = new BooleanBinder(field);
+      } else if (type == String.class) {
+        fieldBinders[i] = new StringBinder(field);
+      } else if (type.isEnum()) {
+        fieldBinders[i] = new EnumBinder(field);
+      } else if (type == int[].class) {
+        fieldBinders[i] = new IntArrayBinder(field);
+      } else if (type == double[].class) {
+        fieldBinders[i] = new DoubleArrayBinder(field);
+      } else if (type == String[].class) {
+        fieldBinders[i] = new StringArrayBinder(field);
+      } else {
+        throw new InvalidSchemaError(schemaClass,
+            new UnsupportedOperationException("Invalid type: " + type.getCanonicalName()));
+      }
+    }
+    return new SchemaBinder(fieldBinders);
+  }
+
+  // The Field objects are kept, rather than fetched again, so that their access checks are cached
+  private abstract static class FieldBinder {
+
+    final Field field;
+    final String key;
+
+    FieldBinder(Field field) {
+      this.field = field;
+      this.key = field.getName();
+    }
+
+    abstract void bind(Configuration configuration, Object schemaInstance)
+        throws IllegalAccessException;
+
+    abstract void check(Configuration configuration);
+  }
+
+  private static final class IntBinder extends FieldBinder {
+
+    IntBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getInt(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.setInt(schemaInstance, configuration.getInt(key));
+    }
+  }
+
+  private static final class LongBinder extends FieldBinder {
+
+    LongBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getLong(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.setLong(schemaInstance, configuration.getLong(key));
+    }
+  }
+
+  private static final class FloatBinder extends FieldBinder {
+
+    FloatBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getFloat(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.setFloat(schemaInstance, configuration.getFloat(key));
+    }
+  }
+
+  private static final class DoubleBinder extends FieldBinder {
+
+    DoubleBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getDouble(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.setDouble(schemaInstance, configuration.getDouble(key));
+    }
+  }
+
+  private static final class BooleanBinder extends FieldBinder {
+
+    BooleanBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getBoolean(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.setBoolean(schemaInstance, configuration.getBoolean(key));
+    }
+  }
+
+  private static final class StringBinder extends FieldBinder {
+
+    StringBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getString(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.set(schemaInstance, configuration.getString(key));
+    }
+  }
+
+  private static final class EnumBinder extends FieldBinder {
+
+    private final Object[] constants;
+    private final String typeName;
+
+    EnumBinder(Field field) {
+      super(field);
+      constants = field.getType().getEnumConstants();
+      typeName = field.getType().getSimpleName();
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getEnum(key, constants, typeName);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.set(schemaInstance, configuration.getEnum(key, constants, typeName));
+    }
+  }
+
+  // The array binders parse into the field's current array when its length still fits
+  private static final class IntArrayBinder extends FieldBinder {
+
+    IntArrayBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getIntArray(key, null);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.set(schemaInstance,
+          configuration.getIntArray(key, (int[]) field.get(schemaInstance)));
+    }
+  }
+
+  private static final class DoubleArrayBinder extends FieldBinder {
+
+    DoubleArrayBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getDoubleArray(key, null);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.set(schemaInstance,
+          configuration.getDoubleArray(key, (double[]) field.get(schemaInstance)));
+    }
+  }
+
+  private static final class StringArrayBinder extends FieldBinder {
+
+    StringArrayBinder(Field field) {
+      super(field);
+    }
+
+    @Override
+    void check(Configuration configuration) {
+      configuration.getStringArray(key);
+    }
+
+    @Override
+    void bind(Configuration configuration, Object schemaInstance) throws IllegalAccessException {
+      field.set(schemaInstance, configuration.getStringArray(key));
+    }
+  }
+}
@@ -0,0 +1,349 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.Sleeper;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@link Feedforward} of a drivetrain by driving it with known powers and recording
+ * how its encoders respond. <p> {@link #run()} drives straight through {@link
+ * DriveTrain#setMovementPower(double)}, in four phases: a quasi-static test that ramps the power
+ * slowly, forwards and then backwards, so that acceleration is negligible and the powers reveal
+ * kStatic and kV; and a step test that applies a constant power at once, forwards and then
+ * backwards, so that the acceleration reveals kA. The robot needs room to drive in both
+ * directions; the backward phases bring it roughly back to where it started. <p> Every sample is
+ * recorded into arrays that are allocated when the Characterization is created, so sampling does
+ * not allocate memory. Velocities and accelerations are derived from the positions by central
+ * differences, and samples in which the drivetrain is at rest are left out of the fit, since
+ * static friction does not follow the model. <p> The drivetrain's time source is used, so a
+ * simulated drivetrain is characterized in simulated time.
+ */
+public class Characterization {
+
+  /**
+   * The default rate, in power per second, at which the quasi-static test ramps the power.
+   */
+  public static final double DEFAULT_RAMP_RATE = 0.1;
+
+  /**
+   * The default power at which the quasi-static test ends.
+   */
+  public static final double DEFAULT_RAMP_POWER = 0.5;
+
+  /**
+   * The default power of the step test.
+   */
+  public static final double DEFAULT_STEP_POWER = 0.6;
+
+  /**
+   * The default duration, in milliseconds, of each step test.
+   */
+  public static final long DEFAULT_STEP_MILLIS = 1500;
+
+  /**
+   * The default time, in milliseconds, between samples.
+   */
+  public static final long DEFAULT_SAMPLE_PERIOD_MILLIS = 10;
+
+  /**
+   * The default number of samples that the buffers hold.
+   */
+  public static final int DEFAULT_CAPACITY = 4096;
+
+  /**
+   * The time, in milliseconds, that the drivetrain rests between phases.
+   */
+  public static final long REST_MILLIS = 1000;
+
+  // The time over which velocities and accelerations are differenced
+  private static final long DERIVATIVE_SPAN_MILLIS = 30;
+
+  // Samples slower than this fraction of the fastest one count as being at rest
+  private static final double REST_SPEED_FRACTION = 0.02;
+
+  private static final int QUASI_STATIC_FORWARDS = 0, QUASI_STATIC_BACKWARDS = 1,
+      STEP_FORWARDS = 2, STEP_BACKWARDS = 3;
+
+  private final DriveTrain driveTrain;
+  private final Clock clock;
+  private final Sleeper sleeper;
+
+  private final long[] times;
+  private final double[] powers;
+  private final double[] positions;
+  private final byte[] phases;
+  private int sampleCount;
+
+  private final double[] fitVelocities;
+  private final double[] fitAccelerations;
+  private final double[] fitPowers;
+  private int fitCount;
+
+  private double rampRate = DEFAULT_RAMP_RATE;
+  private double rampPower = DEFAULT_RAMP_POWER;
+  private double stepPower = DEFAULT_STEP_POWER;
+  private long stepMillis = DEFAULT_STEP_MILLIS;
+  private long samplePeriodMillis = DEFAULT_SAMPLE_PERIOD_MILLIS;
+
+  private Feedforward result;
+  private double rSquared = Double.NaN;
+
+  /**
+   * Creates a Characterization of the given drivetrain with buffers of the default capacity.
+   *
+   * @param driveTrain The drivetrain to characterize
+   */
+  public Characterization(DriveTrain driveTrain) {
+    this(driveTrain, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates a Characterization of the given drivetrain.
+   *
+   * @param driveTrain The drivetrain to characterize
+   * @param capacity The number of samples that the buffers hold; sampling ends early once they are
+   * full
+   */
+  public Characterization(DriveTrain driveTrain, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("The capacity must be positive");
+    }
+    this.driveTrain = driveTrain;
+    this.clock = driveTrain.getClock();
+    this.sleeper = driveTrain.getSleeper();
+
+    times = new long[capacity];
+    powers = new double[capacity];
+    positions = new double[capacity];
+    phases = new byte[capacity];
+    fitVelocities = new double[capacity];
+    fitAccelerations = new double[capacity];
+    fitPowers = new double[capacity];
+  }
+
+  /**
+   * Sets how the quasi-static test ramps the power.
+   *
+   * @param rampRate The rate, in power per second, at which the power rises
+   * @param rampPower The power at which the test ends, between 0 and 1
+   */
+  public void setQuasiStatic(double rampRate, double rampPower) {
+    if (!(rampRate > 0) || !(rampPower > 0) || rampPower > 1) {
+      throw new IllegalArgumentException("The ramp rate and power must be positive");
+    }
+    this.rampRate = rampRate;
+    this.rampPower = rampPower;
+  }
+
+  /**
+   * Sets the power and duration of the step test.
+   *
+   * @param stepPower The power of the step, between 0 and 1
+   * @param stepMillis The duration, in milliseconds, of each step
+   */
+  public void setStep(double stepPower, long stepMillis) {
+    if (!(stepPower > 0) || stepPower > 1 || stepMillis <= 0) {
+      throw new IllegalArgumentException("The step power and duration must be positive");
+    }
+    this.stepPower = stepPower;
+    this.stepMillis = stepMillis;
+  }
+
+  /**
+   * Sets the time between samples.
+   *
+   * @param samplePeriodMillis The period, in milliseconds
+   */
+  public void setSamplePeriod(long samplePeriodMillis) {
+    if (samplePeriodMillis <= 0) {
+      throw new IllegalArgumentException("The sample period must be positive");
+    }
+    this.samplePeriodMillis = samplePeriodMillis;
+  }
+
+  /**
+   * Runs every test, then fits the feedforward to the samples. The drivetrain is stopped and put
+   * back into {@link RunMode#RUN_USING_ENCODER} when the tests end, for any reason.
+   *
+   * @return The fitted feedforward
+   * @throws InterruptedException if the thread is interrupted, or if the OpMode stops, before the
+   * tests end
+   * @throws IllegalArgumentException if the samples cannot determine the feedforward, such as when
+   * the drivetrain did not move
+   */
+  public Feedforward run() throws InterruptedException {
+    sampleCount = 0;
+    long rampMillis = (long) (rampPower / rampRate * 1000);
+
+    try {
+      runPhase(QUASI_STATIC_FORWARDS, rampMillis);
+      rest();
+      runPhase(QUASI_STATIC_BACKWARDS, rampMillis);
+      rest();
+      runPhase(STEP_FORWARDS, stepMillis);
+      rest();
+      runPhase(STEP_BACKWARDS, stepMillis);
+    } finally {
+      driveTrain.stop();
+      driveTrain.setMotorMode(RunMode.RUN_USING_ENCODER);
+    }
+
+    return fit();
+  }
+
+  /**
+   * @return The feedforward fitted by the last run, or null if none has completed
+   */
+  public Feedforward getResult() {
+    return result;
+  }
+
+  /**
+   * @return The fraction of the variance of the powers that the fitted feedforward explains, from
+   * 0 to 1, or NaN if no run has completed
+   */
+  public double getRSquared() {
+    return rSquared;
+  }
+
+  /**
+   * @return The number of samples recorded by the last run
+   */
+  public int getSampleCount() {
+    return sampleCount;
+  }
+
+  /**
+   * @return The number of samples, excluding those at rest, to which the feedforward was fitted
+   */
+  public int getFitCount() {
+    return fitCount;
+  }
+
+  private void runPhase(int phase, long durationMillis) throws InterruptedException {
+    long startNanos = clock.nanoTime();
+    long durationNanos = TimeUnit.MILLISECONDS.toNanos(durationMillis);
+
+    while (sampleCount < times.length) {
+      checkActive();
+      long elapsedNanos = clock.nanoTime() - startNanos;
+      if (elapsedNanos > durationNanos) {
+        break;
+      }
+
+      double power = powerAt(phase, elapsedNanos / 1e9);
+      driveTrain.setMovementPower(power);
+
+      times[sampleCount] = clock.nanoTime();
+      powers[sampleCount] = power;
+      positions[sampleCount] = averagePosition();
+      phases[sampleCount] = (byte) phase;
+      sampleCount++;
+
+      sleeper.sleep(samplePeriodMillis);
+    }
+    driveTrain.stop();
+  }
+
+  private double powerAt(int phase, double elapsedSeconds) {
+    switch (phase) {
+      case QUASI_STATIC_FORWARDS:
+        return Math.min(rampPower, rampRate * elapsedSeconds);
+      case QUASI_STATIC_BACKWARDS:
+        return -Math.min(rampPower, rampRate * elapsedSeconds);
+      case STEP_FORWARDS:
+        return stepPower;
+      default:
+        return -stepPower;
+    }
+  }
+
+  private void rest() throws InterruptedException {
+    long endNanos = clock.nanoTime() + TimeUnit.MILLISECONDS.toNanos(REST_MILLIS);
+    while (clock.nanoTime() - endNanos < 0) {
+      checkActive();
+      sleeper.sleep(samplePeriodMillis);
+    }
+  }
+
+  private void checkActive() throws InterruptedException {
+    if (Thread.interrupted() || !driveTrain.opModeIsActive()) {
+      throw new InterruptedException("The characterization was stopped");
+    }
+  }
+
+  private double averagePosition() {
+    IMotor[] motors = driveTrain.getMotors();
+    double sum = 0;
+    for (IMotor motor : motors) {
+      sum += motor.getCurrentPosition();
+    }
+    return sum / motors.length;
+  }
+
+  // The velocity of sample i is the slope of the positions from i - span to i + span, and its
+  // acceleration the slope of the velocities over the same distance, so each fitted sample needs
+  // 2 * span neighbours on each side in the same phase. Differences over several samples keep the
+  // quantization of the encoders from swamping the accelerations, which would bias kA towards 0.
+  // The power in effect over a velocity's span is the mean of the powers applied within it.
+  private Feedforward fit() {
+    int span = (int) Math.max(1, Math.round(DERIVATIVE_SPAN_MILLIS / (double) samplePeriodMillis));
+
+    double maxSpeed = 0;
+    for (int i = span; i + span < sampleCount; i++) {
+      if (phases[i - span] == phases[i + span]) {
+        maxSpeed = Math.max(maxSpeed, Math.abs(velocityAt(i, span)));
+      }
+    }
+
+    fitCount = 0;
+    for (int i = 2 * span; i + 2 * span < sampleCount; i++) {
+      if (phases[i - 2 * span] != phases[i + 2 * span]) {
+        continue;
+      }
+      double velocity = velocityAt(i, span);
+      if (Math.abs(velocity) <= REST_SPEED_FRACTION * maxSpeed) {
+        continue;
+      }
+
+      double powerSum = 0;
+      for (int j = i - span; j < i + span; j++) {
+        powerSum += powers[j];
+      }
+
+      fitVelocities[fitCount] = velocity;
+      fitAccelerations[fitCount] = (velocityAt(i + span, span) - velocityAt(i - span, span))
+          / ((times[i + span] - times[i - span]) / 1e9);
+      fitPowers[fitCount] = powerSum / (2 * span);
+      fitCount++;
+    }
+
+    Feedforward fitted = Feedforward.fit(fitVelocities, fitAccelerations, fitPowers, fitCount);
+    rSquared = rSquared(fitted);
+    result = fitted;
+    return fitted;
+  }
+
+  private double velocityAt(int i, int span) {
+    return (positions[i + span] - positions[i - span])
+        / ((times[i + span] - times[i - span]) / 1e9);
+  }
+
+  private double rSquared(Feedforward fitted) {
+    double mean = 0;
+    for (int i = 0; i < fitCount; i++) {
+      mean += fitPowers[i];
+    }
+    mean /= fitCount;
+
+    double residual = 0, total = 0;
+    for (int i = 0; i < fitCount; i++) {
+      double error = fitPowers[i] - fitted.calculate(fitVelocities[i], fitAccelerations[i]);
+      residual += error * error;
+      total += (fitPowers[i] - mean) * (fitPowers[i] - mean);
+    }
+    return total == 0 ? Double.NaN : 1 - residual / total;
+  }
+}
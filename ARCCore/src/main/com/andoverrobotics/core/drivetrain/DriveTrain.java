@@ -1,11 +1,18 @@
 package com.andoverrobotics.core.drivetrain;
 
 
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Histogram;
 import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.ModeTransition;
+import com.andoverrobotics.core.utilities.Sleeper;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
 import com.qualcomm.robotcore.util.Range;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Defines the interface for an ordinary DriveTrain object with support for a default motor power.
@@ -15,6 +22,17 @@ public abstract class DriveTrain {
   protected final OpMode opMode;
   protected double defaultPower;
 
+  private final MotionProfileCache profileCache = new MotionProfileCache();
+  private MotionConstraints motionConstraints;
+  private Feedforward feedforward;
+  private double positionGain;
+  private MoveWatchdog watchdog;
+  private Clock clock = Clock.SYSTEM;
+  private Sleeper sleeper = Sleeper.SYSTEM;
+  private final Histogram modeTransitionLatency = new Histogram();
+  private final AtomicReference<ModeTransition> pendingTransition = new AtomicReference<>();
+  private final AtomicLong abandonedTransitions = new AtomicLong();
+
   protected DriveTrain(OpMode opMode) {
     this.opMode = opMode;
   }
@@ -37,6 +55,83 @@ public abstract class DriveTrain {
     return defaultPower;
   }
 
+  /**
+   * Makes encoder moves follow {@link MotionProfile}s within the given constraints, instead of
+   * running to position at a fixed power. The power of each move is then the greatest power that
+   * the profile may use.
+   *
+   * @param constraints The limits of the profiles, in ticks of the drivetrain's motors
+   * @param velocityGain The power per tick per second of profile velocity
+   * @param positionGain The power per tick of position error
+   * @see ProfileFollower
+   */
+  public final void setMotionConstraints(MotionConstraints constraints, double velocityGain,
+      double positionGain) {
+    setMotionConstraints(constraints, new Feedforward(0, velocityGain, 0), positionGain);
+  }
+
+  /**
+   * Makes encoder moves follow {@link MotionProfile}s within the given constraints, driving the
+   * motors with the given feedforward, such as one measured by a {@link Characterization}.
+   *
+   * @param constraints The limits of the profiles, in ticks of the drivetrain's motors
+   * @param feedforward The model of the power that follows the profile's velocity and acceleration
+   * @param positionGain The power per tick of position error
+   */
+  public final void setMotionConstraints(MotionConstraints constraints, Feedforward feedforward,
+      double positionGain) {
+    this.motionConstraints = constraints;
+    this.feedforward = feedforward;
+    this.positionGain = positionGain;
+  }
+
+  /**
+   * Makes encoder moves run to position at a fixed power, which is the default.
+   */
+  public final void clearMotionConstraints() {
+    motionConstraints = null;
+  }
+
+  /**
+   * Gets the cache of the profiles used by encoder moves.
+   *
+   * @return The profile cache
+   */
+  public final MotionProfileCache getProfileCache() {
+    return profileCache;
+  }
+
+  /**
+   * Makes encoder moves end with {@link MotionHandle.Status#STALLED} or {@link
+   * MotionHandle.Status#TIMED_OUT} when the given watchdog finds them stuck, instead of running
+   * until the OpMode stops.
+   *
+   * @param watchdog The watchdog of every encoder move started after this call
+   */
+  public final void setMoveWatchdog(MoveWatchdog watchdog) {
+    this.watchdog = watchdog;
+  }
+
+  /**
+   * Makes encoder moves run until their motors arrive, which is the default.
+   */
+  public final void clearMoveWatchdog() {
+    watchdog = null;
+  }
+
+  /**
+   * Replaces the wall clock that encoder moves are timed and awaited with, which is the default.
+   * A simulation passes its own clock and sleeper, so that awaiting a move advances the simulation
+   * instead of blocking, and so that the profiles are followed in simulated time.
+   *
+   * @param clock The clock that profiles and timeouts are measured with
+   * @param sleeper The sleeper that waits between the checks of a move
+   */
+  public final void setTimeSource(Clock clock, Sleeper sleeper) {
+    this.clock = clock;
+    this.sleeper = sleeper;
+  }
+
   // -- Autonomous Methods --
 
   /**
@@ -54,7 +149,30 @@ public abstract class DriveTrain {
    * @param distanceInInches The distance to travel, in inches
    * @param power The power to drive at, between 0 and 1, inclusive
    */
-  public abstract void driveForwards(double distanceInInches, double power);
+  public final void driveForwards(double distanceInInches, double power) {
+    driveForwardsAsync(distanceInInches, power).awaitUninterruptibly();
+  }
+
+  /**
+   * Starts driving forwards a specific distance at the default power, without waiting for the move
+   * to end.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @return The handle of the started move
+   */
+  public final MotionHandle driveForwardsAsync(double distanceInInches) {
+    return driveForwardsAsync(distanceInInches, defaultPower);
+  }
+
+  /**
+   * Starts driving forwards a specific distance at a specific power, without waiting for the move
+   * to end.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @param power The power to drive at, between 0 and 1, inclusive
+   * @return The handle of the started move
+   */
+  public abstract MotionHandle driveForwardsAsync(double distanceInInches, double power);
 
   /**
    * Drives backwards a specific distance at the default power.
@@ -71,7 +189,30 @@ public abstract class DriveTrain {
    * @param distanceInInches The distance to travel, in inches
    * @param power The power to drive at, between 0 and 1, inclusive
    */
-  public abstract void driveBackwards(double distanceInInches, double power);
+  public final void driveBackwards(double distanceInInches, double power) {
+    driveBackwardsAsync(distanceInInches, power).awaitUninterruptibly();
+  }
+
+  /**
+   * Starts driving backwards a specific distance at the default power, without waiting for the
+   * move to end.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @return The handle of the started move
+   */
+  public final MotionHandle driveBackwardsAsync(double distanceInInches) {
+    return driveBackwardsAsync(distanceInInches, defaultPower);
+  }
+
+  /**
+   * Starts driving backwards a specific distance at a specific power, without waiting for the move
+   * to end.
+   *
+   * @param distanceInInches The distance to travel, in inches
+   * @param power The power to drive at, between 0 and 1, inclusive
+   * @return The handle of the started move
+   */
+  public abstract MotionHandle driveBackwardsAsync(double distanceInInches, double power);
 
   /**
    * Rotates clockwise a specific amount, at the default power.
@@ -88,7 +229,30 @@ public abstract class DriveTrain {
    * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
    * @param power The power to rotate at, between 0 and 1, inclusive
    */
-  public abstract void rotateClockwise(int degrees, double power);
+  public final void rotateClockwise(int degrees, double power) {
+    rotateClockwiseAsync(degrees, power).awaitUninterruptibly();
+  }
+
+  /**
+   * Starts rotating clockwise a specific amount at the default power, without waiting for the
+   * rotation to end.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @return The handle of the started rotation
+   */
+  public final MotionHandle rotateClockwiseAsync(int degrees) {
+    return rotateClockwiseAsync(degrees, defaultPower);
+  }
+
+  /**
+   * Starts rotating clockwise a specific amount at a specified power, without waiting for the
+   * rotation to end.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @param power The power to rotate at, between 0 and 1, inclusive
+   * @return The handle of the started rotation
+   */
+  public abstract MotionHandle rotateClockwiseAsync(int degrees, double power);
 
   /**
    * Rotates counterclockwise a specific amount, at the default power.
@@ -105,7 +269,30 @@ public abstract class DriveTrain {
    * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
    * @param power The power to rotate at, between 0 and 1, inclusive
    */
-  public abstract void rotateCounterClockwise(int degrees, double power);
+  public final void rotateCounterClockwise(int degrees, double power) {
+    rotateCounterClockwiseAsync(degrees, power).awaitUninterruptibly();
+  }
+
+  /**
+   * Starts rotating counterclockwise a specific amount at the default power, without waiting for
+   * the rotation to end.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @return The handle of the started rotation
+   */
+  public final MotionHandle rotateCounterClockwiseAsync(int degrees) {
+    return rotateCounterClockwiseAsync(degrees, defaultPower);
+  }
+
+  /**
+   * Starts rotating counterclockwise a specific amount at a specified power, without waiting for
+   * the rotation to end.
+   *
+   * @param degrees The amount to rotate (in degrees), between 0 and 360, inclusive
+   * @param power The power to rotate at, between 0 and 1, inclusive
+   * @return The handle of the started rotation
+   */
+  public abstract MotionHandle rotateCounterClockwiseAsync(int degrees, double power);
 
   // -- Teleop Methods --
 
@@ -152,15 +339,148 @@ public abstract class DriveTrain {
 
 
   public void setMotorMode(RunMode mode) {
+    awaitPendingTransition();
     for (IMotor motor : getMotors()) {
       motor.setMode(mode);
     }
   }
 
+  /**
+   * Starts changing the mode of every motor at once, without waiting for the writes. The motors
+   * must not be given other commands until the returned transition is done; the next mode change
+   * or encoder move of this drivetrain waits for it first, for at most {@link
+   * MotionHandle#MODE_TRANSITION_TIMEOUT_MILLIS}.
+   *
+   * @param mode The new mode
+   * @return The transition, which completes when every motor has confirmed the new mode
+   */
+  public final ModeTransition setMotorModeAsync(RunMode mode) {
+    awaitPendingTransition();
+    ModeTransition transition = ModeTransition.start(getMotors(), mode, clock, sleeper,
+        modeTransitionLatency);
+    pendingTransition.set(transition);
+    return transition;
+  }
+
+  /**
+   * Starts resetting the encoder of every motor at once, without waiting for the writes.
+   *
+   * @return The transition, which completes when the position of every motor reads zero
+   */
+  public final ModeTransition resetEncodersAsync() {
+    return setMotorModeAsync(RunMode.STOP_AND_RESET_ENCODER);
+  }
+
+  /**
+   * Gets the number of mode transitions that the next mode change or encoder move of this
+   * drivetrain stopped waiting for, because a motor had not confirmed the new mode within {@link
+   * MotionHandle#MODE_TRANSITION_TIMEOUT_MILLIS}.
+   *
+   * @return The number of transitions that were given up on
+   */
+  public final long getAbandonedTransitionCount() {
+    return abandonedTransitions.get();
+  }
+
+  /**
+   * Gets the latencies, in nanoseconds, of the mode transitions of this drivetrain, including
+   * those that end its encoder moves.
+   *
+   * @return The histogram of the transition latencies
+   */
+  public final Histogram getModeTransitionLatency() {
+    return modeTransitionLatency;
+  }
+
   // -- Internal methods
 
   protected abstract IMotor[] getMotors();
 
+  /**
+   * Starts moving each motor by its tick offset. Without motion constraints, each motor runs to
+   * position at its power; otherwise the motors follow one profile, scaled to each offset, at up to
+   * the greatest of the powers.
+   *
+   * @param motors The motors to move
+   * @param tickOffsets The number of ticks that each motor travels
+   * @param powers The power of each motor, between 0 and 1, inclusive
+   * @return The handle of the started move
+   */
+  protected final MotionHandle startEncoderMove(IMotor[] motors, int[] tickOffsets,
+      double[] powers) {
+    awaitPendingTransition();
+    MotionConstraints constraints = motionConstraints;
+
+    int maxOffset = 0;
+    double maxPower = 0;
+    for (int i = 0; i < motors.length; i++) {
+      maxOffset = Math.max(maxOffset, Math.abs(tickOffsets[i]));
+      maxPower = Math.max(maxPower, Math.abs(powers[i]));
+    }
+
+    if (constraints == null) {
+      for (int i = 0; i < motors.length; i++) {
+        motors[i].startRunToPosition(tickOffsets[i], powers[i]);
+      }
+      MoveWatchdog currentWatchdog = watchdog;
+      return new MotionHandle(this, null, currentWatchdog == null ? null
+          : currentWatchdog.watch(motors, maxOffset, maxPower, clock));
+    }
+
+    if (maxOffset == 0) {
+      return MotionHandle.completed();
+    }
+
+    double[] scales = new double[motors.length];
+    for (int i = 0; i < motors.length; i++) {
+      scales[i] = tickOffsets[i] / (double) maxOffset;
+    }
+
+    return startTrajectory(motors,
+        Trajectory.fromProfile(profileCache.get(maxOffset, constraints), scales), maxPower);
+  }
+
+  // Follows the given trajectory with the gains of setMotionConstraints
+  MotionHandle startTrajectory(IMotor[] motors, Trajectory trajectory, double maxPower) {
+    awaitPendingTransition();
+    ProfileFollower follower = new ProfileFollower(trajectory, motors, feedforward, positionGain,
+        maxPower, clock);
+    follower.start();
+    MoveWatchdog currentWatchdog = watchdog;
+    return new MotionHandle(this, follower, currentWatchdog == null ? null
+        : currentWatchdog.watchDuration(motors, trajectory.getDuration(), maxPower, clock));
+  }
+
+  // Waits for the last transition of setMotorModeAsync, such as one that the end of a move stopped
+  // waiting for, so that its writes cannot reach the motors after the next command. The wait is
+  // bounded, so a motor that never confirms is counted and given up on instead of blocking every
+  // later command; an interruption ends the wait, and is left set for the caller to observe.
+  final void awaitPendingTransition() {
+    ModeTransition transition = pendingTransition.getAndSet(null);
+    if (transition == null) {
+      return;
+    }
+    try {
+      if (!transition.await(MotionHandle.MODE_TRANSITION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+        abandonedTransitions.incrementAndGet();
+      }
+    } catch (InterruptedException interruption) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  Clock getClock() {
+    return clock;
+  }
+
+  Sleeper getSleeper() {
+    return sleeper;
+  }
+
+  MotionConstraints getMotionConstraints() {
+    return motionConstraints;
+  }
+
   protected boolean isBusy() {
     for (IMotor motor : getMotors()) {
       if (motor.isBusy()) {
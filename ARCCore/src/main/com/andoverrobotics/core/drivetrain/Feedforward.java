@@ -0,0 +1,229 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.config.Configuration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Predicts the power that makes a motor follow a given velocity and acceleration:
+ * <pre>  kStatic * sign(velocity) + kV * velocity + kA * acceleration</pre>
+ * where kStatic is the power that overcomes friction, kV the power per tick per second, and kA the
+ * power per tick per second squared. <p> The gains are measured with a {@link Characterization},
+ * which fits them with {@link #fit} and stores them in a {@link Configuration} under the keys
+ * {@value #K_STATIC}, {@value #K_V} and {@value #K_A}.
+ */
+public final class Feedforward {
+
+  /**
+   * The configuration key of the static gain.
+   */
+  public static final String K_STATIC = "kStatic";
+  /**
+   * The configuration key of the velocity gain.
+   */
+  public static final String K_V = "kV";
+  /**
+   * The configuration key of the acceleration gain.
+   */
+  public static final String K_A = "kA";
+
+  private static final int TERMS = 3;
+
+  private final double kStatic;
+  private final double kV;
+  private final double kA;
+
+  /**
+   * Creates a Feedforward with the given gains.
+   *
+   * @param kStatic The power that overcomes friction
+   * @param kV The power per tick per second of velocity
+   * @param kA The power per tick per second squared of acceleration
+   */
+  public Feedforward(double kStatic, double kV, double kA) {
+    this.kStatic = kStatic;
+    this.kV = kV;
+    this.kA = kA;
+  }
+
+  /**
+   * Reads the gains stored by {@link #toConfiguration()}.
+   *
+   * @param configuration The configuration that holds the gains
+   * @return The Feedforward with the stored gains
+   * @throws com.andoverrobotics.core.config.InvalidFormatError if a gain is not a number
+   * @throws NoSuchFieldError if a gain is missing
+   */
+  public static Feedforward fromConfiguration(Configuration configuration) {
+    return new Feedforward(configuration.getDouble(K_STATIC), configuration.getDouble(K_V),
+        configuration.getDouble(K_A));
+  }
+
+  /**
+   * Fits the gains to the given samples by least squares, minimizing the squared difference
+   * between the predicted and the applied powers.
+   *
+   * @param velocities The velocity of each sample, in ticks per second
+   * @param accelerations The acceleration of each sample, in ticks per second squared
+   * @param powers The power that was applied during each sample
+   * @param count The number of samples, from the start of each array
+   * @return The fitted Feedforward
+   * @throws IllegalArgumentException if the samples cannot determine all three gains, such as when
+   * the motor never accelerated or only moved in one direction at one speed
+   */
+  public static Feedforward fit(double[] velocities, double[] accelerations, double[] powers,
+      int count) {
+    // The velocities and accelerations are scaled to about 1, so that the normal equations are
+    // well conditioned even though accelerations are orders of magnitude larger than powers
+    double velocityScale = 0, accelerationScale = 0;
+    for (int i = 0; i < count; i++) {
+      velocityScale = Math.max(velocityScale, Math.abs(velocities[i]));
+      accelerationScale = Math.max(accelerationScale, Math.abs(accelerations[i]));
+    }
+    if (velocityScale == 0 || accelerationScale == 0) {
+      throw new IllegalArgumentException("The samples contain no motion to fit");
+    }
+
+    double[][] normal = new double[TERMS][TERMS + 1];
+    double[] terms = new double[TERMS];
+    for (int i = 0; i < count; i++) {
+      terms[0] = Math.signum(velocities[i]);
+      terms[1] = velocities[i] / velocityScale;
+      terms[2] = accelerations[i] / accelerationScale;
+      for (int row = 0; row < TERMS; row++) {
+        for (int column = 0; column < TERMS; column++) {
+          normal[row][column] += terms[row] * terms[column];
+        }
+        normal[row][TERMS] += terms[row] * powers[i];
+      }
+    }
+
+    double[] gains = solve(normal);
+    return new Feedforward(gains[0], gains[1] / velocityScale, gains[2] / accelerationScale);
+  }
+
+  /**
+   * Calculates the power that follows the given velocity and acceleration.
+   *
+   * @param velocity The velocity, in ticks per second
+   * @param acceleration The acceleration, in ticks per second squared
+   * @return The predicted power, which is not clipped
+   */
+  public double calculate(double velocity, double acceleration) {
+    return kStatic * Math.signum(velocity) + kV * velocity + kA * acceleration;
+  }
+
+  /**
+   * Calculates the greatest velocity that can be held with the given power.
+   *
+   * @param power The power, between 0 and 1, inclusive
+   * @return The velocity, in ticks per second
+   */
+  public double getMaxVelocity(double power) {
+    return (Math.abs(power) - kStatic) / kV;
+  }
+
+  /**
+   * Calculates the greatest acceleration from rest that the given power achieves.
+   *
+   * @param power The power, between 0 and 1, inclusive
+   * @return The acceleration, in ticks per second squared, which is infinite if kA is 0
+   */
+  public double getMaxAcceleration(double power) {
+    return (Math.abs(power) - kStatic) / kA;
+  }
+
+  /**
+   * @return The power that overcomes friction
+   */
+  public double getStaticGain() {
+    return kStatic;
+  }
+
+  /**
+   * @return The power per tick per second of velocity
+   */
+  public double getVelocityGain() {
+    return kV;
+  }
+
+  /**
+   * @return The power per tick per second squared of acceleration
+   */
+  public double getAccelerationGain() {
+    return kA;
+  }
+
+  /**
+   * Stores the gains in a Configuration, which {@link #fromConfiguration} reads back.
+   *
+   * @return The Configuration that holds the gains
+   */
+  public Configuration toConfiguration() {
+    Map<String, String> entries = new HashMap<>();
+    entries.put(K_STATIC, Double.toString(kStatic));
+    entries.put(K_V, Double.toString(kV));
+    entries.put(K_A, Double.toString(kA));
+    return Configuration.from(entries);
+  }
+
+  // Solves the augmented system by Gaussian elimination with partial pivoting
+  private static double[] solve(double[][] system) {
+    int size = system.length;
+    for (int pivot = 0; pivot < size; pivot++) {
+      int best = pivot;
+      for (int row = pivot + 1; row < size; row++) {
+        if (Math.abs(system[row][pivot]) > Math.abs(system[best][pivot])) {
+          best = row;
+        }
+      }
+      if (Math.abs(system[best][pivot]) < 1e-9) {
+        throw new IllegalArgumentException("The samples cannot determine every gain");
+      }
+      double[] swapped = system[pivot];
+      system[pivot] = system[best];
+      system[best] = swapped;
+
+      for (int row = pivot + 1; row < size; row++) {
+        double factor = system[row][pivot] / system[pivot][pivot];
+        for (int column = pivot; column <= size; column++) {
+          system[row][column] -= factor * system[pivot][column];
+        }
+      }
+    }
+
+    double[] solution = new double[size];
+    for (int row = size - 1; row >= 0; row--) {
+      double sum = system[row][size];
+      for (int column = row + 1; column < size; column++) {
+        sum -= system[row][column] * solution[column];
+      }
+      solution[row] = sum / system[row][row];
+    }
+    return solution;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    Feedforward that = (Feedforward) o;
+    return Double.compare(that.kStatic, kStatic) == 0 && Double.compare(that.kV, kV) == 0
+        && Double.compare(that.kA, kA) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(kStatic, kV, kA);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("Feedforward(kStatic=%.4f, kV=%.6g, kA=%.6g)", kStatic, kV, kA);
+  }
+}
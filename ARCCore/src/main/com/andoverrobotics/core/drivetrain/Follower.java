@@ -0,0 +1,14 @@
+package com.andoverrobotics.core.drivetrain;
+
+// Advances a move that the drivetrain controls itself, each time its MotionHandle is checked
+interface Follower {
+
+  // Returns true while the move is running
+  boolean update();
+
+  // Stops the motors of the move
+  void stop();
+
+  // Tells how a move whose update() has returned false ended
+  MotionHandle.Status getResult();
+}
@@ -1,12 +1,11 @@
 package com.andoverrobotics.core.drivetrain;
 
-import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_USING_ENCODER;
 import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_WITHOUT_ENCODER;
 
 import com.andoverrobotics.core.utilities.Converter;
-import com.andoverrobotics.core.utilities.Coordinate;
 import com.andoverrobotics.core.utilities.IMotor;
-import com.andoverrobotics.core.utilities.MotorPair;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.Vector2;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.util.Range;
@@ -16,10 +15,20 @@ import com.qualcomm.robotcore.util.Range;
  * #fromOctagonalMotors(DcMotor, DcMotor, DcMotor, DcMotor, OpMode, int, int)} and {@link
  * #fromCrossedMotors(DcMotor, DcMotor, DcMotor, DcMotor, OpMode, int, int)} for instructions about
  * easier construction.
+ * <p>
+ * A MecanumDrive that is constructed from its four wheels (which the factory methods do) computes
+ * the power of every wheel with {@link MecanumKinematics} and writes each physical motor once per
+ * command. This allows strafing and rotation to be combined with {@link #setStrafeAndRotation}.
  */
 public class MecanumDrive extends StrafingDriveTrain {
 
     private final IMotor leftDiagonal, rightDiagonal, leftSide, rightSide;
+    private final IMotor[] motors;
+
+    // Null unless constructed from the individual wheels
+    private final IMotor[] wheels;
+    private final MecanumKinematics kinematics;
+    private final double[] wheelPowers = new double[MecanumKinematics.WHEEL_COUNT];
 
     private final int ticksPerInch;
     private final int ticksPer360;
@@ -45,6 +54,40 @@ public class MecanumDrive extends StrafingDriveTrain {
     public MecanumDrive(IMotor leftDiagonal, IMotor rightDiagonal, IMotor leftSide, IMotor rightSide,
                         OpMode opMode, int ticksPerInch, int ticksPer360) {
 
+        this(leftDiagonal, rightDiagonal, leftSide, rightSide, null, null, opMode, ticksPerInch,
+                ticksPer360);
+    }
+
+    /**
+     * Constructs a new <code>MecanumDrive</code> instance that controls each wheel through its own
+     * {@link IMotor}.
+     *
+     * @param frontLeft    The {@link IMotor} of the front-left wheel
+     * @param frontRight   The {@link IMotor} of the front-right wheel
+     * @param backLeft     The {@link IMotor} of the rear-left wheel
+     * @param backRight    The {@link IMotor} of the rear-right wheel
+     * @param kinematics   The {@link MecanumKinematics} that matches the arrangement of the wheels
+     * @param opMode       The main {@link OpMode}
+     * @param ticksPerInch The number of encoder ticks required to cause a diagonal displacement of 1
+     *                     inch for the robot
+     * @param ticksPer360  The number of encoder ticks required to cause a full rotation for the robot,
+     *                     when this amount is applied to the left and right sides in opposite directions
+     */
+    public MecanumDrive(IMotor frontLeft, IMotor frontRight, IMotor backLeft, IMotor backRight,
+                        MecanumKinematics kinematics, OpMode opMode, int ticksPerInch, int ticksPer360) {
+
+        this(WheelPair.diagonal(kinematics, false, frontLeft, frontRight, backLeft, backRight),
+                WheelPair.diagonal(kinematics, true, frontLeft, frontRight, backLeft, backRight),
+                new WheelPair(frontLeft, backLeft),
+                new WheelPair(frontRight, backRight),
+                new IMotor[]{frontLeft, frontRight, backLeft, backRight}, kinematics,
+                opMode, ticksPerInch, ticksPer360);
+    }
+
+    private MecanumDrive(IMotor leftDiagonal, IMotor rightDiagonal, IMotor leftSide, IMotor rightSide,
+                         IMotor[] wheels, MecanumKinematics kinematics,
+                         OpMode opMode, int ticksPerInch, int ticksPer360) {
+
         super(opMode);
 
         this.leftDiagonal = leftDiagonal;
@@ -52,6 +95,11 @@ public class MecanumDrive extends StrafingDriveTrain {
         this.leftSide = leftSide;
         this.rightSide = rightSide;
 
+        this.wheels = wheels;
+        this.kinematics = kinematics;
+        this.motors = wheels != null ? wheels
+                : new IMotor[]{leftDiagonal, rightDiagonal, leftSide, rightSide};
+
         this.ticksPerInch = ticksPerInch;
         this.ticksPer360 = ticksPer360;
     }
@@ -88,10 +136,11 @@ public class MecanumDrive extends StrafingDriveTrain {
         // \-/
 
         return new MecanumDrive(
-                MotorPair.of(motorFR, motorBL),
-                MotorPair.of(motorFL, motorBR),
-                MotorPair.of(motorFL, motorBL),
-                MotorPair.of(motorFR, motorBR), opMode, ticksPerInch, ticksPer360);
+                new MotorAdapter(motorFL),
+                new MotorAdapter(motorFR),
+                new MotorAdapter(motorBL),
+                new MotorAdapter(motorBR),
+                MecanumKinematics.octagonal(), opMode, ticksPerInch, ticksPer360);
     }
 
     /**
@@ -126,76 +175,68 @@ public class MecanumDrive extends StrafingDriveTrain {
         // /-\
 
         return new MecanumDrive(
-                MotorPair.of(motorFL, motorBR),
-                MotorPair.of(motorFR, motorBL),
-                MotorPair.of(motorFL, motorBL),
-                MotorPair.of(motorFR, motorBR), opMode, ticksPerInch, ticksPer360);
+                new MotorAdapter(motorFL),
+                new MotorAdapter(motorFR),
+                new MotorAdapter(motorBL),
+                new MotorAdapter(motorBR),
+                MecanumKinematics.crossed(), opMode, ticksPerInch, ticksPer360);
     }
 
     // Rotates the given displacement by 45deg clockwise, assigns its components to the diagonals as
     // a tick offset (setTargetPosition), then scales its components down such that the greatest
     // component is equal to the power given, followed by assigning these components to the diagonals
     // as power.
-    private void driveWithEncoder(Coordinate displacement, double power) {
+    private MotionHandle driveWithEncoder(double x, double y, double power) {
         double clippedPower = Range.clip(power, -1, 1);
 
-        if (displacement.getPolarDistance() < 1e-5) {
-            return;
+        if (Math.hypot(x, y) < 1e-5) {
+            return MotionHandle.completed();
         }
 
-        Coordinate diagonalOffsets = displacement.rotate(-45);
-        double maxOffset = Math.max(diagonalOffsets.getX(), diagonalOffsets.getY());
+        double rightDiagonalOffset = x * Vector2.COS_45 + y * Vector2.SIN_45,
+                leftDiagonalOffset = y * Vector2.COS_45 - x * Vector2.SIN_45;
+        double maxOffset = Math.max(rightDiagonalOffset, leftDiagonalOffset);
 
-        int leftOffset = (int) (diagonalOffsets.getY() * ticksPerInch),
-                rightOffset = (int) (diagonalOffsets.getX() * ticksPerInch);
+        int leftOffset = (int) (leftDiagonalOffset * ticksPerInch),
+                rightOffset = (int) (rightDiagonalOffset * ticksPerInch);
 
-        double leftPower = clippedPower * (diagonalOffsets.getY() / maxOffset),
-                rightPower = clippedPower * (diagonalOffsets.getX() / maxOffset);
+        double leftPower = clippedPower * (leftDiagonalOffset / maxOffset),
+                rightPower = clippedPower * (rightDiagonalOffset / maxOffset);
 
-        leftDiagonal.startRunToPosition(leftOffset, Math.abs(leftPower));
-        rightDiagonal.startRunToPosition(rightOffset, Math.abs(rightPower));
-
-        while (isBusy() && opModeIsActive()) {
-        }
-
-        stop();
-        setMotorMode(RUN_USING_ENCODER);
+        return startEncoderMove(new IMotor[]{leftDiagonal, rightDiagonal},
+                new int[]{leftOffset, rightOffset},
+                new double[]{Math.abs(leftPower), Math.abs(rightPower)});
     }
 
     @Override
-    public void rotateClockwise(int degrees, double power) {
+    public MotionHandle rotateClockwiseAsync(int degrees, double power) {
         if (degrees < 0)
-            rotateCounterClockwise(-degrees, power);
+            return rotateCounterClockwiseAsync(-degrees, power);
         else
-            rotateWithEncoder(-Converter.normalizedDegrees(degrees), -Math.abs(power));
+            return rotateWithEncoder(-Converter.normalizedDegrees(degrees), -Math.abs(power));
     }
 
     @Override
-    public void rotateCounterClockwise(int degrees, double power) {
+    public MotionHandle rotateCounterClockwiseAsync(int degrees, double power) {
         if (degrees < 0)
-            rotateClockwise(-degrees, power);
+            return rotateClockwiseAsync(-degrees, power);
         else
-            rotateWithEncoder(Converter.normalizedDegrees(degrees), Math.abs(power));
+            return rotateWithEncoder(Converter.normalizedDegrees(degrees), Math.abs(power));
     }
 
     // Positive input means counter-clockwise
-    private void rotateWithEncoder(double degrees, double power) {
+    private MotionHandle rotateWithEncoder(double degrees, double power) {
         double clippedPower = Math.abs(Range.clip(power, -1, 1));
         double rotationTicks = degrees / 360.0 * ticksPer360;
 
-        leftSide.startRunToPosition((int) -rotationTicks, clippedPower);
-        rightSide.startRunToPosition((int) rotationTicks, clippedPower);
-
-        while (isBusy() && opModeIsActive()) {
-        }
-
-        stop();
-        setMotorMode(RUN_USING_ENCODER);
+        return startEncoderMove(new IMotor[]{leftSide, rightSide},
+                new int[]{(int) -rotationTicks, (int) rotationTicks},
+                new double[]{clippedPower, clippedPower});
     }
 
     @Override
-    public void strafeInches(Coordinate inchOffset, double power) {
-        driveWithEncoder(inchOffset, power);
+    public MotionHandle strafeInchesAsync(double xInInches, double yInInches, double power) {
+        return driveWithEncoder(xInInches, yInInches, power);
     }
 
     // -- TeleOp methods --
@@ -204,6 +245,11 @@ public class MecanumDrive extends StrafingDriveTrain {
     public void setMovementPower(double power) {
         double clippedPower = Range.clip(power, -1, 1);
 
+        if (wheels != null) {
+            setWheelPowers(0, clippedPower, 0);
+            return;
+        }
+
         setMotorMode(RUN_WITHOUT_ENCODER);
 
         leftSide.setPower(clippedPower);
@@ -214,6 +260,11 @@ public class MecanumDrive extends StrafingDriveTrain {
     public void setRotationPower(double power) { //clockwise if power is positive
         double clippedPower = Range.clip(power, -1, 1);
 
+        if (wheels != null) {
+            setWheelPowers(0, 0, clippedPower);
+            return;
+        }
+
         setMotorMode(RUN_WITHOUT_ENCODER);
 
         leftSide.setPower(clippedPower);
@@ -221,19 +272,31 @@ public class MecanumDrive extends StrafingDriveTrain {
     }
 
     @Override
-    public void setStrafe(Coordinate offset, double unscaledPower) {
-        double direction = Converter.degreesToRadians(offset.getPolarDirection() - 45);
-        double magnitude = Math.min(1, offset.getPolarDistance());
+    public void setStrafe(double x, double y, double unscaledPower) {
         double power = Range.clip(unscaledPower, -1, 1);
 
+        if (wheels != null) {
+            setStrafeWheelPowers(x, y, power, 0);
+            return;
+        }
+
+        // The unit vector of <x, y>, rotated 45deg clockwise, scaled to the capped magnitude
+        double distance = Math.hypot(x, y);
+        double scale = distance < 1e-9 ? 0 : Math.min(1, distance) * Math.abs(power) / distance;
+
         setMotorMode(RUN_WITHOUT_ENCODER);
 
-        leftDiagonal.setPower(Math.sin(direction) * magnitude * Math.abs(power));
-        rightDiagonal.setPower(Math.cos(direction) * magnitude * Math.abs(power));
+        leftDiagonal.setPower((y * Vector2.COS_45 - x * Vector2.SIN_45) * scale);
+        rightDiagonal.setPower((x * Vector2.COS_45 + y * Vector2.SIN_45) * scale);
     }
 
     @Override
     public void setMovementAndRotation(double movePower, double rotatePower) {
+        if (wheels != null) {
+            setWheelPowers(0, movePower, rotatePower);
+            return;
+        }
+
         setMotorMode(RUN_WITHOUT_ENCODER);
 
         double leftPower = movePower + rotatePower,
@@ -249,8 +312,127 @@ public class MecanumDrive extends StrafingDriveTrain {
         rightSide.setPower(rightPower);
     }
 
+    /**
+     * Sets the robot to strafe in the direction of the vector <x, y> while rotating. The strafing
+     * component behaves like {@link #setStrafe(double, double, double)} at full power; the rotation
+     * power is added on top, and all wheel powers are scaled down together if any exceeds 1.
+     *
+     * @param x           The x component of the direction in which to strafe
+     * @param y           The y component of the direction in which to strafe
+     * @param rotatePower The power to rotate at, between -1 and 1, inclusive. Positive is clockwise,
+     *                    negative is counterclockwise
+     * @throws IllegalStateException if this instance was not constructed from its four wheels
+     * @see #canStrafeAndRotate()
+     */
+    public void setStrafeAndRotation(double x, double y, double rotatePower) {
+        if (wheels == null) {
+            throw new IllegalStateException(
+                    "Strafing and rotation can only be combined when each wheel has its own IMotor");
+        }
+        setStrafeWheelPowers(x, y, 1, Range.clip(rotatePower, -1, 1));
+    }
+
+    /**
+     * Tells whether strafing and rotation can be combined with {@link #setStrafeAndRotation}. This
+     * requires each wheel to have its own {@link IMotor}, since a pair of wheels that shares one
+     * cannot be given different powers.
+     *
+     * @return True if this instance was constructed from its four wheels
+     */
+    public boolean canStrafeAndRotate() {
+        return wheels != null;
+    }
+
+    // Scales <x, y> so that the wheel powers match those of the diagonal pairs in setStrafe: the
+    // magnitude is capped at 1, and each diagonal receives the 45-degree projection of the vector.
+    private void setStrafeWheelPowers(double x, double y, double power, double rotatePower) {
+        double distance = Math.hypot(x, y);
+        double scale = distance < 1e-9 ? 0
+                : Math.min(1, distance) * Math.abs(power) / (distance * Math.sqrt(2));
+
+        setWheelPowers(x * scale, y * scale, rotatePower);
+    }
+
+    private void setWheelPowers(double x, double y, double rotation) {
+        setMotorMode(RUN_WITHOUT_ENCODER);
+
+        kinematics.toWheelPowers(x, y, rotation, wheelPowers);
+        for (int wheel = 0; wheel < MecanumKinematics.WHEEL_COUNT; wheel++) {
+            wheels[wheel].setPower(wheelPowers[wheel]);
+        }
+    }
+
     @Override
     protected IMotor[] getMotors() {
-        return new IMotor[]{leftDiagonal, rightDiagonal, leftSide, rightSide};
+        return motors;
+    }
+
+    @Override
+    protected IMotor[] getStrafeMotors() {
+        return new IMotor[]{leftDiagonal, rightDiagonal};
+    }
+
+    // Same mapping as driveWithEncoder: the displacement rotated 45deg clockwise, per diagonal
+    @Override
+    protected void toStrafeTicks(double xInInches, double yInInches, double[] motorTicks) {
+        motorTicks[0] = (yInInches - xInInches) / Math.sqrt(2) * ticksPerInch;
+        motorTicks[1] = (xInInches + yInInches) / Math.sqrt(2) * ticksPerInch;
+    }
+
+    // Controls two wheels together, for the encoder moves that drive diagonals or sides
+    private static class WheelPair implements IMotor {
+
+        private final IMotor first, second;
+
+        WheelPair(IMotor first, IMotor second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        static WheelPair diagonal(MecanumKinematics kinematics, boolean towardsRight,
+                                  IMotor frontLeft, IMotor frontRight, IMotor backLeft, IMotor backRight) {
+            return kinematics.isRightDiagonal(MecanumKinematics.FRONT_LEFT) == towardsRight
+                    ? new WheelPair(frontLeft, backRight)
+                    : new WheelPair(frontRight, backLeft);
+        }
+
+        @Override
+        public void setPower(double power) {
+            first.setPower(power);
+            second.setPower(power);
+        }
+
+        @Override
+        public void addTargetPosition(int tickOffset) {
+            first.addTargetPosition(tickOffset);
+            second.addTargetPosition(tickOffset);
+        }
+
+        @Override
+        public void startRunToPosition(int tickOffset, double power) {
+            first.startRunToPosition(tickOffset, power);
+            second.startRunToPosition(tickOffset, power);
+        }
+
+        @Override
+        public void setMode(DcMotor.RunMode mode) {
+            first.setMode(mode);
+            second.setMode(mode);
+        }
+
+        @Override
+        public int getCurrentPosition() {
+            return (first.getCurrentPosition() + second.getCurrentPosition()) / 2;
+        }
+
+        @Override
+        public boolean isEncoderReset() {
+            return first.isEncoderReset() && second.isEncoderReset();
+        }
+
+        @Override
+        public boolean isBusy() {
+            return first.isBusy() || second.isBusy();
+        }
     }
 }
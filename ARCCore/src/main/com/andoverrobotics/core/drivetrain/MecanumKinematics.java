@@ -0,0 +1,137 @@
+package com.andoverrobotics.core.drivetrain;
+
+/**
+ * Converts between the motion of a Mecanum robot and the powers (or speeds) of its four wheels.
+ * <p> Chassis motion is given as three components: <code>x</code> is the strafing component
+ * (positive is to the right), <code>y</code> is the driving component (positive is forwards), and
+ * <code>rotation</code> is the turning component (positive is clockwise). One unit of any component
+ * corresponds to one unit of wheel power, so driving forwards at <code>y = 0.5</code> sets every
+ * wheel to 0.5.
+ * <p> Wheel values are stored in primitive arrays indexed by {@link #FRONT_LEFT}, {@link
+ * #FRONT_RIGHT}, {@link #BACK_LEFT} and {@link #BACK_RIGHT}. No method allocates memory, so both
+ * conversions can run on every loop.
+ *
+ * @see MecanumDrive#fromCrossedMotors
+ * @see MecanumDrive#fromOctagonalMotors
+ */
+public final class MecanumKinematics {
+
+  /**
+   * The index of the front-left wheel in wheel arrays.
+   */
+  public static final int FRONT_LEFT = 0;
+  /**
+   * The index of the front-right wheel in wheel arrays.
+   */
+  public static final int FRONT_RIGHT = 1;
+  /**
+   * The index of the rear-left wheel in wheel arrays.
+   */
+  public static final int BACK_LEFT = 2;
+  /**
+   * The index of the rear-right wheel in wheel arrays.
+   */
+  public static final int BACK_RIGHT = 3;
+  /**
+   * The number of wheels, which is the minimum length of a wheel array.
+   */
+  public static final int WHEEL_COUNT = 4;
+
+  /**
+   * The index of the strafing component in chassis motion arrays.
+   */
+  public static final int X = 0;
+  /**
+   * The index of the driving component in chassis motion arrays.
+   */
+  public static final int Y = 1;
+  /**
+   * The index of the turning component in chassis motion arrays.
+   */
+  public static final int ROTATION = 2;
+
+  // Left-side wheels turn forwards for clockwise rotation
+  private static final double[] ROTATION_FACTORS = {1, -1, 1, -1};
+
+  // +1 for the wheels that move the robot forward and to the right, -1 for the other diagonal
+  private final double[] strafeFactors;
+
+  private MecanumKinematics(double[] strafeFactors) {
+    this.strafeFactors = strafeFactors;
+  }
+
+  /**
+   * Creates the kinematics of a robot whose motors are arranged in the crossed configuration, where
+   * the front-left and rear-right wheels move the robot forward and to the left.
+   *
+   * @return The kinematics of the crossed configuration
+   */
+  public static MecanumKinematics crossed() {
+    return new MecanumKinematics(new double[]{-1, 1, 1, -1});
+  }
+
+  /**
+   * Creates the kinematics of a robot whose motors are arranged in the octagonal configuration,
+   * where the front-left and rear-right wheels move the robot forward and to the right.
+   *
+   * @return The kinematics of the octagonal configuration
+   */
+  public static MecanumKinematics octagonal() {
+    return new MecanumKinematics(new double[]{1, -1, -1, 1});
+  }
+
+  // Tells if the given wheel moves the robot forward and to the right when its power is positive
+  boolean isRightDiagonal(int wheel) {
+    return strafeFactors[wheel] > 0;
+  }
+
+  /**
+   * Computes the wheel powers that produce the given chassis motion. If any power would exceed 1 in
+   * magnitude, all powers are scaled down by the same factor so that the largest is exactly 1 in
+   * magnitude, which keeps the direction of motion intact.
+   *
+   * @param x The strafing component; positive is to the right
+   * @param y The driving component; positive is forwards
+   * @param rotation The turning component; positive is clockwise
+   * @param wheelPowers The array, of at least {@link #WHEEL_COUNT} elements, into which the wheel
+   * powers are written
+   */
+  public void toWheelPowers(double x, double y, double rotation, double[] wheelPowers) {
+    double maxMagnitude = 1;
+
+    for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+      double power = y + strafeFactors[wheel] * x + ROTATION_FACTORS[wheel] * rotation;
+      wheelPowers[wheel] = power;
+      maxMagnitude = Math.max(maxMagnitude, Math.abs(power));
+    }
+
+    if (maxMagnitude > 1) {
+      for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+        wheelPowers[wheel] /= maxMagnitude;
+      }
+    }
+  }
+
+  /**
+   * Computes the chassis motion that the given wheel values produce. This is the least-squares
+   * inverse of {@link #toWheelPowers}; given wheel encoder deltas, it yields the strafing, driving
+   * and turning components of the robot's displacement in the same units.
+   *
+   * @param wheelValues The array, of at least {@link #WHEEL_COUNT} elements, of wheel values
+   * @param chassisMotion The array, of at least 3 elements, into which the components are written at
+   * {@link #X}, {@link #Y} and {@link #ROTATION}
+   */
+  public void toChassisMotion(double[] wheelValues, double[] chassisMotion) {
+    double x = 0, y = 0, rotation = 0;
+
+    for (int wheel = 0; wheel < WHEEL_COUNT; wheel++) {
+      x += strafeFactors[wheel] * wheelValues[wheel];
+      y += wheelValues[wheel];
+      rotation += ROTATION_FACTORS[wheel] * wheelValues[wheel];
+    }
+
+    chassisMotion[X] = x / WHEEL_COUNT;
+    chassisMotion[Y] = y / WHEEL_COUNT;
+    chassisMotion[ROTATION] = rotation / WHEEL_COUNT;
+  }
+}
@@ -0,0 +1,89 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.Objects;
+
+/**
+ * Holds the limits on velocity, acceleration and jerk that a {@link MotionProfile} obeys. <p> The
+ * limits are given in encoder ticks, so that the same constraints apply to every drivetrain:
+ * velocity in ticks per second, acceleration in ticks per second squared, and jerk in ticks per
+ * second cubed. A jerk limit of {@link Double#POSITIVE_INFINITY} produces trapezoidal profiles; any
+ * finite jerk limit produces S-curve profiles.
+ */
+public final class MotionConstraints {
+
+  private final double maxVelocity;
+  private final double maxAcceleration;
+  private final double maxJerk;
+
+  /**
+   * Creates MotionConstraints for trapezoidal profiles, which have no jerk limit.
+   *
+   * @param maxVelocity The maximum velocity, in ticks per second
+   * @param maxAcceleration The maximum acceleration, in ticks per second squared
+   */
+  public MotionConstraints(double maxVelocity, double maxAcceleration) {
+    this(maxVelocity, maxAcceleration, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Creates MotionConstraints for S-curve profiles.
+   *
+   * @param maxVelocity The maximum velocity, in ticks per second
+   * @param maxAcceleration The maximum acceleration, in ticks per second squared
+   * @param maxJerk The maximum jerk, in ticks per second cubed
+   */
+  public MotionConstraints(double maxVelocity, double maxAcceleration, double maxJerk) {
+    if (!(maxVelocity > 0) || !(maxAcceleration > 0) || !(maxJerk > 0)) {
+      throw new IllegalArgumentException("Motion constraints must be positive");
+    }
+    this.maxVelocity = maxVelocity;
+    this.maxAcceleration = maxAcceleration;
+    this.maxJerk = maxJerk;
+  }
+
+  /**
+   * @return The maximum velocity, in ticks per second
+   */
+  public double getMaxVelocity() {
+    return maxVelocity;
+  }
+
+  /**
+   * @return The maximum acceleration, in ticks per second squared
+   */
+  public double getMaxAcceleration() {
+    return maxAcceleration;
+  }
+
+  /**
+   * @return The maximum jerk, in ticks per second cubed, which is infinite for trapezoidal profiles
+   */
+  public double getMaxJerk() {
+    return maxJerk;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    MotionConstraints that = (MotionConstraints) o;
+    return Double.compare(that.maxVelocity, maxVelocity) == 0 &&
+        Double.compare(that.maxAcceleration, maxAcceleration) == 0 &&
+        Double.compare(that.maxJerk, maxJerk) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(maxVelocity, maxAcceleration, maxJerk);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MotionConstraints(v=%.1f, a=%.1f, j=%.1f)",
+        maxVelocity, maxAcceleration, maxJerk);
+  }
+}
@@ -0,0 +1,250 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_USING_ENCODER;
+
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.ControlLoop;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents an encoder move that has been started by a {@link DriveTrain} and may still be in
+ * progress. <p> A MotionHandle can be polled with {@link #isDone()}, waited on with {@link
+ * #await()} or {@link #await(long, TimeUnit)}, or stopped early with {@link #cancel()}. Waiting
+ * sleeps between checks instead of spinning, and the move is stopped as soon as the waiting thread
+ * is interrupted or the OpMode is no longer active. A move that follows a {@link MotionProfile}
+ * or a {@link PurePursuitFollower path} advances each time the handle is checked, so it must be
+ * polled or awaited to make progress.
+ * <p>
+ * When a move ends for any reason, the drivetrain is stopped and its motors are put back into
+ * {@link com.qualcomm.robotcore.hardware.DcMotor.RunMode#RUN_USING_ENCODER RUN_USING_ENCODER}
+ * exactly once, with every motor written at the same time. <p> Instead of being awaited, a handle
+ * can be scheduled on a {@link ControlLoop}, which checks it at a fixed rate until the move ends.
+ * <p> Waiting uses the time source of the drivetrain, so a simulated drivetrain is awaited in
+ * simulated time.
+ */
+public class MotionHandle implements ControlLoop.Task {
+
+  /**
+   * Describes the state of a move.
+   */
+  public enum Status {
+    /**
+     * The motors are still moving towards their targets.
+     */
+    RUNNING,
+    /**
+     * The motors have reached their targets.
+     */
+    COMPLETED,
+    /**
+     * The move was stopped before the motors reached their targets, either by {@link #cancel()},
+     * by an interruption of the waiting thread, or because the OpMode stopped.
+     */
+    CANCELLED,
+    /**
+     * The {@link MoveWatchdog} of the drivetrain ended the move, because its motors stopped turning
+     * while they were powered.
+     */
+    STALLED,
+    /**
+     * The move ran past its deadline, either that of the {@link MoveWatchdog} of the drivetrain or
+     * the {@link ProfileFollower#SETTLE_TIMEOUT_MILLIS settling time} of a profiled move whose
+     * motors did not reach their targets.
+     */
+    TIMED_OUT
+  }
+
+  /**
+   * The time, in milliseconds, that {@link #await()} sleeps between checks of the motors.
+   */
+  public static final long POLL_INTERVAL_MILLIS = 2;
+
+  /**
+   * The time, in milliseconds, that the end of a move waits at most for every motor to confirm
+   * {@link com.qualcomm.robotcore.hardware.DcMotor.RunMode#RUN_USING_ENCODER RUN_USING_ENCODER}.
+   * A transition that takes longer is waited for, for as long again, by the next mode change or
+   * move of the drivetrain.
+   */
+  public static final long MODE_TRANSITION_TIMEOUT_MILLIS = 100;
+
+  private static final MotionHandle COMPLETED = new MotionHandle(null, null, null,
+      Status.COMPLETED);
+
+  private final DriveTrain driveTrain;
+  private final Follower follower;
+  private final MoveWatchdog.Monitor monitor;
+  private volatile Status status;
+  private Runnable onFinish;
+
+  MotionHandle(DriveTrain driveTrain) {
+    this(driveTrain, null, null, Status.RUNNING);
+  }
+
+  // A followed move is advanced by the checks of the handle, so it only progresses while the handle
+  // is polled or awaited
+  MotionHandle(DriveTrain driveTrain, Follower follower) {
+    this(driveTrain, follower, null, Status.RUNNING);
+  }
+
+  // The monitor, if any, is checked after the motors, so a move that arrives is always COMPLETED
+  MotionHandle(DriveTrain driveTrain, Follower follower, MoveWatchdog.Monitor monitor) {
+    this(driveTrain, follower, monitor, Status.RUNNING);
+  }
+
+  private MotionHandle(DriveTrain driveTrain, Follower follower, MoveWatchdog.Monitor monitor,
+      Status status) {
+    this.driveTrain = driveTrain;
+    this.follower = follower;
+    this.monitor = monitor;
+    this.status = status;
+  }
+
+  /**
+   * Returns a handle for a move that did not need to start, such as one with no distance.
+   *
+   * @return A handle whose status is already {@link Status#COMPLETED}
+   */
+  static MotionHandle completed() {
+    return COMPLETED;
+  }
+
+  /**
+   * @return The status of this move as of the last check of the motors
+   */
+  public Status getStatus() {
+    return status;
+  }
+
+  /**
+   * Checks the motors once, finishing the move if they have stopped, the OpMode is no longer
+   * active, or the watchdog of the drivetrain has found the move stalled or late. This method does
+   * not block.
+   *
+   * @return True if the move has ended, for any reason
+   */
+  public boolean isDone() {
+    if (status != Status.RUNNING) {
+      return true;
+    }
+
+    synchronized (this) {
+      if (status == Status.RUNNING) {
+        if (!driveTrain.opModeIsActive()) {
+          finish(Status.CANCELLED);
+        } else if (!isMoving()) {
+          finish(follower != null ? follower.getResult() : Status.COMPLETED);
+        } else if (monitor != null) {
+          Status verdict = monitor.check();
+          if (verdict != Status.RUNNING) {
+            finish(verdict);
+          }
+        }
+      }
+    }
+    return status != Status.RUNNING;
+  }
+
+  /**
+   * Checks the motors once, for a {@link ControlLoop}.
+   *
+   * @return True while the move is running
+   */
+  @Override
+  public boolean execute() {
+    return !isDone();
+  }
+
+  /**
+   * Stops the move if it is still running. Has no effect on a move that has already ended.
+   *
+   * @return True if this call stopped the move
+   */
+  public synchronized boolean cancel() {
+    if (status != Status.RUNNING) {
+      return false;
+    }
+    finish(Status.CANCELLED);
+    return true;
+  }
+
+  /**
+   * Waits until the move ends.
+   *
+   * @return The final status of the move
+   * @throws InterruptedException if the waiting thread is interrupted, in which case the move is
+   * cancelled before this exception is thrown
+   */
+  public Status await() throws InterruptedException {
+    while (!isDone()) {
+      sleepOrCancel(POLL_INTERVAL_MILLIS);
+    }
+    return status;
+  }
+
+  /**
+   * Waits at most the given amount of time for the move to end. The move keeps running if the
+   * timeout elapses first.
+   *
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return True if the move ended within the timeout
+   * @throws InterruptedException if the waiting thread is interrupted, in which case the move is
+   * cancelled before this exception is thrown
+   */
+  public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+    Clock clock = driveTrain != null ? driveTrain.getClock() : Clock.SYSTEM;
+    long deadline = clock.nanoTime() + unit.toNanos(timeout);
+
+    while (!isDone()) {
+      long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - clock.nanoTime());
+      if (remainingMillis <= 0) {
+        return false;
+      }
+      sleepOrCancel(Math.min(POLL_INTERVAL_MILLIS, remainingMillis));
+    }
+    return true;
+  }
+
+  // Runs the given callback once, on the thread that ends the move
+  synchronized void setOnFinish(Runnable onFinish) {
+    this.onFinish = onFinish;
+  }
+
+  // Used by the blocking DriveTrain methods, which do not declare InterruptedException. The
+  // interrupt flag is restored so that the caller can still observe it.
+  void awaitUninterruptibly() {
+    try {
+      await();
+    } catch (InterruptedException interruption) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private boolean isMoving() {
+    return follower != null ? follower.update() : driveTrain.isBusy();
+  }
+
+  private void sleepOrCancel(long millis) throws InterruptedException {
+    try {
+      driveTrain.getSleeper().sleep(millis);
+    } catch (InterruptedException interruption) {
+      cancel();
+      throw interruption;
+    }
+  }
+
+  private void finish(Status finalStatus) {
+    if (follower != null) {
+      follower.stop();
+    }
+    driveTrain.stop();
+    // The motors are written at once instead of one after another. A transition that outlasts the
+    // timeout stays pending on the drivetrain, which finishes it before the next move starts.
+    driveTrain.setMotorModeAsync(RUN_USING_ENCODER)
+        .awaitUninterruptibly(MODE_TRANSITION_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    status = finalStatus;
+    if (onFinish != null) {
+      onFinish.run();
+    }
+  }
+}
@@ -0,0 +1,222 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A precomputed, time-parameterized table of positions and velocities that moves a given distance
+ * from rest to rest within a set of {@link MotionConstraints}. <p> The table is sampled once per
+ * control period, so a {@link ProfileFollower} only has to look up the sample for the current
+ * period. A profile accelerates to the highest velocity that the distance and constraints allow,
+ * cruises, then decelerates symmetrically; with a finite jerk limit, the acceleration itself ramps
+ * up and down, which gives the S-curve shape. <p> Profiles are immutable and may be shared between
+ * threads; see {@link MotionProfileCache} to reuse the profiles of repeated moves.
+ */
+public final class MotionProfile {
+
+  /**
+   * The default control rate, in samples per second.
+   */
+  public static final double DEFAULT_RATE_HZ = 100;
+
+  private static final int PEAK_VELOCITY_ITERATIONS = 60;
+
+  private final double distance;
+  private final MotionConstraints constraints;
+  private final long periodNanos;
+  private final double[] positions;
+  private final double[] velocities;
+
+  // The shape of the acceleration phase, which the deceleration phase mirrors
+  private final double peakVelocity, peakAcceleration, jerkTime, accelerationTime;
+
+  private MotionProfile(double distance, MotionConstraints constraints, long periodNanos) {
+    this.distance = distance;
+    this.constraints = constraints;
+    this.periodNanos = periodNanos;
+
+    double velocity = constraints.getMaxVelocity();
+    if (accelerationDistance(velocity) * 2 > distance) {
+      // Too short to reach the maximum velocity; find the peak velocity that covers the distance
+      double low = 0, high = velocity;
+      for (int i = 0; i < PEAK_VELOCITY_ITERATIONS; i++) {
+        velocity = (low + high) / 2;
+        if (accelerationDistance(velocity) * 2 > distance) {
+          high = velocity;
+        } else {
+          low = velocity;
+        }
+      }
+      velocity = low;
+    }
+
+    peakVelocity = velocity;
+    jerkTime = jerkTime(velocity);
+    accelerationTime = accelerationTime(velocity, jerkTime);
+    peakAcceleration = accelerationTime > jerkTime ? velocity / (accelerationTime - jerkTime) : 0;
+
+    double cruiseTime = velocity > 0 ? (distance - velocity * accelerationTime) / velocity : 0;
+    double duration = 2 * accelerationTime + Math.max(cruiseTime, 0);
+    double period = periodNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+    int samples = (int) Math.ceil(duration / period) + 1;
+    positions = new double[samples];
+    velocities = new double[samples];
+
+    for (int i = 0; i < samples; i++) {
+      double time = Math.min(i * period, duration);
+      double timeLeft = duration - time;
+
+      if (time < accelerationTime) {
+        positions[i] = accelerationPosition(time);
+        velocities[i] = accelerationVelocity(time);
+      } else if (timeLeft < accelerationTime) {
+        positions[i] = distance - accelerationPosition(timeLeft);
+        velocities[i] = accelerationVelocity(timeLeft);
+      } else {
+        positions[i] = accelerationPosition(accelerationTime) + velocity * (time - accelerationTime);
+        velocities[i] = velocity;
+      }
+    }
+    positions[samples - 1] = distance;
+    velocities[samples - 1] = 0;
+  }
+
+  /**
+   * Computes the profile that moves the given distance at the default control rate.
+   *
+   * @param distance The distance to move, in ticks; the sign is ignored
+   * @param constraints The limits of the profile
+   * @return The profile
+   */
+  public static MotionProfile generate(double distance, MotionConstraints constraints) {
+    return generate(distance, constraints, DEFAULT_RATE_HZ);
+  }
+
+  /**
+   * Computes the profile that moves the given distance at the given control rate.
+   *
+   * @param distance The distance to move, in ticks; the sign is ignored
+   * @param constraints The limits of the profile
+   * @param rateHz The number of samples per second
+   * @return The profile
+   */
+  public static MotionProfile generate(double distance, MotionConstraints constraints,
+      double rateHz) {
+    if (!(rateHz > 0)) {
+      throw new IllegalArgumentException("The control rate must be positive");
+    }
+    return new MotionProfile(Math.abs(distance), constraints,
+        Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / rateHz)));
+  }
+
+  private double jerkTime(double velocity) {
+    double jerk = constraints.getMaxJerk();
+    double acceleration = constraints.getMaxAcceleration();
+
+    if (Double.isInfinite(jerk)) {
+      return 0;
+    }
+    return velocity * jerk >= acceleration * acceleration
+        ? acceleration / jerk : Math.sqrt(velocity / jerk);
+  }
+
+  private double accelerationTime(double velocity, double jerkTime) {
+    double acceleration = constraints.getMaxAcceleration();
+    double jerk = constraints.getMaxJerk();
+
+    if (Double.isInfinite(jerk) || velocity * jerk >= acceleration * acceleration) {
+      return velocity / acceleration + jerkTime;
+    }
+    return 2 * jerkTime;
+  }
+
+  // The acceleration phase is symmetric about its midpoint, so it covers half of velocity * time
+  private double accelerationDistance(double velocity) {
+    return velocity * accelerationTime(velocity, jerkTime(velocity)) / 2;
+  }
+
+  private double accelerationVelocity(double time) {
+    if (time > accelerationTime / 2) {
+      return peakVelocity - accelerationVelocity(accelerationTime - time);
+    }
+    if (time < jerkTime) {
+      return peakAcceleration * time * time / (2 * jerkTime);
+    }
+    return peakAcceleration * (jerkTime / 2 + time - jerkTime);
+  }
+
+  private double accelerationPosition(double time) {
+    if (time > accelerationTime / 2) {
+      return peakVelocity * (time - accelerationTime / 2)
+          + accelerationPosition(accelerationTime - time);
+    }
+    if (time < jerkTime) {
+      return peakAcceleration * time * time * time / (6 * jerkTime);
+    }
+    double sinceJerk = time - jerkTime;
+    return peakAcceleration * (jerkTime * jerkTime / 6 + jerkTime * sinceJerk / 2
+        + sinceJerk * sinceJerk / 2);
+  }
+
+  /**
+   * @return The distance that this profile moves, in ticks
+   */
+  public double getDistance() {
+    return distance;
+  }
+
+  /**
+   * @return The constraints that this profile obeys
+   */
+  public MotionConstraints getConstraints() {
+    return constraints;
+  }
+
+  /**
+   * @return The time between samples, in nanoseconds
+   */
+  public long getPeriodNanos() {
+    return periodNanos;
+  }
+
+  /**
+   * @return The number of samples, including those at the start and the end of the move
+   */
+  public int getSampleCount() {
+    return positions.length;
+  }
+
+  /**
+   * @return The time from the first sample to the last, in seconds
+   */
+  public double getDuration() {
+    return (positions.length - 1) * periodNanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * @return The highest velocity of this profile, in ticks per second
+   */
+  public double getPeakVelocity() {
+    return peakVelocity;
+  }
+
+  /**
+   * Looks up the position at the given sample. Samples past the end return the final position.
+   *
+   * @param sample The index of the sample
+   * @return The distance travelled by that sample, in ticks
+   */
+  public double getPosition(int sample) {
+    return positions[Math.min(sample, positions.length - 1)];
+  }
+
+  /**
+   * Looks up the velocity at the given sample. Samples past the end return 0.
+   *
+   * @param sample The index of the sample
+   * @return The velocity at that sample, in ticks per second
+   */
+  public double getVelocity(int sample) {
+    return sample < velocities.length ? velocities[sample] : 0;
+  }
+}
@@ -0,0 +1,109 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the most recently used {@link MotionProfile}s, keyed by distance and {@link
+ * MotionConstraints}, so that a repeated move reuses the table computed for it the first time. <p>
+ * Every profile in a cache is sampled at the same control rate. When the cache is full, the least
+ * recently used profile is dropped. Instances are thread-safe.
+ */
+public class MotionProfileCache {
+
+  /**
+   * The default number of profiles kept.
+   */
+  public static final int DEFAULT_CAPACITY = 32;
+
+  private final double rateHz;
+  private final Map<Key, MotionProfile> profiles;
+
+  private long hits;
+  private long misses;
+
+  /**
+   * Creates a MotionProfileCache with the default capacity and control rate.
+   */
+  public MotionProfileCache() {
+    this(DEFAULT_CAPACITY, MotionProfile.DEFAULT_RATE_HZ);
+  }
+
+  /**
+   * Creates a MotionProfileCache with the given capacity and control rate.
+   *
+   * @param capacity The number of profiles kept
+   * @param rateHz The number of samples per second of every profile
+   */
+  public MotionProfileCache(final int capacity, double rateHz) {
+    this.rateHz = rateHz;
+    this.profiles = new LinkedHashMap<Key, MotionProfile>(capacity, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Key, MotionProfile> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * Returns the profile that moves the given distance within the given constraints, computing it
+   * only if it is not already cached.
+   *
+   * @param distance The distance to move, in ticks; the sign is ignored
+   * @param constraints The limits of the profile
+   * @return The profile
+   */
+  public synchronized MotionProfile get(double distance, MotionConstraints constraints) {
+    Key key = new Key(Math.abs(distance), constraints);
+    MotionProfile profile = profiles.get(key);
+
+    if (profile == null) {
+      misses++;
+      profile = MotionProfile.generate(distance, constraints, rateHz);
+      profiles.put(key, profile);
+    } else {
+      hits++;
+    }
+    return profile;
+  }
+
+  /**
+   * @return The number of lookups answered from the cache
+   */
+  public synchronized long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return The number of lookups that computed a new profile
+   */
+  public synchronized long getMisses() {
+    return misses;
+  }
+
+  private static final class Key {
+
+    private final double distance;
+    private final MotionConstraints constraints;
+
+    Key(double distance, MotionConstraints constraints) {
+      this.distance = distance;
+      this.constraints = constraints;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return Double.compare(that.distance, distance) == 0 && constraints.equals(that.constraints);
+    }
+
+    @Override
+    public int hashCode() {
+      long bits = Double.doubleToLongBits(distance);
+      return 31 * (int) (bits ^ (bits >>> 32)) + constraints.hashCode();
+    }
+  }
+}
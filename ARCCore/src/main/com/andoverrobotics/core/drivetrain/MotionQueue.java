@@ -0,0 +1,369 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Coordinate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a sequence of strafing segments as one continuous trajectory, so that the robot keeps its
+ * velocity through the waypoints between segments instead of stopping after each one. <p> A queue
+ * is obtained from {@link StrafingDriveTrain#motionQueue()}, filled with segments, then run:
+ * <pre>{@code
+ *   drivetrain.motionQueue()
+ *       .strafeRight(5)
+ *       .driveForwards(8)
+ *       .strafeLeft(5)
+ *       .run(0.6);
+ * }</pre>
+ * <p> The whole path is traversed by a single {@link MotionProfile} within the drivetrain's {@link
+ * DriveTrain#setMotionConstraints motion constraints}, which are required. Within the blend
+ * distance of each waypoint, the path is rounded into a curve that joins the two segments, so the
+ * direction of travel changes smoothly; the corners themselves are not limited in acceleration.
+ * <h2>Instrumentation</h2> {@link #getStopAndGoDuration()} estimates how long the same segments
+ * would take as separate profiled moves, and a {@link Listener} receives the measured time of each
+ * run, which together give the time that blending saves.
+ */
+public class MotionQueue {
+
+  /**
+   * Receives the outcome of every run of a queue.
+   */
+  public interface Listener {
+
+    /**
+     * Called once when a run of the queue ends, on the thread that ended it.
+     *
+     * @param queue The queue that was run
+     * @param status The final status of the run
+     * @param elapsedNanos The time from the start of the run to its end, in nanoseconds
+     */
+    void onSequenceEnded(MotionQueue queue, Status status, long elapsedNanos);
+  }
+
+  /**
+   * The default distance, in inches, from a waypoint at which blending starts.
+   */
+  public static final double DEFAULT_BLEND_INCHES = 2;
+
+  private static final double MIN_SEGMENT_INCHES = 1e-5;
+
+  private final StrafingDriveTrain driveTrain;
+  private final List<Coordinate> segments = new ArrayList<>();
+  private double blendInches = DEFAULT_BLEND_INCHES;
+  private Listener listener;
+
+  // The path of the last plan, in inches
+  private double[] startX, startY, directionX, directionY, lengths, starts, radii;
+  private double plannedSeconds;
+  private double stopAndGoSeconds;
+
+  MotionQueue(StrafingDriveTrain driveTrain) {
+    this.driveTrain = driveTrain;
+  }
+
+  /**
+   * Adds a segment that strafes the vector &lt;xInInches, yInInches&gt;.
+   *
+   * @param xInInches The number of inches to strafe in the x-direction
+   * @param yInInches The number of inches to strafe in the y-direction
+   * @return This queue
+   */
+  public MotionQueue strafe(double xInInches, double yInInches) {
+    return strafe(Coordinate.fromXY(xInInches, yInInches));
+  }
+
+  /**
+   * Adds a segment that strafes the vector inchOffset.
+   *
+   * @param inchOffset The coordinate, relative to the end of the previous segment, to strafe to
+   * @return This queue
+   */
+  public MotionQueue strafe(Coordinate inchOffset) {
+    if (inchOffset.getPolarDistance() >= MIN_SEGMENT_INCHES) {
+      segments.add(inchOffset);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a segment that drives forwards.
+   *
+   * @param distanceInInches The number of inches to drive forwards
+   * @return This queue
+   */
+  public MotionQueue driveForwards(double distanceInInches) {
+    return strafe(0, Math.abs(distanceInInches));
+  }
+
+  /**
+   * Adds a segment that drives backwards.
+   *
+   * @param distanceInInches The number of inches to drive backwards
+   * @return This queue
+   */
+  public MotionQueue driveBackwards(double distanceInInches) {
+    return strafe(0, -Math.abs(distanceInInches));
+  }
+
+  /**
+   * Adds a segment that strafes right. A negative distance strafes left.
+   *
+   * @param distanceInInches The number of inches to strafe right
+   * @return This queue
+   */
+  public MotionQueue strafeRight(double distanceInInches) {
+    return strafe(distanceInInches, 0);
+  }
+
+  /**
+   * Adds a segment that strafes left. A negative distance strafes right.
+   *
+   * @param distanceInInches The number of inches to strafe left
+   * @return This queue
+   */
+  public MotionQueue strafeLeft(double distanceInInches) {
+    return strafe(-distanceInInches, 0);
+  }
+
+  /**
+   * Removes every segment from this queue.
+   *
+   * @return This queue
+   */
+  public MotionQueue clear() {
+    segments.clear();
+    return this;
+  }
+
+  /**
+   * @return The number of segments in this queue
+   */
+  public int size() {
+    return segments.size();
+  }
+
+  /**
+   * Sets the distance from each waypoint at which the path starts to curve into the next segment.
+   * The distance is reduced where a segment is too short to blend at both ends. A distance of 0
+   * keeps the corners sharp, though velocity is still carried through them.
+   *
+   * @param blendInches The blend distance, in inches
+   * @return This queue
+   */
+  public MotionQueue setBlendDistance(double blendInches) {
+    this.blendInches = Math.max(0, blendInches);
+    return this;
+  }
+
+  /**
+   * Sets the listener that receives the outcome of every run.
+   *
+   * @param listener The listener, or <code>null</code> to remove it
+   * @return This queue
+   */
+  public MotionQueue setListener(Listener listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  /**
+   * Runs every segment in this queue as one trajectory, and waits for it to end.
+   *
+   * @param power The greatest power, between 0 and 1, given to any motor
+   * @return The final status of the run
+   */
+  public Status run(double power) {
+    MotionHandle handle = runAsync(power);
+    handle.awaitUninterruptibly();
+    return handle.getStatus();
+  }
+
+  /**
+   * Starts running every segment in this queue as one trajectory, without waiting for it to end.
+   *
+   * @param power The greatest power, between 0 and 1, given to any motor
+   * @return The handle of the started run
+   * @throws IllegalStateException if the drivetrain has no motion constraints
+   */
+  public MotionHandle runAsync(double power) {
+    MotionConstraints constraints = driveTrain.getMotionConstraints();
+    if (constraints == null) {
+      throw new IllegalStateException("A motion queue requires motion constraints");
+    }
+    if (segments.isEmpty()) {
+      return MotionHandle.completed();
+    }
+
+    Trajectory trajectory = plan(constraints);
+
+    final Clock clock = driveTrain.getClock();
+    final long startNanos = clock.nanoTime();
+    final MotionHandle handle = driveTrain.startTrajectory(driveTrain.getStrafeMotors(),
+        trajectory, Math.abs(power));
+    final Listener currentListener = listener;
+
+    if (currentListener != null) {
+      handle.setOnFinish(new Runnable() {
+        @Override
+        public void run() {
+          currentListener.onSequenceEnded(MotionQueue.this, handle.getStatus(),
+              clock.nanoTime() - startNanos);
+        }
+      });
+    }
+    return handle;
+  }
+
+  /**
+   * @return The duration, in seconds, of the blended trajectory of the last run
+   */
+  public double getPlannedDuration() {
+    return plannedSeconds;
+  }
+
+  /**
+   * @return The total duration, in seconds, of the profiles that the segments of the last run would
+   * follow if run one at a time
+   */
+  public double getStopAndGoDuration() {
+    return stopAndGoSeconds;
+  }
+
+  /**
+   * @return The time, in seconds, that blending saved on the last run according to the profiles,
+   * not counting the time spent stopping and changing modes between separate moves
+   */
+  public double getEstimatedTimeSaved() {
+    return stopAndGoSeconds - plannedSeconds;
+  }
+
+  private Trajectory plan(MotionConstraints constraints) {
+    int count = segments.size();
+    startX = new double[count];
+    startY = new double[count];
+    directionX = new double[count];
+    directionY = new double[count];
+    lengths = new double[count];
+    starts = new double[count + 1];
+    radii = new double[count + 1];
+
+    StrafeTicks ticks = new StrafeTicks(driveTrain.getStrafeMotors().length);
+    double x = 0, y = 0, ticksPerInch = 0;
+    stopAndGoSeconds = 0;
+
+    for (int i = 0; i < count; i++) {
+      Coordinate segment = segments.get(i);
+      double length = segment.getPolarDistance();
+
+      startX[i] = x;
+      startY[i] = y;
+      directionX[i] = segment.getX() / length;
+      directionY[i] = segment.getY() / length;
+      lengths[i] = length;
+      starts[i + 1] = starts[i] + length;
+      x += segment.getX();
+      y += segment.getY();
+
+      // The motor that turns the most sets the pace, as in a single encoder move
+      double segmentTicksPerInch = ticks.maxMagnitude(directionX[i], directionY[i]);
+      ticksPerInch = Math.max(ticksPerInch, segmentTicksPerInch);
+      stopAndGoSeconds += MotionProfile.generate(length * segmentTicksPerInch, constraints,
+          MotionProfile.DEFAULT_RATE_HZ).getDuration();
+    }
+
+    for (int i = 1; i < count; i++) {
+      radii[i] = Math.min(blendInches, Math.min(lengths[i - 1], lengths[i]) / 2);
+    }
+
+    double totalInches = starts[count];
+    MotionProfile profile = driveTrain.getProfileCache().get(totalInches * ticksPerInch,
+        constraints);
+    plannedSeconds = profile.getDuration();
+
+    int motors = ticks.values.length;
+    int samples = profile.getSampleCount();
+    double[][] positions = new double[motors][samples];
+    double[][] velocities = new double[motors][samples];
+    double[] point = new double[2];
+    int segment = 0;
+
+    for (int sample = 0; sample < samples; sample++) {
+      double distance = Math.min(profile.getPosition(sample) / ticksPerInch, totalInches);
+      while (segment < count - 1 && distance >= starts[segment + 1]) {
+        segment++;
+      }
+      pointAt(segment, distance, point);
+      driveTrain.toStrafeTicks(point[0], point[1], ticks.values);
+      for (int motor = 0; motor < motors; motor++) {
+        positions[motor][sample] = ticks.values[motor];
+      }
+    }
+
+    double periodSeconds = profile.getPeriodNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+    for (int motor = 0; motor < motors; motor++) {
+      double[] position = positions[motor];
+      for (int sample = 1; sample < samples - 1; sample++) {
+        velocities[motor][sample] =
+            (position[sample + 1] - position[sample - 1]) / (2 * periodSeconds);
+      }
+    }
+
+    return Trajectory.fromTables(profile.getPeriodNanos(), positions, velocities);
+  }
+
+  // Finds the point at the given distance along the path, rounding the corners at the waypoints
+  private void pointAt(int segment, double distance, double[] point) {
+    double along = distance - starts[segment];
+    double toEnd = lengths[segment] - along;
+
+    if (segment > 0 && along < radii[segment]) {
+      cornerPoint(segment, (along + radii[segment]) / (2 * radii[segment]), point);
+    } else if (segment < lengths.length - 1 && toEnd < radii[segment + 1]) {
+      cornerPoint(segment + 1, (radii[segment + 1] - toEnd) / (2 * radii[segment + 1]), point);
+    } else {
+      point[0] = startX[segment] + directionX[segment] * along;
+      point[1] = startY[segment] + directionY[segment] * along;
+    }
+  }
+
+  // A quadratic Bezier curve from the incoming segment to the outgoing segment of the waypoint at
+  // the start of the given segment, with the waypoint as its control point
+  private void cornerPoint(int segment, double progress, double[] point) {
+    double radius = radii[segment];
+    double waypointX = startX[segment], waypointY = startY[segment];
+    double fromX = waypointX - directionX[segment - 1] * radius;
+    double fromY = waypointY - directionY[segment - 1] * radius;
+    double toX = waypointX + directionX[segment] * radius;
+    double toY = waypointY + directionY[segment] * radius;
+
+    double remaining = 1 - progress;
+    double fromWeight = remaining * remaining;
+    double waypointWeight = 2 * progress * remaining;
+    double toWeight = progress * progress;
+
+    point[0] = fromWeight * fromX + waypointWeight * waypointX + toWeight * toX;
+    point[1] = fromWeight * fromY + waypointWeight * waypointY + toWeight * toY;
+  }
+
+  // Scratch space for the ticks of the strafing motors
+  private final class StrafeTicks {
+
+    final double[] values;
+
+    StrafeTicks(int motors) {
+      values = new double[motors];
+    }
+
+    double maxMagnitude(double xInInches, double yInInches) {
+      driveTrain.toStrafeTicks(xInInches, yInInches, values);
+      double max = 0;
+      for (double value : values) {
+        max = Math.max(max, Math.abs(value));
+      }
+      return max;
+    }
+  }
+}
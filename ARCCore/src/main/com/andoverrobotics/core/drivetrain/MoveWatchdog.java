@@ -0,0 +1,231 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.IMotor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ends encoder moves that cannot finish, such as one blocked by the lander or a mineral, whose
+ * motors would otherwise stay busy until the end of the match. <p> A move is {@link
+ * Status#STALLED stalled} when its power is at least the stall power, yet no motor has turned
+ * faster than the stall speed over the stall window. Speeds are estimated from a ring buffer of
+ * encoder samples, taken at most once per sample interval so that the watchdog adds few hub
+ * transactions to the checks of a move. A move that settles just outside the tolerance of its
+ * motors also stops turning, and is ended the same way. <p> A move is {@link Status#TIMED_OUT
+ * timed out} when it runs past its deadline, which is the time that the move would take at the
+ * full speed of its power, multiplied by the deadline factor, plus the deadline allowance. <p> A
+ * watchdog holds only its settings; each move is watched by its own {@link Monitor}, which
+ * allocates its buffer once, when it is created.
+ *
+ * @see DriveTrain#setMoveWatchdog(MoveWatchdog)
+ */
+public class MoveWatchdog {
+
+  /**
+   * The shortest time, in milliseconds, between two samples of the encoders, when none is given.
+   */
+  public static final long DEFAULT_SAMPLE_MILLIS = 25;
+
+  /**
+   * The time, in milliseconds, over which the motors must stay slow to be stalled, when none is
+   * given.
+   */
+  public static final long DEFAULT_STALL_WINDOW_MILLIS = 300;
+
+  /**
+   * The least power of a move that can stall, when none is given.
+   */
+  public static final double DEFAULT_STALL_POWER = 0.2;
+
+  /**
+   * The fraction of the full speed below which the motors are considered stopped, when none is
+   * given.
+   */
+  public static final double DEFAULT_STALL_SPEED_FRACTION = 0.05;
+
+  /**
+   * The factor by which the expected time of a move is multiplied for its deadline, when none is
+   * given.
+   */
+  public static final double DEFAULT_DEADLINE_FACTOR = 2;
+
+  /**
+   * The time, in milliseconds, added to every deadline for the motors to start and settle, when
+   * none is given.
+   */
+  public static final long DEFAULT_DEADLINE_ALLOWANCE_MILLIS = 1000;
+
+  private final double maxTicksPerSecond;
+
+  private long sampleNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_SAMPLE_MILLIS);
+  private long stallWindowNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_STALL_WINDOW_MILLIS);
+  private double stallPower = DEFAULT_STALL_POWER;
+  private double stallTicksPerSecond;
+  private double deadlineFactor = DEFAULT_DEADLINE_FACTOR;
+  private long deadlineAllowanceNanos =
+      TimeUnit.MILLISECONDS.toNanos(DEFAULT_DEADLINE_ALLOWANCE_MILLIS);
+
+  /**
+   * Creates a watchdog with the default settings.
+   *
+   * @param maxTicksPerSecond The speed of the watched motors at full power, in ticks per second
+   * @throws IllegalArgumentException if the speed is not positive
+   */
+  public MoveWatchdog(double maxTicksPerSecond) {
+    if (!(maxTicksPerSecond > 0)) {
+      throw new IllegalArgumentException("The full speed must be positive");
+    }
+    this.maxTicksPerSecond = maxTicksPerSecond;
+    this.stallTicksPerSecond = maxTicksPerSecond * DEFAULT_STALL_SPEED_FRACTION;
+  }
+
+  /**
+   * Sets when a move is stalled. A stall speed of 0 disables stall detection.
+   *
+   * @param minPower The least power of a move that can stall
+   * @param minTicksPerSecond The speed, in ticks per second, below which the motors are stopped
+   * @param windowMillis The time, in milliseconds, over which the motors must stay below that speed
+   */
+  public void setStallDetection(double minPower, double minTicksPerSecond, long windowMillis) {
+    stallPower = minPower;
+    stallTicksPerSecond = minTicksPerSecond;
+    stallWindowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+  }
+
+  /**
+   * Sets the deadline of a move. A factor of {@link Double#POSITIVE_INFINITY} disables deadlines.
+   *
+   * @param factor The factor by which the expected time of a move is multiplied
+   * @param allowanceMillis The time, in milliseconds, added for the motors to start and settle
+   */
+  public void setDeadline(double factor, long allowanceMillis) {
+    deadlineFactor = factor;
+    deadlineAllowanceNanos = TimeUnit.MILLISECONDS.toNanos(allowanceMillis);
+  }
+
+  /**
+   * Sets the shortest time between two samples of the encoders.
+   *
+   * @param millis The time, in milliseconds
+   */
+  public void setSampleInterval(long millis) {
+    sampleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, millis));
+  }
+
+  /**
+   * Starts watching a move that runs its motors by the given distance, at the given power.
+   *
+   * @param motors The motors of the move
+   * @param tickDistance The greatest number of ticks that any motor travels
+   * @param power The greatest power of the move, between 0 and 1
+   * @param clock The clock that the move is timed with
+   * @return The monitor of the move
+   */
+  public Monitor watch(IMotor[] motors, int tickDistance, double power, Clock clock) {
+    double expectedSeconds = Math.abs(tickDistance) / (Math.abs(power) * maxTicksPerSecond);
+    return watchDuration(motors, expectedSeconds, power, clock);
+  }
+
+  // Used for trajectories, whose duration is already known
+  Monitor watchDuration(IMotor[] motors, double expectedSeconds, double power, Clock clock) {
+    long budget;
+    double budgetNanos = expectedSeconds * deadlineFactor * 1e9;
+    if (Double.isInfinite(budgetNanos) || Double.isNaN(budgetNanos)
+        || budgetNanos >= Long.MAX_VALUE / 2) {
+      budget = Long.MAX_VALUE;
+    } else {
+      budget = (long) budgetNanos + deadlineAllowanceNanos;
+    }
+
+    boolean detectStalls = stallTicksPerSecond > 0 && Math.abs(power) >= stallPower;
+    return new Monitor(motors, clock, budget, detectStalls, sampleNanos, stallWindowNanos,
+        stallTicksPerSecond);
+  }
+
+  /**
+   * Watches one move. It samples the encoders when it is checked, so it must be checked regularly,
+   * as a {@link MotionHandle} does while it is polled or awaited.
+   */
+  public static final class Monitor {
+
+    private final IMotor[] motors;
+    private final Clock clock;
+    private final long startNanos;
+    private final long budgetNanos;
+    private final boolean detectStalls;
+    private final long sampleNanos;
+    private final long windowNanos;
+    private final double stallTicksPerSecond;
+
+    // A ring of samples; the positions of sample i are at i * motors.length
+    private final long[] sampleTimes;
+    private final int[] samplePositions;
+    private int newest = -1;
+    private int samples;
+    private double speed = Double.NaN;
+
+    Monitor(IMotor[] motors, Clock clock, long budgetNanos, boolean detectStalls,
+        long sampleNanos, long windowNanos, double stallTicksPerSecond) {
+      this.motors = motors;
+      this.clock = clock;
+      this.startNanos = clock.nanoTime();
+      this.budgetNanos = budgetNanos;
+      this.detectStalls = detectStalls;
+      this.sampleNanos = sampleNanos;
+      this.windowNanos = windowNanos;
+      this.stallTicksPerSecond = stallTicksPerSecond;
+
+      int capacity = detectStalls ? (int) ((windowNanos + sampleNanos - 1) / sampleNanos) + 1 : 0;
+      sampleTimes = new long[capacity];
+      samplePositions = new int[capacity * motors.length];
+    }
+
+    /**
+     * Checks the move, sampling the encoders if the sample interval has passed.
+     *
+     * @return {@link Status#TIMED_OUT} or {@link Status#STALLED} if the move should end, or {@link
+     * Status#RUNNING} otherwise
+     */
+    public Status check() {
+      long now = clock.nanoTime();
+      if (now - startNanos >= budgetNanos) {
+        return Status.TIMED_OUT;
+      }
+      if (!detectStalls || (samples > 0 && now - sampleTimes[newest] < sampleNanos)) {
+        return Status.RUNNING;
+      }
+
+      newest = (newest + 1) % sampleTimes.length;
+      samples = Math.min(samples + 1, sampleTimes.length);
+      sampleTimes[newest] = now;
+      int base = newest * motors.length;
+      for (int i = 0; i < motors.length; i++) {
+        samplePositions[base + i] = motors[i].getCurrentPosition();
+      }
+
+      int oldest = (newest - samples + 1 + sampleTimes.length) % sampleTimes.length;
+      long span = now - sampleTimes[oldest];
+      if (span < windowNanos) {
+        return Status.RUNNING;
+      }
+
+      int oldestBase = oldest * motors.length;
+      double fastest = 0;
+      for (int i = 0; i < motors.length; i++) {
+        fastest = Math.max(fastest,
+            Math.abs(samplePositions[base + i] - samplePositions[oldestBase + i]));
+      }
+      speed = fastest / (span / 1e9);
+      return speed < stallTicksPerSecond ? Status.STALLED : Status.RUNNING;
+    }
+
+    /**
+     * @return The speed of the fastest motor over the last full window, in ticks per second, or NaN
+     * if no window has been sampled yet
+     */
+    public double getSpeed() {
+      return speed;
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ * Drives a set of {@link IMotor}s along a {@link Trajectory} by stepping through its table once per
+ * control period. <p> When following a {@link MotionProfile}, each motor travels the profile's
+ * distance multiplied by its scale, so that motors with different offsets (like the diagonals of a
+ * strafing Mecanum robot) start and stop together; a negative scale reverses a motor. Every period,
+ * each motor's power is set to
+ * <pre>  feedforward(velocity, acceleration) + positionGain * (position - distance travelled)</pre>
+ * clipped to the maximum power, where the position, velocity and acceleration are those of the
+ * motor's table. A plain velocity gain is a {@link Feedforward} with only a velocity term; a
+ * characterized one drives the motors close to the trajectory by itself, which leaves the position
+ * term only the error to correct.
+ * <p> {@link #update()} does not allocate memory, and may be called more often than the control
+ * rate; calls within the same period do nothing. The follower finishes once the trajectory has
+ * ended and every motor is within the tolerance of its target, or once it has tried to settle for
+ * {@link #SETTLE_TIMEOUT_MILLIS}, in which case its result is {@link
+ * MotionHandle.Status#TIMED_OUT}.
+ */
+public class ProfileFollower implements Follower {
+
+  /**
+   * The default distance, in ticks, within which a motor counts as having reached its target.
+   */
+  public static final int DEFAULT_TOLERANCE_TICKS = 10;
+
+  /**
+   * The time, in milliseconds, that a follower keeps correcting after its profile has ended.
+   */
+  public static final long SETTLE_TIMEOUT_MILLIS = 500;
+
+  private static final long NANOS_PER_MILLI = 1000000;
+
+  private final Trajectory trajectory;
+  private final IMotor[] motors;
+  private final Feedforward feedforward;
+  private final double positionGain;
+  private final double maxPower;
+  private final Clock clock;
+
+  private final int[] startPositions;
+  private final double periodSeconds;
+  private int toleranceTicks = DEFAULT_TOLERANCE_TICKS;
+
+  private long startNanos;
+  private int appliedSample = -1;
+  private boolean started;
+  private volatile boolean finished;
+  private volatile boolean unsettled;
+
+  /**
+   * Creates a ProfileFollower that is timed by the system clock.
+   *
+   * @param profile The profile to follow
+   * @param motors The motors to drive
+   * @param scales The factor by which the profile is multiplied for each motor
+   * @param velocityGain The power per tick per second of profile velocity
+   * @param positionGain The power per tick of position error
+   * @param maxPower The greatest power, between 0 and 1, given to any motor
+   */
+  public ProfileFollower(MotionProfile profile, IMotor[] motors, double[] scales,
+      double velocityGain, double positionGain, double maxPower) {
+    this(profile, motors, scales, velocityGain, positionGain, maxPower, Clock.SYSTEM);
+  }
+
+  /**
+   * Creates a ProfileFollower that is timed by the given {@link Clock}.
+   *
+   * @param profile The profile to follow
+   * @param motors The motors to drive
+   * @param scales The factor by which the profile is multiplied for each motor
+   * @param velocityGain The power per tick per second of profile velocity
+   * @param positionGain The power per tick of position error
+   * @param maxPower The greatest power, between 0 and 1, given to any motor
+   * @param clock The clock that times the profile
+   */
+  public ProfileFollower(MotionProfile profile, IMotor[] motors, double[] scales,
+      double velocityGain, double positionGain, double maxPower, Clock clock) {
+    this(Trajectory.fromProfile(profile, scales), motors, velocityGain, positionGain, maxPower,
+        clock);
+  }
+
+  /**
+   * Creates a ProfileFollower for the given trajectory that is timed by the given {@link Clock}.
+   *
+   * @param trajectory The trajectory to follow
+   * @param motors The motors to drive, in the order of the trajectory's tables
+   * @param velocityGain The power per tick per second of target velocity
+   * @param positionGain The power per tick of position error
+   * @param maxPower The greatest power, between 0 and 1, given to any motor
+   * @param clock The clock that times the trajectory
+   */
+  public ProfileFollower(Trajectory trajectory, IMotor[] motors, double velocityGain,
+      double positionGain, double maxPower, Clock clock) {
+    this(trajectory, motors, new Feedforward(0, velocityGain, 0), positionGain, maxPower, clock);
+  }
+
+  /**
+   * Creates a ProfileFollower for the given trajectory that drives the motors with the given
+   * feedforward, timed by the given {@link Clock}.
+   *
+   * @param trajectory The trajectory to follow
+   * @param motors The motors to drive, in the order of the trajectory's tables
+   * @param feedforward The model of the power that follows the target velocity and acceleration
+   * @param positionGain The power per tick of position error
+   * @param maxPower The greatest power, between 0 and 1, given to any motor
+   * @param clock The clock that times the trajectory
+   */
+  public ProfileFollower(Trajectory trajectory, IMotor[] motors, Feedforward feedforward,
+      double positionGain, double maxPower, Clock clock) {
+    if (motors.length != trajectory.getMotorCount()) {
+      throw new IllegalArgumentException("Every motor needs exactly one table");
+    }
+
+    this.trajectory = trajectory;
+    this.motors = motors.clone();
+    this.feedforward = feedforward;
+    this.positionGain = positionGain;
+    this.maxPower = Math.abs(Range.clip(maxPower, -1, 1));
+    this.clock = clock;
+    this.startPositions = new int[motors.length];
+    this.periodSeconds = trajectory.getPeriodNanos() / 1e9;
+  }
+
+  /**
+   * Sets the distance within which a motor counts as having reached its target.
+   *
+   * @param toleranceTicks The tolerance, in ticks
+   */
+  public void setTolerance(int toleranceTicks) {
+    this.toleranceTicks = Math.abs(toleranceTicks);
+  }
+
+  /**
+   * Puts the motors into {@link RunMode#RUN_USING_ENCODER}, records their positions, and starts the
+   * clock of the profile.
+   */
+  public void start() {
+    for (int i = 0; i < motors.length; i++) {
+      motors[i].setMode(RunMode.RUN_USING_ENCODER);
+      startPositions[i] = motors[i].getCurrentPosition();
+    }
+    startNanos = clock.nanoTime();
+    appliedSample = -1;
+    finished = false;
+    unsettled = false;
+    started = true;
+  }
+
+  /**
+   * Applies the sample of the current control period, if it has not been applied yet. Starts the
+   * follower if {@link #start()} has not been called.
+   *
+   * @return True while the follower is running, false once it has finished
+   */
+  @Override
+  public boolean update() {
+    if (finished) {
+      return false;
+    }
+    if (!started) {
+      start();
+    }
+
+    long elapsedNanos = clock.nanoTime() - startNanos;
+    long periods = elapsedNanos / trajectory.getPeriodNanos();
+    int sample = (int) Math.min(periods, Integer.MAX_VALUE);
+    if (sample == appliedSample) {
+      return true;
+    }
+    appliedSample = sample;
+
+    int finalSample = trajectory.getSampleCount() - 1;
+    boolean settled = true;
+
+    for (int i = 0; i < motors.length; i++) {
+      double travelled = motors[i].getCurrentPosition() - startPositions[i];
+      double error = trajectory.getPosition(i, sample) - travelled;
+
+      if (Math.abs(trajectory.getPosition(i, finalSample) - travelled) > toleranceTicks) {
+        settled = false;
+      }
+
+      // The acceleration of the table is that of the period that begins with this sample
+      double velocity = trajectory.getVelocity(i, sample);
+      double acceleration = sample >= finalSample ? 0
+          : (trajectory.getVelocity(i, sample + 1) - velocity) / periodSeconds;
+
+      double power = feedforward.calculate(velocity, acceleration) + positionGain * error;
+      motors[i].setPower(Range.clip(power, -maxPower, maxPower));
+    }
+
+    if (sample >= finalSample) {
+      long overtimeNanos = elapsedNanos - finalSample * trajectory.getPeriodNanos();
+      if (settled || overtimeNanos > SETTLE_TIMEOUT_MILLIS * NANOS_PER_MILLI) {
+        unsettled = !settled;
+        stop();
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Stops the motors and finishes the follower.
+   */
+  @Override
+  public void stop() {
+    for (IMotor motor : motors) {
+      motor.setPower(0);
+    }
+    finished = true;
+  }
+
+  /**
+   * @return {@link MotionHandle.Status#TIMED_OUT} if the follower gave up on settling with a motor
+   * outside the tolerance of its target, or {@link MotionHandle.Status#COMPLETED} otherwise
+   */
+  @Override
+  public MotionHandle.Status getResult() {
+    return unsettled ? MotionHandle.Status.TIMED_OUT : MotionHandle.Status.COMPLETED;
+  }
+
+  /**
+   * @return True if the follower has finished
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * @return The trajectory being followed
+   */
+  public Trajectory getTrajectory() {
+    return trajectory;
+  }
+}
@@ -0,0 +1,352 @@
+package com.andoverrobotics.core.drivetrain;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.localization.PoseEstimate;
+import com.andoverrobotics.core.localization.PoseSource;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.Trig;
+import com.qualcomm.robotcore.util.Range;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Follows a path of field waypoints with a {@link MecanumDrive} by pure pursuit: at a fixed
+ * rate, the robot strafes towards the point of the path that lies one lookahead distance away,
+ * while turning towards a target heading. <p> The path starts where the robot is when the follower
+ * starts and passes through each waypoint in order. Positions come from a {@link PoseSource}, such
+ * as a {@link com.andoverrobotics.core.localization.PoseEstimator}, in the field frame of {@link
+ * PoseEstimate}. The follower finishes once the robot is within the position tolerance of the last
+ * waypoint and within the heading tolerance of the target heading:
+ * <pre>{@code
+ *   PurePursuitFollower follower = new PurePursuitFollower(drivetrain, odometry,
+ *       Arrays.asList(Coordinate.fromXY(24, 12), Coordinate.fromXY(48, 0)), Math.PI / 2);
+ *   follower.follow();
+ * }</pre>
+ * <p> The search for the lookahead point only moves forwards along the path, starting from the
+ * segment of the previous search, so each update costs O(1) amortized regardless of the length of
+ * the path. The drivetrain must be able to {@link MecanumDrive#canStrafeAndRotate() strafe and
+ * rotate at once}.
+ */
+public class PurePursuitFollower implements Follower {
+
+  /**
+   * The default lookahead distance, in inches.
+   */
+  public static final double DEFAULT_LOOKAHEAD_INCHES = 6;
+  /**
+   * The default distance, in inches, within which the robot counts as having reached the end.
+   */
+  public static final double DEFAULT_POSITION_TOLERANCE_INCHES = 0.5;
+  /**
+   * The default angle, in degrees, within which the robot counts as facing the target heading.
+   */
+  public static final double DEFAULT_HEADING_TOLERANCE_DEGREES = 2;
+  /**
+   * The default number of commands per second.
+   */
+  public static final double DEFAULT_RATE_HZ = 50;
+
+  private final MecanumDrive driveTrain;
+  private final PoseSource poseSource;
+  private final double[] waypointX, waypointY;
+  private final double targetHeading;
+  private final Clock clock;
+
+  private double lookahead = DEFAULT_LOOKAHEAD_INCHES;
+  private double positionTolerance = DEFAULT_POSITION_TOLERANCE_INCHES;
+  private double headingTolerance = Math.toRadians(DEFAULT_HEADING_TOLERANCE_DEGREES);
+  private double speed = 0.6;
+  private double turnGain = 1;
+  private Trig trig = Trig.EXACT;
+  private long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / DEFAULT_RATE_HZ);
+
+  // The path, which starts at the pose of the robot when the follower starts
+  private double[] pathX, pathY, lengthAfter;
+  private int segment;
+  private double segmentProgress;
+
+  private long startNanos;
+  private long appliedPeriod = -1;
+  private boolean started;
+  private volatile boolean finished;
+
+  /**
+   * Creates a PurePursuitFollower that is timed by the system clock.
+   *
+   * @param driveTrain The drivetrain to command
+   * @param poseSource The source of the robot's pose
+   * @param waypoints The field coordinates, in inches, that the path passes through
+   * @param targetHeading The heading to turn to, in radians counterclockwise from the positive
+   * x-axis
+   */
+  public PurePursuitFollower(MecanumDrive driveTrain, PoseSource poseSource,
+      List<Coordinate> waypoints, double targetHeading) {
+    this(driveTrain, poseSource, waypoints, targetHeading, Clock.SYSTEM);
+  }
+
+  /**
+   * Creates a PurePursuitFollower that is timed by the given {@link Clock}.
+   *
+   * @param driveTrain The drivetrain to command
+   * @param poseSource The source of the robot's pose
+   * @param waypoints The field coordinates, in inches, that the path passes through
+   * @param targetHeading The heading to turn to, in radians counterclockwise from the positive
+   * x-axis
+   * @param clock The clock that sets the rate of the commands
+   * @throws IllegalArgumentException if the path has no waypoints, or the drivetrain cannot strafe
+   * and rotate at once
+   */
+  public PurePursuitFollower(MecanumDrive driveTrain, PoseSource poseSource,
+      List<Coordinate> waypoints, double targetHeading, Clock clock) {
+    if (waypoints.isEmpty()) {
+      throw new IllegalArgumentException("A path needs at least one waypoint");
+    }
+    if (!driveTrain.canStrafeAndRotate()) {
+      throw new IllegalArgumentException(
+          "Pure pursuit needs a MecanumDrive constructed from its four wheels");
+    }
+
+    this.driveTrain = driveTrain;
+    this.poseSource = poseSource;
+    this.targetHeading = targetHeading;
+    this.clock = clock;
+
+    waypointX = new double[waypoints.size()];
+    waypointY = new double[waypoints.size()];
+    for (int i = 0; i < waypoints.size(); i++) {
+      waypointX[i] = waypoints.get(i).getX();
+      waypointY[i] = waypoints.get(i).getY();
+    }
+  }
+
+  /**
+   * Sets the distance ahead of the robot, along the path, of the point it strafes towards. Longer
+   * distances give smoother but looser paths.
+   *
+   * @param inches The lookahead distance, in inches
+   */
+  public void setLookahead(double inches) {
+    lookahead = Math.abs(inches);
+  }
+
+  /**
+   * Sets the strafing power, which is reduced within one lookahead distance of the end.
+   *
+   * @param power The power, between 0 and 1, inclusive
+   */
+  public void setSpeed(double power) {
+    speed = Math.abs(Range.clip(power, -1, 1));
+  }
+
+  /**
+   * Sets the rotation power per radian of heading error.
+   *
+   * @param gain The rotation gain
+   */
+  public void setTurnGain(double gain) {
+    turnGain = gain;
+  }
+
+  /**
+   * Sets the tolerances within which the follower finishes.
+   *
+   * @param inches The distance from the last waypoint, in inches
+   * @param degrees The angle from the target heading, in degrees
+   */
+  public void setTolerance(double inches, double degrees) {
+    positionTolerance = Math.abs(inches);
+    headingTolerance = Math.toRadians(Math.abs(degrees));
+  }
+
+  /**
+   * Sets the number of commands sent to the drivetrain per second.
+   *
+   * @param hertz The command rate
+   */
+  public void setRate(double hertz) {
+    periodNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / hertz));
+  }
+
+  /**
+   * Sets the trigonometric functions with which the lookahead point is converted into the robot's
+   * frame, such as {@link com.andoverrobotics.core.utilities.FastMath#DEFAULT}.
+   *
+   * @param trig The trigonometric functions; {@link Trig#EXACT} by default
+   */
+  public void setTrig(Trig trig) {
+    this.trig = trig;
+  }
+
+  /**
+   * Follows the path and waits until the robot reaches its end.
+   *
+   * @return The final status of the move
+   */
+  public Status follow() {
+    MotionHandle handle = followAsync();
+    handle.awaitUninterruptibly();
+    return handle.getStatus();
+  }
+
+  /**
+   * Starts following the path without waiting for the robot to reach its end. The returned handle
+   * must be polled or awaited for the robot to keep moving.
+   *
+   * @return The handle of the move
+   */
+  public MotionHandle followAsync() {
+    start();
+    return new MotionHandle(driveTrain, this);
+  }
+
+  /**
+   * Starts the path at the current pose of the robot.
+   */
+  public void start() {
+    PoseEstimate pose = poseSource.getPose();
+    int points = waypointX.length + 1;
+
+    pathX = new double[points];
+    pathY = new double[points];
+    pathX[0] = pose.getX();
+    pathY[0] = pose.getY();
+    System.arraycopy(waypointX, 0, pathX, 1, waypointX.length);
+    System.arraycopy(waypointY, 0, pathY, 1, waypointY.length);
+
+    // lengthAfter[i] is the length of the path after point i
+    lengthAfter = new double[points];
+    for (int i = points - 2; i >= 0; i--) {
+      lengthAfter[i] = lengthAfter[i + 1]
+          + Math.hypot(pathX[i + 1] - pathX[i], pathY[i + 1] - pathY[i]);
+    }
+
+    segment = 0;
+    segmentProgress = 0;
+    appliedPeriod = -1;
+    startNanos = clock.nanoTime();
+    finished = false;
+    started = true;
+  }
+
+  /**
+   * Sends one command to the drivetrain, if none has been sent during the current period. Starts
+   * the follower if {@link #start()} has not been called.
+   *
+   * @return True while the follower is running, false once it has finished
+   */
+  @Override
+  public boolean update() {
+    if (finished) {
+      return false;
+    }
+    if (!started) {
+      start();
+    }
+
+    long period = (clock.nanoTime() - startNanos) / periodNanos;
+    if (period == appliedPeriod) {
+      return true;
+    }
+    appliedPeriod = period;
+
+    PoseEstimate pose = poseSource.getPose();
+    double x = pose.getX(), y = pose.getY(), heading = pose.getHeading();
+
+    int last = pathX.length - 1;
+    double headingError = Converter.shortestTurnRadians(targetHeading - heading);
+    double distanceToEnd = Math.hypot(pathX[last] - x, pathY[last] - y);
+
+    if (distanceToEnd <= positionTolerance && Math.abs(headingError) <= headingTolerance) {
+      stop();
+      return false;
+    }
+
+    advanceLookahead(x, y);
+    double goalX = pathX[segment] + (pathX[segment + 1] - pathX[segment]) * segmentProgress;
+    double goalY = pathY[segment] + (pathY[segment + 1] - pathY[segment]) * segmentProgress;
+
+    double toGoalX = goalX - x, toGoalY = goalY - y;
+    double toGoal = Math.hypot(toGoalX, toGoalY);
+    double remaining = toGoal + lengthAfter[segment + 1] + (1 - segmentProgress)
+        * Math.hypot(pathX[segment + 1] - pathX[segment], pathY[segment + 1] - pathY[segment]);
+
+    double strafeX = 0, strafeY = 0;
+    if (toGoal > 1e-9 && distanceToEnd > positionTolerance) {
+      double power = speed * Math.min(1, remaining / Math.max(lookahead, 1e-9)) / toGoal;
+      double cos = trig.cos(heading), sin = trig.sin(heading);
+
+      // Field direction to the robot frame, where x is to the right and y is forwards
+      strafeX = (toGoalX * sin - toGoalY * cos) * power;
+      strafeY = (toGoalX * cos + toGoalY * sin) * power;
+    }
+
+    // The heading is counterclockwise-positive, while rotation power is clockwise-positive
+    double rotatePower = Range.clip(-turnGain * headingError, -1, 1);
+
+    driveTrain.setStrafeAndRotation(strafeX, strafeY, rotatePower);
+    return true;
+  }
+
+  // Moves the lookahead point to the furthest intersection of the path with the lookahead circle,
+  // searching only from the current segment onwards. If the robot is further than the lookahead
+  // distance from the path, the point stays where it is until the robot comes back within range.
+  private void advanceLookahead(double x, double y) {
+    int last = pathX.length - 1;
+
+    while (segment < last - 1
+        && Math.hypot(pathX[segment + 1] - x, pathY[segment + 1] - y) <= lookahead) {
+      segment++;
+      segmentProgress = 0;
+    }
+
+    double startX = pathX[segment], startY = pathY[segment];
+    double dx = pathX[segment + 1] - startX, dy = pathY[segment + 1] - startY;
+    double fx = startX - x, fy = startY - y;
+
+    double a = dx * dx + dy * dy;
+    if (a < 1e-12) {
+      segmentProgress = 1;
+      return;
+    }
+    double b = 2 * (fx * dx + fy * dy);
+    double c = fx * fx + fy * fy - lookahead * lookahead;
+    double discriminant = b * b - 4 * a * c;
+
+    if (discriminant >= 0) {
+      double furthest = (-b + Math.sqrt(discriminant)) / (2 * a);
+      segmentProgress = Math.max(segmentProgress, Math.min(1, furthest));
+    }
+  }
+
+  /**
+   * Stops the drivetrain and finishes the follower.
+   */
+  @Override
+  public void stop() {
+    driveTrain.stop();
+    finished = true;
+  }
+
+  /**
+   * @return {@link MotionHandle.Status#COMPLETED}, since the follower only finishes by itself once
+   * the robot has reached the end of the path
+   */
+  @Override
+  public MotionHandle.Status getResult() {
+    return MotionHandle.Status.COMPLETED;
+  }
+
+  /**
+   * @return True if the follower has finished
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  // The index of the path segment that contains the lookahead point; point 0 is the start pose
+  int getLookaheadSegment() {
+    return segment;
+  }
+}
@@ -1,11 +1,16 @@
 package com.andoverrobotics.core.drivetrain;
 
 import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.IMotor;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 
 /**
  * Describes the interface of a {@link DriveTrain} that is capable of "strafing," or moving the
  * robot in any direction without turning.
+ * <p>
+ * Subclasses implement the <code>double</code> overloads of {@link #strafeInchesAsync(double,
+ * double, double)} and {@link #setStrafe(double, double, double)}, to which the {@link Coordinate}
+ * overloads delegate, so that the drive API can be called on every loop without allocating.
  */
 public abstract class StrafingDriveTrain extends DriveTrain {
 
@@ -14,25 +19,27 @@ public abstract class StrafingDriveTrain extends DriveTrain {
     }
 
     /**
-     * Drives forwards with given power.
+     * Starts driving forwards with given power.
      *
      * @param distanceInInches The number of inches to strafe forwards
      * @param power            The power at which to strafe forwards
+     * @return The handle of the started move
      */
     @Override
-    public void driveForwards(double distanceInInches, double power) {
-        strafeInches(0, Math.abs(distanceInInches), Math.abs(power));
+    public MotionHandle driveForwardsAsync(double distanceInInches, double power) {
+        return strafeInchesAsync(0, Math.abs(distanceInInches), Math.abs(power));
     }
 
     /**
-     * Drives backwards with given power.
+     * Starts driving backwards with given power.
      *
      * @param distanceInInches The number of inches to strafe backwards
      * @param power            The power at which to strafe backwards
+     * @return The handle of the started move
      */
     @Override
-    public void driveBackwards(double distanceInInches, double power) {
-        strafeInches(0, -Math.abs(distanceInInches), -Math.abs(power));
+    public MotionHandle driveBackwardsAsync(double distanceInInches, double power) {
+        return strafeInchesAsync(0, -Math.abs(distanceInInches), -Math.abs(power));
     }
 
     /**
@@ -97,7 +104,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
      * @param power     The power at which to strafe
      */
     public final void strafeInches(double xInInches, double yInInches, double power) {
-        strafeInches(Coordinate.fromXY(xInInches, yInInches), power);
+        strafeInchesAsync(xInInches, yInInches, power).awaitUninterruptibly();
     }
 
     /**
@@ -115,7 +122,84 @@ public abstract class StrafingDriveTrain extends DriveTrain {
      * @param inchOffset The coordinate (relative to the current position) to strafe to
      * @param power      The power at which to strafe
      */
-    public abstract void strafeInches(Coordinate inchOffset, double power);
+    public final void strafeInches(Coordinate inchOffset, double power) {
+        strafeInches(inchOffset.getX(), inchOffset.getY(), power);
+    }
+
+    /**
+     * Starts strafing the vector <xInInches, yInInches> at the default power, without waiting for
+     * the move to end.
+     *
+     * @param xInInches The number of inches to strafe in the x-direction
+     * @param yInInches The number of inches to strafe in the y-direction
+     * @return The handle of the started move
+     */
+    public final MotionHandle strafeInchesAsync(double xInInches, double yInInches) {
+        return strafeInchesAsync(xInInches, yInInches, defaultPower);
+    }
+
+    /**
+     * Starts strafing the vector <xInInches, yInInches> at the given power, without waiting for the
+     * move to end.
+     *
+     * @param xInInches The number of inches to strafe in the x-direction
+     * @param yInInches The number of inches to strafe in the y-direction
+     * @param power     The power at which to strafe
+     * @return The handle of the started move
+     */
+    public abstract MotionHandle strafeInchesAsync(double xInInches, double yInInches, double power);
+
+    /**
+     * Starts strafing the vector inchOffset at the default power, without waiting for the move to
+     * end.
+     *
+     * @param inchOffset The coordinate (relative to the current position) to strafe to
+     * @return The handle of the started move
+     */
+    public final MotionHandle strafeInchesAsync(Coordinate inchOffset) {
+        return strafeInchesAsync(inchOffset, defaultPower);
+    }
+
+    /**
+     * Starts strafing the vector inchOffset at the given power, without waiting for the move to
+     * end.
+     *
+     * @param inchOffset The coordinate (relative to the current position) to strafe to
+     * @param power      The power at which to strafe
+     * @return The handle of the started move
+     */
+    public final MotionHandle strafeInchesAsync(Coordinate inchOffset, double power) {
+        return strafeInchesAsync(inchOffset.getX(), inchOffset.getY(), power);
+    }
+
+    /**
+     * Creates an empty {@link MotionQueue}, into which strafing segments can be added and then run
+     * as one continuous trajectory. Requires {@link #setMotionConstraints}.
+     *
+     * @return A new motion queue for this drivetrain
+     */
+    public MotionQueue motionQueue() {
+        return new MotionQueue(this);
+    }
+
+    /**
+     * Gets the motors whose encoders measure strafing moves, in the order used by {@link
+     * #toStrafeTicks}.
+     *
+     * @return The strafing motors
+     */
+    protected abstract IMotor[] getStrafeMotors();
+
+    /**
+     * Computes the encoder ticks by which each strafing motor turns while the robot strafes the
+     * vector &lt;xInInches, yInInches&gt;. The mapping must be linear.
+     *
+     * @param xInInches  The number of inches to strafe in the x-direction
+     * @param yInInches  The number of inches to strafe in the y-direction
+     * @param motorTicks The array into which the ticks of each motor of {@link #getStrafeMotors()}
+     *                   are written
+     */
+    protected abstract void toStrafeTicks(double xInInches, double yInInches, double[] motorTicks);
 
     // -- Teleop Methods --
 
@@ -137,7 +221,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
      * @param y The number of inches in the y-direction to strafe.
      */
     public final void setStrafe(double x, double y) {
-        setStrafe(Coordinate.fromXY(x, y));
+        setStrafe(x, y, defaultPower);
     }
 
     /**
@@ -165,9 +249,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
      * @param y     The number of inches in the y-direction to strafe
      * @param power The power at which to strafe
      */
-    public final void setStrafe(double x, double y, double power) {
-        setStrafe(Coordinate.fromXY(x, y), power);
-    }
+    public abstract void setStrafe(double x, double y, double power);
 
     /**
      * Sets the robot to strafe in the direction of (Coordinate) direction at the given power.
@@ -175,5 +257,7 @@ public abstract class StrafingDriveTrain extends DriveTrain {
      * @param direction The direction in which to strafe
      * @param power     The power at which to strafe, between -1 and 1, inclusive
      */
-    public abstract void setStrafe(Coordinate direction, double power);
+    public final void setStrafe(Coordinate direction, double power) {
+        setStrafe(direction.getX(), direction.getY(), power);
+    }
 }
@@ -8,7 +8,6 @@ import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.util.Range;
 
-import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_USING_ENCODER;
 import static com.qualcomm.robotcore.hardware.DcMotor.RunMode.RUN_WITHOUT_ENCODER;
 
 /**
@@ -89,15 +88,15 @@ public class TankDrive extends DriveTrain {
   }
 
   @Override
-  public void driveForwards(double distanceInInches, double power) {
-    driveWithEncoder(Math.abs(distanceInInches), Math.abs(power));
+  public MotionHandle driveForwardsAsync(double distanceInInches, double power) {
+    return driveWithEncoder(Math.abs(distanceInInches), Math.abs(power));
   }
 
-  private void driveWithEncoder(double displacementInInches, double givenPower) {
+  private MotionHandle driveWithEncoder(double displacementInInches, double givenPower) {
 
     if (givenPower == 0) {
       stop();
-      return;
+      return MotionHandle.completed();
     }
 
     double power = Math.abs(Range.clip(givenPower, -1, 1));
@@ -108,65 +107,60 @@ public class TankDrive extends DriveTrain {
 
     double robotTurn = displacementInInches * ticksPerInch;
 
-    runWithEncoder((int) robotTurn, (int) robotTurn, power, power);
+    return runWithEncoder((int) robotTurn, (int) robotTurn, power, power);
   }
 
   @Override
-  public void driveBackwards(double distanceInInches, double power) {
-    driveWithEncoder(-Math.abs(distanceInInches), -Math.abs(power));
+  public MotionHandle driveBackwardsAsync(double distanceInInches, double power) {
+    return driveWithEncoder(-Math.abs(distanceInInches), -Math.abs(power));
   }
 
   @Override
-  public void rotateClockwise(int degrees, double givenPower) {
+  public MotionHandle rotateClockwiseAsync(int degrees, double givenPower) {
     if (degrees < 0)
-      rotateCounterClockwise(-degrees, givenPower);
+      return rotateCounterClockwiseAsync(-degrees, givenPower);
     else {
       double power = Range.clip(givenPower, -1, 1);
       power = Math.abs(power);
       double normalizedDegrees = Converter.normalizedDegrees(degrees);
 
-      rotateWithEncoder(normalizedDegrees, -normalizedDegrees, power, -power);
+      return rotateWithEncoder(normalizedDegrees, -normalizedDegrees, power, -power);
     }
   }
 
   @Override
-  public void rotateCounterClockwise(int degrees, double givenPower) {
+  public MotionHandle rotateCounterClockwiseAsync(int degrees, double givenPower) {
     if (degrees < 0)
-      rotateClockwise(-degrees, givenPower);
+      return rotateClockwiseAsync(-degrees, givenPower);
     else {
       double power = Range.clip(givenPower, -1, 1);
       power = Math.abs(power);
       double normalizedDegrees = Converter.normalizedDegrees(degrees);
 
-      rotateWithEncoder(-normalizedDegrees, normalizedDegrees, -power, power);
+      return rotateWithEncoder(-normalizedDegrees, normalizedDegrees, -power, power);
     }
   }
 
-  private void rotateWithEncoder(double leftDegrees, double rightDegrees,
-                                 double leftPower, double rightPower) {
+  private MotionHandle rotateWithEncoder(double leftDegrees, double rightDegrees,
+                                         double leftPower, double rightPower) {
 
-    runWithEncoder(
+    return runWithEncoder(
             (int) Math.round(leftDegrees / 360.0 * ticksPer360),
             (int) Math.round(rightDegrees / 360.0 * ticksPer360),
             leftPower, rightPower);
   }
 
-  private void runWithEncoder(int leftTickOffset, int rightTickOffset,
-                              double leftPower, double rightPower) {
+  private MotionHandle runWithEncoder(int leftTickOffset, int rightTickOffset,
+                                      double leftPower, double rightPower) {
 
     // Fails unit tests
     /*Log.d("TankDrive Encoder",
         String.format("leftTickOffset=%d rightTickOffset=%d leftPower=%.3f rightPower=%.3f",
         leftTickOffset, rightTickOffset, leftPower, rightPower));*/
 
-    motorL.startRunToPosition(leftTickOffset, Math.abs(leftPower));
-    motorR.startRunToPosition(rightTickOffset, Math.abs(rightPower));
-
-    while (isBusy() && opModeIsActive()) {
-    }
-
-    stop();
-    setMotorMode(RUN_USING_ENCODER);
+    return startEncoderMove(new IMotor[]{motorL, motorR},
+            new int[]{leftTickOffset, rightTickOffset},
+            new double[]{Math.abs(leftPower), Math.abs(rightPower)});
   }
 
   // -- TeleOp methods --
@@ -0,0 +1,144 @@
+package com.andoverrobotics.core.drivetrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A time-parameterized table of target positions and velocities for several motors, sampled once
+ * per control period, which a {@link ProfileFollower} steps through. <p> A trajectory either scales
+ * one {@link MotionProfile} for each motor, which moves the motors in a straight line, or holds a
+ * separate table for each motor, which lets a {@link MotionQueue} bend the path. Positions are in
+ * ticks from the start of the move, and velocities are in ticks per second.
+ */
+public abstract class Trajectory {
+
+  private final long periodNanos;
+
+  Trajectory(long periodNanos) {
+    this.periodNanos = periodNanos;
+  }
+
+  /**
+   * Creates a trajectory in which each motor follows the given profile multiplied by its scale.
+   * The profile is shared, not copied.
+   *
+   * @param profile The profile of the motor whose scale is 1
+   * @param scales The factor by which the profile is multiplied for each motor
+   * @return The trajectory
+   */
+  public static Trajectory fromProfile(MotionProfile profile, double[] scales) {
+    return new ScaledProfile(profile, scales.clone());
+  }
+
+  // The tables are used as given, not copied
+  static Trajectory fromTables(long periodNanos, double[][] positions, double[][] velocities) {
+    return new Table(periodNanos, positions, velocities);
+  }
+
+  /**
+   * @return The time between samples, in nanoseconds
+   */
+  public final long getPeriodNanos() {
+    return periodNanos;
+  }
+
+  /**
+   * @return The time from the first sample to the last, in seconds
+   */
+  public final double getDuration() {
+    return (getSampleCount() - 1) * periodNanos / (double) TimeUnit.SECONDS.toNanos(1);
+  }
+
+  /**
+   * @return The number of motors that this trajectory moves
+   */
+  public abstract int getMotorCount();
+
+  /**
+   * @return The number of samples, including those at the start and the end of the move
+   */
+  public abstract int getSampleCount();
+
+  /**
+   * Looks up the target position of a motor. Samples past the end return the final position.
+   *
+   * @param motor The index of the motor
+   * @param sample The index of the sample
+   * @return The target position, in ticks from the start of the move
+   */
+  public abstract double getPosition(int motor, int sample);
+
+  /**
+   * Looks up the target velocity of a motor. Samples past the end return 0.
+   *
+   * @param motor The index of the motor
+   * @param sample The index of the sample
+   * @return The target velocity, in ticks per second
+   */
+  public abstract double getVelocity(int motor, int sample);
+
+  private static final class ScaledProfile extends Trajectory {
+
+    private final MotionProfile profile;
+    private final double[] scales;
+
+    ScaledProfile(MotionProfile profile, double[] scales) {
+      super(profile.getPeriodNanos());
+      this.profile = profile;
+      this.scales = scales;
+    }
+
+    @Override
+    public int getMotorCount() {
+      return scales.length;
+    }
+
+    @Override
+    public int getSampleCount() {
+      return profile.getSampleCount();
+    }
+
+    @Override
+    public double getPosition(int motor, int sample) {
+      return scales[motor] * profile.getPosition(sample);
+    }
+
+    @Override
+    public double getVelocity(int motor, int sample) {
+      return scales[motor] * profile.getVelocity(sample);
+    }
+  }
+
+  private static final class Table extends Trajectory {
+
+    private final double[][] positions;
+    private final double[][] velocities;
+
+    Table(long periodNanos, double[][] positions, double[][] velocities) {
+      super(periodNanos);
+      this.positions = positions;
+      this.velocities = velocities;
+    }
+
+    @Override
+    public int getMotorCount() {
+      return positions.length;
+    }
+
+    @Override
+    public int getSampleCount() {
+      return positions[0].length;
+    }
+
+    @Override
+    public double getPosition(int motor, int sample) {
+      double[] table = positions[motor];
+      return table[Math.min(sample, table.length - 1)];
+    }
+
+    @Override
+    public double getVelocity(int motor, int sample) {
+      double[] table = velocities[motor];
+      return sample < table.length ? table[sample] : 0;
+    }
+  }
+}
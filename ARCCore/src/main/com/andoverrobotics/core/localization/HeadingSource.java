@@ -0,0 +1,17 @@
+package com.andoverrobotics.core.localization;
+
+/**
+ * Supplies the heading of the robot from a sensor, such as the IMU in the REV Expansion Hub.
+ *
+ * @see PoseEstimator#setHeadingSource(HeadingSource)
+ */
+public interface HeadingSource {
+
+  /**
+   * Reads the current heading of the robot.
+   *
+   * @return The heading in radians. Positive is counterclockwise. The value may be normalized to
+   * any range; only changes between readings are used.
+   */
+  double getHeadingRadians();
+}
@@ -0,0 +1,77 @@
+package com.andoverrobotics.core.localization;
+
+import com.andoverrobotics.core.utilities.Converter;
+
+/**
+ * An immutable estimate of the position and heading of the robot on the field at a point in time.
+ * <p> Positions are in inches. The heading is the direction that the front of the robot faces,
+ * measured counterclockwise from the positive x-axis of the field, in radians.
+ */
+public final class PoseEstimate {
+
+  /**
+   * The estimate at the origin of the field, facing the positive x-axis.
+   */
+  public static final PoseEstimate ORIGIN = new PoseEstimate(0, 0, 0, 0);
+
+  private final double x;
+  private final double y;
+  private final double heading;
+  private final long timestampNanos;
+
+  /**
+   * Creates a PoseEstimate with the given components.
+   *
+   * @param x The x position of the robot, in inches
+   * @param y The y position of the robot, in inches
+   * @param heading The heading of the robot, in radians counterclockwise from the positive x-axis
+   * @param timestampNanos The time of the estimate, in nanoseconds
+   */
+  public PoseEstimate(double x, double y, double heading, long timestampNanos) {
+    this.x = x;
+    this.y = y;
+    this.heading = heading;
+    this.timestampNanos = timestampNanos;
+  }
+
+  /**
+   * @return The x position of the robot, in inches
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * @return The y position of the robot, in inches
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * @return The heading of the robot, in radians counterclockwise from the positive x-axis
+   */
+  public double getHeading() {
+    return heading;
+  }
+
+  /**
+   * @return The heading of the robot, in degrees counterclockwise from the positive x-axis, in the
+   * range [0, 360)
+   */
+  public double getHeadingDegrees() {
+    return Converter.radiansToDegrees(heading);
+  }
+
+  /**
+   * @return The time at which this estimate was made, in nanoseconds from the estimator's clock
+   */
+  public long getTimestampNanos() {
+    return timestampNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(%.2f, %.2f) @ %.1f deg", x, y, getHeadingDegrees());
+  }
+}
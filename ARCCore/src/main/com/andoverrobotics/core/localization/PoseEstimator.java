@@ -0,0 +1,362 @@
+package com.andoverrobotics.core.localization;
+
+import com.andoverrobotics.core.drivetrain.MecanumKinematics;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.Trig;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tracks the field-relative pose of a Mecanum robot by integrating the deltas of its wheel encoders,
+ * and the heading of an IMU when one is given. <p> The estimator can be updated from the control
+ * loop with {@link #update()}, or run at a fixed rate on its own thread with {@link #start(double)}.
+ * Either way, every update publishes a new immutable {@link PoseEstimate}, which {@link #getPose()}
+ * returns without locking:
+ * <pre>{@code
+ *   PoseEstimator odometry = new PoseEstimator(
+ *       new IMotor[]{frontLeft, frontRight, backLeft, backRight},
+ *       MecanumKinematics.crossed(), TICKS_PER_INCH, TICKS_PER_360);
+ *   odometry.start(200);
+ *   ...
+ *   PoseEstimate pose = odometry.getPose();
+ *   telemetry.addData("Pose", pose);
+ *   ...
+ *   odometry.stop();
+ * }</pre>
+ * <h2>Units</h2> <code>ticksPerInch</code> is the number of encoder ticks that every wheel turns
+ * while the robot drives one inch forwards. <code>ticksPer360</code> is the number of ticks that
+ * every wheel turns, left and right sides in opposite directions, while the robot rotates one full
+ * turn in place. <p> The wheel motors are read from the estimator thread while it runs. Motors from
+ * the SDK may be read from any thread, but motors registered with a {@link
+ * com.andoverrobotics.core.utilities.HardwareSnapshot} or a {@link
+ * com.andoverrobotics.core.utilities.MotorCommandBuffer} may not; give the estimator the physical
+ * motors instead.
+ */
+public class PoseEstimator implements PoseSource {
+
+  private final IMotor[] wheels;
+  private final MecanumKinematics kinematics;
+  private final double ticksPerInch;
+  private final double ticksPerRadian;
+  private final Clock clock;
+
+  // Only touched by the thread that updates the estimate
+  private final int[] lastPositions = new int[MecanumKinematics.WHEEL_COUNT];
+  private final double[] wheelDeltas = new double[MecanumKinematics.WHEEL_COUNT];
+  private final double[] chassisMotion = new double[3];
+  private double x, y, heading;
+  private double headingOffset;
+  private HeadingSource activeSource;
+  private boolean initialized;
+
+  private volatile HeadingSource headingSource;
+  private volatile Trig trig = Trig.EXACT;
+  private volatile PoseEstimate pose = PoseEstimate.ORIGIN;
+  private final AtomicReference<PoseEstimate> pendingReset = new AtomicReference<>();
+
+  private volatile long updateCount;
+  private volatile long totalUpdateNanos;
+  private volatile long maxUpdateNanos;
+  private volatile long missedDeadlines;
+  private volatile long runStartNanos;
+  private volatile long runSamples;
+
+  private Thread thread;
+
+  /**
+   * Creates a PoseEstimator that starts at {@link PoseEstimate#ORIGIN}.
+   *
+   * @param wheels The front-left, front-right, rear-left and rear-right wheels, in that order
+   * @param kinematics The kinematics of the wheel arrangement
+   * @param ticksPerInch The number of ticks every wheel turns while the robot drives one inch
+   * @param ticksPer360 The number of ticks every wheel turns while the robot rotates one full turn
+   */
+  public PoseEstimator(IMotor[] wheels, MecanumKinematics kinematics, double ticksPerInch,
+      double ticksPer360) {
+    this(wheels, kinematics, ticksPerInch, ticksPer360, Clock.SYSTEM);
+  }
+
+  /**
+   * Creates a PoseEstimator that starts at {@link PoseEstimate#ORIGIN} and stamps its estimates
+   * with the given {@link Clock}.
+   *
+   * @param wheels The front-left, front-right, rear-left and rear-right wheels, in that order
+   * @param kinematics The kinematics of the wheel arrangement
+   * @param ticksPerInch The number of ticks every wheel turns while the robot drives one inch
+   * @param ticksPer360 The number of ticks every wheel turns while the robot rotates one full turn
+   * @param clock The clock that timestamps estimates and measures update times
+   */
+  public PoseEstimator(IMotor[] wheels, MecanumKinematics kinematics, double ticksPerInch,
+      double ticksPer360, Clock clock) {
+    if (wheels.length != MecanumKinematics.WHEEL_COUNT) {
+      throw new IllegalArgumentException("Exactly " + MecanumKinematics.WHEEL_COUNT
+          + " wheels are required");
+    }
+    if (ticksPerInch <= 0 || ticksPer360 <= 0) {
+      throw new IllegalArgumentException("Tick ratios must be positive");
+    }
+
+    this.wheels = wheels.clone();
+    this.kinematics = kinematics;
+    this.ticksPerInch = ticksPerInch;
+    this.ticksPerRadian = ticksPer360 / Converter.TAU;
+    this.clock = clock;
+  }
+
+  /**
+   * Sets the sensor from which the heading is taken. While a heading source is set, the wheel
+   * encoders are only used for the position of the robot. The change takes effect on the next
+   * update, which integrates the motion since the previous one with the old source, then aligns the
+   * new source with the current heading.
+   *
+   * @param headingSource The heading source, or <code>null</code> to estimate the heading from the
+   * wheel encoders
+   */
+  public void setHeadingSource(HeadingSource headingSource) {
+    this.headingSource = headingSource;
+  }
+
+  /**
+   * Sets the trigonometric functions with which updates integrate the heading, such as {@link
+   * com.andoverrobotics.core.utilities.FastMath#DEFAULT} to shorten each update.
+   *
+   * @param trig The trigonometric functions; {@link Trig#EXACT} by default
+   */
+  public void setTrig(Trig trig) {
+    this.trig = trig;
+  }
+
+  /**
+   * Moves the estimate to the given pose. The change takes effect on the next update.
+   *
+   * @param x The new x position, in inches
+   * @param y The new y position, in inches
+   * @param heading The new heading, in radians counterclockwise from the positive x-axis
+   */
+  public void setPose(double x, double y, double heading) {
+    pendingReset.set(
+        new PoseEstimate(x, y, Converter.normalizedRadians(heading), clock.nanoTime()));
+  }
+
+  /**
+   * Returns the latest estimate. This method never blocks, and may be called from any thread.
+   *
+   * @return The latest estimate
+   */
+  @Override
+  public PoseEstimate getPose() {
+    return pose;
+  }
+
+  /**
+   * Reads the wheel encoders (and the heading source, if any) once and publishes a new estimate.
+   * Call this from the control loop if the estimator is not running on its own thread; do not call
+   * it while the estimator thread is running.
+   *
+   * @return The new estimate
+   */
+  public PoseEstimate update() {
+    long startNanos = clock.nanoTime();
+
+    // Taken in one step, so a reset requested while this one is applied is kept for the next update
+    PoseEstimate reset = pendingReset.getAndSet(null);
+    if (reset != null) {
+      x = reset.getX();
+      y = reset.getY();
+      heading = reset.getHeading();
+      initialized = false;
+    }
+
+    HeadingSource source = headingSource;
+    if (!initialized) {
+      for (int wheel = 0; wheel < MecanumKinematics.WHEEL_COUNT; wheel++) {
+        lastPositions[wheel] = wheels[wheel].getCurrentPosition();
+      }
+      alignHeadingSource(source);
+      initialized = true;
+    } else {
+      integrate(activeSource);
+      if (source != activeSource) {
+        alignHeadingSource(source);
+      }
+    }
+
+    PoseEstimate estimate = new PoseEstimate(x, y, Converter.normalizedRadians(heading),
+        clock.nanoTime());
+    pose = estimate;
+    recordUpdate(clock.nanoTime() - startNanos);
+    return estimate;
+  }
+
+  // Only the offset is rebased, so switching sources keeps the position and heading
+  private void alignHeadingSource(HeadingSource source) {
+    activeSource = source;
+    if (source != null) {
+      headingOffset = source.getHeadingRadians() - heading;
+    }
+  }
+
+  private void integrate(HeadingSource source) {
+    for (int wheel = 0; wheel < MecanumKinematics.WHEEL_COUNT; wheel++) {
+      int position = wheels[wheel].getCurrentPosition();
+      wheelDeltas[wheel] = position - lastPositions[wheel];
+      lastPositions[wheel] = position;
+    }
+    kinematics.toChassisMotion(wheelDeltas, chassisMotion);
+
+    double right = chassisMotion[MecanumKinematics.X] / ticksPerInch;
+    double forward = chassisMotion[MecanumKinematics.Y] / ticksPerInch;
+
+    double headingChange;
+    if (source != null) {
+      headingChange = Converter.shortestTurnRadians(
+          source.getHeadingRadians() - headingOffset - heading);
+    } else {
+      // Kinematic rotation is clockwise-positive; the field heading is counterclockwise-positive
+      headingChange = -chassisMotion[MecanumKinematics.ROTATION] / ticksPerRadian;
+    }
+
+    // Integrate along the mean heading of this interval
+    double midHeading = heading + headingChange / 2;
+    double cos = trig.cos(midHeading), sin = trig.sin(midHeading);
+    x += forward * cos + right * sin;
+    y += forward * sin - right * cos;
+    heading += headingChange;
+  }
+
+  /**
+   * Starts updating the estimate on a new thread at the given rate. An update that would start after
+   * the next one is due counts as a missed deadline, and the schedule skips ahead instead of trying to
+   * catch up.
+   *
+   * @param hertz The number of updates per second
+   * @throws IllegalStateException if the estimator is already running
+   */
+  public synchronized void start(double hertz) {
+    if (thread != null) {
+      throw new IllegalStateException("The pose estimator is already running");
+    }
+    if (hertz <= 0) {
+      throw new IllegalArgumentException("The update rate must be positive");
+    }
+
+    final long periodNanos = (long) (TimeUnit.SECONDS.toNanos(1) / hertz);
+    runStartNanos = clock.nanoTime();
+    runSamples = 0;
+
+    thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        runAtFixedRate(periodNanos);
+      }
+    }, "PoseEstimator");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MAX_PRIORITY);
+    thread.start();
+  }
+
+  /**
+   * Stops the thread started by {@link #start(double)} and waits for it to end. Has no effect if the
+   * estimator is not running.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public synchronized void stop() throws InterruptedException {
+    if (thread == null) {
+      return;
+    }
+    thread.interrupt();
+    thread.join();
+    thread = null;
+  }
+
+  /**
+   * @return True if the estimator is updating on its own thread
+   */
+  public synchronized boolean isRunning() {
+    return thread != null;
+  }
+
+  private void runAtFixedRate(long periodNanos) {
+    long deadline = System.nanoTime() + periodNanos;
+
+    while (!Thread.currentThread().isInterrupted()) {
+      update();
+      runSamples++;
+
+      long now = System.nanoTime();
+      if (now > deadline) {
+        missedDeadlines++;
+        deadline = now + periodNanos;
+        continue;
+      }
+
+      try {
+        TimeUnit.NANOSECONDS.sleep(deadline - now);
+      } catch (InterruptedException interruption) {
+        return;
+      }
+      deadline += periodNanos;
+    }
+  }
+
+  private void recordUpdate(long elapsedNanos) {
+    updateCount++;
+    totalUpdateNanos += elapsedNanos;
+    if (elapsedNanos > maxUpdateNanos) {
+      maxUpdateNanos = elapsedNanos;
+    }
+  }
+
+  /**
+   * @return The number of updates since this estimator was created
+   */
+  public long getUpdateCount() {
+    return updateCount;
+  }
+
+  /**
+   * @return The number of updates per second achieved by the estimator thread since it was last
+   * started, or 0 if it has never been started
+   */
+  public double getSampleRate() {
+    long samples = runSamples;
+    long elapsedNanos = clock.nanoTime() - runStartNanos;
+    if (samples == 0 || elapsedNanos <= 0) {
+      return 0;
+    }
+    return samples * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+  }
+
+  /**
+   * @return The mean time taken by an update, including the hardware reads, in nanoseconds
+   */
+  public double getMeanUpdateNanos() {
+    long count = updateCount;
+    return count == 0 ? 0 : (double) totalUpdateNanos / count;
+  }
+
+  /**
+   * @return The longest time taken by an update, in nanoseconds
+   */
+  public long getMaxUpdateNanos() {
+    return maxUpdateNanos;
+  }
+
+  /**
+   * @return The number of updates of the estimator thread that finished after the next one was due
+   */
+  public long getMissedDeadlines() {
+    return missedDeadlines;
+  }
+
+  /**
+   * @return The fraction, from 0 to 1, of the estimator thread's updates that missed their deadline
+   */
+  public double getMissedDeadlineRate() {
+    long samples = runSamples;
+    return samples == 0 ? 0 : (double) missedDeadlines / samples;
+  }
+}
@@ -0,0 +1,14 @@
+package com.andoverrobotics.core.localization;
+
+/**
+ * Supplies the latest estimate of the pose of the robot, such as that of a {@link PoseEstimator}.
+ */
+public interface PoseSource {
+
+  /**
+   * Returns the latest estimate. Implementations must not block.
+   *
+   * @return The latest estimate
+   */
+  PoseEstimate getPose();
+}
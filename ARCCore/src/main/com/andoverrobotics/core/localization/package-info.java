@@ -0,0 +1,4 @@
+/**
+ * Provides classes that track where the robot is on the field.
+ */
+package com.andoverrobotics.core.localization;
@@ -0,0 +1,192 @@
+package com.andoverrobotics.core.replay;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * A log of drive commands and encoder readings, as written by {@link DriveRecorder} and read back
+ * for {@link DriveReplayer}. <h2>Format</h2> The file starts with a {@value #HEADER_SIZE}-byte
+ * header: the magic number {@code "ARCD"}, the format version as a short, and the number of motors
+ * as a short. It is followed by records of {@value #RECORD_SIZE} bytes each: the time since the
+ * start of the recording in nanoseconds as a long, the {@link Type} as a byte, the index of the
+ * motor as a byte, two bytes of padding, and the value as a double, which is the power, the
+ * ordinal of the {@link RunMode} or the encoder position. Every number is big-endian. <p> A loaded
+ * log keeps its records in primitive arrays, so that replaying it allocates nothing.
+ */
+public final class DriveLog {
+
+  /**
+   * The kinds of record.
+   */
+  public enum Type {
+    /**
+     * A power given to a motor.
+     */
+    POWER,
+    /**
+     * A {@link RunMode} given to a motor.
+     */
+    MODE,
+    /**
+     * An encoder position read from a motor.
+     */
+    POSITION
+  }
+
+  static final int MAGIC = 0x41524344;
+  static final short VERSION = 1;
+  static final int HEADER_SIZE = 8;
+  static final int RECORD_SIZE = 20;
+
+  private static final Type[] TYPES = Type.values();
+  private static final RunMode[] MODES = RunMode.values();
+
+  private final int motorCount;
+  private final long[] times;
+  private final byte[] types;
+  private final byte[] motors;
+  private final double[] values;
+
+  private DriveLog(int motorCount, long[] times, byte[] types, byte[] motors, double[] values) {
+    this.motorCount = motorCount;
+    this.times = times;
+    this.types = types;
+    this.motors = motors;
+    this.values = values;
+  }
+
+  /**
+   * Loads a log from a file.
+   *
+   * @param file The file written by a {@link DriveRecorder}
+   * @return The loaded log
+   * @throws IOException if the file cannot be read, or is not a complete log
+   */
+  public static DriveLog read(File file) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+    try {
+      FileChannel channel = randomAccessFile.getChannel();
+      long size = channel.size();
+      if (size < HEADER_SIZE || (size - HEADER_SIZE) % RECORD_SIZE != 0
+          || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a drive log, or an incomplete one: " + file);
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.BIG_ENDIAN);
+      while (buffer.hasRemaining()) {
+        if (channel.read(buffer) < 0) {
+          throw new IOException("Unexpected end of file: " + file);
+        }
+      }
+      buffer.flip();
+      return parse(buffer);
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  static DriveLog parse(ByteBuffer buffer) throws IOException {
+    if (buffer.getInt() != MAGIC) {
+      throw new IOException("Not a drive log");
+    }
+    short version = buffer.getShort();
+    if (version != VERSION) {
+      throw new IOException("Unsupported drive log version: " + version);
+    }
+    int motorCount = buffer.getShort();
+
+    int count = buffer.remaining() / RECORD_SIZE;
+    long[] times = new long[count];
+    byte[] types = new byte[count];
+    byte[] motors = new byte[count];
+    double[] values = new double[count];
+
+    for (int i = 0; i < count; i++) {
+      times[i] = buffer.getLong();
+      types[i] = buffer.get();
+      motors[i] = buffer.get();
+      buffer.getShort();
+      values[i] = buffer.getDouble();
+
+      if (types[i] < 0 || types[i] >= TYPES.length || motors[i] < 0 || motors[i] >= motorCount
+          || (types[i] == Type.MODE.ordinal() && !(values[i] >= 0 && values[i] < MODES.length))) {
+        throw new IOException("Corrupt record " + i);
+      }
+    }
+    return new DriveLog(motorCount, times, types, motors, values);
+  }
+
+  /**
+   * @return The number of motors that were recorded
+   */
+  public int getMotorCount() {
+    return motorCount;
+  }
+
+  /**
+   * @return The number of records in the log
+   */
+  public int getRecordCount() {
+    return times.length;
+  }
+
+  /**
+   * @return The time of the last record, in nanoseconds since the start of the recording
+   */
+  public long getDurationNanos() {
+    return times.length == 0 ? 0 : times[times.length - 1];
+  }
+
+  /**
+   * @param record The index of a record
+   * @return The time of the record, in nanoseconds since the start of the recording
+   */
+  public long getTime(int record) {
+    return times[record];
+  }
+
+  /**
+   * @param record The index of a record
+   * @return The kind of the record
+   */
+  public Type getType(int record) {
+    return TYPES[types[record]];
+  }
+
+  /**
+   * @param record The index of a record
+   * @return The index of the motor of the record, in the order in which the motors were recorded
+   */
+  public int getMotor(int record) {
+    return motors[record];
+  }
+
+  /**
+   * @param record The index of a {@link Type#POWER} record
+   * @return The power that was given
+   */
+  public double getPower(int record) {
+    return values[record];
+  }
+
+  /**
+   * @param record The index of a {@link Type#MODE} record
+   * @return The mode that was given
+   */
+  public RunMode getMode(int record) {
+    return MODES[(int) values[record]];
+  }
+
+  /**
+   * @param record The index of a {@link Type#POSITION} record
+   * @return The position that was read
+   */
+  public int getPosition(int record) {
+    return (int) values[record];
+  }
+}
@@ -0,0 +1,227 @@
+package com.andoverrobotics.core.replay;
+
+import com.andoverrobotics.core.replay.DriveLog.Type;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.Arrays;
+
+/**
+ * Records the commands given to a set of motors, and their encoder positions, to a {@link DriveLog}
+ * file, so that a TeleOp run can be replayed as an autonomous routine:
+ * <pre>{@code
+ *   recorder = new DriveRecorder(new File(AppUtil.FIRST_FOLDER, "drive.arcd"));
+ *   mecanumDrive = new MecanumDrive(
+ *       recorder.record(new MotorAdapter(motorFL)), recorder.record(new MotorAdapter(motorFR)),
+ *       recorder.record(new MotorAdapter(motorBL)), recorder.record(new MotorAdapter(motorBR)),
+ *       MecanumKinematics.crossed(), this, TICKS_PER_INCH, TICKS_PER_360);
+ *   ...
+ *   public void loop() {
+ *     mecanumDrive.setStrafeAndRotation(...);
+ *     recorder.sample();
+ *   }
+ *
+ *   public void stop() {
+ *     recorder.close();
+ *   }
+ * }</pre>
+ * <p> Powers and modes are recorded when they are given, and positions whenever they are read.
+ * Encoder moves, which TeleOp does not use, are forwarded without being recorded. <p> Records are
+ * written into a memory-mapped region of the file, one {@value #CHUNK_SIZE}-byte
+ * chunk at a time, so a record costs a few memory writes and the operating system writes the pages
+ * to storage in the background. Only the mapping of the next chunk, once per several thousand
+ * records, makes a system call on the recording thread.
+ */
+public class DriveRecorder {
+
+  /**
+   * The size, in bytes, of each region of the file that is mapped at once.
+   */
+  public static final int CHUNK_SIZE = 1 << 20;
+
+  private final Clock clock;
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+
+  private IMotor[] motors = new IMotor[0];
+  private MappedByteBuffer chunk;
+  private long chunkStart;
+  private long startNanos;
+  private long recordCount;
+  private boolean closed;
+
+  /**
+   * Creates a recorder timed by the wall clock, replacing the contents of the given file.
+   *
+   * @param file The file to record into
+   * @throws IOException if the file cannot be opened
+   */
+  public DriveRecorder(File file) throws IOException {
+    this(file, Clock.SYSTEM);
+  }
+
+  /**
+   * Creates a recorder, replacing the contents of the given file. The recording starts now.
+   *
+   * @param file The file to record into
+   * @param clock The clock that the records are timed with
+   * @throws IOException if the file cannot be opened
+   */
+  public DriveRecorder(File file, Clock clock) throws IOException {
+    this.clock = clock;
+    this.file = new RandomAccessFile(file, "rw");
+    this.channel = this.file.getChannel();
+    channel.truncate(0);
+
+    chunkStart = 0;
+    mapChunk();
+    chunk.position(DriveLog.HEADER_SIZE);
+    startNanos = clock.nanoTime();
+  }
+
+  /**
+   * Adds a motor to the recording. Motors are numbered in the order in which they are added, which
+   * is the order in which {@link DriveReplayer} expects them.
+   *
+   * @param motor The motor whose commands are recorded
+   * @return A motor that records the commands given to it, then forwards them to the given one
+   * @throws IllegalStateException if 127 motors have already been added
+   */
+  public synchronized IMotor record(IMotor motor) {
+    if (motors.length >= Byte.MAX_VALUE) {
+      throw new IllegalStateException("Too many motors");
+    }
+    int index = motors.length;
+    motors = Arrays.copyOf(motors, index + 1);
+    motors[index] = motor;
+    return new RecordingMotor(motor, index);
+  }
+
+  /**
+   * Reads the position of every recorded motor, and records it. Call this once per loop, so that
+   * the replay can follow the positions as well as the powers.
+   */
+  public void sample() {
+    IMotor[] current = motors;
+    for (int i = 0; i < current.length; i++) {
+      append(Type.POSITION, i, current[i].getCurrentPosition());
+    }
+  }
+
+  /**
+   * @return The number of records written so far
+   */
+  public synchronized long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * Completes the header, trims the file to the records written, and closes it. Later commands are
+   * still forwarded to the motors, but are not recorded.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try {
+      MappedByteBuffer header = channel.map(MapMode.READ_WRITE, 0, DriveLog.HEADER_SIZE);
+      header.order(ByteOrder.BIG_ENDIAN);
+      header.putInt(DriveLog.MAGIC).putShort(DriveLog.VERSION).putShort((short) motors.length);
+      header.force();
+      chunk.force();
+      channel.truncate(DriveLog.HEADER_SIZE + recordCount * DriveLog.RECORD_SIZE);
+    } finally {
+      chunk = null;
+      file.close();
+    }
+  }
+
+  synchronized void append(Type type, int motor, double value) {
+    if (closed) {
+      return;
+    }
+    try {
+      if (chunk.remaining() < DriveLog.RECORD_SIZE) {
+        chunkStart += chunk.position();
+        mapChunk();
+      }
+    } catch (IOException mappingError) {
+      // A recording that cannot grow ends, rather than interrupting the OpMode that feeds it
+      closed = true;
+      return;
+    }
+
+    chunk.putLong(clock.nanoTime() - startNanos)
+        .put((byte) type.ordinal())
+        .put((byte) motor)
+        .putShort((short) 0)
+        .putDouble(value);
+    recordCount++;
+  }
+
+  private void mapChunk() throws IOException {
+    chunk = channel.map(MapMode.READ_WRITE, chunkStart, CHUNK_SIZE);
+    chunk.order(ByteOrder.BIG_ENDIAN);
+  }
+
+  private class RecordingMotor implements IMotor {
+
+    private final IMotor motor;
+    private final int index;
+
+    RecordingMotor(IMotor motor, int index) {
+      this.motor = motor;
+      this.index = index;
+    }
+
+    @Override
+    public void setPower(double power) {
+      append(Type.POWER, index, power);
+      motor.setPower(power);
+    }
+
+    @Override
+    public void addTargetPosition(int tickOffset) {
+      motor.addTargetPosition(tickOffset);
+    }
+
+    @Override
+    public void startRunToPosition(int tickOffset, double power) {
+      motor.startRunToPosition(tickOffset, power);
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+      append(Type.MODE, index, mode.ordinal());
+      motor.setMode(mode);
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      int position = motor.getCurrentPosition();
+      append(Type.POSITION, index, position);
+      return position;
+    }
+
+    @Override
+    public boolean isEncoderReset() {
+      return motor.isEncoderReset();
+    }
+
+    @Override
+    public boolean isBusy() {
+      return motor.isBusy();
+    }
+  }
+}
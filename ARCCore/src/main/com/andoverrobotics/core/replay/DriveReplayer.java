@@ -0,0 +1,183 @@
+package com.andoverrobotics.core.replay;
+
+import com.andoverrobotics.core.replay.DriveLog.Type;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.ControlLoop;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.Sleeper;
+import com.qualcomm.robotcore.util.Range;
+
+/**
+ * Replays a {@link DriveLog} on a set of motors, giving each recorded command at the time since
+ * the start of the replay at which it was recorded. The motors must be given in the order in
+ * which they were recorded, such as the motors of a {@link
+ * com.andoverrobotics.core.drivetrain.MecanumDrive} built the same way as the recorded one.
+ * <p> Open-loop replay repeats the powers, so the robot drifts from the recorded path as the
+ * battery, the field and the wheels differ from the recording. With a position gain, each motor
+ * also corrects the difference between the distance that it had turned at that time in the
+ * recording and the distance that it has turned in the replay, each time a recorded position comes
+ * due: its power becomes the recorded power plus the gain times the difference in ticks. <p> A
+ * replay can be run to its end with {@link #replay()}, or scheduled on a {@link ControlLoop}. It
+ * allocates nothing while it runs, and stops the motors when it ends.
+ */
+public class DriveReplayer implements ControlLoop.Task {
+
+  private final DriveLog log;
+  private final IMotor[] motors;
+  private final Clock clock;
+  private final Sleeper sleeper;
+
+  private final double[] recordedPowers;
+  private final double[] corrections;
+  private final int[] recordedStarts;
+  private final int[] replayStarts;
+  private final boolean[] hasStart;
+
+  private double positionGain;
+  private long startNanos;
+  private int next;
+  private boolean started;
+  private boolean finished;
+
+  /**
+   * Creates a replay timed by the wall clock.
+   *
+   * @param log The log to replay
+   * @param motors The motors to command, in the order in which they were recorded
+   * @throws IllegalArgumentException if there are fewer motors than in the log
+   */
+  public DriveReplayer(DriveLog log, IMotor[] motors) {
+    this(log, motors, Clock.SYSTEM, Sleeper.SYSTEM);
+  }
+
+  /**
+   * Creates a replay timed by the given clock.
+   *
+   * @param log The log to replay
+   * @param motors The motors to command, in the order in which they were recorded
+   * @param clock The clock that the replay is timed with
+   * @param sleeper The sleeper that {@link #replay()} waits with between records
+   * @throws IllegalArgumentException if there are fewer motors than in the log
+   */
+  public DriveReplayer(DriveLog log, IMotor[] motors, Clock clock, Sleeper sleeper) {
+    if (motors.length < log.getMotorCount()) {
+      throw new IllegalArgumentException(
+          "The log has " + log.getMotorCount() + " motors, but " + motors.length + " were given");
+    }
+    this.log = log;
+    this.motors = motors.clone();
+    this.clock = clock;
+    this.sleeper = sleeper;
+
+    recordedPowers = new double[motors.length];
+    corrections = new double[motors.length];
+    recordedStarts = new int[motors.length];
+    replayStarts = new int[motors.length];
+    hasStart = new boolean[motors.length];
+  }
+
+  /**
+   * Makes the replay correct the positions of the motors towards the recorded ones. A gain of 0,
+   * the default, replays the powers alone.
+   *
+   * @param gain The power per tick of difference from the recorded position
+   */
+  public void setPositionGain(double gain) {
+    positionGain = gain;
+  }
+
+  /**
+   * Replays the log to its end, sleeping until each record comes due.
+   *
+   * @throws InterruptedException if the replaying thread is interrupted, in which case the motors
+   * are stopped before this exception is thrown
+   */
+  public void replay() throws InterruptedException {
+    try {
+      while (execute()) {
+        long waitNanos = log.getTime(next) - (clock.nanoTime() - startNanos);
+        sleeper.sleep(Math.max(1, (waitNanos + 999999) / 1000000));
+      }
+    } finally {
+      stop();
+    }
+  }
+
+  /**
+   * Gives every command that has come due, starting the replay on the first call.
+   *
+   * @return True until every record has been replayed
+   */
+  @Override
+  public boolean execute() {
+    if (finished) {
+      return false;
+    }
+    if (!started) {
+      start();
+    }
+
+    long elapsed = clock.nanoTime() - startNanos;
+    int count = log.getRecordCount();
+    while (next < count && log.getTime(next) <= elapsed) {
+      apply(next++);
+    }
+
+    if (next >= count) {
+      stop();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Stops the motors and ends the replay. Has no effect on a replay that has already ended.
+   */
+  public void stop() {
+    if (finished) {
+      return;
+    }
+    finished = true;
+    for (IMotor motor : motors) {
+      motor.setPower(0);
+    }
+  }
+
+  /**
+   * @return True once the replay has ended
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  private void start() {
+    started = true;
+    startNanos = clock.nanoTime();
+  }
+
+  private void apply(int record) {
+    int motor = log.getMotor(record);
+    Type type = log.getType(record);
+
+    if (type == Type.POWER) {
+      recordedPowers[motor] = log.getPower(record);
+      motors[motor].setPower(Range.clip(recordedPowers[motor] + corrections[motor], -1, 1));
+    } else if (type == Type.MODE) {
+      motors[motor].setMode(log.getMode(record));
+    } else if (type == Type.POSITION && positionGain != 0) {
+      int recorded = log.getPosition(record);
+      int replayed = motors[motor].getCurrentPosition();
+      // Distances are measured from the first recorded position of each motor, in both runs
+      if (!hasStart[motor]) {
+        hasStart[motor] = true;
+        recordedStarts[motor] = recorded;
+        replayStarts[motor] = replayed;
+      }
+
+      int recordedDistance = recorded - recordedStarts[motor];
+      int replayedDistance = replayed - replayStarts[motor];
+      corrections[motor] = positionGain * (recordedDistance - replayedDistance);
+      motors[motor].setPower(Range.clip(recordedPowers[motor] + corrections[motor], -1, 1));
+    }
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Provides the recording of drive commands to a compact binary log, and their replay as an
+ * autonomous routine.
+ */
+package com.andoverrobotics.core.replay;
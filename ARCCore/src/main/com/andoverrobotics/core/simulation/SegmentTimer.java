@@ -0,0 +1,121 @@
+package com.andoverrobotics.core.simulation;
+
+import com.andoverrobotics.core.utilities.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Times the named segments of a routine, such as the moves of an autonomous path, against a {@link
+ * Clock}. With a {@link SimulatedClock}, the times are those that the simulated robot took, however
+ * fast the simulation ran. <p> Segments are consecutive: beginning a segment ends the one before
+ * it.
+ */
+public class SegmentTimer {
+
+  /**
+   * A segment that has ended.
+   */
+  public static final class Segment {
+
+    private final String name;
+    private final long nanos;
+
+    Segment(String name, long nanos) {
+      this.name = name;
+      this.nanos = nanos;
+    }
+
+    /**
+     * @return The name given to the segment when it began
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return The duration of the segment, in nanoseconds
+     */
+    public long getNanos() {
+      return nanos;
+    }
+
+    /**
+     * @return The duration of the segment, in seconds
+     */
+    public double getSeconds() {
+      return nanos / 1e9;
+    }
+  }
+
+  private final Clock clock;
+  private final List<Segment> segments = new ArrayList<>();
+  private String currentName;
+  private long currentStart;
+
+  /**
+   * @param clock The clock that the segments are timed with
+   */
+  public SegmentTimer(Clock clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Ends the current segment, if any, and begins a new one.
+   *
+   * @param name The name of the new segment
+   */
+  public void begin(String name) {
+    end();
+    currentName = name;
+    currentStart = clock.nanoTime();
+  }
+
+  /**
+   * Ends the current segment. Has no effect if no segment has begun since the last end.
+   */
+  public void end() {
+    if (currentName != null) {
+      segments.add(new Segment(currentName, clock.nanoTime() - currentStart));
+      currentName = null;
+    }
+  }
+
+  /**
+   * @return The segments that have ended, in the order that they began
+   */
+  public List<Segment> getSegments() {
+    return Collections.unmodifiableList(segments);
+  }
+
+  /**
+   * @return The sum of the durations of the ended segments, in nanoseconds
+   */
+  public long getTotalNanos() {
+    long total = 0;
+    for (Segment segment : segments) {
+      total += segment.getNanos();
+    }
+    return total;
+  }
+
+  /**
+   * @return A table of the ended segments and their durations, followed by the total
+   */
+  @Override
+  public String toString() {
+    int nameWidth = "total".length();
+    for (Segment segment : segments) {
+      nameWidth = Math.max(nameWidth, segment.getName().length());
+    }
+    String row = "%-" + nameWidth + "s %9.3f s%n";
+
+    StringBuilder table = new StringBuilder();
+    for (Segment segment : segments) {
+      table.append(String.format(Locale.US, row, segment.getName(), segment.getSeconds()));
+    }
+    table.append(String.format(Locale.US, row, "total", getTotalNanos() / 1e9));
+    return table.toString();
+  }
+}
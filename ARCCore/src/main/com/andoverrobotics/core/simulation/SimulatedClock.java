@@ -0,0 +1,124 @@
+package com.andoverrobotics.core.simulation;
+
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Sleeper;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Clock} whose time only moves when it is advanced, and which steps the simulated
+ * hardware registered with it in fixed increments as it does. <p> Sleeping on this clock advances
+ * it instead of blocking, so a drivetrain given this clock through {@link
+ * com.andoverrobotics.core.drivetrain.DriveTrain#setTimeSource DriveTrain.setTimeSource} awaits its
+ * moves as fast as the simulation can be computed. Because every step has the same length, a
+ * simulation produces the same result on every run and on every machine. <p> The clock is meant to
+ * be driven by one thread; each thread that sleeps on it advances it separately.
+ */
+public class SimulatedClock implements Clock, Sleeper {
+
+  /**
+   * A part of the simulation that changes as time passes.
+   */
+  public interface Component {
+
+    /**
+     * Advances the state of this component by one step of the clock.
+     *
+     * @param seconds The length of the step, in seconds
+     */
+    void step(double seconds);
+  }
+
+  /**
+   * The length of a step of the simulation, in nanoseconds, when none is given.
+   */
+  public static final long DEFAULT_STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final long stepNanos;
+  private final double stepSeconds;
+  private final List<Component> components = new CopyOnWriteArrayList<>();
+
+  private volatile long nanos;
+  private long steppedNanos;
+
+  /**
+   * Creates a clock at time zero that steps its components every {@link #DEFAULT_STEP_NANOS}.
+   */
+  public SimulatedClock() {
+    this(DEFAULT_STEP_NANOS);
+  }
+
+  /**
+   * Creates a clock at time zero that steps its components at the given interval.
+   *
+   * @param stepNanos The length of a step, in nanoseconds
+   * @throws IllegalArgumentException if the step is not positive
+   */
+  public SimulatedClock(long stepNanos) {
+    if (stepNanos <= 0) {
+      throw new IllegalArgumentException("The step must be positive");
+    }
+    this.stepNanos = stepNanos;
+    this.stepSeconds = stepNanos / 1e9;
+  }
+
+  /**
+   * Registers a component to be stepped whenever this clock passes a step boundary.
+   *
+   * @param component The component to step
+   */
+  public void addComponent(Component component) {
+    components.add(component);
+  }
+
+  /**
+   * Moves this clock forward, stepping its components once for each step boundary that is passed.
+   * Time that does not reach the next boundary is kept, and counts towards the next advance.
+   *
+   * @param nanos The time to advance by, in nanoseconds
+   * @throws IllegalArgumentException if the time is negative
+   */
+  public synchronized void advance(long nanos) {
+    if (nanos < 0) {
+      throw new IllegalArgumentException("Time cannot move backwards");
+    }
+    long target = this.nanos + nanos;
+
+    while (target - steppedNanos >= stepNanos) {
+      for (Component component : components) {
+        component.step(stepSeconds);
+      }
+      steppedNanos += stepNanos;
+      this.nanos = steppedNanos;
+    }
+    this.nanos = target;
+  }
+
+  /**
+   * Advances this clock by the given time, without blocking.
+   *
+   * @param millis The time to advance by, in milliseconds
+   * @throws InterruptedException if the calling thread has been interrupted, like {@link
+   * Thread#sleep(long)}
+   */
+  @Override
+  public void sleep(long millis) throws InterruptedException {
+    if (Thread.interrupted()) {
+      throw new InterruptedException();
+    }
+    advance(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  @Override
+  public long nanoTime() {
+    return nanos;
+  }
+
+  /**
+   * @return The length of a step, in nanoseconds
+   */
+  public long getStepNanos() {
+    return stepNanos;
+  }
+}
@@ -0,0 +1,288 @@
+package com.andoverrobotics.core.simulation;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import com.qualcomm.robotcore.hardware.configuration.typecontainers.MotorConfigurationType;
+
+/**
+ * A {@link DcMotor} with first-order dynamics, whose encoder counts the ticks that it turns as its
+ * {@link SimulatedClock} advances. It can be handed to the factories of the drivetrains, like
+ * {@link com.andoverrobotics.core.drivetrain.MecanumDrive#fromCrossedMotors
+ * MecanumDrive.fromCrossedMotors}, in place of a motor from the hardware map. <p> Power drives the
+ * velocity of the motor towards the same fraction of its free speed, which it approaches with the
+ * given time constant. {@link RunMode#RUN_TO_POSITION RUN_TO_POSITION} is emulated like a motor
+ * controller does it: the power is proportional to the remaining ticks, limited by the power that
+ * was set, and the motor is busy until it is within {@link #TARGET_POSITION_TOLERANCE} of its
+ * target. Without power, a braking motor slows down with its time constant, and a floating motor
+ * coasts {@link #FLOAT_TIME_CONSTANT_FACTOR} times as long. <p> The motor carries no load, so the
+ * encoder speed of {@link RunMode#RUN_USING_ENCODER RUN_USING_ENCODER} and the voltage of {@link
+ * RunMode#RUN_WITHOUT_ENCODER RUN_WITHOUT_ENCODER} lead to the same motion.
+ */
+public class SimulatedMotor implements DcMotor {
+
+  /**
+   * The free speed, in ticks per second, of an AndyMark NeveRest 40: 160 RPM at 1120 ticks per
+   * revolution.
+   */
+  public static final double NEVEREST_40_FREE_SPEED = 160 * 1120 / 60.0;
+
+  /**
+   * The free speed, in ticks per second, of a REV HD Hex Motor with a 40:1 gearbox: 150 RPM at 1120
+   * ticks per revolution.
+   */
+  public static final double REV_HD_HEX_40_FREE_SPEED = 150 * 1120 / 60.0;
+
+  /**
+   * The time constant, in seconds, used when none is given. It is a rough estimate for a geared drive
+   * motor under the weight of a robot, and should be replaced by a measured one where it matters.
+   */
+  public static final double DEFAULT_TIME_CONSTANT = 0.1;
+
+  /**
+   * The number of ticks from its target at which a motor that runs to position stops being busy.
+   */
+  public static final int TARGET_POSITION_TOLERANCE = 5;
+
+  /**
+   * The power, per tick of remaining distance, with which a motor runs to position.
+   */
+  public static final double RUN_TO_POSITION_GAIN = 1.0 / 100;
+
+  /**
+   * How many times longer a floating motor takes to slow down than a braking one.
+   */
+  public static final double FLOAT_TIME_CONSTANT_FACTOR = 4;
+
+  private final String name;
+  private final double freeSpeed;
+  private final double timeConstant;
+
+  private RunMode mode = RunMode.RUN_WITHOUT_ENCODER;
+  private Direction direction = Direction.FORWARD;
+  private ZeroPowerBehavior zeroPowerBehavior = ZeroPowerBehavior.BRAKE;
+  private MotorConfigurationType motorType;
+  private double power;
+  private int targetPosition;
+
+  // The state of the shaft, regardless of the direction of the motor
+  private double position;
+  private double velocity;
+  private long encoderZero;
+
+  /**
+   * Creates a motor at rest, and registers it to be stepped by the given clock.
+   *
+   * @param name The name of the motor, as it would appear in the hardware map
+   * @param clock The clock that moves the motor
+   * @param freeSpeed The speed of the motor at full power, in ticks per second
+   * @param timeConstant The time, in seconds, in which the motor covers 63% of a change in speed
+   * @throws IllegalArgumentException if the free speed or the time constant is not positive
+   */
+  public SimulatedMotor(String name, SimulatedClock clock, double freeSpeed, double timeConstant) {
+    if (freeSpeed <= 0 || timeConstant <= 0) {
+      throw new IllegalArgumentException("The free speed and time constant must be positive");
+    }
+    this.name = name;
+    this.freeSpeed = freeSpeed;
+    this.timeConstant = timeConstant;
+
+    clock.addComponent(new SimulatedClock.Component() {
+      @Override
+      public void step(double seconds) {
+        SimulatedMotor.this.step(seconds);
+      }
+    });
+  }
+
+  /**
+   * Creates a NeveRest 40 at rest, and registers it to be stepped by the given clock.
+   *
+   * @param name The name of the motor, as it would appear in the hardware map
+   * @param clock The clock that moves the motor
+   */
+  public SimulatedMotor(String name, SimulatedClock clock) {
+    this(name, clock, NEVEREST_40_FREE_SPEED, DEFAULT_TIME_CONSTANT);
+  }
+
+  /**
+   * @return The speed of the shaft, in ticks per second, in the direction of the motor
+   */
+  public synchronized double getVelocity() {
+    return sign() * velocity;
+  }
+
+  synchronized void step(double seconds) {
+    double command = commandedPower();
+    double timeConstantNow = command == 0 && zeroPowerBehavior == ZeroPowerBehavior.FLOAT
+        ? timeConstant * FLOAT_TIME_CONSTANT_FACTOR : timeConstant;
+
+    // The exact solution of the first-order response over one step, which stays stable for steps
+    // longer than the time constant
+    double targetVelocity = sign() * command * freeSpeed;
+    double previousVelocity = velocity;
+    velocity = targetVelocity + (velocity - targetVelocity) * Math.exp(-seconds / timeConstantNow);
+    position += (previousVelocity + velocity) / 2 * seconds;
+  }
+
+  // The power that reaches the motor, in its own direction
+  private double commandedPower() {
+    if (mode == RunMode.RUN_TO_POSITION) {
+      int remaining = targetPosition - readEncoder();
+      if (Math.abs(remaining) <= TARGET_POSITION_TOLERANCE) {
+        return 0;
+      }
+      double limit = Math.abs(power);
+      return Math.max(-limit, Math.min(limit, remaining * RUN_TO_POSITION_GAIN));
+    }
+    if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+      return 0;
+    }
+    return power;
+  }
+
+  private int readEncoder() {
+    return (int) (sign() * (Math.round(position) - encoderZero));
+  }
+
+  private int sign() {
+    return direction == Direction.REVERSE ? -1 : 1;
+  }
+
+  @Override
+  public synchronized MotorConfigurationType getMotorType() {
+    return motorType;
+  }
+
+  @Override
+  public synchronized void setMotorType(MotorConfigurationType motorType) {
+    this.motorType = motorType;
+  }
+
+  /**
+   * @return Null, as a simulated motor has no controller
+   */
+  @Override
+  public DcMotorController getController() {
+    return null;
+  }
+
+  @Override
+  public int getPortNumber() {
+    return 0;
+  }
+
+  @Override
+  public synchronized void setZeroPowerBehavior(ZeroPowerBehavior zeroPowerBehavior) {
+    if (zeroPowerBehavior != ZeroPowerBehavior.UNKNOWN) {
+      this.zeroPowerBehavior = zeroPowerBehavior;
+    }
+  }
+
+  @Override
+  public synchronized ZeroPowerBehavior getZeroPowerBehavior() {
+    return zeroPowerBehavior;
+  }
+
+  @Deprecated
+  @Override
+  public synchronized void setPowerFloat() {
+    setZeroPowerBehavior(ZeroPowerBehavior.FLOAT);
+    setPower(0);
+  }
+
+  @Override
+  public synchronized boolean getPowerFloat() {
+    return zeroPowerBehavior == ZeroPowerBehavior.FLOAT && power == 0;
+  }
+
+  @Override
+  public synchronized void setTargetPosition(int position) {
+    targetPosition = position;
+  }
+
+  @Override
+  public synchronized int getTargetPosition() {
+    return targetPosition;
+  }
+
+  @Override
+  public synchronized boolean isBusy() {
+    return mode == RunMode.RUN_TO_POSITION && power != 0
+        && Math.abs(targetPosition - readEncoder()) > TARGET_POSITION_TOLERANCE;
+  }
+
+  @Override
+  public synchronized int getCurrentPosition() {
+    return readEncoder();
+  }
+
+  /**
+   * Changes the mode of the motor. {@link RunMode#STOP_AND_RESET_ENCODER STOP_AND_RESET_ENCODER}
+   * stops the power and makes the current position zero, but leaves the shaft to slow down on its
+   * own.
+   */
+  @Override
+  public synchronized void setMode(RunMode mode) {
+    if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+      power = 0;
+      encoderZero = Math.round(position);
+    }
+    this.mode = mode;
+  }
+
+  @Override
+  public synchronized RunMode getMode() {
+    return mode;
+  }
+
+  @Override
+  public synchronized void setDirection(Direction direction) {
+    this.direction = direction;
+  }
+
+  @Override
+  public synchronized Direction getDirection() {
+    return direction;
+  }
+
+  @Override
+  public synchronized void setPower(double power) {
+    this.power = Math.max(-1, Math.min(1, power));
+  }
+
+  @Override
+  public synchronized double getPower() {
+    return power;
+  }
+
+  @Override
+  public Manufacturer getManufacturer() {
+    return Manufacturer.Other;
+  }
+
+  @Override
+  public String getDeviceName() {
+    return name;
+  }
+
+  @Override
+  public String getConnectionInfo() {
+    return "simulated";
+  }
+
+  @Override
+  public int getVersion() {
+    return 1;
+  }
+
+  @Override
+  public synchronized void resetDeviceConfigurationForOpMode() {
+    setDirection(Direction.FORWARD);
+    setZeroPowerBehavior(ZeroPowerBehavior.BRAKE);
+  }
+
+  @Override
+  public synchronized void close() {
+    setPower(0);
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Provides simulated hardware and time, so that drivetrains and autonomous routines can run
+ * deterministically on a desktop JVM, faster than real time.
+ */
+package com.andoverrobotics.core.simulation;
@@ -0,0 +1,26 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Provides the current time to classes that measure intervals, so that tests and simulations can
+ * substitute their own source of time.
+ */
+public interface Clock {
+
+  /**
+   * The clock backed by {@link System#nanoTime()}.
+   */
+  Clock SYSTEM = new Clock() {
+    @Override
+    public long nanoTime() {
+      return System.nanoTime();
+    }
+  };
+
+  /**
+   * Reads the current time of this clock. Like {@link System#nanoTime()}, the value is only
+   * meaningful when compared to another value from the same clock.
+   *
+   * @return The current time, in nanoseconds
+   */
+  long nanoTime();
+}
@@ -0,0 +1,223 @@
+package com.andoverrobotics.core.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs periodic tasks, such as drive followers, lift controllers and telemetry, at their declared
+ * rates on a single high-priority thread. <p> Each task has a release time, which advances by its
+ * period every time it runs. The thread sleeps until the earliest release, then runs every task
+ * that is due, in order of decreasing priority. A task that is released late records its lateness;
+ * a task that is still running when its next release passes misses that release, and its schedule
+ * skips ahead instead of running several times to catch up:
+ * <pre>{@code
+ *   ControlLoop loop = new ControlLoop();
+ *   loop.schedule("drive", 100, ControlLoop.MAX_PRIORITY, drivetrain.driveForwardsAsync(24));
+ *   loop.schedule("telemetry", 5, ControlLoop.MIN_PRIORITY, new ControlLoop.Task() {
+ *     public boolean execute() {
+ *       telemetry.update();
+ *       return true;
+ *     }
+ *   });
+ *   ...
+ *   loop.stop();
+ * }</pre>
+ * <p> The execution time and lateness of every run are kept in the task's {@link Histogram}s.
+ * Tasks run on the loop's thread, so a task that blocks delays every other task.
+ */
+public class ControlLoop {
+
+  /**
+   * Performs one step of periodic work.
+   */
+  public interface Task {
+
+    /**
+     * Performs one step of work. Called once per period of the task.
+     *
+     * @return True to keep running, false if the task has finished
+     */
+    boolean execute();
+  }
+
+  /**
+   * The lowest priority that a task can have.
+   */
+  public static final int MIN_PRIORITY = 1;
+  /**
+   * The priority of tasks that do not declare one.
+   */
+  public static final int NORM_PRIORITY = 5;
+  /**
+   * The highest priority that a task can have.
+   */
+  public static final int MAX_PRIORITY = 10;
+
+  private static final Comparator<ScheduledTask> BY_PRIORITY = new Comparator<ScheduledTask>() {
+    @Override
+    public int compare(ScheduledTask first, ScheduledTask second) {
+      return second.getPriority() - first.getPriority();
+    }
+  };
+
+  private final String name;
+  private final Clock clock;
+
+  // Replaced, never modified, so that the loop thread can iterate without locking
+  private volatile ScheduledTask[] tasks = new ScheduledTask[0];
+  private Thread thread;
+
+  /**
+   * Creates a ControlLoop whose thread is named "ControlLoop".
+   */
+  public ControlLoop() {
+    this("ControlLoop");
+  }
+
+  /**
+   * Creates a ControlLoop whose thread has the given name.
+   *
+   * @param name The name of the loop's thread
+   */
+  public ControlLoop(String name) {
+    this(name, Clock.SYSTEM);
+  }
+
+  ControlLoop(String name, Clock clock) {
+    this.name = name;
+    this.clock = clock;
+  }
+
+  /**
+   * Schedules the given task with {@link #NORM_PRIORITY}.
+   *
+   * @param taskName The name of the task, used in reports
+   * @param hertz The number of times per second to run the task
+   * @param task The task
+   * @return The scheduled task, which measures and controls its runs
+   */
+  public ScheduledTask schedule(String taskName, double hertz, Task task) {
+    return schedule(taskName, hertz, NORM_PRIORITY, task);
+  }
+
+  /**
+   * Schedules the given task to run first as soon as possible, then once per period, until it
+   * finishes or is cancelled. Starts the loop's thread if it is not running.
+   *
+   * @param taskName The name of the task, used in reports
+   * @param hertz The number of times per second to run the task
+   * @param priority The priority of the task, from {@link #MIN_PRIORITY} to {@link #MAX_PRIORITY}
+   * @param task The task
+   * @return The scheduled task, which measures and controls its runs
+   */
+  public synchronized ScheduledTask schedule(String taskName, double hertz, int priority,
+      Task task) {
+    if (!(hertz > 0)) {
+      throw new IllegalArgumentException("The rate of a task must be positive");
+    }
+    if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+      throw new IllegalArgumentException("Priority out of range: " + priority);
+    }
+
+    ScheduledTask scheduled = new ScheduledTask(taskName, task,
+        Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / hertz)), priority, clock.nanoTime(),
+        clock);
+
+    ScheduledTask[] updated = Arrays.copyOf(tasks, tasks.length + 1);
+    updated[tasks.length] = scheduled;
+    // A stable sort keeps tasks of equal priority in the order in which they were scheduled
+    Arrays.sort(updated, BY_PRIORITY);
+    tasks = updated;
+
+    if (thread == null) {
+      thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          runLoop();
+        }
+      }, name);
+      thread.setDaemon(true);
+      thread.setPriority(Thread.MAX_PRIORITY);
+      thread.start();
+    } else {
+      LockSupport.unpark(thread);
+    }
+    return scheduled;
+  }
+
+  /**
+   * Cancels every task, stops the loop's thread, and waits for it to end.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public void stop() throws InterruptedException {
+    Thread stopped;
+    synchronized (this) {
+      for (ScheduledTask task : tasks) {
+        task.cancel();
+      }
+      tasks = new ScheduledTask[0];
+      stopped = thread;
+      thread = null;
+    }
+
+    if (stopped != null) {
+      stopped.interrupt();
+      stopped.join();
+    }
+  }
+
+  /**
+   * @return The tasks that are scheduled and have not finished, in the order in which they run
+   */
+  public List<ScheduledTask> getTasks() {
+    return Collections.unmodifiableList(new ArrayList<>(Arrays.asList(tasks)));
+  }
+
+  private void runLoop() {
+    Thread current = Thread.currentThread();
+
+    while (!current.isInterrupted()) {
+      ScheduledTask[] due = tasks;
+      long nextRelease = Long.MAX_VALUE;
+      boolean anyFinished = false;
+
+      for (ScheduledTask task : due) {
+        if (!task.isDone() && clock.nanoTime() - task.getNextRelease() >= 0) {
+          task.run();
+        }
+        if (task.isDone()) {
+          anyFinished = true;
+        } else {
+          nextRelease = Math.min(nextRelease, task.getNextRelease());
+        }
+      }
+
+      if (anyFinished) {
+        removeFinished();
+      }
+
+      // A task that blocks may consume the unpark of a concurrent schedule, so a replaced array
+      // means that new tasks may be due without a pending wakeup
+      long wait = nextRelease == Long.MAX_VALUE ? Long.MAX_VALUE : nextRelease - clock.nanoTime();
+      if (wait > 0 && tasks == due) {
+        LockSupport.parkNanos(this, wait);
+      }
+    }
+  }
+
+  private synchronized void removeFinished() {
+    List<ScheduledTask> remaining = new ArrayList<>(tasks.length);
+    for (ScheduledTask task : tasks) {
+      if (!task.isDone()) {
+        remaining.add(task);
+      }
+    }
+    tasks = remaining.toArray(new ScheduledTask[remaining.size()]);
+  }
+}
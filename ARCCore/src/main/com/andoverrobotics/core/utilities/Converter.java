@@ -18,20 +18,23 @@ public class Converter {
    * Converts the given angle measure in degrees into the equivalent measure in radians.
    *
    * @param degrees The degrees of which the radian representation will be returned
-   * @return The radian representation of the given angle measure
+   * @return The radian representation of the given angle measure, in the [0, {@link #TAU}) range
    */
   public static double degreesToRadians(double degrees) {
-    return normalizedRadians(degrees / 180.0 * Math.PI);
+    double radians = degrees / 180.0 * Math.PI;
+    // Most angles are already in range, so only the others pay for the remainder
+    return radians >= 0 && radians < TAU ? radians : normalizedRadians(radians);
   }
 
   /**
    * Converts the given angle measure in radians into the equivalent measure in degrees.
    *
    * @param radians The radians of which the degree representation will be returned
-   * @return The degree representation of the given angle measure
+   * @return The degree representation of the given angle measure, in the [0, 360) range
    */
   public static double radiansToDegrees(double radians) {
-    return normalizedDegrees(radians / Math.PI * 180);
+    double degrees = radians / Math.PI * 180;
+    return degrees >= 0 && degrees < 360 ? degrees : normalizedDegrees(degrees);
   }
 
   /**
@@ -55,43 +58,51 @@ public class Converter {
   }
 
   /**
-   * Converts the given angle measure in degrees to its equivalent value in the [0, 360] range.
+   * Converts the given angle measure in degrees to its equivalent value in the [0, 360) range. Runs
+   * in constant time, regardless of the magnitude of the input.
    *
-   * @param inputDegrees The angle measure of which the equivalent value in the [0, 360] range will
+   * @param inputDegrees The angle measure of which the equivalent value in the [0, 360) range will
    * be returned
-   * @return The equivalent value of the given angle measure in the [0, 360] range
+   * @return The equivalent value of the given angle measure in the [0, 360) range, or NaN if the
+   * input is infinite or NaN
    */
   public static double normalizedDegrees(final double inputDegrees) {
-    double degrees = inputDegrees;
-
-    while (degrees < 0) {
-      degrees += 360;
-    }
-    while (degrees >= 360) {
-      degrees -= 360;
-    }
-
-    return degrees;
+    return normalized(inputDegrees, 360);
   }
 
   /**
-   * Converts the given angle measure in radians to its equivalent value in the [0, {@link #TAU}]
-   * range.
+   * Converts the given angle measure in radians to its equivalent value in the [0, {@link #TAU})
+   * range. Runs in constant time, regardless of the magnitude of the input.
    *
-   * @param inputRadians The angle measure of which the equivalent value in the [0, {@link #TAU}]
+   * @param inputRadians The angle measure of which the equivalent value in the [0, {@link #TAU})
    * range will be returned
-   * @return The equivalent value of the given angle measure in the [0, {@link #TAU}] range
+   * @return The equivalent value of the given angle measure in the [0, {@link #TAU}) range, or NaN
+   * if the input is infinite or NaN
    */
   public static double normalizedRadians(final double inputRadians) {
-    double radians = inputRadians;
+    return normalized(inputRadians, TAU);
+  }
 
-    while (radians < 0) {
-      radians += TAU;
-    }
-    while (radians >= TAU) {
-      radians -= TAU;
-    }
+  /**
+   * Converts the given angle measure in radians to the equivalent turn of least magnitude, in the
+   * (-&pi;, &pi;] range, such as the error between a target heading and the current one.
+   *
+   * @param inputRadians The angle measure to convert
+   * @return The equivalent turn in the (-&pi;, &pi;] range, where positive is counterclockwise
+   */
+  public static double shortestTurnRadians(final double inputRadians) {
+    double radians = normalizedRadians(inputRadians);
+    return radians > Math.PI ? radians - TAU : radians;
+  }
 
-    return radians;
+  // The remainder is exact, so this matches repeated addition or subtraction of the period without
+  // its rounding error or its run time
+  private static double normalized(double angle, double period) {
+    double remainder = angle % period;
+    if (remainder < 0) {
+      remainder += period;
+    }
+    // A tiny negative remainder rounds up to the period itself
+    return remainder >= period ? 0 : remainder;
   }
 }
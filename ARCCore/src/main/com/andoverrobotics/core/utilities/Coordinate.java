@@ -37,9 +37,24 @@ public class Coordinate {
    * @return The coordinate of the rotated point
    */
   public Coordinate rotate(int degrees) {
-    return Coordinate.fromPolar(
-        getPolarDistance(),
-        Converter.normalizedDegrees(getPolarDirection() + degrees));
+    return rotate(degrees, Trig.EXACT);
+  }
+
+  /**
+   * Rotates the point at this Coordinate by the given number of degrees in the counter-clockwise
+   * direction about the origin, using the given trigonometric functions.
+   *
+   * @param degrees The number of degrees to rotate. Positive means counter-clockwise, negative
+   * means clockwise.
+   * @param trig The trigonometric functions, such as {@link FastMath#DEFAULT}
+   * @return The coordinate of the rotated point
+   */
+  public Coordinate rotate(int degrees, Trig trig) {
+    // The trigonometric functions take angles of any magnitude, so this one is not normalized
+    double angle = Math.toRadians(degrees);
+    double cos = trig.cos(angle), sin = trig.sin(angle);
+
+    return new Coordinate(x * cos - y * sin, x * sin + y * cos);
   }
 
   /**
@@ -48,7 +63,18 @@ public class Coordinate {
    * @return The angle of the polar representation in degrees
    */
   public double getPolarDirection() {
-    return Converter.radiansToDegrees(Math.atan2(y, x));
+    return getPolarDirection(Trig.EXACT);
+  }
+
+  /**
+   * Calculates the angle of the polar representation of this coordinate, using the given
+   * trigonometric functions.
+   *
+   * @param trig The trigonometric functions, such as {@link FastMath#DEFAULT}
+   * @return The angle of the polar representation in degrees
+   */
+  public double getPolarDirection(Trig trig) {
+    return Converter.radiansToDegrees(trig.atan2(y, x));
   }
 
   /**
@@ -93,9 +119,23 @@ public class Coordinate {
    * @return The new coordinate with the given polar components
    */
   public static Coordinate fromPolar(double distance, double degrees) {
-    double angle = Converter.degreesToRadians(degrees);
+    return fromPolar(distance, degrees, Trig.EXACT);
+  }
+
+  /**
+   * Constructs a new coordinate with the given polar components, using the given trigonometric
+   * functions.
+   *
+   * @param distance The distance from the origin to the new coordinate
+   * @param degrees The angle of the polar representation of the new coordinate
+   * @param trig The trigonometric functions, such as {@link FastMath#DEFAULT}
+   * @return The new coordinate with the given polar components
+   */
+  public static Coordinate fromPolar(double distance, double degrees, Trig trig) {
+    // The trigonometric functions take angles of any magnitude, so this one is not normalized
+    double angle = Math.toRadians(degrees);
 
-    return new Coordinate(distance * Math.cos(angle), distance * Math.sin(angle));
+    return new Coordinate(distance * trig.cos(angle), distance * trig.sin(angle));
   }
 
   @Override
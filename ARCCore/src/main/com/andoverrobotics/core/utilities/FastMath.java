@@ -0,0 +1,157 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Computes sine, cosine and arctangent by linear interpolation in precomputed tables, which is
+ * faster than {@link Math} at a bounded loss of accuracy. <p> The precision is set by the number of
+ * table steps per revolution, which is rounded up to a power of two; {@link #getMaxError()} reports
+ * the resulting bound on the absolute error of every function, for angles within a million
+ * revolutions of zero. The default of {@value #DEFAULT_STEPS} steps keeps the error below 4e-7, far
+ * below the resolution of an encoder or a gyro:
+ * <pre>{@code
+ *   estimator.setTrig(FastMath.DEFAULT);
+ *   follower.setTrig(FastMath.withMaxError(1e-4));
+ * }</pre>
+ * Tables are immutable once built, so one instance can be shared by any number of threads.
+ */
+public final class FastMath implements Trig {
+
+  /**
+   * The number of steps per revolution of {@link #DEFAULT}.
+   */
+  public static final int DEFAULT_STEPS = 4096;
+
+  // The greatest magnitude of the second derivative of arctan on [0, 1], at 1 / sqrt(3)
+  private static final double MAX_ATAN_CURVATURE = 3 * Math.sqrt(3) / 8;
+  // Beyond this many steps, positions lose their fractional part to rounding
+  private static final double MAX_POSITION = 1L << 40;
+
+  /**
+   * The tables with {@value #DEFAULT_STEPS} steps per revolution.
+   */
+  // Declared after the constants above, which the constructor reads during class initialization
+  public static final FastMath DEFAULT = new FastMath(DEFAULT_STEPS);
+
+  private final int steps;
+  private final int mask;
+  private final double stepsPerRadian;
+  private final double[] sine;
+  private final double[] arctangent;
+  private final double maxError;
+
+  /**
+   * Builds the tables with at least the given number of steps per revolution.
+   *
+   * @param stepsPerRevolution The minimum number of steps, at least 8
+   */
+  public FastMath(int stepsPerRevolution) {
+    if (stepsPerRevolution < 8 || stepsPerRevolution > 1 << 24) {
+      throw new IllegalArgumentException(
+          "Steps per revolution out of range: " + stepsPerRevolution);
+    }
+
+    steps = Integer.highestOneBit(stepsPerRevolution - 1) << 1;
+    mask = steps - 1;
+    stepsPerRadian = steps / Converter.TAU;
+
+    // One extra entry lets the last step interpolate without wrapping
+    sine = new double[steps + 1];
+    for (int i = 0; i <= steps; i++) {
+      sine[i] = Math.sin(i / stepsPerRadian);
+    }
+
+    // An eighth of a revolution of angle spans [0, 1] of tangent
+    int arctangentSteps = steps / 8;
+    arctangent = new double[arctangentSteps + 1];
+    for (int i = 0; i <= arctangentSteps; i++) {
+      arctangent[i] = Math.atan((double) i / arctangentSteps);
+    }
+
+    // The error of linear interpolation is at most h^2 / 8 times the greatest curvature
+    double sineStep = 1 / stepsPerRadian, arctangentStep = 1.0 / arctangentSteps;
+    maxError = Math.max(sineStep * sineStep, arctangentStep * arctangentStep * MAX_ATAN_CURVATURE)
+        / 8 + 1e-15;
+  }
+
+  /**
+   * Builds the smallest tables whose error is at most the given bound.
+   *
+   * @param maxError The greatest acceptable absolute error, at least 1e-12
+   * @return The new tables
+   */
+  public static FastMath withMaxError(double maxError) {
+    if (!(maxError >= 1e-12)) {
+      throw new IllegalArgumentException("Error bound out of range: " + maxError);
+    }
+
+    int steps = 8;
+    FastMath tables = new FastMath(steps);
+    while (tables.getMaxError() > maxError) {
+      steps *= 2;
+      tables = new FastMath(steps);
+    }
+    return tables;
+  }
+
+  @Override
+  public double sin(double radians) {
+    return interpolateSine(radians * stepsPerRadian);
+  }
+
+  @Override
+  public double cos(double radians) {
+    return interpolateSine(radians * stepsPerRadian + steps / 4);
+  }
+
+  @Override
+  public double atan2(double y, double x) {
+    double absX = Math.abs(x), absY = Math.abs(y);
+
+    // Axes, zeros, infinities and NaN keep the exact results and signs of Math.atan2
+    if (!(absX > 0 && absY > 0 && absX < Double.POSITIVE_INFINITY
+        && absY < Double.POSITIVE_INFINITY)) {
+      return Math.atan2(y, x);
+    }
+
+    boolean steep = absY > absX;
+    double position = (steep ? absX / absY : absY / absX) * (arctangent.length - 1);
+    int index = (int) position;
+    double angle = index == arctangent.length - 1 ? arctangent[index]
+        : arctangent[index] + (arctangent[index + 1] - arctangent[index]) * (position - index);
+
+    if (steep) {
+      angle = Math.PI / 2 - angle;
+    }
+    if (x < 0) {
+      angle = Math.PI - angle;
+    }
+    return y < 0 ? -angle : angle;
+  }
+
+  private double interpolateSine(double position) {
+    if (!(Math.abs(position) < MAX_POSITION)) {
+      if (Double.isNaN(position) || Double.isInfinite(position)) {
+        return Double.NaN;
+      }
+      // The remainder is exact, and a whole number of revolutions does not change the result
+      position %= steps;
+    }
+
+    double floor = Math.floor(position);
+    int index = (int) ((long) floor & mask);
+    return sine[index] + (sine[index + 1] - sine[index]) * (position - floor);
+  }
+
+  /**
+   * @return The greatest absolute error of any function of these tables
+   */
+  public double getMaxError() {
+    return maxError;
+  }
+
+  /**
+   * @return The number of steps per revolution of these tables
+   */
+  public int getStepsPerRevolution() {
+    return steps;
+  }
+}
@@ -0,0 +1,566 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+import com.qualcomm.robotcore.hardware.Servo;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Owns the I/O of a set of motors and servos on a single thread, so that the OpMode thread, a
+ * {@link ControlLoop} and any other thread can command the same hardware without racing each other.
+ * <p> Motors are registered with {@link #register(DcMotor)}, which returns a DcMotor that sends
+ * its writes to the actor instead of the hardware. Pass the returned motors to {@link
+ * MotorAdapter}, {@link MotorPair} or the drivetrain factories in place of the physical ones:
+ * <pre>{@code
+ *   HardwareActor actor = new HardwareActor("Hardware");
+ *   MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+ *       actor.register(motorFL), actor.register(motorFR),
+ *       actor.register(motorBL), actor.register(motorBR),
+ *       this, TICKS_PER_INCH, TICKS_PER_360);
+ *   actor.start();
+ *   ...
+ *   actor.execute(new Runnable() {
+ *     public void run() {
+ *       telemetry.update();
+ *     }
+ *   });
+ *   ...
+ *   actor.stop();
+ * }</pre>
+ * <h2>Commands</h2> Writes are queued on a lock-free queue, which any number of threads may fill
+ * without blocking, and the actor's thread is woken to drain it. Within one drain, the power and
+ * mode writes to each motor are merged as in {@link MotorCommandBuffer}, servo positions are merged
+ * likewise, and a write that matches what was last sent is dropped. A target position, a {@link
+ * #execute(Runnable) task}, or any other write first sends the pending writes that were queued
+ * before it, so commands take effect in the order in which they were queued. <h2>Snapshots</h2>
+ * Once per read period, the actor reads the position and busy state of every motor and publishes
+ * them. A read through a registered motor answers from the latest snapshot, unless a write to that
+ * motor was queued after the snapshot was taken; then the read waits for the next one, which is
+ * taken as soon as the queued writes have been sent. The mode, power and target position of a
+ * motor are tracked from its writes, and are read from the hardware once, when it is registered.
+ * Reads of the remaining settings, such as the direction, are cached by the SDK and go straight to
+ * the motor.
+ */
+public class HardwareActor {
+
+  /**
+   * The default time, in milliseconds, between the snapshots of the motors.
+   */
+  public static final long DEFAULT_READ_PERIOD_MILLIS = 10;
+
+  private static final int POWER = 0, MODE = 1, TARGET_POSITION = 2, SERVO_POSITION = 3, TASK = 4;
+
+  private final String name;
+  private final long readPeriodNanos;
+
+  private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+  private final Map<DcMotor, ActorMotor> registered = new IdentityHashMap<>();
+  // Replaced, never modified, so that the actor's thread can iterate without locking
+  private volatile MotorState[] motors = new MotorState[0];
+  private final Map<Servo, Double> pendingServoPositions = new IdentityHashMap<>();
+  private final Map<Servo, Double> writtenServoPositions = new IdentityHashMap<>();
+
+  private final Object published = new Object();
+  private final AtomicInteger waitingReaders = new AtomicInteger();
+  private volatile boolean readRequested;
+
+  private final Histogram cycleTime = new Histogram();
+  private volatile long commandsReceived;
+  private volatile long writesSent;
+  private volatile RuntimeException failure;
+
+  private volatile Thread thread;
+  private volatile Thread actorThread;
+  private volatile boolean running;
+
+  /**
+   * Creates a HardwareActor with the default read period.
+   *
+   * @param name The name of the actor's thread
+   */
+  public HardwareActor(String name) {
+    this(name, DEFAULT_READ_PERIOD_MILLIS);
+  }
+
+  /**
+   * Creates a HardwareActor with the given read period.
+   *
+   * @param name The name of the actor's thread
+   * @param readPeriodMillis The time, in milliseconds, between the snapshots of the motors
+   */
+  public HardwareActor(String name, long readPeriodMillis) {
+    if (readPeriodMillis <= 0) {
+      throw new IllegalArgumentException("The read period must be positive");
+    }
+    this.name = name;
+    this.readPeriodNanos = TimeUnit.MILLISECONDS.toNanos(readPeriodMillis);
+  }
+
+  /**
+   * Adds the given motor to the hardware that this actor owns. Its mode, power and target position
+   * are read once, from the calling thread.
+   *
+   * @param motor The physical motor
+   * @return A motor whose writes and reads go through this actor
+   */
+  public synchronized DcMotor register(DcMotor motor) {
+    ActorMotor actorMotor = registered.get(motor);
+    if (actorMotor != null) {
+      return actorMotor;
+    }
+
+    MotorState state = new MotorState(motor);
+    MotorState[] updated = Arrays.copyOf(motors, motors.length + 1);
+    updated[motors.length] = state;
+    motors = updated;
+
+    actorMotor = new ActorMotor(this, state);
+    registered.put(motor, actorMotor);
+    return actorMotor;
+  }
+
+  /**
+   * Queues a write of the given position to a servo. Positions written to the same servo within
+   * one drain are merged, so only the last is sent.
+   *
+   * @param servo The servo
+   * @param position The new position, between 0 and 1, inclusive
+   */
+  public void setPosition(Servo servo, double position) {
+    submit(new Command(SERVO_POSITION, null, position, 0, servo));
+  }
+
+  /**
+   * Queues a task that performs hardware I/O, such as {@code telemetry.update()}, on the actor's
+   * thread. The writes that were queued before it are sent first. A task that throws is recorded
+   * as the {@link #getFailure() failure} of this actor, which keeps running.
+   *
+   * @param task The task
+   */
+  public void execute(Runnable task) {
+    submit(new Command(TASK, null, 0, 0, task));
+  }
+
+  /**
+   * Starts the actor's thread, which sends the commands queued so far. Has no effect if it is
+   * already running.
+   */
+  public synchronized void start() {
+    if (thread != null) {
+      return;
+    }
+    running = true;
+    thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        runCycles();
+      }
+    }, name);
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MAX_PRIORITY);
+    thread.start();
+  }
+
+  /**
+   * Sends the commands that are still queued, stops the actor's thread, and waits for it to end.
+   * Reads that are waiting for a snapshot fail with an {@link IllegalStateException}.
+   *
+   * @throws InterruptedException if the calling thread is interrupted while waiting
+   */
+  public void stop() throws InterruptedException {
+    Thread stopped;
+    synchronized (this) {
+      stopped = thread;
+      thread = null;
+      running = false;
+    }
+
+    if (stopped != null) {
+      LockSupport.unpark(stopped);
+      stopped.join();
+    }
+    synchronized (published) {
+      published.notifyAll();
+    }
+  }
+
+  /**
+   * @return True if the actor's thread has been started and not stopped
+   */
+  public boolean isRunning() {
+    return running;
+  }
+
+  /**
+   * @return The times, in nanoseconds, that the actor spent sending commands and taking snapshots
+   * in each cycle
+   */
+  public Histogram getCycleTime() {
+    return cycleTime;
+  }
+
+  /**
+   * @return The number of commands that the actor has drained from its queue
+   */
+  public long getCommandsReceived() {
+    return commandsReceived;
+  }
+
+  /**
+   * @return The number of writes that the actor has sent to the hardware, which is less than the
+   * number of commands received by the writes that were merged or dropped
+   */
+  public long getWritesSent() {
+    return writesSent;
+  }
+
+  /**
+   * @return The last exception thrown by a write or a task on the actor's thread, or null if there
+   * has been none
+   */
+  public RuntimeException getFailure() {
+    return failure;
+  }
+
+  void submit(Command command) {
+    if (command.state != null) {
+      command.state.submitted.incrementAndGet();
+    }
+    commands.add(command);
+
+    Thread current = thread;
+    if (current != null) {
+      LockSupport.unpark(current);
+    }
+  }
+
+  // Waits until the state has been read after every write that was queued to it before this call
+  MotorState awaitSnapshot(MotorState state) {
+    long wanted = state.submitted.get();
+    if (state.readCount >= wanted) {
+      return state;
+    }
+
+    waitingReaders.incrementAndGet();
+    readRequested = true;
+    Thread current = thread;
+    if (current != null) {
+      LockSupport.unpark(current);
+    }
+
+    boolean interrupted = false;
+    try {
+      synchronized (published) {
+        while (state.readCount < wanted) {
+          if (!running) {
+            throw new IllegalStateException("HardwareActor " + name + " is not running");
+          }
+          try {
+            published.wait();
+          } catch (InterruptedException interruption) {
+            // The snapshot is at most one cycle away; waiting for it keeps the read consistent
+            interrupted = true;
+          }
+        }
+      }
+    } finally {
+      waitingReaders.decrementAndGet();
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return state;
+  }
+
+  boolean isActorThread() {
+    return Thread.currentThread() == actorThread;
+  }
+
+  private void runCycles() {
+    actorThread = Thread.currentThread();
+    long nextRead = System.nanoTime();
+
+    while (running) {
+      long start = System.nanoTime();
+      drain();
+      if (readRequested || start - nextRead >= 0) {
+        readRequested = false;
+        readMotors();
+        nextRead = start + readPeriodNanos;
+      }
+      cycleTime.record(System.nanoTime() - start);
+
+      // A read request or command that arrives after the checks above unparks this thread, so the
+      // park returns immediately instead of losing the wakeup
+      if (commands.isEmpty() && !readRequested) {
+        LockSupport.parkNanos(this, nextRead - System.nanoTime());
+      }
+    }
+    drain();
+  }
+
+  private void drain() {
+    long received = 0;
+    Command command;
+    while ((command = commands.poll()) != null) {
+      received++;
+      try {
+        apply(command);
+      } catch (RuntimeException applyFailure) {
+        failure = applyFailure;
+      } finally {
+        if (command.state != null) {
+          command.state.appliedCount++;
+        }
+      }
+    }
+    if (received > 0) {
+      commandsReceived += received;
+      flushAll();
+    }
+  }
+
+  private void apply(Command command) {
+    MotorState state = command.state;
+
+    switch (command.type) {
+      case POWER:
+        state.pendingPower = command.value;
+        break;
+      case MODE:
+        // A reset that is merged away would leave the encoder unreset
+        if (state.pendingMode == RunMode.STOP_AND_RESET_ENCODER
+            && command.mode != state.pendingMode) {
+          writeMode(state);
+        }
+        state.pendingMode = command.mode;
+        break;
+      case TARGET_POSITION:
+        flush(state);
+        state.motor.setTargetPosition(command.position);
+        writesSent++;
+        break;
+      case SERVO_POSITION:
+        pendingServoPositions.put(command.servo, command.value);
+        break;
+      default:
+        flushAll();
+        command.task.run();
+        break;
+    }
+  }
+
+  private void flushAll() {
+    for (MotorState state : motors) {
+      flush(state);
+    }
+    for (Map.Entry<Servo, Double> pending : pendingServoPositions.entrySet()) {
+      Servo servo = pending.getKey();
+      if (!pending.getValue().equals(writtenServoPositions.get(servo))) {
+        servo.setPosition(pending.getValue());
+        writtenServoPositions.put(servo, pending.getValue());
+        writesSent++;
+      }
+    }
+    pendingServoPositions.clear();
+  }
+
+  private void flush(MotorState state) {
+    writeMode(state);
+
+    double power = state.pendingPower;
+    if (!Double.isNaN(power) && Double.compare(power, state.writtenPower) != 0) {
+      state.motor.setPower(power);
+      state.writtenPower = power;
+      writesSent++;
+    }
+    state.pendingPower = Double.NaN;
+  }
+
+  private void writeMode(MotorState state) {
+    RunMode mode = state.pendingMode;
+    // Every reset is sent, because the encoder may have moved since the last one
+    if (mode != null && (mode != state.writtenMode || mode == RunMode.STOP_AND_RESET_ENCODER)) {
+      state.motor.setMode(mode);
+      state.writtenMode = mode;
+      writesSent++;
+      if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+        // The reset stops the motor, so the next power must be sent even if it is unchanged
+        state.writtenPower = Double.NaN;
+      }
+    }
+    state.pendingMode = null;
+  }
+
+  private void readMotors() {
+    for (MotorState state : motors) {
+      long applied = state.appliedCount;
+      try {
+        state.position = state.motor.getCurrentPosition();
+        state.busy = state.motor.isBusy();
+      } catch (RuntimeException readFailure) {
+        failure = readFailure;
+      }
+      state.readCount = applied;
+    }
+
+    if (waitingReaders.get() > 0) {
+      synchronized (published) {
+        published.notifyAll();
+      }
+    }
+  }
+
+  static class Command {
+
+    final int type;
+    final MotorState state;
+    final double value;
+    final int position;
+    final RunMode mode;
+    final Servo servo;
+    final Runnable task;
+
+    Command(int type, MotorState state, double value, int position, Object target) {
+      this.type = type;
+      this.state = state;
+      this.value = value;
+      this.position = position;
+      this.mode = target instanceof RunMode ? (RunMode) target : null;
+      this.servo = target instanceof Servo ? (Servo) target : null;
+      this.task = target instanceof Runnable ? (Runnable) target : null;
+    }
+  }
+
+  static class MotorState {
+
+    final DcMotor motor;
+    final AtomicLong submitted = new AtomicLong();
+
+    // Published by the actor's thread
+    volatile int position;
+    volatile boolean busy;
+    volatile long readCount = -1;
+
+    // Tracked from the writes, on the threads that queue them
+    volatile RunMode mode;
+    volatile double power;
+    volatile int targetPosition;
+
+    // Used only by the actor's thread
+    long appliedCount;
+    double pendingPower = Double.NaN;
+    double writtenPower = Double.NaN;
+    RunMode pendingMode;
+    RunMode writtenMode;
+
+    MotorState(DcMotor motor) {
+      this.motor = motor;
+      this.mode = motor.getMode();
+      this.power = motor.getPower();
+      this.targetPosition = motor.getTargetPosition();
+    }
+  }
+
+  private static class ActorMotor extends DcMotorDecorator {
+
+    private final HardwareActor actor;
+    private final MotorState state;
+
+    ActorMotor(HardwareActor actor, MotorState state) {
+      super(state.motor);
+      this.actor = actor;
+      this.state = state;
+    }
+
+    @Override
+    public void setPower(double power) {
+      state.power = power;
+      actor.submit(new Command(POWER, state, power, 0, null));
+    }
+
+    @Override
+    public double getPower() {
+      return state.power;
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+      state.mode = mode;
+      if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+        state.power = 0;
+      }
+      actor.submit(new Command(MODE, state, 0, 0, mode));
+    }
+
+    @Override
+    public RunMode getMode() {
+      return state.mode;
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+      state.targetPosition = position;
+      actor.submit(new Command(TARGET_POSITION, state, 0, position, null));
+    }
+
+    @Override
+    public int getTargetPosition() {
+      return state.targetPosition;
+    }
+
+    // A task on the actor's thread runs after the pending writes were sent, so it reads directly
+    @Override
+    public int getCurrentPosition() {
+      return actor.isActorThread() ? motor.getCurrentPosition()
+          : actor.awaitSnapshot(state).position;
+    }
+
+    @Override
+    public boolean isBusy() {
+      return actor.isActorThread() ? motor.isBusy() : actor.awaitSnapshot(state).busy;
+    }
+
+    @Override
+    public void setDirection(final DcMotorSimple.Direction direction) {
+      actor.submit(new Command(TASK, state, 0, 0, new Runnable() {
+        @Override
+        public void run() {
+          motor.setDirection(direction);
+        }
+      }));
+    }
+
+    @Override
+    public void setZeroPowerBehavior(final ZeroPowerBehavior zeroPowerBehavior) {
+      actor.submit(new Command(TASK, state, 0, 0, new Runnable() {
+        @Override
+        public void run() {
+          motor.setZeroPowerBehavior(zeroPowerBehavior);
+        }
+      }));
+    }
+
+    @Deprecated
+    @SuppressWarnings("deprecation")
+    @Override
+    public void setPowerFloat() {
+      state.power = 0;
+      actor.submit(new Command(TASK, state, 0, 0, new Runnable() {
+        @Override
+        public void run() {
+          motor.setPowerFloat();
+          state.writtenPower = Double.NaN;
+        }
+      }));
+    }
+  }
+}
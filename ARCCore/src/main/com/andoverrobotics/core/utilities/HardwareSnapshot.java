@@ -0,0 +1,238 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the position, busy state and {@link RunMode} of a set of motors once per control cycle, and
+ * answers later queries from that cache. <p> Motors are registered with {@link #register(DcMotor)},
+ * which returns a DcMotor that reads through this snapshot. Pass the returned motors to {@link
+ * MotorAdapter}, {@link MotorPair} or the drivetrain factories in place of the physical ones:
+ * <pre>{@code
+ *   HardwareSnapshot snapshot = new HardwareSnapshot();
+ *   MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+ *       snapshot.register(motorFL), snapshot.register(motorFR),
+ *       snapshot.register(motorBL), snapshot.register(motorBR),
+ *       this, TICKS_PER_INCH, TICKS_PER_360);
+ * }</pre>
+ * <p> Registering the same physical motor twice returns the same cached motor, so a motor that
+ * belongs to several {@link MotorPair}s is still read only once per cycle. <h2>Staleness</h2> The
+ * cache is refreshed by {@link #refresh()}, which is meant to be called once per control cycle, or
+ * automatically when a query finds the cache older than the maximum age. A write through a cached
+ * motor (power, mode or target position) marks that motor stale, so that the next query re-reads it
+ * instead of returning a value from before the write. <p> The cached motors may be used from
+ * several threads, such as those of a {@link ModeTransition} that ends an encoder move, but {@link
+ * #refresh()} is meant to be called from the thread that runs the control loop.
+ */
+public class HardwareSnapshot {
+
+  /**
+   * The default maximum age of the cache, in milliseconds.
+   */
+  public static final long DEFAULT_MAX_AGE_MILLIS = 10;
+
+  private static final int READS_PER_MOTOR = 3;
+
+  private final Clock clock;
+  private final Map<DcMotor, CachedMotor> registered = new IdentityHashMap<>();
+
+  private DcMotor[] motors = new DcMotor[0];
+  private int[] positions = new int[0];
+  private boolean[] busy = new boolean[0];
+  private RunMode[] modes = new RunMode[0];
+  private boolean[] stale = new boolean[0];
+
+  private long maxAgeNanos;
+  private long lastRefreshNanos;
+  private boolean refreshed;
+
+  private long physicalReads;
+  private long queries;
+
+  /**
+   * Creates a HardwareSnapshot with the default maximum age.
+   */
+  public HardwareSnapshot() {
+    this(DEFAULT_MAX_AGE_MILLIS);
+  }
+
+  /**
+   * Creates a HardwareSnapshot with the given maximum age.
+   *
+   * @param maxAgeMillis The age, in milliseconds, after which a query refreshes the cache
+   */
+  public HardwareSnapshot(long maxAgeMillis) {
+    this(maxAgeMillis, Clock.SYSTEM);
+  }
+
+  /**
+   * Creates a HardwareSnapshot with the given maximum age, measured by the given {@link Clock}.
+   *
+   * @param maxAgeMillis The age, in milliseconds, after which a query refreshes the cache
+   * @param clock The clock that measures the age of the cache
+   */
+  public HardwareSnapshot(long maxAgeMillis, Clock clock) {
+    this.clock = clock;
+    setMaxAge(maxAgeMillis);
+  }
+
+  /**
+   * Sets the age after which a query refreshes the cache. Use {@link Long#MAX_VALUE} to refresh only
+   * through {@link #refresh()}.
+   *
+   * @param maxAgeMillis The new maximum age, in milliseconds
+   */
+  public synchronized void setMaxAge(long maxAgeMillis) {
+    maxAgeNanos = maxAgeMillis >= TimeUnit.NANOSECONDS.toMillis(Long.MAX_VALUE)
+        ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+  }
+
+  /**
+   * Adds the given motor to the set that is read by every refresh.
+   *
+   * @param motor The physical motor
+   * @return A motor whose reads are served from this snapshot and whose writes go to the given motor
+   */
+  public synchronized DcMotor register(DcMotor motor) {
+    CachedMotor cached = registered.get(motor);
+    if (cached != null) {
+      return cached;
+    }
+
+    int index = motors.length;
+    motors = Arrays.copyOf(motors, index + 1);
+    positions = Arrays.copyOf(positions, index + 1);
+    busy = Arrays.copyOf(busy, index + 1);
+    modes = Arrays.copyOf(modes, index + 1);
+    stale = Arrays.copyOf(stale, index + 1);
+
+    motors[index] = motor;
+    stale[index] = true;
+
+    cached = new CachedMotor(motor, this, index);
+    registered.put(motor, cached);
+    return cached;
+  }
+
+  /**
+   * Reads every registered motor once. Call this at the start of every control cycle.
+   */
+  public synchronized void refresh() {
+    for (int i = 0; i < motors.length; i++) {
+      read(i);
+    }
+    lastRefreshNanos = clock.nanoTime();
+    refreshed = true;
+  }
+
+  /**
+   * @return The number of reads that have been sent to the hardware
+   */
+  public synchronized long getPhysicalReads() {
+    return physicalReads;
+  }
+
+  /**
+   * @return The number of position, busy and mode queries that have been answered
+   */
+  public synchronized long getQueries() {
+    return queries;
+  }
+
+  /**
+   * Tells how many hardware reads the cache has avoided, which is the number of queries answered
+   * minus the number of reads sent to the hardware. This is negative if the cache is refreshed more
+   * often than it is queried.
+   *
+   * @return The number of hardware reads saved
+   */
+  public synchronized long getReadsSaved() {
+    return queries - physicalReads;
+  }
+
+  synchronized int getCurrentPosition(int index) {
+    ensureFresh(index);
+    return positions[index];
+  }
+
+  synchronized boolean isBusy(int index) {
+    ensureFresh(index);
+    return busy[index];
+  }
+
+  synchronized RunMode getMode(int index) {
+    ensureFresh(index);
+    return modes[index];
+  }
+
+  synchronized void invalidate(int index) {
+    stale[index] = true;
+  }
+
+  private void ensureFresh(int index) {
+    queries++;
+    if (!refreshed || clock.nanoTime() - lastRefreshNanos > maxAgeNanos) {
+      refresh();
+    } else if (stale[index]) {
+      read(index);
+    }
+  }
+
+  private void read(int index) {
+    DcMotor motor = motors[index];
+    positions[index] = motor.getCurrentPosition();
+    busy[index] = motor.isBusy();
+    modes[index] = motor.getMode();
+    stale[index] = false;
+    physicalReads += READS_PER_MOTOR;
+  }
+
+  private static class CachedMotor extends DcMotorDecorator {
+
+    private final HardwareSnapshot snapshot;
+    private final int index;
+
+    CachedMotor(DcMotor motor, HardwareSnapshot snapshot, int index) {
+      super(motor);
+      this.snapshot = snapshot;
+      this.index = index;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      return snapshot.getCurrentPosition(index);
+    }
+
+    @Override
+    public boolean isBusy() {
+      return snapshot.isBusy(index);
+    }
+
+    @Override
+    public RunMode getMode() {
+      return snapshot.getMode(index);
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+      motor.setMode(mode);
+      snapshot.invalidate(index);
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+      motor.setTargetPosition(position);
+      snapshot.invalidate(index);
+    }
+
+    @Override
+    public void setPower(double power) {
+      motor.setPower(power);
+      snapshot.invalidate(index);
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package com.andoverrobotics.core.utilities;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts non-negative values, such as durations in nanoseconds, in a fixed set of buckets, so that
+ * percentiles can be estimated without storing every value. <p> Each power of two is split into
+ * {@value #SUB_BUCKETS} buckets of equal width, which bounds the error of a percentile to one part
+ * in {@value #SUB_BUCKETS} of the value, from 0 up to {@link Long#MAX_VALUE}. Recording never
+ * allocates or locks, so any number of threads may record into and read from the same histogram;
+ * a read that races with a record may see some of its counters but not others.
+ */
+public class Histogram {
+
+  /**
+   * The number of buckets into which each power of two is divided.
+   */
+  public static final int SUB_BUCKETS = 8;
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong sum = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Counts the given value. Negative values are counted as 0.
+   *
+   * @param value The value to count
+   */
+  public void record(long value) {
+    long clamped = Math.max(0, value);
+
+    counts.incrementAndGet(bucketOf(clamped));
+    count.incrementAndGet();
+    sum.addAndGet(clamped);
+
+    long currentMax;
+    while (clamped > (currentMax = max.get())) {
+      if (max.compareAndSet(currentMax, clamped)) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * @return The number of values counted
+   */
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * @return The mean of the values counted, or 0 if there are none
+   */
+  public double getMean() {
+    long values = count.get();
+    return values == 0 ? 0 : (double) sum.get() / values;
+  }
+
+  /**
+   * @return The greatest value counted, or 0 if there are none
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Estimates the value below which the given fraction of the counted values lie. The estimate is
+   * the upper bound of the bucket that contains the percentile, capped at the greatest value.
+   *
+   * @param fraction The fraction, between 0 and 1, such as 0.99 for the 99th percentile
+   * @return The estimated percentile, or 0 if no values have been counted
+   */
+  public long getPercentile(double fraction) {
+    long values = count.get();
+    if (values == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(Math.min(1, Math.max(0, fraction)) * values));
+    long seen = 0;
+
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      seen += counts.get(bucket);
+      if (seen >= rank) {
+        return Math.min(upperBoundOf(bucket), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Discards every value counted so far.
+   */
+  public void reset() {
+    for (int bucket = 0; bucket < BUCKETS; bucket++) {
+      counts.set(bucket, 0);
+    }
+    count.set(0);
+    sum.set(0);
+    max.set(0);
+  }
+
+  // Values below 2 * SUB_BUCKETS have a bucket each; above that, the bits after the leading one
+  // select one of the SUB_BUCKETS buckets of the value's power of two
+  static int bucketOf(long value) {
+    if (value < 2 * SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return (shift + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < 2 * SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = bucket / SUB_BUCKETS - 1;
+    long subBucket = bucket % SUB_BUCKETS;
+    long lowerBound = (SUB_BUCKETS + subBucket) << shift;
+    return lowerBound + (1L << shift) - 1;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("n=%d mean=%.0f p50=%d p99=%d max=%d",
+        getCount(), getMean(), getPercentile(0.5), getPercentile(0.99), getMax());
+  }
+}
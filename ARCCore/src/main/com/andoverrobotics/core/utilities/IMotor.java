@@ -37,6 +37,23 @@ public interface IMotor {
    */
   void setMode(RunMode mode);
 
+  /**
+   * Reads the current encoder position of the motor(s). For a set of motors, this is the average of
+   * their positions.
+   *
+   * @return The current position, in encoder ticks
+   */
+  int getCurrentPosition();
+
+  /**
+   * Tells if the encoder of every motor reads zero, as it does once a {@link
+   * RunMode#STOP_AND_RESET_ENCODER STOP_AND_RESET_ENCODER} has taken effect. Unlike a check of
+   * {@link #getCurrentPosition()}, this is not fooled by positions that average to zero.
+   *
+   * @return True if every motor's position reads zero
+   */
+  boolean isEncoderReset();
+
   /**
    * Tells if any motor is busy.
    *
@@ -0,0 +1,90 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.utilities.MotorTimings.Operation;
+import com.qualcomm.robotcore.hardware.DcMotor;
+
+/**
+ * Times the calls made to a physical {@link DcMotor} that each take a transaction with its hub,
+ * and records the latencies into {@link MotorTimings}. Wrap a motor from the hardware map in this
+ * class before handing it to {@link MotorAdapter}, {@link MotorPair} or the drivetrain factories
+ * to measure the hub itself rather than the code above it. While the timings are disabled, each
+ * call costs one volatile read on top of the call that it forwards.
+ *
+ * @see InstrumentedMotor
+ * @see MotorTimingRecorder
+ */
+public class InstrumentedDcMotor extends DcMotorDecorator {
+
+  private final MotorTimings timings;
+
+  /**
+   * @param motor The motor whose calls are timed
+   * @param timings The timings into which the latencies are recorded
+   */
+  public InstrumentedDcMotor(DcMotor motor, MotorTimings timings) {
+    super(motor);
+    this.timings = timings;
+  }
+
+  /**
+   * @return The timings into which the latencies are recorded
+   */
+  public MotorTimings getTimings() {
+    return timings;
+  }
+
+  @Override
+  public void setPower(double power) {
+    if (!timings.isEnabled()) {
+      motor.setPower(power);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.setPower(power);
+    timings.record(Operation.SET_POWER, start);
+  }
+
+  @Override
+  public void setMode(RunMode mode) {
+    if (!timings.isEnabled()) {
+      motor.setMode(mode);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.setMode(mode);
+    timings.record(Operation.SET_MODE, start);
+  }
+
+  @Override
+  public void setTargetPosition(int position) {
+    if (!timings.isEnabled()) {
+      motor.setTargetPosition(position);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.setTargetPosition(position);
+    timings.record(Operation.SET_TARGET_POSITION, start);
+  }
+
+  @Override
+  public int getCurrentPosition() {
+    if (!timings.isEnabled()) {
+      return motor.getCurrentPosition();
+    }
+    long start = System.nanoTime();
+    int position = motor.getCurrentPosition();
+    timings.record(Operation.GET_CURRENT_POSITION, start);
+    return position;
+  }
+
+  @Override
+  public boolean isBusy() {
+    if (!timings.isEnabled()) {
+      return motor.isBusy();
+    }
+    long start = System.nanoTime();
+    boolean busy = motor.isBusy();
+    timings.record(Operation.IS_BUSY, start);
+    return busy;
+  }
+}
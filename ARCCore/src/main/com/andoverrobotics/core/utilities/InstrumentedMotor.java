@@ -0,0 +1,119 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.utilities.MotorTimings.Operation;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+
+/**
+ * Times every call made to another {@link IMotor}, such as a {@link MotorPair} or a {@link
+ * MotorGroup}, and records the latencies into {@link MotorTimings}. While the timings are
+ * disabled, each call costs one volatile read on top of the call that it forwards.
+ *
+ * @see InstrumentedDcMotor
+ * @see MotorTimingRecorder
+ */
+public class InstrumentedMotor implements IMotor {
+
+  private final IMotor motor;
+  private final MotorTimings timings;
+
+  /**
+   * @param motor The motor whose calls are timed
+   * @param timings The timings into which the latencies are recorded
+   */
+  public InstrumentedMotor(IMotor motor, MotorTimings timings) {
+    this.motor = motor;
+    this.timings = timings;
+  }
+
+  /**
+   * @return The motor whose calls are timed
+   */
+  public IMotor getInstrumentedMotor() {
+    return motor;
+  }
+
+  /**
+   * @return The timings into which the latencies are recorded
+   */
+  public MotorTimings getTimings() {
+    return timings;
+  }
+
+  @Override
+  public void setPower(double power) {
+    if (!timings.isEnabled()) {
+      motor.setPower(power);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.setPower(power);
+    timings.record(Operation.SET_POWER, start);
+  }
+
+  @Override
+  public void addTargetPosition(int tickOffset) {
+    if (!timings.isEnabled()) {
+      motor.addTargetPosition(tickOffset);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.addTargetPosition(tickOffset);
+    timings.record(Operation.SET_TARGET_POSITION, start);
+  }
+
+  @Override
+  public void startRunToPosition(int tickOffset, double power) {
+    if (!timings.isEnabled()) {
+      motor.startRunToPosition(tickOffset, power);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.startRunToPosition(tickOffset, power);
+    timings.record(Operation.RUN_TO_POSITION, start);
+  }
+
+  @Override
+  public void setMode(RunMode mode) {
+    if (!timings.isEnabled()) {
+      motor.setMode(mode);
+      return;
+    }
+    long start = System.nanoTime();
+    motor.setMode(mode);
+    timings.record(Operation.SET_MODE, start);
+  }
+
+  @Override
+  public int getCurrentPosition() {
+    if (!timings.isEnabled()) {
+      return motor.getCurrentPosition();
+    }
+    long start = System.nanoTime();
+    int position = motor.getCurrentPosition();
+    timings.record(Operation.GET_CURRENT_POSITION, start);
+    return position;
+  }
+
+  // Timed as a position read, which is what it costs
+  @Override
+  public boolean isEncoderReset() {
+    if (!timings.isEnabled()) {
+      return motor.isEncoderReset();
+    }
+    long start = System.nanoTime();
+    boolean reset = motor.isEncoderReset();
+    timings.record(Operation.GET_CURRENT_POSITION, start);
+    return reset;
+  }
+
+  @Override
+  public boolean isBusy() {
+    if (!timings.isEnabled()) {
+      return motor.isBusy();
+    }
+    long start = System.nanoTime();
+    boolean busy = motor.isBusy();
+    timings.record(Operation.IS_BUSY, start);
+    return busy;
+  }
+}
@@ -0,0 +1,267 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Changes the {@link RunMode} of a set of motors without writing them one after another, and
+ * completes once every motor has confirmed the new mode. <p> Each motor is written on its own
+ * thread, so the writes are in flight at the same time and {@link #start} returns immediately. A
+ * motor confirms {@link RunMode#STOP_AND_RESET_ENCODER STOP_AND_RESET_ENCODER} once every
+ * physical motor behind it reads zero, as told by {@link IMotor#isEncoderReset()}, and any other
+ * mode once its write has returned. The transition can be polled with {@link #isDone()}, waited on
+ * with {@link #await()} or {@link #await(long, TimeUnit)}, or scheduled on a {@link ControlLoop}.
+ * <p> The time from the start of a transition to the confirmation of its last motor is recorded
+ * into the histogram passed to {@link #start}, if any. Until the transition is done, the motors
+ * must not be given other commands, which could reach them before the new mode does. <p> Since the
+ * writes are made from threads of their own, the motors must accept calls from any thread. The
+ * physical motors do, and so do the motors of a {@link HardwareActor}, {@link MotorCommandBuffer}
+ * or {@link HardwareSnapshot}.
+ */
+public class ModeTransition implements ControlLoop.Task {
+
+  /**
+   * The time, in milliseconds, that {@link #await()} waits between checks of the motors.
+   */
+  public static final long POLL_INTERVAL_MILLIS = 2;
+
+  private static final AtomicInteger threadCount = new AtomicInteger();
+
+  // Idle writers end after a minute, so transitions that are started by many OpModes in one app
+  // session do not accumulate threads
+  private static final ExecutorService writers = Executors.newCachedThreadPool(
+      new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable,
+              "ModeTransition-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setPriority(Thread.MAX_PRIORITY);
+          return thread;
+        }
+      });
+
+  private final IMotor[] motors;
+  private final RunMode mode;
+  private final Clock clock;
+  private final Sleeper sleeper;
+  private final Histogram latency;
+  private final long startNanos;
+
+  private final AtomicIntegerArray written;
+  private final CountDownLatch writesLeft;
+  private final boolean[] confirmed;
+  private int unconfirmed;
+  private volatile RuntimeException failure;
+  private volatile long latencyNanos = -1;
+
+  private ModeTransition(IMotor[] motors, RunMode mode, Clock clock, Sleeper sleeper,
+      Histogram latency) {
+    this.motors = motors.clone();
+    this.mode = mode;
+    this.clock = clock;
+    this.sleeper = sleeper;
+    this.latency = latency;
+    this.startNanos = clock.nanoTime();
+
+    written = new AtomicIntegerArray(motors.length);
+    writesLeft = new CountDownLatch(motors.length);
+    confirmed = new boolean[motors.length];
+    unconfirmed = motors.length;
+  }
+
+  /**
+   * Starts changing the mode of the given motors, timed with the wall clock.
+   *
+   * @param motors The motors whose mode changes
+   * @param mode The new mode
+   * @return The started transition
+   */
+  public static ModeTransition start(IMotor[] motors, RunMode mode) {
+    return start(motors, mode, Clock.SYSTEM, Sleeper.SYSTEM, null);
+  }
+
+  /**
+   * Starts changing the mode of the given motors.
+   *
+   * @param motors The motors whose mode changes
+   * @param mode The new mode
+   * @param clock The clock that the latency and the timeouts are measured with
+   * @param sleeper The sleeper that waits between checks for the confirmation of a reset
+   * @param latency The histogram into which the latency, in nanoseconds, is recorded, or null
+   * @return The started transition
+   */
+  public static ModeTransition start(IMotor[] motors, RunMode mode, Clock clock, Sleeper sleeper,
+      Histogram latency) {
+    ModeTransition transition = new ModeTransition(motors, mode, clock, sleeper, latency);
+    for (int i = 0; i < motors.length; i++) {
+      writers.execute(transition.new Write(i));
+    }
+    return transition;
+  }
+
+  /**
+   * @return The mode that the motors are changing to
+   */
+  public RunMode getMode() {
+    return mode;
+  }
+
+  /**
+   * @return The number of motors that have not yet confirmed the new mode, as of the last check
+   */
+  public synchronized int getUnconfirmedCount() {
+    return unconfirmed;
+  }
+
+  /**
+   * @return The time, in nanoseconds, from the start of this transition until its last motor
+   * confirmed the new mode, or -1 if it is not done
+   */
+  public long getLatencyNanos() {
+    return latencyNanos;
+  }
+
+  /**
+   * Checks the motors once, without blocking.
+   *
+   * @return True if every motor has confirmed the new mode
+   * @throws RuntimeException the exception thrown by the write of a motor, once every write has
+   * ended
+   */
+  public synchronized boolean isDone() {
+    if (unconfirmed == 0) {
+      return true;
+    }
+    if (failure != null && writesLeft.getCount() == 0) {
+      throw failure;
+    }
+
+    for (int i = 0; i < motors.length; i++) {
+      if (!confirmed[i] && written.get(i) != 0 && isConfirmed(motors[i])) {
+        confirmed[i] = true;
+        unconfirmed--;
+      }
+    }
+
+    if (unconfirmed == 0) {
+      latencyNanos = clock.nanoTime() - startNanos;
+      if (latency != null) {
+        latency.record(latencyNanos);
+      }
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Checks the motors once, for a {@link ControlLoop}.
+   *
+   * @return True while the transition is incomplete
+   */
+  @Override
+  public boolean execute() {
+    return !isDone();
+  }
+
+  /**
+   * Waits until every motor has confirmed the new mode.
+   *
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public void await() throws InterruptedException {
+    while (!isDone()) {
+      pause(POLL_INTERVAL_MILLIS);
+    }
+  }
+
+  /**
+   * Waits at most the given amount of time for every motor to confirm the new mode.
+   *
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return True if the transition completed within the timeout
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = clock.nanoTime() + unit.toNanos(timeout);
+
+    while (!isDone()) {
+      long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - clock.nanoTime());
+      if (remainingMillis <= 0) {
+        return false;
+      }
+      pause(Math.min(POLL_INTERVAL_MILLIS, remainingMillis));
+    }
+    return true;
+  }
+
+  /**
+   * Waits like {@link #await(long, TimeUnit)}, but keeps waiting if the thread is interrupted. The
+   * interrupt flag is restored before this method returns, so that the caller can still observe
+   * it.
+   *
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return True if the transition completed within the timeout
+   */
+  public boolean awaitUninterruptibly(long timeout, TimeUnit unit) {
+    long deadline = clock.nanoTime() + unit.toNanos(timeout);
+    boolean interrupted = false;
+
+    try {
+      while (true) {
+        try {
+          return await(deadline - clock.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException interruption) {
+          interrupted = true;
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private boolean isConfirmed(IMotor motor) {
+    return mode != RunMode.STOP_AND_RESET_ENCODER || motor.isEncoderReset();
+  }
+
+  // The writes take real time even when the clock is simulated, so they are waited for on the
+  // wall clock; a reset that has been written is then polled with the sleeper
+  private void pause(long millis) throws InterruptedException {
+    if (writesLeft.getCount() > 0) {
+      writesLeft.await(millis, TimeUnit.MILLISECONDS);
+    } else {
+      sleeper.sleep(millis);
+    }
+  }
+
+  private class Write implements Runnable {
+
+    private final int index;
+
+    Write(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      try {
+        motors[index].setMode(mode);
+        written.set(index, 1);
+      } catch (RuntimeException writeFailure) {
+        failure = writeFailure;
+      } finally {
+        writesLeft.countDown();
+      }
+    }
+  }
+}
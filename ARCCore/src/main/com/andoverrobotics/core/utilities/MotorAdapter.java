@@ -53,6 +53,16 @@ public class MotorAdapter implements IMotor {
     motor.setMode(mode);
   }
 
+  @Override
+  public int getCurrentPosition() {
+    return motor.getCurrentPosition();
+  }
+
+  @Override
+  public boolean isEncoderReset() {
+    return motor.getCurrentPosition() == 0;
+  }
+
   @Override
   public boolean isBusy() {
     return motor.isBusy();
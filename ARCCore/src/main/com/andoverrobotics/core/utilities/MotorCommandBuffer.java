@@ -0,0 +1,226 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Records the power and {@link RunMode} commanded to a set of motors, and sends only the commands
+ * that change something once per control cycle. <p> Motors are registered with {@link
+ * #register(DcMotor)}, which returns a DcMotor whose power and mode writes are buffered. Pass the
+ * returned motors to {@link MotorAdapter}, {@link MotorPair} or the drivetrain factories in place
+ * of the physical ones, then call {@link #flush()} at the end of every loop:
+ * <pre>{@code
+ *   MotorCommandBuffer buffer = new MotorCommandBuffer();
+ *   MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+ *       buffer.register(motorFL), buffer.register(motorFR),
+ *       buffer.register(motorBL), buffer.register(motorBR),
+ *       this, TICKS_PER_INCH, TICKS_PER_360);
+ *   ...
+ *   public void loop() {
+ *     drive.setStrafe(gamepad1.left_stick_x, gamepad1.left_stick_y);
+ *     buffer.flush();
+ *   }
+ * }</pre>
+ * <p> Registering the same physical motor twice returns the same buffered motor, so writes to a
+ * motor that belongs to several {@link MotorPair}s are merged into one. A write that matches what
+ * was last sent to the motor is dropped, except for {@link RunMode#STOP_AND_RESET_ENCODER}, which
+ * is always sent and makes the next power write go through, since the reset stops the motor.
+ * <h2>Ordering</h2> Buffered writes are sent in the order mode, then power. A motor's pending
+ * writes are also sent before any read of its position, busy state or target position, and before
+ * a target position is written, so that encoder moves behave as if nothing were buffered. A
+ * pending {@link RunMode#STOP_AND_RESET_ENCODER} is never merged away by a later mode. <p> The
+ * buffered motors may be used from several threads, such as those of a {@link ModeTransition}
+ * that ends an encoder move, but {@link #flush()} is meant to be called from the thread that runs
+ * the control loop.
+ */
+public class MotorCommandBuffer {
+
+  private final Map<DcMotor, BufferedMotor> registered = new IdentityHashMap<>();
+
+  private DcMotor[] motors = new DcMotor[0];
+  private double[] pendingPowers = new double[0];
+  private double[] writtenPowers = new double[0];
+  private RunMode[] pendingModes = new RunMode[0];
+  private RunMode[] writtenModes = new RunMode[0];
+
+  private long cycleRequests;
+  private long cycleWrites;
+  private long lastCycleWritesAvoided;
+  private long totalWritesAvoided;
+
+  /**
+   * Adds the given motor to the set whose writes are buffered.
+   *
+   * @param motor The physical motor
+   * @return A motor whose power and mode writes are buffered until the next flush
+   */
+  public synchronized DcMotor register(DcMotor motor) {
+    BufferedMotor buffered = registered.get(motor);
+    if (buffered != null) {
+      return buffered;
+    }
+
+    int index = motors.length;
+    motors = Arrays.copyOf(motors, index + 1);
+    pendingPowers = Arrays.copyOf(pendingPowers, index + 1);
+    writtenPowers = Arrays.copyOf(writtenPowers, index + 1);
+    pendingModes = Arrays.copyOf(pendingModes, index + 1);
+    writtenModes = Arrays.copyOf(writtenModes, index + 1);
+
+    motors[index] = motor;
+    pendingPowers[index] = Double.NaN;
+    writtenPowers[index] = Double.NaN;
+
+    buffered = new BufferedMotor(motor, this, index);
+    registered.put(motor, buffered);
+    return buffered;
+  }
+
+  /**
+   * Sends every pending write that changes a motor's state, and ends the current cycle.
+   */
+  public synchronized void flush() {
+    for (int i = 0; i < motors.length; i++) {
+      flush(i);
+    }
+
+    lastCycleWritesAvoided = cycleRequests - cycleWrites;
+    totalWritesAvoided += lastCycleWritesAvoided;
+    cycleRequests = 0;
+    cycleWrites = 0;
+  }
+
+  /**
+   * @return The number of writes that the last {@link #flush()} avoided, either because they were
+   * merged with a later write to the same motor or because they did not change anything
+   */
+  public synchronized long getLastCycleWritesAvoided() {
+    return lastCycleWritesAvoided;
+  }
+
+  /**
+   * @return The number of writes avoided since this buffer was created
+   */
+  public synchronized long getTotalWritesAvoided() {
+    return totalWritesAvoided;
+  }
+
+  synchronized void setPower(int index, double power) {
+    cycleRequests++;
+    pendingPowers[index] = power;
+  }
+
+  synchronized void setMode(int index, RunMode mode) {
+    cycleRequests++;
+    if (pendingModes[index] == RunMode.STOP_AND_RESET_ENCODER && mode != pendingModes[index]) {
+      writeMode(index);
+    }
+    pendingModes[index] = mode;
+  }
+
+  synchronized double getPower(int index) {
+    if (!Double.isNaN(pendingPowers[index])) {
+      return pendingPowers[index];
+    }
+    return Double.isNaN(writtenPowers[index]) ? motors[index].getPower() : writtenPowers[index];
+  }
+
+  synchronized RunMode getMode(int index) {
+    if (pendingModes[index] != null) {
+      return pendingModes[index];
+    }
+    return writtenModes[index] == null ? motors[index].getMode() : writtenModes[index];
+  }
+
+  synchronized void flush(int index) {
+    writeMode(index);
+    writePower(index);
+  }
+
+  private void writeMode(int index) {
+    RunMode mode = pendingModes[index];
+    // Every reset is sent, because the encoder may have moved since the last one
+    if (mode != null && (mode != writtenModes[index] || mode == RunMode.STOP_AND_RESET_ENCODER)) {
+      motors[index].setMode(mode);
+      writtenModes[index] = mode;
+      cycleWrites++;
+      if (mode == RunMode.STOP_AND_RESET_ENCODER) {
+        // The reset stops the motor, so the next power must be sent even if it is unchanged
+        writtenPowers[index] = Double.NaN;
+      }
+    }
+    pendingModes[index] = null;
+  }
+
+  private void writePower(int index) {
+    double power = pendingPowers[index];
+    if (!Double.isNaN(power) && Double.compare(power, writtenPowers[index]) != 0) {
+      motors[index].setPower(power);
+      writtenPowers[index] = power;
+      cycleWrites++;
+    }
+    pendingPowers[index] = Double.NaN;
+  }
+
+  private static class BufferedMotor extends DcMotorDecorator {
+
+    private final MotorCommandBuffer buffer;
+    private final int index;
+
+    BufferedMotor(DcMotor motor, MotorCommandBuffer buffer, int index) {
+      super(motor);
+      this.buffer = buffer;
+      this.index = index;
+    }
+
+    @Override
+    public void setPower(double power) {
+      buffer.setPower(index, power);
+    }
+
+    @Override
+    public double getPower() {
+      return buffer.getPower(index);
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+      buffer.setMode(index, mode);
+    }
+
+    @Override
+    public RunMode getMode() {
+      return buffer.getMode(index);
+    }
+
+    @Override
+    public void setTargetPosition(int position) {
+      // The pending writes must not be overtaken by the target position
+      synchronized (buffer) {
+        buffer.flush(index);
+        motor.setTargetPosition(position);
+      }
+    }
+
+    @Override
+    public int getTargetPosition() {
+      buffer.flush(index);
+      return motor.getTargetPosition();
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      buffer.flush(index);
+      return motor.getCurrentPosition();
+    }
+
+    @Override
+    public boolean isBusy() {
+      buffer.flush(index);
+      return motor.isBusy();
+    }
+  }
+}
@@ -0,0 +1,390 @@
+package com.andoverrobotics.core.utilities;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Implements the {@link IMotor} interface for the collective control of any number of physical
+ * motors, each with its own scale. <p> A motor's scale multiplies the power and the tick offsets
+ * given to the group, so a negative scale reverses the motor and a smaller one slows it down; its
+ * position is divided by the scale before the positions are averaged. <h2>Dispatch</h2> Every
+ * command to a motor is a transaction with the hub that controls it, and the transactions of one
+ * hub are carried out one at a time. Motors are grouped by their {@link DcMotor#getController()
+ * controller}, which stands for their hub. With {@link Dispatch#SERIAL}, the default, every motor
+ * is commanded in turn from the calling thread. With {@link Dispatch#PARALLEL}, the motors of each
+ * hub are commanded from a thread of their own, and the call returns once every hub is done, so a
+ * group spread over two hubs costs about one hub's transactions instead of both. The time of
+ * every group operation is recorded for the dispatch that carried it out, so the two can be
+ * compared with {@link #getLatency(Dispatch)}. <p> The threads of parallel dispatch are created
+ * the first time they are needed, and end with {@link #shutdown()}. Instances are meant to be
+ * commanded from one thread at a time, like the motors themselves.
+ */
+public class MotorGroup implements IMotor {
+
+  /**
+   * Describes how the operations of a group reach its motors.
+   */
+  public enum Dispatch {
+    /**
+     * Every motor is commanded in turn from the calling thread.
+     */
+    SERIAL,
+    /**
+     * The motors of each hub are commanded concurrently with those of the other hubs.
+     */
+    PARALLEL
+  }
+
+  private static final int SET_POWER = 0, SET_MODE = 1, ADD_TARGET_POSITION = 2,
+      RUN_TO_POSITION = 3, READ_POSITION = 4, READ_BUSY = 5, READ_RESET = 6;
+
+  private static final AtomicInteger groupCount = new AtomicInteger();
+
+  private final DcMotor[] motors;
+  private final double[] scales;
+  private final Hub[] hubs;
+  private final Histogram[] latencies = {new Histogram(), new Histogram()};
+  private final int groupNumber = groupCount.incrementAndGet();
+
+  private volatile Dispatch dispatch = Dispatch.SERIAL;
+  private ExecutorService executor;
+
+  private MotorGroup(DcMotor[] motors, double[] scales) {
+    if (motors.length == 0 || motors.length != scales.length) {
+      throw new IllegalArgumentException("A group needs at least one motor, and one scale each");
+    }
+    for (double scale : scales) {
+      if (!(Math.abs(scale) > 0 && Math.abs(scale) <= 1)) {
+        throw new IllegalArgumentException("Scale out of range: " + scale);
+      }
+    }
+    this.motors = motors.clone();
+    this.scales = scales.clone();
+    this.hubs = groupByHub(this.motors);
+  }
+
+  /**
+   * Creates a MotorGroup whose motors all have a scale of 1.
+   *
+   * @param motors The motors in the group
+   * @return The new MotorGroup
+   */
+  public static MotorGroup of(DcMotor... motors) {
+    double[] scales = new double[motors.length];
+    Arrays.fill(scales, 1);
+    return new MotorGroup(motors, scales);
+  }
+
+  /**
+   * Creates a MotorGroup with a scale for each motor.
+   *
+   * @param motors The motors in the group
+   * @param scales The scale of each motor, whose magnitude is greater than 0 and at most 1
+   * @return The new MotorGroup
+   * @throws IllegalArgumentException if there are no motors, the number of scales differs from the
+   * number of motors, or a scale is out of range
+   */
+  public static MotorGroup of(DcMotor[] motors, double[] scales) {
+    return new MotorGroup(motors, scales);
+  }
+
+  /**
+   * Chooses how the operations of this group reach its motors.
+   *
+   * @param dispatch The new dispatch
+   */
+  public void setDispatch(Dispatch dispatch) {
+    this.dispatch = dispatch;
+  }
+
+  /**
+   * @return How the operations of this group reach its motors
+   */
+  public Dispatch getDispatch() {
+    return dispatch;
+  }
+
+  /**
+   * Gets the times, in nanoseconds, of the operations that were carried out with the given
+   * dispatch.
+   *
+   * @param dispatch The dispatch whose times are returned
+   * @return The histogram of the operation times
+   */
+  public Histogram getLatency(Dispatch dispatch) {
+    return latencies[dispatch.ordinal()];
+  }
+
+  /**
+   * @return The number of hubs over which the motors of this group are spread
+   */
+  public int getHubCount() {
+    return hubs.length;
+  }
+
+  /**
+   * Ends the threads of parallel dispatch, if they were started. The group falls back to serial
+   * dispatch, which it may still use afterwards.
+   */
+  public synchronized void shutdown() {
+    dispatch = Dispatch.SERIAL;
+    if (executor != null) {
+      executor.shutdown();
+      executor = null;
+    }
+  }
+
+  @Override
+  public void setPower(double power) {
+    run(SET_POWER, power, 0, null);
+  }
+
+  @Override
+  public void addTargetPosition(int tickOffset) {
+    run(ADD_TARGET_POSITION, 0, tickOffset, null);
+  }
+
+  @Override
+  public void startRunToPosition(int tickOffset, double absPower) {
+    if (tickOffset == 0 || absPower < 1e-5) {
+      return;
+    }
+
+    run(RUN_TO_POSITION, tickOffset > 0 ? Math.abs(absPower) : -Math.abs(absPower), tickOffset,
+        null);
+  }
+
+  @Override
+  public void setMode(RunMode mode) {
+    run(SET_MODE, 0, 0, mode);
+  }
+
+  /**
+   * Reads the positions of the motors, each divided by its scale, and averages them.
+   *
+   * @return The average scaled position, in encoder ticks
+   */
+  @Override
+  public int getCurrentPosition() {
+    run(READ_POSITION, 0, 0, null);
+
+    double sum = 0;
+    for (Hub hub : hubs) {
+      sum += hub.positionSum;
+    }
+    return (int) Math.round(sum / motors.length);
+  }
+
+  @Override
+  public boolean isEncoderReset() {
+    run(READ_RESET, 0, 0, null);
+
+    for (Hub hub : hubs) {
+      if (!hub.reset) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean isBusy() {
+    run(READ_BUSY, 0, 0, null);
+
+    for (Hub hub : hubs) {
+      if (hub.busy) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void run(int operation, double power, int tickOffset, RunMode mode) {
+    for (Hub hub : hubs) {
+      hub.prepare(operation, power, tickOffset, mode);
+    }
+
+    Dispatch current = dispatch;
+    long start = System.nanoTime();
+    if (current == Dispatch.PARALLEL && hubs.length > 1) {
+      runParallel();
+    } else {
+      for (Hub hub : hubs) {
+        hub.run();
+      }
+    }
+    latencies[current.ordinal()].record(System.nanoTime() - start);
+
+    for (Hub hub : hubs) {
+      if (hub.failure != null) {
+        throw hub.failure;
+      }
+    }
+  }
+
+  // The first hub is commanded from the calling thread, which would otherwise only wait
+  private void runParallel() {
+    ExecutorService workers = getExecutor();
+    CountDownLatch done = new CountDownLatch(hubs.length - 1);
+
+    for (int i = 1; i < hubs.length; i++) {
+      hubs[i].done = done;
+      workers.execute(hubs[i]);
+    }
+    hubs[0].run();
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        done.await();
+        break;
+      } catch (InterruptedException interruption) {
+        // The other hubs are still using the motors; waiting for them keeps the group consistent
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(hubs.length - 1, new ThreadFactory() {
+        private int threadCount;
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+          Thread thread = new Thread(runnable,
+              "MotorGroup-" + groupNumber + "-hub-" + (++threadCount));
+          thread.setDaemon(true);
+          thread.setPriority(Thread.MAX_PRIORITY);
+          return thread;
+        }
+      });
+    }
+    return executor;
+  }
+
+  private Hub[] groupByHub(DcMotor[] motors) {
+    Map<Object, List<Integer>> indicesByHub = new IdentityHashMap<>();
+    List<List<Integer>> ordered = new ArrayList<>();
+
+    for (int i = 0; i < motors.length; i++) {
+      // A motor without a controller cannot be known to share a hub, so it gets one of its own
+      Object controller = motors[i].getController();
+      Object key = controller != null ? controller : motors[i];
+
+      List<Integer> indices = indicesByHub.get(key);
+      if (indices == null) {
+        indices = new ArrayList<>();
+        indicesByHub.put(key, indices);
+        ordered.add(indices);
+      }
+      indices.add(i);
+    }
+
+    Hub[] grouped = new Hub[ordered.size()];
+    for (int i = 0; i < grouped.length; i++) {
+      List<Integer> indices = ordered.get(i);
+      int[] array = new int[indices.size()];
+      for (int j = 0; j < array.length; j++) {
+        array[j] = indices.get(j);
+      }
+      grouped[i] = new Hub(array);
+    }
+    return grouped;
+  }
+
+  // The motors of one hub, and the operation that they are to carry out. The fields are written
+  // before the hub is handed to its thread and read after the latch is released, both of which
+  // order them between the threads.
+  private class Hub implements Runnable {
+
+    private final int[] indices;
+
+    private int operation;
+    private double power;
+    private int tickOffset;
+    private RunMode mode;
+    private CountDownLatch done;
+
+    private double positionSum;
+    private boolean busy;
+    private boolean reset;
+    private RuntimeException failure;
+
+    Hub(int[] indices) {
+      this.indices = indices;
+    }
+
+    void prepare(int operation, double power, int tickOffset, RunMode mode) {
+      this.operation = operation;
+      this.power = power;
+      this.tickOffset = tickOffset;
+      this.mode = mode;
+      this.done = null;
+      this.positionSum = 0;
+      this.busy = false;
+      this.reset = true;
+      this.failure = null;
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (int index : indices) {
+          apply(motors[index], scales[index]);
+        }
+      } catch (RuntimeException exception) {
+        failure = exception;
+      } finally {
+        if (done != null) {
+          done.countDown();
+        }
+      }
+    }
+
+    private void apply(DcMotor motor, double scale) {
+      switch (operation) {
+        case SET_POWER:
+          motor.setPower(power * scale);
+          break;
+        case SET_MODE:
+          motor.setMode(mode);
+          break;
+        case ADD_TARGET_POSITION:
+          motor.setTargetPosition(
+              motor.getCurrentPosition() + (int) Math.round(tickOffset * scale));
+          break;
+        case RUN_TO_POSITION:
+          motor.setMode(RunMode.RUN_TO_POSITION);
+          motor.setTargetPosition(
+              motor.getCurrentPosition() + (int) Math.round(tickOffset * scale));
+          motor.setPower(power * scale);
+          break;
+        case READ_POSITION:
+          positionSum += motor.getCurrentPosition() / scale;
+          break;
+        case READ_BUSY:
+          busy = busy || motor.isBusy();
+          break;
+        case READ_RESET:
+          reset = reset && motor.getCurrentPosition() == 0;
+          break;
+        default:
+          throw new IllegalStateException("Unknown operation: " + operation);
+      }
+    }
+  }
+}
@@ -56,6 +56,16 @@ public class MotorPair implements IMotor {
     second.setMode(mode);
   }
 
+  @Override
+  public int getCurrentPosition() {
+    return (first.getCurrentPosition() + second.getCurrentPosition()) / 2;
+  }
+
+  @Override
+  public boolean isEncoderReset() {
+    return first.getCurrentPosition() == 0 && second.getCurrentPosition() == 0;
+  }
+
   @Override
   public boolean isBusy() {
     return first.isBusy() || second.isBusy();
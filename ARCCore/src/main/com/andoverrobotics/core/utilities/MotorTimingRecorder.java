@@ -0,0 +1,162 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.utilities.MotorTimings.Operation;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+/**
+ * Instruments motors and reports their latencies together, to telemetry or to a CSV file, typically
+ * when the OpMode stops:
+ * <pre>{@code
+ *   MotorTimingRecorder recorder = new MotorTimingRecorder();
+ *   MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+ *       recorder.instrument(motorFL), recorder.instrument(motorFR),
+ *       recorder.instrument(motorBL), recorder.instrument(motorBR),
+ *       this, TICKS_PER_INCH, TICKS_PER_360);
+ *   ...
+ *   public void stop() {
+ *     recorder.writeCsv(new File(AppUtil.FIRST_FOLDER, "motor-timings.csv"));
+ *   }
+ * }</pre>
+ * Latencies are reported in microseconds, with the 50th and 99th percentiles estimated by {@link
+ * Histogram}.
+ */
+public class MotorTimingRecorder {
+
+  private final List<MotorTimings> timings = new CopyOnWriteArrayList<>();
+  private volatile boolean enabled = true;
+
+  /**
+   * Wraps a physical motor so that its calls are timed, under its device name.
+   *
+   * @param motor The motor to time
+   * @return A motor that forwards its calls to the given one
+   */
+  public DcMotor instrument(DcMotor motor) {
+    return instrument(motor.getDeviceName(), motor);
+  }
+
+  /**
+   * Wraps a physical motor so that its calls are timed, under the given name.
+   *
+   * @param name The name of the motor in reports
+   * @param motor The motor to time
+   * @return A motor that forwards its calls to the given one
+   */
+  public DcMotor instrument(String name, DcMotor motor) {
+    return new InstrumentedDcMotor(motor, add(name));
+  }
+
+  /**
+   * Wraps an {@link IMotor} so that its calls are timed, under the given name.
+   *
+   * @param name The name of the motor in reports
+   * @param motor The motor to time
+   * @return A motor that forwards its calls to the given one
+   */
+  public IMotor instrument(String name, IMotor motor) {
+    return new InstrumentedMotor(motor, add(name));
+  }
+
+  /**
+   * Starts or stops the timing of every motor instrumented by this recorder, including those
+   * instrumented later.
+   *
+   * @param enabled True to time calls
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    for (MotorTimings motor : timings) {
+      motor.setEnabled(enabled);
+    }
+  }
+
+  /**
+   * @return The timings of every motor instrumented by this recorder, in the order in which they
+   * were instrumented
+   */
+  public List<MotorTimings> getTimings() {
+    return Collections.unmodifiableList(new ArrayList<>(timings));
+  }
+
+  /**
+   * Discards every latency recorded so far.
+   */
+  public void reset() {
+    for (MotorTimings motor : timings) {
+      motor.reset();
+    }
+  }
+
+  /**
+   * Adds one line per motor and kind of call that has been timed to the given telemetry. The
+   * telemetry is not updated.
+   *
+   * @param telemetry The telemetry of the OpMode
+   */
+  public void report(Telemetry telemetry) {
+    for (MotorTimings motor : timings) {
+      for (Operation operation : Operation.values()) {
+        Histogram histogram = motor.get(operation);
+        if (histogram.getCount() > 0) {
+          telemetry.addData(motor.getName() + " " + operation,
+              "n=%d p50=%.0fus p99=%.0fus max=%.0fus", histogram.getCount(),
+              histogram.getPercentile(0.5) / 1e3, histogram.getPercentile(0.99) / 1e3,
+              histogram.getMax() / 1e3);
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes one row per motor and kind of call that has been timed, after a header row.
+   *
+   * @param output The destination of the rows
+   * @throws IOException if the destination cannot be written
+   */
+  public void writeCsv(Appendable output) throws IOException {
+    output.append("motor,operation,count,mean_us,p50_us,p99_us,max_us\n");
+    for (MotorTimings motor : timings) {
+      for (Operation operation : Operation.values()) {
+        Histogram histogram = motor.get(operation);
+        if (histogram.getCount() > 0) {
+          output.append(String.format(Locale.US, "%s,%s,%d,%.1f,%.1f,%.1f,%.1f\n",
+              motor.getName(), operation, histogram.getCount(), histogram.getMean() / 1e3,
+              histogram.getPercentile(0.5) / 1e3, histogram.getPercentile(0.99) / 1e3,
+              histogram.getMax() / 1e3));
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the rows of {@link #writeCsv(Appendable)} to a file, replacing its contents.
+   *
+   * @param file The file to write
+   * @throws IOException if the file cannot be written
+   */
+  public void writeCsv(File file) throws IOException {
+    Writer writer = new FileWriter(file);
+    try {
+      writeCsv(writer);
+    } finally {
+      writer.close();
+    }
+  }
+
+  private MotorTimings add(String name) {
+    MotorTimings motor = new MotorTimings(name);
+    motor.setEnabled(enabled);
+    timings.add(motor);
+    return motor;
+  }
+}
@@ -0,0 +1,86 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Holds the latencies of the calls made to one motor, as recorded by {@link InstrumentedMotor} or
+ * {@link InstrumentedDcMotor}, in one {@link Histogram} per kind of call. <p> Timings can be
+ * disabled, in which case the instrumented motors forward their calls without reading the clock.
+ */
+public class MotorTimings {
+
+  /**
+   * The kinds of call that are timed.
+   */
+  public enum Operation {
+    SET_POWER,
+    SET_MODE,
+    SET_TARGET_POSITION,
+    RUN_TO_POSITION,
+    IS_BUSY,
+    GET_CURRENT_POSITION
+  }
+
+  private static final Operation[] OPERATIONS = Operation.values();
+
+  private final String name;
+  private final Histogram[] histograms = new Histogram[OPERATIONS.length];
+  private volatile boolean enabled = true;
+
+  /**
+   * Creates empty, enabled timings.
+   *
+   * @param name The name of the motor, used in reports
+   */
+  public MotorTimings(String name) {
+    this.name = name;
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new Histogram();
+    }
+  }
+
+  /**
+   * @return The name of the motor
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return True if calls are being timed
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts or stops the timing of calls. Timings already recorded are kept.
+   *
+   * @param enabled True to time calls
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Gets the latencies, in nanoseconds, of one kind of call.
+   *
+   * @param operation The kind of call
+   * @return The histogram of its latencies
+   */
+  public Histogram get(Operation operation) {
+    return histograms[operation.ordinal()];
+  }
+
+  /**
+   * Discards every latency recorded so far.
+   */
+  public void reset() {
+    for (Histogram histogram : histograms) {
+      histogram.reset();
+    }
+  }
+
+  // Called by the instrumented motors with the time read before the call
+  void record(Operation operation, long startNanos) {
+    histograms[operation.ordinal()].record(System.nanoTime() - startNanos);
+  }
+}
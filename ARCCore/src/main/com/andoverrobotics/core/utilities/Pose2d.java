@@ -0,0 +1,138 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * A mutable position and heading in the 2D coordinate plane. <p> Positions are in inches. The
+ * heading is the direction that the front of the robot faces, measured counterclockwise from the
+ * positive x-axis, in radians. In the robot's frame, x is to the right and y is forwards, as in
+ * {@link com.andoverrobotics.core.drivetrain.StrafingDriveTrain#setStrafe(double, double, double)}.
+ * <p> Like {@link Vector2}, every operation changes this pose in place and returns it, so that one
+ * instance can be reused on every loop.
+ */
+public class Pose2d {
+
+  private double x;
+  private double y;
+  private double heading;
+
+  /**
+   * Creates a pose at the origin, facing the positive x-axis.
+   */
+  public Pose2d() {
+  }
+
+  /**
+   * Creates a pose with the given components.
+   *
+   * @param x The x position, in inches
+   * @param y The y position, in inches
+   * @param heading The heading, in radians counterclockwise from the positive x-axis
+   */
+  public Pose2d(double x, double y, double heading) {
+    this.x = x;
+    this.y = y;
+    this.heading = heading;
+  }
+
+  /**
+   * Sets the components of this pose.
+   *
+   * @param x The new x position, in inches
+   * @param y The new y position, in inches
+   * @param heading The new heading, in radians counterclockwise from the positive x-axis
+   * @return This pose
+   */
+  public Pose2d set(double x, double y, double heading) {
+    this.x = x;
+    this.y = y;
+    this.heading = heading;
+    return this;
+  }
+
+  /**
+   * Sets the components of this pose to those of another.
+   *
+   * @param other The pose whose components are copied
+   * @return This pose
+   */
+  public Pose2d set(Pose2d other) {
+    return set(other.x, other.y, other.heading);
+  }
+
+  /**
+   * Moves this pose by the given field displacement, without turning.
+   *
+   * @param dx The displacement along the x-axis of the field, in inches
+   * @param dy The displacement along the y-axis of the field, in inches
+   * @return This pose
+   */
+  public Pose2d translate(double dx, double dy) {
+    x += dx;
+    y += dy;
+    return this;
+  }
+
+  /**
+   * Moves this pose by the given displacement in its own frame, without turning.
+   *
+   * @param right The displacement to the right, in inches
+   * @param forward The displacement forwards, in inches
+   * @return This pose
+   */
+  public Pose2d translateRelative(double right, double forward) {
+    double cos = Math.cos(heading), sin = Math.sin(heading);
+    return translate(forward * cos + right * sin, forward * sin - right * cos);
+  }
+
+  /**
+   * Turns this pose counterclockwise by the given angle.
+   *
+   * @param radians The angle, in radians. Positive means counterclockwise, negative means
+   * clockwise.
+   * @return This pose
+   */
+  public Pose2d rotate(double radians) {
+    heading += radians;
+    return this;
+  }
+
+  /**
+   * Converts a field vector, such as the displacement from this pose to a target, into this pose's
+   * frame, in place.
+   *
+   * @param fieldVector The vector in the field frame, which is overwritten with the same vector in
+   * this pose's frame, where x is to the right and y is forwards
+   * @return The given vector
+   */
+  public Vector2 toRelative(Vector2 fieldVector) {
+    double cos = Math.cos(heading), sin = Math.sin(heading);
+    double fieldX = fieldVector.getX(), fieldY = fieldVector.getY();
+
+    return fieldVector.set(fieldX * sin - fieldY * cos, fieldX * cos + fieldY * sin);
+  }
+
+  /**
+   * @return The x position, in inches
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * @return The y position, in inches
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * @return The heading, in radians counterclockwise from the positive x-axis
+   */
+  public double getHeading() {
+    return heading;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(%.2f, %.2f) @ %.1f deg", x, y, Math.toDegrees(heading));
+  }
+}
@@ -0,0 +1,194 @@
+package com.andoverrobotics.core.utilities;
+
+import com.andoverrobotics.core.utilities.ControlLoop.Task;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Task} that has been scheduled on a {@link ControlLoop}, with the measurements of its
+ * runs. <p> Execution time is the time taken by each run. Lateness is the time from the release of
+ * each run to its start. A missed deadline is a release that passed while the previous run was
+ * still in progress, or while higher-priority tasks ran; missed releases are skipped.
+ */
+public class ScheduledTask {
+
+  private final String name;
+  private final Task task;
+  private final long periodNanos;
+  private final int priority;
+  private final Clock clock;
+
+  private final Histogram executionTime = new Histogram();
+  private final Histogram lateness = new Histogram();
+
+  // Only touched by the loop thread
+  private long nextRelease;
+
+  private volatile long runs;
+  private volatile long missedDeadlines;
+  private volatile boolean done;
+  private volatile boolean cancelled;
+  private volatile RuntimeException failure;
+
+  ScheduledTask(String name, Task task, long periodNanos, int priority, long firstRelease,
+      Clock clock) {
+    this.name = name;
+    this.task = task;
+    this.periodNanos = periodNanos;
+    this.priority = priority;
+    this.nextRelease = firstRelease;
+    this.clock = clock;
+  }
+
+  // Runs the task once and schedules its next release
+  void run() {
+    long start = clock.nanoTime();
+    lateness.record(start - nextRelease);
+
+    boolean keepRunning;
+    try {
+      keepRunning = task.execute() && !cancelled;
+    } catch (RuntimeException exception) {
+      failure = exception;
+      keepRunning = false;
+    }
+
+    long end = clock.nanoTime();
+    executionTime.record(end - start);
+    runs++;
+
+    nextRelease += periodNanos;
+    if (end - nextRelease > 0) {
+      long missed = (end - nextRelease) / periodNanos + 1;
+      missedDeadlines += missed;
+      nextRelease += missed * periodNanos;
+    }
+
+    if (!keepRunning) {
+      finish();
+    }
+  }
+
+  long getNextRelease() {
+    return nextRelease;
+  }
+
+  private synchronized void finish() {
+    done = true;
+    notifyAll();
+  }
+
+  /**
+   * Stops running the task. A run in progress is allowed to finish.
+   */
+  public void cancel() {
+    cancelled = true;
+    finish();
+  }
+
+  /**
+   * Waits until the task finishes, fails or is cancelled.
+   *
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public synchronized void await() throws InterruptedException {
+    while (!done) {
+      wait();
+    }
+  }
+
+  /**
+   * Waits at most the given amount of time for the task to finish, fail or be cancelled.
+   *
+   * @param timeout The maximum time to wait
+   * @param unit The unit of the timeout
+   * @return True if the task ended within the timeout
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  public synchronized boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!done) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  /**
+   * @return True if the task has finished, failed or been cancelled
+   */
+  public boolean isDone() {
+    return done;
+  }
+
+  /**
+   * @return True if the task was cancelled
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * @return The exception that ended the task, or <code>null</code> if it did not fail
+   */
+  public RuntimeException getFailure() {
+    return failure;
+  }
+
+  /**
+   * @return The name of the task
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return The priority of the task
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * @return The time between releases, in nanoseconds
+   */
+  public long getPeriodNanos() {
+    return periodNanos;
+  }
+
+  /**
+   * @return The number of times the task has run
+   */
+  public long getRuns() {
+    return runs;
+  }
+
+  /**
+   * @return The number of releases that were skipped because they passed before the task could run
+   */
+  public long getMissedDeadlines() {
+    return missedDeadlines;
+  }
+
+  /**
+   * @return The execution times of the task's runs, in nanoseconds
+   */
+  public Histogram getExecutionTime() {
+    return executionTime;
+  }
+
+  /**
+   * @return The time from each release of the task to the start of its run, in nanoseconds
+   */
+  public Histogram getLateness() {
+    return lateness;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: runs=%d missed=%d exec[%s] late[%s]", name, runs, missedDeadlines,
+        executionTime, lateness);
+  }
+}
@@ -0,0 +1,27 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Blocks the calling thread for an amount of time, so that the classes which wait between checks
+ * can be driven by a simulation instead of by the wall clock. A sleeper is usually paired with the
+ * {@link Clock} that it advances.
+ */
+public interface Sleeper {
+
+  /**
+   * The sleeper backed by {@link Thread#sleep(long)}.
+   */
+  Sleeper SYSTEM = new Sleeper() {
+    @Override
+    public void sleep(long millis) throws InterruptedException {
+      Thread.sleep(millis);
+    }
+  };
+
+  /**
+   * Waits for the given amount of time.
+   *
+   * @param millis The time to wait, in milliseconds
+   * @throws InterruptedException if the waiting thread is interrupted
+   */
+  void sleep(long millis) throws InterruptedException;
+}
@@ -0,0 +1,50 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * Computes the trigonometric functions used by the drive and localization code, so that callers
+ * which run on every control tick can trade accuracy for speed with a {@link FastMath} table.
+ */
+public interface Trig {
+
+  /**
+   * The exact functions of {@link Math}.
+   */
+  Trig EXACT = new Trig() {
+    @Override
+    public double sin(double radians) {
+      return Math.sin(radians);
+    }
+
+    @Override
+    public double cos(double radians) {
+      return Math.cos(radians);
+    }
+
+    @Override
+    public double atan2(double y, double x) {
+      return Math.atan2(y, x);
+    }
+  };
+
+  /**
+   * @param radians An angle, in radians
+   * @return The sine of the angle
+   */
+  double sin(double radians);
+
+  /**
+   * @param radians An angle, in radians
+   * @return The cosine of the angle
+   */
+  double cos(double radians);
+
+  /**
+   * Calculates the angle of the polar representation of the point (x, y), like {@link
+   * Math#atan2(double, double)}.
+   *
+   * @param y The y coordinate of the point
+   * @param x The x coordinate of the point
+   * @return The angle, in radians, in the [-&pi;, &pi;] range
+   */
+  double atan2(double y, double x);
+}
@@ -0,0 +1,205 @@
+package com.andoverrobotics.core.utilities;
+
+/**
+ * A mutable vector in the 2D coordinate plane. <p> Unlike {@link Coordinate}, every operation
+ * changes this vector in place and returns it, so that code which runs on every loop can reuse one
+ * instance instead of allocating a new one per step:
+ * <pre>{@code
+ *   private final Vector2 direction = new Vector2();
+ *   ...
+ *   direction.set(gamepad1.left_stick_x, -gamepad1.left_stick_y).rotate(-heading);
+ * }</pre>
+ * Rotations are computed directly on the Cartesian components. {@link #rotate(double, double)}
+ * takes a precomputed cosine and sine, such as {@link #COS_45} and {@link #SIN_45}, for rotations
+ * by a fixed angle.
+ */
+public class Vector2 {
+
+  /**
+   * The cosine of 45 degrees.
+   */
+  public static final double COS_45 = Math.sqrt(0.5);
+  /**
+   * The sine of 45 degrees.
+   */
+  public static final double SIN_45 = COS_45;
+
+  private double x;
+  private double y;
+
+  /**
+   * Creates a zero vector.
+   */
+  public Vector2() {
+  }
+
+  /**
+   * Creates a vector with the given components.
+   *
+   * @param x The x component
+   * @param y The y component
+   */
+  public Vector2(double x, double y) {
+    this.x = x;
+    this.y = y;
+  }
+
+  /**
+   * Sets the components of this vector.
+   *
+   * @param x The new x component
+   * @param y The new y component
+   * @return This vector
+   */
+  public Vector2 set(double x, double y) {
+    this.x = x;
+    this.y = y;
+    return this;
+  }
+
+  /**
+   * Sets the components of this vector to those of another.
+   *
+   * @param other The vector whose components are copied
+   * @return This vector
+   */
+  public Vector2 set(Vector2 other) {
+    return set(other.x, other.y);
+  }
+
+  /**
+   * Sets the components of this vector to those of a {@link Coordinate}.
+   *
+   * @param coordinate The coordinate whose components are copied
+   * @return This vector
+   */
+  public Vector2 set(Coordinate coordinate) {
+    return set(coordinate.getX(), coordinate.getY());
+  }
+
+  /**
+   * Adds the given components to this vector.
+   *
+   * @param dx The amount to add to the x component
+   * @param dy The amount to add to the y component
+   * @return This vector
+   */
+  public Vector2 add(double dx, double dy) {
+    x += dx;
+    y += dy;
+    return this;
+  }
+
+  /**
+   * Adds another vector to this vector.
+   *
+   * @param other The vector to add
+   * @return This vector
+   */
+  public Vector2 add(Vector2 other) {
+    return add(other.x, other.y);
+  }
+
+  /**
+   * Subtracts another vector from this vector.
+   *
+   * @param other The vector to subtract
+   * @return This vector
+   */
+  public Vector2 subtract(Vector2 other) {
+    return add(-other.x, -other.y);
+  }
+
+  /**
+   * Multiplies both components of this vector by the given factor.
+   *
+   * @param factor The factor
+   * @return This vector
+   */
+  public Vector2 scale(double factor) {
+    x *= factor;
+    y *= factor;
+    return this;
+  }
+
+  /**
+   * Rotates this vector counterclockwise about the origin by the given angle.
+   *
+   * @param radians The angle, in radians. Positive means counterclockwise, negative means
+   * clockwise.
+   * @return This vector
+   */
+  public Vector2 rotate(double radians) {
+    return rotate(radians, Trig.EXACT);
+  }
+
+  /**
+   * Rotates this vector counterclockwise about the origin by the given angle, using the given
+   * trigonometric functions.
+   *
+   * @param radians The angle, in radians. Positive means counterclockwise, negative means
+   * clockwise.
+   * @param trig The trigonometric functions, such as {@link FastMath#DEFAULT}
+   * @return This vector
+   */
+  public Vector2 rotate(double radians, Trig trig) {
+    return rotate(trig.cos(radians), trig.sin(radians));
+  }
+
+  /**
+   * Rotates this vector counterclockwise about the origin by the angle with the given cosine and
+   * sine. For a clockwise rotation, negate the sine.
+   *
+   * @param cos The cosine of the angle
+   * @param sin The sine of the angle
+   * @return This vector
+   */
+  public Vector2 rotate(double cos, double sin) {
+    return set(x * cos - y * sin, x * sin + y * cos);
+  }
+
+  /**
+   * @return The x component of this vector
+   */
+  public double getX() {
+    return x;
+  }
+
+  /**
+   * @return The y component of this vector
+   */
+  public double getY() {
+    return y;
+  }
+
+  /**
+   * @return The distance from the origin to the point at this vector
+   */
+  public double getLength() {
+    return Math.hypot(x, y);
+  }
+
+  /**
+   * Calculates the dot product of this vector and another.
+   *
+   * @param other The other vector
+   * @return The dot product
+   */
+  public double dot(Vector2 other) {
+    return x * other.x + y * other.y;
+  }
+
+  /**
+   * Creates an immutable {@link Coordinate} with the components of this vector.
+   *
+   * @return The new coordinate
+   */
+  public Coordinate toCoordinate() {
+    return Coordinate.fromXY(x, y);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("<%.3f, %.3f>", x, y);
+  }
+}
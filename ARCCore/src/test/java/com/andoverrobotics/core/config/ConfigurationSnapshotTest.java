@@ -0,0 +1,115 @@
+package com.andoverrobotics.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ConfigurationSnapshotTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File text;
+  private File snapshot;
+
+  @Before
+  public void setUp() throws IOException {
+    text = folder.newFile("robot.properties");
+    snapshot = ConfigurationSnapshot.snapshotOf(text);
+    write("ticksPerInch=125\n" +
+        "matchMillis=150000000000\n" +
+        "servoRest=0.51\n" +
+        "kP=0.002\n" +
+        "useEncoders=TRUE\n" +
+        "robotName=Thunder \\u26a1\n");
+  }
+
+  @Test
+  public void firstLoadGeneratesASnapshotThatLoadsTheSameValues() throws IOException {
+    Configuration parsed = ConfigurationSnapshot.load(text);
+    assertTrue(snapshot.isFile());
+
+    Configuration loaded = ConfigurationSnapshot.read(snapshot, text.lastModified(),
+        text.length());
+
+    assertNotNull(loaded);
+    assertEquals(parsed, loaded);
+    assertEquals(125, loaded.getInt("ticksPerInch"));
+    assertEquals(150000000000L, loaded.getLong("matchMillis"));
+    assertEquals(0.51f, loaded.getFloat("servoRest"), 0);
+    assertEquals(0.002, loaded.getDouble("kP"), 0);
+    assertTrue(loaded.getBoolean("useEncoders"));
+    assertEquals("Thunder \u26a1", loaded.getString("robotName"));
+    assertEquals("robot.properties", loaded.getLayer("kP"));
+  }
+
+  @Test(expected = InvalidFormatError.class)
+  public void snapshotKeepsWhichTypesEachValueIsValidIn() throws IOException {
+    ConfigurationSnapshot.load(text);
+    Configuration loaded = ConfigurationSnapshot.read(snapshot, text.lastModified(),
+        text.length());
+
+    loaded.getInt("kP");
+  }
+
+  @Test
+  public void editedTextRegeneratesTheSnapshot() throws IOException {
+    ConfigurationSnapshot.load(text);
+    write("ticksPerInch=130\n");
+
+    assertNull(ConfigurationSnapshot.read(snapshot, text.lastModified(), text.length()));
+    assertEquals(130, ConfigurationSnapshot.load(text).getInt("ticksPerInch"));
+    assertEquals(130, ConfigurationSnapshot.read(snapshot, text.lastModified(), text.length())
+        .getInt("ticksPerInch"));
+  }
+
+  @Test
+  public void damagedSnapshotFallsBackToTheText() throws IOException {
+    ConfigurationSnapshot.load(text);
+    RandomAccessFile damaged = new RandomAccessFile(snapshot, "rw");
+    try {
+      damaged.setLength(damaged.length() / 2);
+    } finally {
+      damaged.close();
+    }
+
+    assertNull(ConfigurationSnapshot.read(snapshot, text.lastModified(), text.length()));
+    assertEquals(125, ConfigurationSnapshot.load(text).getInt("ticksPerInch"));
+    assertNotNull(ConfigurationSnapshot.read(snapshot, text.lastModified(), text.length()));
+  }
+
+  @Test(expected = FileNotFoundException.class)
+  public void snapshotWithoutItsTextIsNotLoaded() throws IOException {
+    ConfigurationSnapshot.load(text);
+    assertTrue(text.delete());
+    assertFalse(text.exists());
+
+    ConfigurationSnapshot.load(text);
+  }
+
+  // The modification time is moved forwards, so that edits within the resolution of the file
+  // system's timestamps are still noticed
+  private void write(String contents) throws IOException {
+    long previous = text.lastModified();
+    Writer writer = new FileWriter(text);
+    try {
+      writer.write(contents);
+    } finally {
+      writer.close();
+    }
+    assertTrue(text.setLastModified(Math.max(previous + 2000, System.currentTimeMillis())));
+  }
+}
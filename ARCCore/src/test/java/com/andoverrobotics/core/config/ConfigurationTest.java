@@ -1,7 +1,9 @@
 package com.andoverrobotics.core.config;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
@@ -38,11 +40,25 @@ public class ConfigurationTest {
     public String robotName;
   }
 
+  enum Alliance {
+    RED, BLUE
+  }
+
+  static class ExtendedTestSchema {
+
+    public long matchStartMillis;
+    public float servoRest;
+    public Alliance alliance;
+    public int[] waypoints;
+    public double[] gains;
+    public String[] routines;
+  }
+
   static class BadTestSchema {
 
     public double motorSpeed;
     public boolean useEncoders;
-    public float badType;
+    public char badType;
   }
 
   @Test
@@ -122,4 +138,184 @@ public class ConfigurationTest {
   public void fromMapToSchemaGivenBadSchemaThrowsException() {
     Configuration.from(schemaProvider).loadToSchema(new BadTestSchema());
   }
-}
\ No newline at end of file
+
+  @Test
+  public void loadToSchemaGivenSameSchemaTwiceLoadsEachConfiguration() {
+    Map<String, String> otherProvider = new HashMap<>(schemaProvider);
+    otherProvider.put("autonomousTrials", "7");
+    otherProvider.put("robotName", "OtherBot");
+
+    TestSchema first = config.loadToSchema(new TestSchema());
+    TestSchema second = Configuration.from(otherProvider).loadToSchema(new TestSchema());
+
+    assertEquals(4, first.autonomousTrials);
+    assertEquals("ConfigTestBot", first.robotName);
+    assertEquals(7, second.autonomousTrials);
+    assertEquals("OtherBot", second.robotName);
+  }
+
+  @Test
+  public void fromMapGivenMapChangedAfterwardsKeepsOriginalValues() {
+    Map<String, String> provider = new HashMap<>(schemaProvider);
+    Configuration copied = Configuration.from(provider);
+    provider.put("motorSpeed", "0.9");
+
+    assertEquals(0.412, copied.getDouble("motorSpeed"), 1e-9);
+    assertEquals(config, copied);
+  }
+
+  @Test
+  public void getGivenValueValidInSeveralTypesReturnsEachType() {
+    assertEquals(4, config.getInt("autonomousTrials"));
+    assertEquals(4.0, config.getDouble("autonomousTrials"), 1e-9);
+    assertEquals("4", config.getString("autonomousTrials"));
+  }
+
+  @Test
+  public void getNumberGivenAnyFormatAgreesWithTheJavaParsers() {
+    String[] values = {"42", "+7", "-0", "3000000000", "99999999999999999999", " 5", "2.5",
+        " 2.5 ", "1e3", "-Infinity", "NaN", "0x1p3", "1.5f", ".5", "\u0663", "true", "red", "",
+        "-", "1,2"};
+    Map<String, String> provider = new HashMap<>();
+    for (int i = 0; i < values.length; i++) {
+      provider.put("value" + i, values[i]);
+    }
+    Configuration numbers = Configuration.from(provider);
+
+    for (int i = 0; i < values.length; i++) {
+      String key = "value" + i, value = values[i];
+      Long asLong = null;
+      Integer asInt = null;
+      Double asDouble = null;
+      Float asFloat = null;
+      try {
+        asLong = Long.parseLong(value);
+      } catch (NumberFormatException notALong) {
+        // Must be rejected by getLong as well
+      }
+      try {
+        asInt = Integer.parseInt(value);
+      } catch (NumberFormatException notAnInt) {
+        // Must be rejected by getInt as well
+      }
+      try {
+        asDouble = Double.parseDouble(value);
+        asFloat = Float.parseFloat(value);
+      } catch (NumberFormatException notADecimal) {
+        // Must be rejected by getDouble and getFloat as well
+      }
+
+      try {
+        assertEquals(value, asLong, (Long) numbers.getLong(key));
+      } catch (InvalidFormatError rejected) {
+        assertEquals(value, null, asLong);
+      }
+      try {
+        assertEquals(value, asInt, (Integer) numbers.getInt(key));
+      } catch (InvalidFormatError rejected) {
+        assertEquals(value, null, asInt);
+      }
+      try {
+        assertEquals(value, asDouble, (Double) numbers.getDouble(key));
+      } catch (InvalidFormatError rejected) {
+        assertEquals(value, null, asDouble);
+      }
+      try {
+        assertEquals(value, asFloat, (Float) numbers.getFloat(key));
+      } catch (InvalidFormatError rejected) {
+        assertEquals(value, null, asFloat);
+      }
+    }
+  }
+
+  @Test(expected = InvalidSchemaError.class)
+  public void fromMapToSchemaGivenBadSchemaTwiceThrowsException() {
+    try {
+      config.loadToSchema(new BadTestSchema());
+    } catch (InvalidSchemaError expected) {
+      // The second load must fail in the same way
+    }
+    config.loadToSchema(new BadTestSchema());
+  }
+
+  @Test
+  public void fromMapToSchemaGivenExtendedTypesLoadsCorrectValues() {
+    Map<String, String> provider = new HashMap<>();
+    provider.put("matchStartMillis", "1540000000000");
+    provider.put("servoRest", "0.51");
+    provider.put("alliance", "blue");
+    provider.put("waypoints", "10, 20,30");
+    provider.put("gains", "0.002,0,1.5");
+    provider.put("routines", "crater , depot");
+
+    ExtendedTestSchema schema = Configuration.from(provider).loadToSchema(new ExtendedTestSchema());
+
+    assertEquals(1540000000000L, schema.matchStartMillis);
+    assertEquals(0.51f, schema.servoRest, 0);
+    assertEquals(Alliance.BLUE, schema.alliance);
+    assertArrayEquals(new int[]{10, 20, 30}, schema.waypoints);
+    assertArrayEquals(new double[]{0.002, 0, 1.5}, schema.gains, 1e-12);
+    assertArrayEquals(new String[]{"crater", "depot"}, schema.routines);
+  }
+
+  @Test
+  public void loadToSchemaGivenArrayOfSameLengthFillsItInPlace() {
+    Map<String, String> provider = new HashMap<>();
+    provider.put("matchStartMillis", "0");
+    provider.put("servoRest", "0");
+    provider.put("alliance", "RED");
+    provider.put("waypoints", "1,2");
+    provider.put("gains", "");
+    provider.put("routines", "");
+    ExtendedTestSchema schema = new ExtendedTestSchema();
+    int[] waypoints = new int[2];
+    schema.waypoints = waypoints;
+
+    Configuration.from(provider).loadToSchema(schema);
+
+    assertSame(waypoints, schema.waypoints);
+    assertArrayEquals(new int[]{1, 2}, waypoints);
+    assertEquals(0, schema.gains.length);
+  }
+
+  @Test(expected = InvalidFormatError.class)
+  public void getEnumGivenUnknownNameThrowsException() {
+    Map<String, String> provider = new HashMap<>();
+    provider.put("alliance", "green");
+    Configuration.from(provider).getEnum("alliance", Alliance.class);
+  }
+
+  @Test(expected = InvalidFormatError.class)
+  public void getIntArrayGivenNonIntegerElementThrowsException() {
+    Map<String, String> provider = new HashMap<>();
+    provider.put("waypoints", "1,two,3");
+    Configuration.from(provider).getIntArray("waypoints");
+  }
+
+  @Test
+  public void overriddenByGivenLayersTakesTheTopmostValueAndItsLayer() {
+    Map<String, String> robot = new HashMap<>();
+    robot.put("motorSpeed", "0.6");
+    robot.put("ticksPerInch", "125");
+    Map<String, String> match = new HashMap<>();
+    match.put("motorSpeed", "0.7");
+
+    Configuration merged = Configuration.from(schemaProvider, "built-in")
+        .overriddenBy(Configuration.from(robot, "robot.properties"))
+        .overriddenBy(Configuration.from(match, "match.properties"));
+
+    assertEquals(0.7, merged.getDouble("motorSpeed"), 1e-9);
+    assertEquals("match.properties", merged.getLayer("motorSpeed"));
+    assertEquals(125, merged.getInt("ticksPerInch"));
+    assertEquals("robot.properties", merged.getLayer("ticksPerInch"));
+    assertEquals(4, merged.getInt("autonomousTrials"));
+    assertEquals("built-in", merged.getLayer("autonomousTrials"));
+    assertEquals(schemaProvider.size() + 1, merged.getKeys().size());
+    assertEquals(0.412, config.getDouble("motorSpeed"), 1e-9);
+  }
+
+  @Test
+  public void getLayerGivenUnnamedLayerReturnsUnnamed() {
+    assertEquals(Configuration.UNNAMED_LAYER, config.getLayer("robotName"));
+  }
+}
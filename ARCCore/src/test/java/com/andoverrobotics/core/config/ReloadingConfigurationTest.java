@@ -0,0 +1,153 @@
+package com.andoverrobotics.core.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.config.ReloadingConfiguration.Binding;
+import com.andoverrobotics.core.config.ReloadingConfiguration.Listener;
+import com.andoverrobotics.core.utilities.Sleeper;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReloadingConfigurationTest {
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+  private ReloadingConfiguration configuration;
+
+  // Must be static; otherwise, it will contain a "declared" field named "this"
+  static class TuningSchema {
+
+    public double kP;
+    public int trials;
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    file = folder.newFile("tuning.properties");
+    write("kP=0.5\ntrials=3\n");
+    configuration = new ReloadingConfiguration(file, 10, Sleeper.SYSTEM);
+  }
+
+  @Test
+  public void pollGivenUnchangedFileKeepsTheSnapshot() {
+    Configuration before = configuration.get();
+
+    assertFalse(configuration.poll());
+    assertSame(before, configuration.get());
+    assertEquals(0, configuration.getReloadCount());
+  }
+
+  @Test
+  public void pollGivenEditedFileSwapsTheSnapshotAndReportsChangedKeys() throws IOException {
+    final AtomicReference<Set<String>> changed = new AtomicReference<>();
+    configuration.addListener(new Listener() {
+      @Override
+      public void onReload(Configuration snapshot, Set<String> changedKeys) {
+        changed.set(changedKeys);
+      }
+    });
+    Configuration before = configuration.get();
+
+    write("kP=0.8\ntrials=3\nname=test\n");
+
+    assertTrue(configuration.poll());
+    assertEquals(0.5, before.getDouble("kP"), 1e-9);
+    assertEquals(0.8, configuration.get().getDouble("kP"), 1e-9);
+    assertEquals(new HashSet<>(Arrays.asList("kP", "name")), changed.get());
+    assertEquals(1, configuration.getReloadCount());
+  }
+
+  @Test
+  public void bindingReloadsTheSameInstanceOnlyAfterAReload() throws IOException {
+    Binding<TuningSchema> binding = configuration.bind(new TuningSchema());
+    TuningSchema schema = binding.get();
+    assertEquals(0.5, schema.kP, 1e-9);
+
+    schema.kP = 42;
+    assertSame(schema, binding.get());
+    assertEquals(42, schema.kP, 1e-9);
+
+    write("kP=0.25\ntrials=5\n");
+    configuration.poll();
+
+    assertTrue(binding.isStale());
+    assertSame(schema, binding.get());
+    assertEquals(0.25, schema.kP, 1e-9);
+    assertEquals(5, schema.trials);
+    assertFalse(binding.isStale());
+  }
+
+  @Test
+  public void snapshotThatCannotPopulateABoundSchemaIsRejected() throws IOException {
+    Binding<TuningSchema> binding = configuration.bind(new TuningSchema());
+
+    write("kP=fast\ntrials=3\n");
+
+    assertFalse(configuration.poll());
+    assertNotNull(configuration.getFailure());
+    assertEquals(0.5, configuration.get().getDouble("kP"), 1e-9);
+    assertFalse(binding.isStale());
+
+    write("kP=0.75\ntrials=3\n");
+
+    assertTrue(configuration.poll());
+    assertNull(configuration.getFailure());
+    assertEquals(0.75, binding.get().kP, 1e-9);
+  }
+
+  @Test
+  public void pollingThreadNotifiesListenersOfEdits() throws IOException, InterruptedException {
+    final CountDownLatch reloaded = new CountDownLatch(1);
+    configuration.addListener(new Listener() {
+      @Override
+      public void onReload(Configuration snapshot, Set<String> changedKeys) {
+        reloaded.countDown();
+      }
+    });
+    configuration.start();
+    try {
+      write("kP=0.9\ntrials=3\n");
+
+      assertTrue(reloaded.await(2, TimeUnit.SECONDS));
+      assertEquals(0.9, configuration.get().getDouble("kP"), 1e-9);
+    } finally {
+      configuration.stop();
+    }
+    assertFalse(configuration.isRunning());
+  }
+
+  // Replaces the file in one rename, as editors do, so the polling thread never reads it half
+  // written. The modification time is moved forwards, so that edits within the resolution of the
+  // file system's timestamps are still noticed.
+  private void write(String contents) throws IOException {
+    File edited = new File(folder.getRoot(), "tuning.properties.tmp");
+    Writer writer = new FileWriter(edited);
+    try {
+      writer.write(contents);
+    } finally {
+      writer.close();
+    }
+    assertTrue(edited.setLastModified(
+        Math.max(file.lastModified() + 2000, System.currentTimeMillis())));
+    assertTrue(edited.renameTo(file));
+  }
+}
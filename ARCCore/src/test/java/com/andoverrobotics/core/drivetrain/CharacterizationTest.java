@@ -0,0 +1,71 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.config.Configuration;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import org.junit.Test;
+
+public class CharacterizationTest {
+
+  private static final double FREE_SPEED = SimulatedMotor.NEVEREST_40_FREE_SPEED,
+      TIME_CONSTANT = 0.15;
+
+  @Test
+  public void fitRecoversExactGains() {
+    Feedforward actual = new Feedforward(0.05, 1 / 3000.0, 1 / 40000.0);
+    double[] velocities = {500, 1200, -800, 2000, -1500, 300};
+    double[] accelerations = {0, 3000, -2000, 100, 8000, -500};
+    double[] powers = new double[velocities.length];
+    for (int i = 0; i < powers.length; i++) {
+      powers[i] = actual.calculate(velocities[i], accelerations[i]);
+    }
+
+    Feedforward fitted = Feedforward.fit(velocities, accelerations, powers, powers.length);
+
+    assertEquals(actual.getStaticGain(), fitted.getStaticGain(), 1e-9);
+    assertEquals(actual.getVelocityGain(), fitted.getVelocityGain(), 1e-12);
+    assertEquals(actual.getAccelerationGain(), fitted.getAccelerationGain(), 1e-12);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fitRejectsSamplesWithoutAcceleration() {
+    Feedforward.fit(new double[]{100, 200, -300}, new double[3], new double[]{0.1, 0.2, -0.3}, 3);
+  }
+
+  @Test
+  public void characterizationMeasuresTheSimulatedMotors() throws InterruptedException {
+    SimulatedClock clock = new SimulatedClock();
+    TankDrive drive = TankDrive.fromMotors(
+        new SimulatedMotor("left", clock, FREE_SPEED, TIME_CONSTANT),
+        new SimulatedMotor("right", clock, FREE_SPEED, TIME_CONSTANT), null, 125, 7768);
+    drive.setTimeSource(clock, clock);
+
+    Characterization characterization = new Characterization(drive);
+    Feedforward measured = characterization.run();
+
+    // A simulated motor reaches power * freeSpeed with the time constant, and has no friction
+    assertEquals(0, measured.getStaticGain(), 0.01);
+    assertEquals(1 / FREE_SPEED, measured.getVelocityGain(), 0.03 / FREE_SPEED);
+    assertEquals(TIME_CONSTANT / FREE_SPEED, measured.getAccelerationGain(),
+        0.2 * TIME_CONSTANT / FREE_SPEED);
+    assertTrue(characterization.getRSquared() > 0.99);
+    assertTrue(characterization.getFitCount() > characterization.getSampleCount() / 2);
+  }
+
+  @Test
+  public void feedforwardSurvivesAPropertiesRoundTrip() throws IOException {
+    Feedforward original = new Feedforward(0.04, 3.2e-4, 2.5e-5);
+    StringWriter file = new StringWriter();
+
+    original.toConfiguration().toProperties(file, "Drivetrain feedforward");
+
+    assertEquals(original, Feedforward.fromConfiguration(
+        Configuration.fromProperties(new StringReader(file.toString()))));
+  }
+}
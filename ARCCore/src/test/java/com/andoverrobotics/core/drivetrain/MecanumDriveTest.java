@@ -4,6 +4,7 @@ import static org.mockito.AdditionalMatchers.or;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -28,9 +29,20 @@ public class MecanumDriveTest {
       leftDiagonal, rightDiagonal, leftSide, rightSide,
       opMode, 5, 100);
 
+  private IMotor
+      frontLeft = mock(IMotor.class),
+      frontRight = mock(IMotor.class),
+      backLeft = mock(IMotor.class),
+      backRight = mock(IMotor.class);
+
+  private MecanumDrive wheelDriveTrain = new MecanumDrive(
+      frontLeft, frontRight, backLeft, backRight, MecanumKinematics.crossed(),
+      opMode, 5, 100);
+
   @Before
   public void setUp() {
     reset(rightDiagonal, leftDiagonal, rightSide, leftSide, opMode);
+    reset(frontLeft, frontRight, backLeft, backRight);
   }
 
   @Test
@@ -220,6 +232,74 @@ public class MecanumDriveTest {
     verifyPairPower(rightDiagonal, 0);
   }
 
+  @Test
+  public void wheelDriveForwardsRunsEachWheel() {
+    wheelDriveTrain.driveForwards(5, 1);
+
+    int tickOffset = (int) (5 * 5 / Math.sqrt(2));
+
+    verifyRunToPosition(frontLeft, tickOffset, 1);
+    verifyRunToPosition(frontRight, tickOffset, 1);
+    verifyRunToPosition(backLeft, tickOffset, 1);
+    verifyRunToPosition(backRight, tickOffset, 1);
+  }
+
+  @Test
+  public void wheelRotateClockwiseRunsSides() {
+    wheelDriveTrain.rotateClockwise(50, 0.6);
+
+    verifyRunToPosition(frontLeft, (int) (50 / 360.0 * 100), 0.6);
+    verifyRunToPosition(backLeft, (int) (50 / 360.0 * 100), 0.6);
+    verifyRunToPosition(frontRight, (int) (-50 / 360.0 * 100), 0.6);
+    verifyRunToPosition(backRight, (int) (-50 / 360.0 * 100), 0.6);
+  }
+
+  @Test
+  public void wheelSetStrafeMatchesDiagonalPairs() {
+    wheelDriveTrain.setStrafe(Coordinate.fromXY(0.5, 0.7), 1);
+
+    verifyWheelPowers(0.141421356, 0.8485281374, 0.8485281374, 0.141421356);
+  }
+
+  @Test
+  public void wheelSetStrafeOutsideUnitCircle() {
+    wheelDriveTrain.setStrafe(Coordinate.fromXY(525, -1441), 0.5);
+
+    verifyWheelPowers(-0.45322105262, -0.211165047915, -0.211165047915, -0.45322105262);
+  }
+
+  @Test
+  public void wheelSetMovementAndRotationMatchesSides() {
+    wheelDriveTrain.setMovementAndRotation(0.8, -0.6);
+
+    verifyWheelPowers(0.2 / 1.4, 1, 0.2 / 1.4, 1);
+  }
+
+  @Test
+  public void setStrafeAndRotationWritesEachMotorOnce() {
+    wheelDriveTrain.setStrafeAndRotation(0.5, 0.7, 0.3);
+
+    double left = 0.2 / Math.sqrt(2), right = 1.2 / Math.sqrt(2);
+    double max = right + 0.3;
+    verifyWheelPowers((left + 0.3) / max, (right - 0.3) / max, 1, (left - 0.3) / max);
+
+    for (IMotor wheel : new IMotor[]{frontLeft, frontRight, backLeft, backRight}) {
+      verify(wheel, times(1)).setMode(RunMode.RUN_WITHOUT_ENCODER);
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void setStrafeAndRotationWithPairsThrowsException() {
+    ((MecanumDrive) driveTrain).setStrafeAndRotation(0.5, 0.7, 0.3);
+  }
+
+  private void verifyWheelPowers(double fl, double fr, double bl, double br) {
+    verify(frontLeft).setPower(AdditionalMatchers.eq(fl, 1e-3));
+    verify(frontRight).setPower(AdditionalMatchers.eq(fr, 1e-3));
+    verify(backLeft).setPower(AdditionalMatchers.eq(bl, 1e-3));
+    verify(backRight).setPower(AdditionalMatchers.eq(br, 1e-3));
+  }
+
   private void verifyPowersWithoutEncoder(double leftPower, double rightPower) {
     verify(leftSide).setMode(RunMode.RUN_WITHOUT_ENCODER);
     verify(rightSide).setMode(RunMode.RUN_WITHOUT_ENCODER);
@@ -0,0 +1,96 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.BACK_LEFT;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.BACK_RIGHT;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.FRONT_LEFT;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.FRONT_RIGHT;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.ROTATION;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.X;
+import static com.andoverrobotics.core.drivetrain.MecanumKinematics.Y;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+// The expected powers are those of MecanumDriveTest, where the crossed configuration puts the front
+// left and rear right wheels on the left diagonal.
+public class MecanumKinematicsTest {
+
+  private final MecanumKinematics crossed = MecanumKinematics.crossed();
+  private final double[] powers = new double[MecanumKinematics.WHEEL_COUNT];
+  private final double[] chassis = new double[3];
+
+  @Test
+  public void strafeWithinUnitCircle() {
+    crossed.toWheelPowers(0.5 / Math.sqrt(2), 0.7 / Math.sqrt(2), 0, powers);
+
+    verifyDiagonalPowers(0.141421356, 0.8485281374);
+  }
+
+  @Test
+  public void movementAndRotation() {
+    crossed.toWheelPowers(0, 0.5, 0.2, powers);
+    verifySidePowers(0.7, 0.3);
+  }
+
+  @Test
+  public void movementAndRotationWithSingleOverflow() {
+    crossed.toWheelPowers(0, 0.8, -0.6, powers);
+    verifySidePowers(0.2 / 1.4, 1);
+  }
+
+  @Test
+  public void movementAndRotationWithMultipleOverflows() {
+    crossed.toWheelPowers(0, 0.8, 5, powers);
+    verifySidePowers(1, -4.2 / 5.8);
+  }
+
+  @Test
+  public void rotation() {
+    crossed.toWheelPowers(0, 0, -1.2, powers);
+    verifySidePowers(-1, 1);
+  }
+
+  @Test
+  public void strafeAndRotationAreDesaturatedTogether() {
+    crossed.toWheelPowers(1, 1, 1, powers);
+
+    assertEquals(1 / 3.0, powers[FRONT_LEFT], 1e-9);
+    assertEquals(1 / 3.0, powers[FRONT_RIGHT], 1e-9);
+    assertEquals(1, powers[BACK_LEFT], 1e-9);
+    assertEquals(-1 / 3.0, powers[BACK_RIGHT], 1e-9);
+  }
+
+  @Test
+  public void octagonalStrafesRightWithFrontLeftAndBackRight() {
+    MecanumKinematics.octagonal().toWheelPowers(0.5, 0, 0, powers);
+
+    assertEquals(0.5, powers[FRONT_LEFT], 1e-9);
+    assertEquals(-0.5, powers[FRONT_RIGHT], 1e-9);
+    assertEquals(-0.5, powers[BACK_LEFT], 1e-9);
+    assertEquals(0.5, powers[BACK_RIGHT], 1e-9);
+  }
+
+  @Test
+  public void chassisMotionInvertsWheelPowers() {
+    crossed.toWheelPowers(0.2, -0.3, 0.1, powers);
+    crossed.toChassisMotion(powers, chassis);
+
+    assertEquals(0.2, chassis[X], 1e-9);
+    assertEquals(-0.3, chassis[Y], 1e-9);
+    assertEquals(0.1, chassis[ROTATION], 1e-9);
+  }
+
+  private void verifyDiagonalPowers(double left, double right) {
+    assertEquals(left, powers[FRONT_LEFT], 1e-3);
+    assertEquals(left, powers[BACK_RIGHT], 1e-3);
+    assertEquals(right, powers[FRONT_RIGHT], 1e-3);
+    assertEquals(right, powers[BACK_LEFT], 1e-3);
+  }
+
+  private void verifySidePowers(double left, double right) {
+    assertEquals(left, powers[FRONT_LEFT], 1e-4);
+    assertEquals(left, powers[BACK_LEFT], 1e-4);
+    assertEquals(right, powers[FRONT_RIGHT], 1e-4);
+    assertEquals(right, powers[BACK_RIGHT], 1e-4);
+  }
+}
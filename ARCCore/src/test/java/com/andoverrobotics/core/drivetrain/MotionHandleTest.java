@@ -0,0 +1,189 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class MotionHandleTest {
+
+  private final OpMode opMode = mock(OpMode.class);
+  private final IMotor motorL = mock(IMotor.class),
+      motorR = mock(IMotor.class);
+  private DriveTrain driveTrain = new TankDrive(motorL, motorR, opMode, 50, 720);
+
+  @Before
+  public void setUp() {
+    reset(motorL, motorR);
+  }
+
+  @Test
+  public void asyncMoveRunsWhileMotorsAreBusy() {
+    when(motorL.isBusy()).thenReturn(true);
+
+    MotionHandle motion = driveTrain.driveForwardsAsync(5, 0.5);
+
+    assertFalse(motion.isDone());
+    assertEquals(Status.RUNNING, motion.getStatus());
+    verify(motorL, never()).setPower(0);
+  }
+
+  @Test
+  public void asyncMoveCompletesOnceMotorsStop() {
+    when(motorL.isBusy()).thenReturn(true);
+    MotionHandle motion = driveTrain.driveForwardsAsync(5, 0.5);
+    assertFalse(motion.isDone());
+
+    when(motorL.isBusy()).thenReturn(false);
+
+    assertTrue(motion.isDone());
+    assertTrue(motion.isDone());
+    assertEquals(Status.COMPLETED, motion.getStatus());
+    verify(motorL, times(1)).setPower(0);
+    verify(motorL, times(1)).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void cancelStopsTheMotorsOnce() {
+    when(motorR.isBusy()).thenReturn(true);
+    MotionHandle motion = driveTrain.rotateClockwiseAsync(90, 0.4);
+
+    assertTrue(motion.cancel());
+    assertFalse(motion.cancel());
+
+    assertEquals(Status.CANCELLED, motion.getStatus());
+    verify(motorL, times(1)).setPower(0);
+    verify(motorR, times(1)).setPower(0);
+  }
+
+  @Test
+  public void awaitWithTimeoutLeavesMoveRunning() throws InterruptedException {
+    when(motorL.isBusy()).thenReturn(true);
+    MotionHandle motion = driveTrain.driveBackwardsAsync(5, 0.5);
+
+    assertFalse(motion.await(10, TimeUnit.MILLISECONDS));
+    assertEquals(Status.RUNNING, motion.getStatus());
+  }
+
+  @Test
+  public void awaitCancelsMoveWhenInterrupted() {
+    when(motorL.isBusy()).thenReturn(true);
+    MotionHandle motion = driveTrain.rotateCounterClockwiseAsync(45, 0.4);
+
+    Thread.currentThread().interrupt();
+    try {
+      motion.await();
+      fail("await() should have been interrupted");
+    } catch (InterruptedException expected) {
+      assertEquals(Status.CANCELLED, motion.getStatus());
+      verify(motorL).setPower(0);
+    }
+  }
+
+  @Test
+  public void blockingMoveRestoresInterruptFlag() {
+    when(motorL.isBusy()).thenReturn(true);
+
+    Thread.currentThread().interrupt();
+    driveTrain.driveForwards(5, 0.5);
+
+    assertTrue(Thread.interrupted());
+    verify(motorL).setPower(0);
+  }
+
+  @Test
+  public void nextMoveWaitsForAModeTransitionInFlight() throws InterruptedException {
+    final CountDownLatch modeWritable = new CountDownLatch(1);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws InterruptedException {
+        modeWritable.await(5, TimeUnit.SECONDS);
+        return null;
+      }
+    }).when(motorL).setMode(RunMode.RUN_USING_ENCODER);
+    // The simulated clock only advances when it is slept on, so the wait cannot time out while the
+    // write is in flight
+    SimulatedClock clock = new SimulatedClock();
+    driveTrain.setTimeSource(clock, clock);
+
+    driveTrain.setMotorModeAsync(RunMode.RUN_USING_ENCODER);
+
+    Thread nextMove = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        driveTrain.driveForwardsAsync(5, 0.5);
+      }
+    });
+    nextMove.start();
+    nextMove.join(50);
+    assertTrue(nextMove.isAlive());
+    verify(motorL, never()).startRunToPosition(250, 0.5);
+
+    modeWritable.countDown();
+    nextMove.join(5000);
+    assertFalse(nextMove.isAlive());
+
+    InOrder order = inOrder(motorL);
+    order.verify(motorL).setMode(RunMode.RUN_USING_ENCODER);
+    order.verify(motorL).startRunToPosition(250, 0.5);
+  }
+
+  @Test
+  public void unconfirmedTransitionIsGivenUpOnByTheNextModeChange() {
+    SimulatedClock clock = new SimulatedClock();
+    driveTrain.setTimeSource(clock, clock);
+    when(motorL.isEncoderReset()).thenReturn(false);
+
+    driveTrain.resetEncodersAsync();
+    driveTrain.setMotorMode(RunMode.RUN_USING_ENCODER);
+
+    assertEquals(1, driveTrain.getAbandonedTransitionCount());
+    assertTrue(clock.nanoTime() >= TimeUnit.MILLISECONDS.toNanos(
+        MotionHandle.MODE_TRANSITION_TIMEOUT_MILLIS));
+    verify(motorL).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void interruptionEndsTheWaitForATransition() {
+    SimulatedClock clock = new SimulatedClock();
+    driveTrain.setTimeSource(clock, clock);
+    when(motorL.isEncoderReset()).thenReturn(false);
+    driveTrain.resetEncodersAsync();
+
+    Thread.currentThread().interrupt();
+    driveTrain.setMotorMode(RunMode.RUN_USING_ENCODER);
+
+    assertTrue(Thread.interrupted());
+    assertEquals(0, driveTrain.getAbandonedTransitionCount());
+    verify(motorL).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void zeroPowerMoveIsAlreadyCompleted() {
+    MotionHandle motion = driveTrain.driveForwardsAsync(5, 0);
+
+    assertTrue(motion.isDone());
+    assertEquals(Status.COMPLETED, motion.getStatus());
+  }
+}
@@ -0,0 +1,119 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MotionProfileTest {
+
+  private static final double DELTA = 1e-6;
+  private static final double PERIOD = 1 / MotionProfile.DEFAULT_RATE_HZ;
+
+  private final MotionConstraints trapezoid = new MotionConstraints(1000, 2000);
+  private final MotionConstraints sCurve = new MotionConstraints(1000, 2000, 10000);
+
+  @Test
+  public void trapezoidReachesMaxVelocityOnLongMove() {
+    MotionProfile profile = MotionProfile.generate(3000, trapezoid);
+
+    // 0.5 s to accelerate, 2.5 s to cruise, 0.5 s to decelerate
+    assertEquals(3.5, profile.getDuration(), PERIOD);
+    assertEquals(1000, profile.getPeakVelocity(), DELTA);
+    assertEquals(1000, profile.getVelocity(100), DELTA);
+    assertEquals(500, profile.getVelocity(25), DELTA);
+    verifyRestToRest(profile, 3000);
+    verifyWithinConstraints(profile, trapezoid);
+  }
+
+  @Test
+  public void trapezoidBecomesTriangleOnShortMove() {
+    MotionProfile profile = MotionProfile.generate(200, trapezoid);
+
+    // Accelerates for sqrt(200 / 2000) s, then decelerates for as long
+    assertEquals(Math.sqrt(0.1) * 2000, profile.getPeakVelocity(), 1e-3);
+    assertTrue(profile.getPeakVelocity() < 1000);
+    verifyRestToRest(profile, 200);
+    verifyWithinConstraints(profile, trapezoid);
+  }
+
+  @Test
+  public void sCurveObeysJerkLimit() {
+    MotionProfile profile = MotionProfile.generate(3000, sCurve);
+
+    // Ramping the acceleration adds one jerk time, 0.2 s, to each of the accelerating phases
+    assertEquals(3.7, profile.getDuration(), PERIOD);
+    assertEquals(0.5 * 10000 * PERIOD * PERIOD, profile.getVelocity(1), DELTA);
+    verifyRestToRest(profile, 3000);
+    verifyWithinConstraints(profile, sCurve);
+  }
+
+  @Test
+  public void sCurveOnShortMove() {
+    MotionProfile profile = MotionProfile.generate(50, sCurve);
+
+    assertTrue(profile.getPeakVelocity() < 1000);
+    verifyRestToRest(profile, 50);
+    verifyWithinConstraints(profile, sCurve);
+  }
+
+  @Test
+  public void negativeDistanceIsMagnitude() {
+    assertEquals(500, MotionProfile.generate(-500, trapezoid).getDistance(), DELTA);
+  }
+
+  @Test
+  public void zeroDistanceHasOneSample() {
+    MotionProfile profile = MotionProfile.generate(0, sCurve);
+
+    assertEquals(1, profile.getSampleCount());
+    assertEquals(0, profile.getPosition(5), DELTA);
+    assertEquals(0, profile.getVelocity(5), DELTA);
+  }
+
+  @Test
+  public void cacheReusesProfilesOfRepeatedMoves() {
+    MotionProfileCache cache = new MotionProfileCache(2, MotionProfile.DEFAULT_RATE_HZ);
+
+    MotionProfile first = cache.get(1000, trapezoid);
+    assertSame(first, cache.get(-1000, new MotionConstraints(1000, 2000)));
+    assertNotSame(first, cache.get(1000, sCurve));
+    assertEquals(1, cache.getHits());
+    assertEquals(2, cache.getMisses());
+
+    // Evicts the least recently used profile once full
+    cache.get(2000, trapezoid);
+    assertNotSame(first, cache.get(1000, trapezoid));
+  }
+
+  private static void verifyRestToRest(MotionProfile profile, double distance) {
+    int last = profile.getSampleCount() - 1;
+    assertEquals(0, profile.getPosition(0), DELTA);
+    assertEquals(0, profile.getVelocity(0), DELTA);
+    assertEquals(distance, profile.getPosition(last), DELTA);
+    assertEquals(0, profile.getVelocity(last), DELTA);
+  }
+
+  private static void verifyWithinConstraints(MotionProfile profile,
+      MotionConstraints constraints) {
+    double lastAcceleration = 0;
+
+    for (int i = 1; i < profile.getSampleCount(); i++) {
+      double velocity = profile.getVelocity(i);
+      double acceleration = (velocity - profile.getVelocity(i - 1)) / PERIOD;
+
+      assertTrue(profile.getPosition(i) >= profile.getPosition(i - 1) - DELTA);
+      assertTrue(velocity <= constraints.getMaxVelocity() + DELTA);
+      assertTrue(Math.abs(acceleration) <= constraints.getMaxAcceleration() + 1e-3);
+
+      // The discrete velocity also lags at the ends of the table, so allow two periods of jerk
+      if (!Double.isInfinite(constraints.getMaxJerk()) && i > 1) {
+        assertTrue(Math.abs(acceleration - lastAcceleration) / PERIOD
+            <= 2 * constraints.getMaxJerk());
+      }
+      lastAcceleration = acceleration;
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MotionQueueTest {
+
+  private static final int TICKS_PER_INCH = 50;
+  private static final double FREE_SPEED = 1200;
+  private static final double TIME_CONSTANT = 0.005;
+
+  private final SimulatedClock clock = new SimulatedClock();
+  private final SimulatedMotor leftDiagonal = new SimulatedMotor("leftDiagonal", clock,
+      FREE_SPEED, TIME_CONSTANT),
+      rightDiagonal = new SimulatedMotor("rightDiagonal", clock, FREE_SPEED, TIME_CONSTANT);
+  private final MecanumDrive drive = new MecanumDrive(new MotorAdapter(leftDiagonal),
+      new MotorAdapter(rightDiagonal), mock(IMotor.class), mock(IMotor.class), mock(OpMode.class),
+      TICKS_PER_INCH, 720);
+
+  @Before
+  public void setUp() {
+    drive.setTimeSource(clock, clock);
+    drive.setMotionConstraints(new MotionConstraints(1000, 2000, 10000), 1 / FREE_SPEED, 0.02);
+  }
+
+  @Test
+  public void blendedSequenceIsFasterThanStopAndGo() {
+    MotionQueue queue = drive.motionQueue().strafeRight(5).driveForwards(8).strafeLeft(5);
+    queue.runAsync(1).cancel();
+
+    assertTrue(queue.getPlannedDuration() > 0);
+    assertTrue(queue.getEstimatedTimeSaved() > 0);
+    assertEquals(queue.getStopAndGoDuration() - queue.getPlannedDuration(),
+        queue.getEstimatedTimeSaved(), 1e-9);
+  }
+
+  @Test
+  public void sequenceEndsAtSumOfSegments() throws InterruptedException {
+    final List<Status> outcomes = new ArrayList<>();
+    MotionQueue queue = drive.motionQueue()
+        .strafeRight(5).driveForwards(8).strafeLeft(5)
+        .setListener(new MotionQueue.Listener() {
+          @Override
+          public void onSequenceEnded(MotionQueue queue, Status status, long elapsedNanos) {
+            outcomes.add(status);
+            assertTrue(elapsedNanos > 0);
+          }
+        });
+
+    MotionHandle handle = queue.runAsync(1);
+
+    // Eight inches forwards turns both diagonals by 8 / sqrt(2) inches
+    double expected = 8 / Math.sqrt(2) * TICKS_PER_INCH;
+    assertEquals(Status.COMPLETED, handle.await());
+    assertEquals(expected, leftDiagonal.getCurrentPosition(),
+        ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(expected, rightDiagonal.getCurrentPosition(),
+        ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(1, outcomes.size());
+    assertEquals(RunMode.RUN_USING_ENCODER, leftDiagonal.getMode());
+  }
+
+  @Test
+  public void sharpCornersStillCarryVelocity() {
+    MotionQueue queue = drive.motionQueue().setBlendDistance(0)
+        .strafeRight(5).driveForwards(8).strafeLeft(5);
+    queue.runAsync(1).cancel();
+
+    assertTrue(queue.getEstimatedTimeSaved() > 0);
+  }
+
+  @Test
+  public void emptyQueueCompletesImmediately() {
+    MotionHandle handle = drive.motionQueue().strafe(0, 0).runAsync(1);
+
+    assertSame(Status.COMPLETED, handle.getStatus());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void requiresMotionConstraints() {
+    drive.clearMotionConstraints();
+    drive.motionQueue().driveForwards(5).runAsync(1);
+  }
+}
@@ -0,0 +1,131 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.drivetrain.MoveWatchdog.Monitor;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class MoveWatchdogTest {
+
+  private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final SimulatedClock clock = new SimulatedClock();
+  private final IMotor motorL = mock(IMotor.class),
+      motorR = mock(IMotor.class);
+  private final IMotor[] motors = {motorL, motorR};
+  private final MoveWatchdog watchdog = new MoveWatchdog(1000);
+
+  @Test
+  public void stoppedMotorsStallAfterWindow() {
+    Monitor monitor = watchdog.watch(motors, 1000, 0.5, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 299));
+    assertEquals(Status.STALLED, runFor(monitor, 30));
+    assertEquals(0, monitor.getSpeed(), 0);
+  }
+
+  @Test
+  public void turningMotorsDoNotStall() {
+    when(motorR.getCurrentPosition()).then(new Answer<Integer>() {
+      @Override
+      public Integer answer(InvocationOnMock invocation) {
+        // 200 ticks per second, well above the stall speed of 50
+        return (int) (clock.nanoTime() / (5 * MILLIS));
+      }
+    });
+    Monitor monitor = watchdog.watch(motors, 100000, 1, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 2000));
+    assertEquals(200, monitor.getSpeed(), 5);
+  }
+
+  @Test
+  public void lowPowerMovesNeverStall() {
+    Monitor monitor = watchdog.watch(motors, 100, 0.1, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 1000));
+  }
+
+  @Test
+  public void movesTimeOutAfterScaledExpectedTime() {
+    watchdog.setStallDetection(0.2, 0, 300);
+    // 500 ticks at half of 1000 ticks per second take 1 s; doubled, plus 1 s of allowance
+    Monitor monitor = watchdog.watch(motors, -500, 0.5, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 2999));
+    assertEquals(Status.TIMED_OUT, runFor(monitor, 2));
+  }
+
+  @Test
+  public void durationMovesTimeOutAfterScaledDuration() {
+    watchdog.setStallDetection(0.2, 0, 300);
+    // 1.5 s doubled, plus 1 s of allowance
+    Monitor monitor = watchdog.watchDuration(motors, 1.5, 0.5, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 3999));
+    assertEquals(Status.TIMED_OUT, runFor(monitor, 2));
+  }
+
+  @Test
+  public void infiniteDeadlineFactorDisablesTimeouts() {
+    watchdog.setStallDetection(0.2, 0, 300);
+    watchdog.setDeadline(Double.POSITIVE_INFINITY, 0);
+    Monitor monitor = watchdog.watch(motors, 500, 0.5, clock);
+
+    assertEquals(Status.RUNNING, runFor(monitor, 60000));
+  }
+
+  @Test
+  public void samplesAtMostOncePerInterval() {
+    Monitor monitor = watchdog.watch(motors, 1000, 0.5, clock);
+
+    runFor(monitor, 100);
+
+    // One sample at the start, then one every 25 ms
+    verify(motorL, times(5)).getCurrentPosition();
+  }
+
+  @Test
+  public void stalledMoveEndsItsHandle() throws InterruptedException {
+    when(motorL.isBusy()).thenReturn(true);
+    DriveTrain driveTrain = new TankDrive(motorL, motorR, mock(OpMode.class), 50, 720);
+    driveTrain.setTimeSource(clock, clock);
+    driveTrain.setMoveWatchdog(watchdog);
+
+    MotionHandle motion = driveTrain.driveForwardsAsync(10, 0.5);
+
+    assertEquals(Status.STALLED, motion.await());
+    assertTrue(clock.nanoTime() < 400 * MILLIS);
+    verify(motorL).setPower(0);
+  }
+
+  @Test
+  public void arrivingMoveCompletesDespiteWatchdog() throws InterruptedException {
+    DriveTrain driveTrain = new TankDrive(motorL, motorR, mock(OpMode.class), 50, 720);
+    driveTrain.setMoveWatchdog(watchdog);
+
+    assertEquals(Status.COMPLETED, driveTrain.driveForwardsAsync(10, 0.5).await());
+  }
+
+  // Checks the monitor every millisecond for the given time, and returns its last verdict
+  private Status runFor(Monitor monitor, int millis) {
+    Status verdict = Status.RUNNING;
+    for (int i = 0; i < millis && verdict == Status.RUNNING; i++) {
+      verdict = monitor.check();
+      clock.advance(MILLIS);
+    }
+    return verdict == Status.RUNNING ? monitor.check() : verdict;
+  }
+}
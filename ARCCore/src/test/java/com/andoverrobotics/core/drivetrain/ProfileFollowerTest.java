@@ -0,0 +1,140 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.MotionHandle.Status;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class ProfileFollowerTest {
+
+  // At full power, the simulated motors turn 1200 ticks per second
+  private static final double FREE_SPEED = 1200;
+  private static final double TIME_CONSTANT = 0.005;
+  private static final long PERIOD_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+  private final MotionConstraints constraints = new MotionConstraints(1000, 2000, 10000);
+  private final SimulatedClock clock = new SimulatedClock();
+  private final SimulatedMotor left = new SimulatedMotor("left", clock, FREE_SPEED, TIME_CONSTANT),
+      right = new SimulatedMotor("right", clock, FREE_SPEED, TIME_CONSTANT);
+  private final IMotor leftMotor = new MotorAdapter(left), rightMotor = new MotorAdapter(right);
+
+  @Test
+  public void followsProfileToTarget() {
+    MotionProfile profile = MotionProfile.generate(2000, constraints);
+    ProfileFollower follower = new ProfileFollower(profile, new IMotor[]{leftMotor, rightMotor},
+        new double[]{1, -0.5}, 1 / FREE_SPEED, 0.01, 1, clock);
+
+    follower.start();
+    int periods = runUntilFinished(follower);
+
+    assertTrue(follower.isFinished());
+    assertEquals(Status.COMPLETED, follower.getResult());
+    assertEquals(2000, left.getCurrentPosition(), ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(-1000, right.getCurrentPosition(), ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(0, left.getPower(), 0);
+    assertTrue(periods <= profile.getSampleCount() + 5);
+    assertEquals(RunMode.RUN_USING_ENCODER, left.getMode());
+  }
+
+  @Test
+  public void appliesEachSampleOnce() {
+    MotionProfile profile = MotionProfile.generate(2000, constraints);
+    IMotor motor = mock(IMotor.class);
+    ProfileFollower follower = new ProfileFollower(profile, new IMotor[]{motor},
+        new double[]{1}, 1 / FREE_SPEED, 0.01, 1, clock);
+
+    follower.start();
+    clock.advance(PERIOD_NANOS);
+    assertTrue(follower.update());
+    assertTrue(follower.update());
+
+    verify(motor, times(1)).setPower(anyDouble());
+  }
+
+  @Test
+  public void givesUpAfterSettleTimeout() {
+    MotionProfile profile = MotionProfile.generate(100, constraints);
+    IMotor stuck = mock(IMotor.class);
+    ProfileFollower follower = new ProfileFollower(profile, new IMotor[]{stuck},
+        new double[]{1}, 1 / FREE_SPEED, 0.01, 1, clock);
+
+    follower.start();
+    clock.advance((long) (profile.getDuration() * TimeUnit.SECONDS.toNanos(1)));
+    assertTrue(follower.update());
+
+    clock.advance(TimeUnit.MILLISECONDS.toNanos(ProfileFollower.SETTLE_TIMEOUT_MILLIS + 10));
+    assertFalse(follower.update());
+    assertTrue(follower.isFinished());
+    assertEquals(Status.TIMED_OUT, follower.getResult());
+  }
+
+  @Test
+  public void unsettledProfiledMoveTimesOut() throws InterruptedException {
+    IMotor motorL = mock(IMotor.class), motorR = mock(IMotor.class);
+    when(motorL.isEncoderReset()).thenReturn(true);
+    when(motorR.isEncoderReset()).thenReturn(true);
+    TankDrive drive = new TankDrive(motorL, motorR, mock(OpMode.class), 50, 720);
+    drive.setTimeSource(clock, clock);
+    drive.setMotionConstraints(constraints, 1 / FREE_SPEED, 0.01);
+
+    assertEquals(Status.TIMED_OUT, drive.driveForwardsAsync(2, 1).await());
+  }
+
+  @Test
+  public void constrainedDriveTrainFollowsProfiles() throws InterruptedException {
+    OpMode opMode = mock(OpMode.class);
+    TankDrive drive = new TankDrive(leftMotor, rightMotor, opMode, 50, 720);
+    drive.setTimeSource(clock, clock);
+    drive.setMotionConstraints(constraints, 1 / FREE_SPEED, 0.01);
+
+    MotionHandle motion = drive.rotateClockwiseAsync(90, 1);
+    assertFalse(motion.isDone());
+
+    assertEquals(Status.COMPLETED, motion.await());
+    assertEquals(180, left.getCurrentPosition(), ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(-180, right.getCurrentPosition(), ProfileFollower.DEFAULT_TOLERANCE_TICKS);
+    assertEquals(1, drive.getProfileCache().getMisses());
+
+    drive.rotateCounterClockwiseAsync(90).cancel();
+    assertEquals(1, drive.getProfileCache().getHits());
+  }
+
+  @Test
+  public void unconstrainedDriveTrainRunsToPosition() {
+    IMotor motorL = mock(IMotor.class), motorR = mock(IMotor.class);
+    TankDrive drive = new TankDrive(motorL, motorR, mock(OpMode.class), 50, 720);
+    drive.setMotionConstraints(constraints, 1, 1);
+    drive.clearMotionConstraints();
+
+    drive.driveForwardsAsync(2, 0.5);
+
+    verify(motorL).startRunToPosition(100, 0.5);
+    verify(motorR, never()).getCurrentPosition();
+    verify(motorR).startRunToPosition(anyInt(), anyDouble());
+  }
+
+  private int runUntilFinished(ProfileFollower follower) {
+    int periods = 0;
+    do {
+      clock.advance(PERIOD_NANOS);
+      periods++;
+    } while (follower.update());
+    return periods;
+  }
+}
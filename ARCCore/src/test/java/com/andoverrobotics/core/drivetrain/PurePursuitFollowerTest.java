@@ -0,0 +1,162 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.localization.PoseEstimate;
+import com.andoverrobotics.core.localization.PoseSource;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class PurePursuitFollowerTest {
+
+  // At full power, the simulated robot strafes 30 inches and turns 3 radians per second
+  private static final double INCHES_PER_SECOND = 30;
+  private static final double RADIANS_PER_SECOND = 3;
+  private static final long STEP_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  private final MecanumDrive drive = mock(MecanumDrive.class);
+  private final SimulatedRobot robot = new SimulatedRobot();
+
+  @Before
+  public void setUp() {
+    when(drive.canStrafeAndRotate()).thenReturn(true);
+    doAnswer(robot).when(drive).setStrafeAndRotation(anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsDriveBuiltFromPairs() {
+    MecanumDrive pairs = new MecanumDrive(mock(IMotor.class), mock(IMotor.class),
+        mock(IMotor.class), mock(IMotor.class), mock(OpMode.class), 50, 720);
+
+    new PurePursuitFollower(pairs, robot, Arrays.asList(Coordinate.fromXY(24, 0)), 0, robot);
+  }
+
+  @Test
+  public void followsCornerToEndAndHeading() {
+    PurePursuitFollower follower = new PurePursuitFollower(drive, robot,
+        Arrays.asList(Coordinate.fromXY(24, 0), Coordinate.fromXY(24, 24)), Math.PI / 2, robot);
+
+    int steps = run(follower, 1000);
+
+    assertTrue(follower.isFinished());
+    assertTrue(steps < 1000);
+    assertEquals(24, robot.x, PurePursuitFollower.DEFAULT_POSITION_TOLERANCE_INCHES);
+    assertEquals(24, robot.y, PurePursuitFollower.DEFAULT_POSITION_TOLERANCE_INCHES);
+    assertEquals(90, Math.toDegrees(robot.heading),
+        PurePursuitFollower.DEFAULT_HEADING_TOLERANCE_DEGREES);
+    verify(drive).stop();
+  }
+
+  @Test
+  public void cutsCornersWithinLookahead() {
+    PurePursuitFollower follower = new PurePursuitFollower(drive, robot,
+        Arrays.asList(Coordinate.fromXY(24, 0), Coordinate.fromXY(24, 24)), 0, robot);
+    double closestToCorner = Double.MAX_VALUE;
+
+    while (follower.update()) {
+      robot.step();
+      closestToCorner = Math.min(closestToCorner, Math.hypot(robot.x - 24, robot.y));
+    }
+
+    assertTrue(closestToCorner > 0.5);
+    assertTrue(closestToCorner < PurePursuitFollower.DEFAULT_LOOKAHEAD_INCHES);
+  }
+
+  @Test
+  public void lookaheadOnlyMovesForwards() {
+    PurePursuitFollower follower = new PurePursuitFollower(drive, robot,
+        Arrays.asList(Coordinate.fromXY(10, 0), Coordinate.fromXY(20, 0), Coordinate.fromXY(30, 0),
+            Coordinate.fromXY(40, 0)), 0, robot);
+    int lastSegment = 0;
+
+    while (follower.update()) {
+      assertTrue(follower.getLookaheadSegment() >= lastSegment);
+      lastSegment = follower.getLookaheadSegment();
+      robot.step();
+    }
+    assertEquals(3, lastSegment);
+  }
+
+  @Test
+  public void sendsOneCommandPerPeriod() {
+    PurePursuitFollower follower = new PurePursuitFollower(drive, robot,
+        Arrays.asList(Coordinate.fromXY(24, 0)), 0, robot);
+
+    follower.start();
+    assertTrue(follower.update());
+    assertTrue(follower.update());
+
+    verify(drive, times(1)).setStrafeAndRotation(anyDouble(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void finishesImmediatelyAtTarget() {
+    PurePursuitFollower follower = new PurePursuitFollower(drive, robot,
+        Arrays.asList(Coordinate.fromXY(0.1, 0)), 0, robot);
+
+    assertFalse(follower.update());
+    verify(drive, never()).setStrafeAndRotation(anyDouble(), anyDouble(), anyDouble());
+  }
+
+  private int run(PurePursuitFollower follower, int maxSteps) {
+    int steps = 0;
+    while (steps < maxSteps && follower.update()) {
+      robot.step();
+      steps++;
+    }
+    return steps;
+  }
+
+  // Integrates the last command into a pose, and advances time by one period per step
+  private static class SimulatedRobot implements PoseSource, Clock, Answer<Void> {
+
+    double x, y, heading;
+    double strafeX, strafeY, rotatePower;
+    long nanos;
+
+    void step() {
+      double seconds = STEP_NANOS / (double) TimeUnit.SECONDS.toNanos(1);
+      double cos = Math.cos(heading), sin = Math.sin(heading);
+
+      x += (strafeY * cos + strafeX * sin) * INCHES_PER_SECOND * seconds;
+      y += (strafeY * sin - strafeX * cos) * INCHES_PER_SECOND * seconds;
+      heading -= rotatePower * RADIANS_PER_SECOND * seconds;
+      nanos += STEP_NANOS;
+    }
+
+    @Override
+    public PoseEstimate getPose() {
+      return new PoseEstimate(x, y, heading, nanos);
+    }
+
+    @Override
+    public long nanoTime() {
+      return nanos;
+    }
+
+    @Override
+    public Void answer(InvocationOnMock invocation) {
+      strafeX = invocation.getArgument(0);
+      strafeY = invocation.getArgument(1);
+      rotatePower = invocation.getArgument(2);
+      return null;
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package com.andoverrobotics.core.drivetrain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.lang.management.ManagementFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+// Counts the bytes allocated by the calling thread, which HotSpot reports through its extension of
+// ThreadMXBean; the motors are plain objects, since mocks allocate on every call
+public class StrafeAllocationTest {
+
+  private static final int CALLS = 10000;
+
+  private com.sun.management.ThreadMXBean threads;
+
+  @Before
+  public void setUp() {
+    assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+    threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    assumeTrue(threads.isThreadAllocatedMemorySupported());
+    threads.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  @Test
+  public void wheelSetStrafeDoesNotAllocate() {
+    MecanumDrive drive = new MecanumDrive(new NullMotor(), new NullMotor(), new NullMotor(),
+        new NullMotor(), MecanumKinematics.crossed(), mock(OpMode.class), 5, 100);
+
+    assertEquals(0, bytesPerSetStrafe(drive));
+  }
+
+  @Test
+  public void diagonalSetStrafeDoesNotAllocate() {
+    MecanumDrive drive = new MecanumDrive(new NullMotor(), new NullMotor(), new NullMotor(),
+        new NullMotor(), mock(OpMode.class), 5, 100);
+
+    assertEquals(0, bytesPerSetStrafe(drive));
+  }
+
+  private long bytesPerSetStrafe(StrafingDriveTrain drive) {
+    // Warms up the calls, so that class loading and compilation are not measured
+    strafe(drive);
+
+    long threadId = Thread.currentThread().getId();
+    long before = threads.getThreadAllocatedBytes(threadId);
+    strafe(drive);
+    long after = threads.getThreadAllocatedBytes(threadId);
+
+    return (after - before) / CALLS;
+  }
+
+  private static void strafe(StrafingDriveTrain drive) {
+    for (int call = 0; call < CALLS; call++) {
+      drive.setStrafe(Math.sin(call), Math.cos(call), 0.8);
+    }
+  }
+
+  private static class NullMotor implements IMotor {
+
+    @Override
+    public void setPower(double power) {
+    }
+
+    @Override
+    public void addTargetPosition(int tickOffset) {
+    }
+
+    @Override
+    public void startRunToPosition(int tickOffset, double power) {
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      return 0;
+    }
+
+    @Override
+    public boolean isEncoderReset() {
+      return true;
+    }
+
+    @Override
+    public boolean isBusy() {
+      return false;
+    }
+  }
+}
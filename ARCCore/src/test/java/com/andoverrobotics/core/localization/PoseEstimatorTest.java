@@ -0,0 +1,171 @@
+package com.andoverrobotics.core.localization;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.MecanumKinematics;
+import com.andoverrobotics.core.utilities.IMotor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PoseEstimatorTest {
+
+  private static final double TICKS_PER_INCH = 50;
+  private static final double TICKS_PER_360 = 4000;
+  private static final double DELTA = 1e-9;
+
+  private final IMotor frontLeft = mock(IMotor.class), frontRight = mock(IMotor.class),
+      backLeft = mock(IMotor.class), backRight = mock(IMotor.class);
+  private final int[] positions = new int[MecanumKinematics.WHEEL_COUNT];
+
+  private PoseEstimator estimator;
+
+  @Before
+  public void setUp() {
+    estimator = new PoseEstimator(new IMotor[]{frontLeft, frontRight, backLeft, backRight},
+        MecanumKinematics.crossed(), TICKS_PER_INCH, TICKS_PER_360);
+    estimator.update();
+  }
+
+  @Test
+  public void startsAtOrigin() {
+    PoseEstimate pose = estimator.getPose();
+    assertEquals(0, pose.getX(), DELTA);
+    assertEquals(0, pose.getY(), DELTA);
+    assertEquals(0, pose.getHeading(), DELTA);
+  }
+
+  @Test
+  public void drivingForwardsFollowsHeading() {
+    moveWheels(500, 500, 500, 500);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(10, pose.getX(), DELTA);
+    assertEquals(0, pose.getY(), DELTA);
+    assertSame(pose, estimator.getPose());
+  }
+
+  @Test
+  public void strafingRightMovesClockwiseOfHeading() {
+    estimator.setPose(0, 0, Math.PI / 2);
+    estimator.update();
+
+    // Crossed configuration: the front-right and rear-left wheels drive the right diagonal
+    moveWheels(-250, 250, 250, -250);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(5, pose.getX(), DELTA);
+    assertEquals(0, pose.getY(), DELTA);
+    assertEquals(Math.PI / 2, pose.getHeading(), DELTA);
+  }
+
+  @Test
+  public void clockwiseRotationDecreasesHeading() {
+    moveWheels(1000, -1000, 1000, -1000);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(270, pose.getHeadingDegrees(), 1e-6);
+    assertEquals(0, pose.getX(), DELTA);
+    assertEquals(0, pose.getY(), DELTA);
+  }
+
+  @Test
+  public void headingSourceOverridesWheelRotation() {
+    HeadingSource imu = mock(HeadingSource.class);
+    when(imu.getHeadingRadians()).thenReturn(1.0);
+    estimator.setHeadingSource(imu);
+    estimator.update();
+
+    // The wheels slip while the IMU reports a quarter turn counterclockwise
+    when(imu.getHeadingRadians()).thenReturn(1.0 + Math.PI / 2);
+    moveWheels(1000, -1000, 1000, -1000);
+
+    assertEquals(Math.PI / 2, estimator.update().getHeading(), DELTA);
+  }
+
+  @Test
+  public void switchingHeadingSourceKeepsMotionSinceLastUpdate() {
+    HeadingSource imu = mock(HeadingSource.class);
+    when(imu.getHeadingRadians()).thenReturn(2.0);
+    moveWheels(500, 500, 500, 500);
+    estimator.setHeadingSource(imu);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(10, pose.getX(), DELTA);
+    assertEquals(0, pose.getHeading(), DELTA);
+
+    // The IMU takes over from the current heading
+    when(imu.getHeadingRadians()).thenReturn(2.5);
+    assertEquals(0.5, estimator.update().getHeading(), DELTA);
+  }
+
+  @Test
+  public void headingSourceWrapsAround() {
+    HeadingSource imu = mock(HeadingSource.class);
+    when(imu.getHeadingRadians()).thenReturn(Math.PI - 0.1);
+    estimator.setHeadingSource(imu);
+    estimator.update();
+
+    // Driving forwards while turning 0.2 radians across the -pi/pi boundary of the IMU
+    when(imu.getHeadingRadians()).thenReturn(-Math.PI + 0.1);
+    moveWheels(500, 500, 500, 500);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(0.2, pose.getHeading(), DELTA);
+    assertEquals(10 * Math.cos(0.1), pose.getX(), DELTA);
+    assertEquals(10 * Math.sin(0.1), pose.getY(), DELTA);
+  }
+
+  @Test
+  public void setPoseDiscardsMotionBeforeReset() {
+    moveWheels(500, 500, 500, 500);
+    estimator.setPose(3, 4, 0);
+
+    PoseEstimate pose = estimator.update();
+    assertEquals(3, pose.getX(), DELTA);
+    assertEquals(4, pose.getY(), DELTA);
+  }
+
+  @Test
+  public void threadPublishesEstimatesAndMetrics() throws InterruptedException {
+    estimator.start(500);
+    assertTrue(estimator.isRunning());
+    moveWheels(500, 500, 500, 500);
+    Thread.sleep(100);
+    estimator.stop();
+
+    assertFalse(estimator.isRunning());
+    assertEquals(10, estimator.getPose().getX(), DELTA);
+    assertTrue(estimator.getSampleRate() > 0);
+    assertTrue(estimator.getUpdateCount() > 1);
+    assertTrue(estimator.getMeanUpdateNanos() > 0);
+    assertTrue(estimator.getMissedDeadlineRate() <= 1);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotStartTwice() throws InterruptedException {
+    estimator.start(100);
+    try {
+      estimator.start(100);
+    } finally {
+      estimator.stop();
+    }
+  }
+
+  private void moveWheels(int frontLeftTicks, int frontRightTicks, int backLeftTicks,
+      int backRightTicks) {
+    positions[0] += frontLeftTicks;
+    positions[1] += frontRightTicks;
+    positions[2] += backLeftTicks;
+    positions[3] += backRightTicks;
+
+    when(frontLeft.getCurrentPosition()).thenReturn(positions[0]);
+    when(frontRight.getCurrentPosition()).thenReturn(positions[1]);
+    when(backLeft.getCurrentPosition()).thenReturn(positions[2]);
+    when(backRight.getCurrentPosition()).thenReturn(positions[3]);
+  }
+}
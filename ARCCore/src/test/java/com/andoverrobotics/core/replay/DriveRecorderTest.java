@@ -0,0 +1,181 @@
+package com.andoverrobotics.core.replay;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.MecanumKinematics;
+import com.andoverrobotics.core.replay.DriveLog.Type;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.TimeUnit;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.InOrder;
+
+public class DriveRecorderTest {
+
+  private static final long LOOP_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final SimulatedClock clock = new SimulatedClock();
+  private final IMotor left = mock(IMotor.class),
+      right = mock(IMotor.class);
+
+  @Test
+  public void recordsCommandsAndPositionsWithTimes() throws IOException {
+    File file = folder.newFile();
+    DriveRecorder recorder = new DriveRecorder(file, clock);
+    IMotor recordedLeft = recorder.record(left), recordedRight = recorder.record(right);
+    when(right.getCurrentPosition()).thenReturn(-35);
+
+    recordedLeft.setMode(RunMode.RUN_USING_ENCODER);
+    clock.advance(LOOP_NANOS);
+    recordedRight.setPower(0.75);
+    recorder.sample();
+    recorder.close();
+
+    verify(left).setMode(RunMode.RUN_USING_ENCODER);
+    verify(right).setPower(0.75);
+    assertEquals(DriveLog.HEADER_SIZE + 4 * DriveLog.RECORD_SIZE, file.length());
+
+    DriveLog log = DriveLog.read(file);
+    assertEquals(2, log.getMotorCount());
+    assertEquals(4, log.getRecordCount());
+    assertEquals(Type.MODE, log.getType(0));
+    assertEquals(RunMode.RUN_USING_ENCODER, log.getMode(0));
+    assertEquals(0, log.getTime(0));
+    assertEquals(Type.POWER, log.getType(1));
+    assertEquals(1, log.getMotor(1));
+    assertEquals(0.75, log.getPower(1), 0);
+    assertEquals(LOOP_NANOS, log.getTime(1));
+    assertEquals(Type.POSITION, log.getType(3));
+    assertEquals(-35, log.getPosition(3));
+    assertEquals(LOOP_NANOS, log.getDurationNanos());
+  }
+
+  @Test
+  public void recordsAcrossChunks() throws IOException {
+    File file = folder.newFile();
+    DriveRecorder recorder = new DriveRecorder(file, clock);
+    IMotor motor = recorder.record(left);
+
+    int count = 2 * DriveRecorder.CHUNK_SIZE / DriveLog.RECORD_SIZE + 10;
+    for (int i = 0; i < count; i++) {
+      motor.setPower(i % 100 / 100.0);
+    }
+    recorder.close();
+
+    DriveLog log = DriveLog.read(file);
+    assertEquals(count, log.getRecordCount());
+    assertEquals((count - 1) % 100 / 100.0, log.getPower(count - 1), 0);
+  }
+
+  @Test(expected = IOException.class)
+  public void rejectsTruncatedLog() throws IOException {
+    File file = folder.newFile();
+    DriveRecorder recorder = new DriveRecorder(file, clock);
+    recorder.record(left).setPower(1);
+    recorder.close();
+
+    RandomAccessFile truncated = new RandomAccessFile(file, "rw");
+    truncated.setLength(file.length() - 1);
+    truncated.close();
+    DriveLog.read(file);
+  }
+
+  @Test
+  public void replaysCommandsAtRecordedTimes() throws Exception {
+    File file = folder.newFile();
+    DriveRecorder recorder = new DriveRecorder(file, clock);
+    IMotor recordedLeft = recorder.record(left), recordedRight = recorder.record(right);
+    recordedLeft.setPower(0.5);
+    clock.advance(5 * LOOP_NANOS);
+    recordedRight.setMode(RunMode.RUN_WITHOUT_ENCODER);
+    recordedLeft.setPower(-0.25);
+    recorder.close();
+
+    IMotor replayLeft = mock(IMotor.class), replayRight = mock(IMotor.class);
+    SimulatedClock replayClock = new SimulatedClock();
+    DriveReplayer replayer = new DriveReplayer(DriveLog.read(file),
+        new IMotor[]{replayLeft, replayRight}, replayClock, replayClock);
+
+    assertTrue(replayer.execute());
+    verify(replayLeft).setPower(0.5);
+
+    replayer.replay();
+
+    InOrder order = inOrder(replayLeft, replayRight);
+    order.verify(replayRight).setMode(RunMode.RUN_WITHOUT_ENCODER);
+    order.verify(replayLeft).setPower(-0.25);
+    order.verify(replayLeft).setPower(0);
+    assertEquals(5 * LOOP_NANOS, replayClock.nanoTime(), TimeUnit.MILLISECONDS.toNanos(1));
+    assertTrue(replayer.isFinished());
+  }
+
+  @Test
+  public void closedLoopReplayTracksRecordedPositions() throws IOException {
+    File file = folder.newFile();
+    recordDrive(file);
+    DriveLog log = DriveLog.read(file);
+    int recordedEnd = log.getPosition(log.getRecordCount() - 1);
+
+    // The replaying robot is 20% slower than the recorded one
+    int openLoopEnd = replayDrive(log, 0);
+    int closedLoopEnd = replayDrive(log, 0.005);
+
+    assertTrue(Math.abs(recordedEnd - closedLoopEnd) < Math.abs(recordedEnd - openLoopEnd) / 4);
+  }
+
+  private void recordDrive(File file) throws IOException {
+    SimulatedClock recordClock = new SimulatedClock();
+    DriveRecorder recorder = new DriveRecorder(file, recordClock);
+    MecanumDrive drive = new MecanumDrive(
+        recorder.record(new MotorAdapter(new SimulatedMotor("motorFL", recordClock))),
+        recorder.record(new MotorAdapter(new SimulatedMotor("motorFR", recordClock))),
+        recorder.record(new MotorAdapter(new SimulatedMotor("motorBL", recordClock))),
+        recorder.record(new MotorAdapter(new SimulatedMotor("motorBR", recordClock))),
+        MecanumKinematics.crossed(), null, 100, 1000);
+
+    for (int loop = 0; loop < 100; loop++) {
+      drive.setStrafeAndRotation(loop < 50 ? 0.3 : -0.2, 0.6, 0.1);
+      recorder.sample();
+      recordClock.advance(LOOP_NANOS);
+    }
+    drive.stop();
+    recorder.sample();
+    recorder.close();
+  }
+
+  // Returns the final position of the last motor
+  private int replayDrive(DriveLog log, double gain) {
+    SimulatedClock replayClock = new SimulatedClock();
+    SimulatedMotor[] wheels = new SimulatedMotor[4];
+    IMotor[] motors = new IMotor[4];
+    for (int i = 0; i < 4; i++) {
+      wheels[i] = new SimulatedMotor("wheel" + i, replayClock,
+          0.8 * SimulatedMotor.NEVEREST_40_FREE_SPEED, SimulatedMotor.DEFAULT_TIME_CONSTANT);
+      motors[i] = new MotorAdapter(wheels[i]);
+    }
+
+    DriveReplayer replayer = new DriveReplayer(log, motors, replayClock, replayClock);
+    replayer.setPositionGain(gain);
+    while (replayer.execute()) {
+      replayClock.advance(TimeUnit.MILLISECONDS.toNanos(2));
+    }
+    return wheels[3].getCurrentPosition();
+  }
+}
@@ -0,0 +1,85 @@
+package com.andoverrobotics.core.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.MotionConstraints;
+import com.andoverrobotics.core.drivetrain.TankDrive;
+import com.andoverrobotics.core.simulation.SegmentTimer.Segment;
+import java.util.List;
+import org.junit.Test;
+
+public class SimulatedDriveTest {
+
+  private static final int TICKS_PER_INCH = 125, TICKS_PER_360 = 7768;
+
+  private final SimulatedClock clock = new SimulatedClock();
+  private final SimulatedMotor motorFL = new SimulatedMotor("motorFL", clock),
+      motorFR = new SimulatedMotor("motorFR", clock),
+      motorBL = new SimulatedMotor("motorBL", clock),
+      motorBR = new SimulatedMotor("motorBR", clock);
+  private final SegmentTimer timer = new SegmentTimer(clock);
+
+  // A null OpMode is never stopped, so the moves run until their motors arrive
+  private final MecanumDrive mecanumDrive = MecanumDrive
+      .fromCrossedMotors(motorFL, motorFR, motorBL, motorBR, null, TICKS_PER_INCH, TICKS_PER_360);
+
+  @Test
+  public void autonomousPathRunsFasterThanRealTime() {
+    mecanumDrive.setTimeSource(clock, clock);
+
+    long wallStart = System.nanoTime();
+    timer.begin("strafe right");
+    mecanumDrive.strafeRight(5, 0.75);
+    timer.begin("drive forwards");
+    mecanumDrive.driveForwards(8, 0.75);
+    timer.begin("strafe left");
+    mecanumDrive.strafeLeft(5, 0.75);
+    timer.end();
+    long wallNanos = System.nanoTime() - wallStart;
+
+    List<Segment> segments = timer.getSegments();
+    assertEquals(3, segments.size());
+    for (Segment segment : segments) {
+      assertTrue(segment.getName(), segment.getNanos() > 0);
+    }
+    assertTrue(timer.getTotalNanos() > wallNanos);
+    assertEquals(clock.nanoTime(), timer.getTotalNanos());
+  }
+
+  @Test
+  public void simulationIsDeterministic() {
+    assertEquals(runTankPath(), runTankPath());
+  }
+
+  @Test
+  public void profiledMovesFollowSimulatedTime() {
+    mecanumDrive.setTimeSource(clock, clock);
+    mecanumDrive.setMotionConstraints(new MotionConstraints(2000, 4000), 1 / 2987.0, 0.002);
+
+    timer.begin("profiled drive");
+    mecanumDrive.driveForwards(24, 1);
+    timer.end();
+
+    // Driving forwards turns every wheel by the same number of ticks
+    int expected = (int) (24 * TICKS_PER_INCH * Math.sqrt(0.5));
+    assertEquals(expected, motorFL.getCurrentPosition(), 0.02 * expected);
+    assertTrue(timer.getTotalNanos() > 0);
+  }
+
+  private String runTankPath() {
+    SimulatedClock tankClock = new SimulatedClock();
+    TankDrive tankDrive = TankDrive.fromMotors(new SimulatedMotor("left", tankClock),
+        new SimulatedMotor("right", tankClock), null, TICKS_PER_INCH, TICKS_PER_360);
+    tankDrive.setTimeSource(tankClock, tankClock);
+    SegmentTimer tankTimer = new SegmentTimer(tankClock);
+
+    tankTimer.begin("forwards");
+    tankDrive.driveForwards(12, 0.5);
+    tankTimer.begin("rotate");
+    tankDrive.rotateClockwise(90, 0.5);
+    tankTimer.end();
+    return tankTimer.toString();
+  }
+}
@@ -0,0 +1,122 @@
+package com.andoverrobotics.core.simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotor.ZeroPowerBehavior;
+import com.qualcomm.robotcore.hardware.DcMotorSimple.Direction;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class SimulatedMotorTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final SimulatedClock clock = new SimulatedClock();
+  private final SimulatedMotor motor = new SimulatedMotor("motor", clock, 1000, 0.1);
+
+  @Test
+  public void velocityFollowsFirstOrderResponse() {
+    motor.setPower(0.5);
+    clock.advance(SECOND / 10);
+
+    // One time constant covers 1 - 1/e of the change
+    assertEquals(500 * (1 - Math.exp(-1)), motor.getVelocity(), 1e-6);
+
+    clock.advance(2 * SECOND);
+    assertEquals(500, motor.getVelocity(), 1e-3);
+  }
+
+  @Test
+  public void encoderIntegratesVelocity() {
+    motor.setPower(1);
+    clock.advance(SECOND);
+
+    // x(t) = v * (t - tau * (1 - e^(-t / tau)))
+    double expected = 1000 * (1 - 0.1 * (1 - Math.exp(-10)));
+    assertEquals(expected, motor.getCurrentPosition(), 1);
+  }
+
+  @Test
+  public void runToPositionStopsWithinTolerance() {
+    motor.setMode(RunMode.RUN_TO_POSITION);
+    motor.setTargetPosition(2000);
+    motor.setPower(-0.8);
+    assertTrue(motor.isBusy());
+
+    clock.advance(10 * SECOND);
+
+    assertFalse(motor.isBusy());
+    assertEquals(2000, motor.getCurrentPosition(), SimulatedMotor.TARGET_POSITION_TOLERANCE);
+    assertEquals(0, motor.getVelocity(), 1);
+  }
+
+  @Test
+  public void runToPositionIsLimitedByPower() {
+    motor.setMode(RunMode.RUN_TO_POSITION);
+    motor.setTargetPosition(100000);
+    motor.setPower(0.25);
+    clock.advance(2 * SECOND);
+
+    assertEquals(250, motor.getVelocity(), 1e-3);
+  }
+
+  @Test
+  public void resetZeroesEncoderAndStopsPower() {
+    motor.setPower(1);
+    clock.advance(SECOND);
+    motor.setMode(RunMode.STOP_AND_RESET_ENCODER);
+
+    assertEquals(0, motor.getCurrentPosition());
+    assertEquals(0, motor.getPower(), 0);
+  }
+
+  @Test
+  public void reverseDirectionNegatesPowerAndEncoder() {
+    SimulatedMotor reversed = new SimulatedMotor("reversed", clock, 1000, 0.1);
+    reversed.setDirection(Direction.REVERSE);
+    reversed.setMode(RunMode.RUN_TO_POSITION);
+    reversed.setTargetPosition(500);
+    reversed.setPower(1);
+    motor.setPower(1);
+
+    clock.advance(SECOND);
+
+    assertTrue(motor.getCurrentPosition() > 0);
+    assertEquals(500, reversed.getCurrentPosition(), SimulatedMotor.TARGET_POSITION_TOLERANCE);
+  }
+
+  @Test
+  public void floatingMotorCoastsLongerThanBrakingOne() {
+    SimulatedMotor floating = new SimulatedMotor("floating", clock, 1000, 0.1);
+    floating.setZeroPowerBehavior(ZeroPowerBehavior.FLOAT);
+    motor.setPower(1);
+    floating.setPower(1);
+    clock.advance(SECOND);
+
+    motor.setPower(0);
+    floating.setPower(0);
+    clock.advance(SECOND / 5);
+
+    assertTrue(floating.getVelocity() > 2 * motor.getVelocity());
+  }
+
+  @Test
+  public void partialStepsCarryOverToNextAdvance() {
+    motor.setPower(1);
+    for (int i = 0; i < 1000; i++) {
+      clock.advance(clock.getStepNanos() / 4);
+    }
+
+    assertEquals(clock.getStepNanos() * 250, clock.nanoTime());
+    assertEquals(1000 * (1 - Math.exp(-2.5)), motor.getVelocity(), 1e-6);
+  }
+
+  @Test(expected = InterruptedException.class)
+  public void sleepingObservesInterruption() throws InterruptedException {
+    Thread.currentThread().interrupt();
+    clock.sleep(1);
+  }
+}
@@ -0,0 +1,183 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.andoverrobotics.core.utilities.ControlLoop.Task;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class ControlLoopTest {
+
+  private final ControlLoop loop = new ControlLoop("ControlLoopTest");
+
+  @After
+  public void tearDown() throws InterruptedException {
+    loop.stop();
+  }
+
+  @Test
+  public void runsUntilTaskFinishes() throws InterruptedException {
+    ScheduledTask task = loop.schedule("count", 200, new CountingTask(5));
+
+    assertTrue(task.await(2, TimeUnit.SECONDS));
+    assertEquals(5, task.getRuns());
+    assertEquals(5, task.getExecutionTime().getCount());
+    assertEquals(5, task.getLateness().getCount());
+    assertFalse(task.isCancelled());
+  }
+
+  @Test
+  public void runsAtDeclaredRate() throws InterruptedException {
+    long start = System.nanoTime();
+    ScheduledTask task = loop.schedule("rate", 100, new CountingTask(11));
+
+    assertTrue(task.await(2, TimeUnit.SECONDS));
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // Ten periods of 10 ms separate the first and last runs
+    assertTrue(elapsedMillis >= 95);
+    assertTrue(elapsedMillis < 1000);
+  }
+
+  @Test
+  public void runsDueTasksInPriorityOrder() throws InterruptedException {
+    final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+    final CountDownLatch gateRunning = new CountDownLatch(1);
+    final CountDownLatch scheduled = new CountDownLatch(1);
+
+    // Holds the loop thread until every task has been scheduled, so that all are due together
+    loop.schedule("gate", 1, ControlLoop.MAX_PRIORITY, new Task() {
+      @Override
+      public boolean execute() {
+        gateRunning.countDown();
+        try {
+          scheduled.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return false;
+      }
+    });
+    assertTrue(gateRunning.await(2, TimeUnit.SECONDS));
+    ScheduledTask low = loop.schedule("low", 1, ControlLoop.MIN_PRIORITY,
+        new RecordingTask(order, "low"));
+    loop.schedule("normal", 1, new RecordingTask(order, "normal"));
+    loop.schedule("high", 1, ControlLoop.MAX_PRIORITY, new RecordingTask(order, "high"));
+    scheduled.countDown();
+
+    assertTrue(low.await(2, TimeUnit.SECONDS));
+    assertEquals(Arrays.asList("high", "normal", "low"), order);
+  }
+
+  @Test
+  public void countsMissedDeadlines() throws InterruptedException {
+    ScheduledTask task = loop.schedule("slow", 1000, new Task() {
+      private int runs;
+
+      @Override
+      public boolean execute() {
+        try {
+          Thread.sleep(5);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return ++runs < 3;
+      }
+    });
+
+    assertTrue(task.await(2, TimeUnit.SECONDS));
+    assertEquals(3, task.getRuns());
+    assertTrue(task.getMissedDeadlines() >= 3 * 4);
+    assertTrue(task.getExecutionTime().getMax() >= TimeUnit.MILLISECONDS.toNanos(5));
+  }
+
+  @Test
+  public void failureEndsTask() throws InterruptedException {
+    final IllegalStateException thrown = new IllegalStateException("broken");
+    ScheduledTask failing = loop.schedule("failing", 100, new Task() {
+      @Override
+      public boolean execute() {
+        throw thrown;
+      }
+    });
+    ScheduledTask healthy = loop.schedule("healthy", 100, new CountingTask(3));
+
+    assertTrue(failing.await(2, TimeUnit.SECONDS));
+    assertSame(thrown, failing.getFailure());
+    assertTrue(healthy.await(2, TimeUnit.SECONDS));
+    assertEquals(3, healthy.getRuns());
+  }
+
+  @Test
+  public void cancelStopsTask() throws InterruptedException {
+    CountingTask counting = new CountingTask(Integer.MAX_VALUE);
+    ScheduledTask task = loop.schedule("forever", 200, counting);
+
+    Thread.sleep(30);
+    task.cancel();
+    assertTrue(task.await(1, TimeUnit.SECONDS));
+    int runs = counting.runs.get();
+    Thread.sleep(30);
+
+    assertTrue(task.isCancelled());
+    assertTrue(counting.runs.get() <= runs + 1);
+  }
+
+  @Test
+  public void stopCancelsEveryTask() throws InterruptedException {
+    ScheduledTask task = loop.schedule("forever", 100, new CountingTask(Integer.MAX_VALUE));
+
+    loop.stop();
+
+    assertTrue(task.isDone());
+    assertTrue(task.isCancelled());
+    assertTrue(loop.getTasks().isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsPriorityOutOfRange() {
+    loop.schedule("invalid", 10, ControlLoop.MAX_PRIORITY + 1, new CountingTask(1));
+  }
+
+  private static class CountingTask implements Task {
+
+    final AtomicInteger runs = new AtomicInteger();
+    private final int limit;
+
+    CountingTask(int limit) {
+      this.limit = limit;
+    }
+
+    @Override
+    public boolean execute() {
+      return runs.incrementAndGet() < limit;
+    }
+  }
+
+  private static class RecordingTask implements Task {
+
+    private final List<String> order;
+    private final String name;
+
+    RecordingTask(List<String> order, String name) {
+      this.order = order;
+      this.name = name;
+    }
+
+    @Override
+    public boolean execute() {
+      order.add(name);
+      return false;
+    }
+  }
+}
@@ -44,4 +44,28 @@ public class ConverterTest {
     assertEquals(135, Converter.radiansToDegrees(Math.PI * 2.75), 1e-7);
     assertEquals(270, Converter.radiansToDegrees(Math.PI * 5.5), 1e-7);
   }
-}
\ No newline at end of file
+
+  @Test(timeout = 1000)
+  public void normalizesHugeAnglesInConstantTime() {
+    assertEquals(90, Converter.normalizedDegrees(360.0 * 1e12 + 90), 1e-2);
+    assertEquals(270, Converter.normalizedDegrees(-360.0 * 1e12 - 90), 1e-2);
+    double radians = Converter.normalizedRadians(1e300);
+    assertTrue(radians >= 0 && radians < Converter.TAU);
+    assertTrue(Double.isNaN(Converter.normalizedDegrees(Double.POSITIVE_INFINITY)));
+    assertTrue(Double.isNaN(Converter.normalizedRadians(Double.NaN)));
+  }
+
+  @Test
+  public void normalizedAnglesStayBelowFullTurn() {
+    assertEquals(0, Converter.normalizedDegrees(-1e-300), 0);
+    assertEquals(0, Converter.normalizedRadians(-Double.MIN_VALUE), 0);
+    assertEquals(0, Converter.normalizedDegrees(360), 0);
+  }
+
+  @Test
+  public void shortestTurnRadians() {
+    assertEquals(-Math.PI / 2, Converter.shortestTurnRadians(Math.PI * 1.5), 1e-9);
+    assertEquals(Math.PI / 4, Converter.shortestTurnRadians(Math.PI / 4 - Converter.TAU * 3), 1e-9);
+    assertEquals(Math.PI, Converter.shortestTurnRadians(-Math.PI), 1e-9);
+  }
+}
@@ -0,0 +1,96 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class FastMathTest {
+
+  private static final int SAMPLES = 200000;
+
+  private final Random random = new Random(2018);
+
+  @Test
+  public void defaultErrorIsBelowBound() {
+    FastMath fast = FastMath.DEFAULT;
+
+    assertEquals(FastMath.DEFAULT_STEPS, fast.getStepsPerRevolution());
+    assertTrue(fast.getMaxError() < 4e-7);
+    assertWithinBound(fast);
+  }
+
+  @Test
+  public void coarseErrorIsBelowBound() {
+    FastMath fast = new FastMath(100);
+
+    assertEquals(128, fast.getStepsPerRevolution());
+    assertWithinBound(fast);
+  }
+
+  @Test
+  public void withMaxErrorBuildsSmallestTables() {
+    FastMath fast = FastMath.withMaxError(1e-4);
+
+    assertTrue(fast.getMaxError() <= 1e-4);
+    assertTrue(new FastMath(fast.getStepsPerRevolution() / 2).getMaxError() > 1e-4);
+    assertWithinBound(fast);
+  }
+
+  @Test
+  public void exactAtTableSteps() {
+    FastMath fast = FastMath.DEFAULT;
+
+    assertEquals(0, fast.sin(0), 0);
+    assertEquals(1, fast.cos(0), 0);
+    assertEquals(1, fast.sin(Math.PI / 2), 1e-15);
+    assertEquals(-1, fast.cos(-Math.PI), 1e-15);
+  }
+
+  @Test
+  public void atan2KeepsQuadrantsAndSpecialCases() {
+    FastMath fast = FastMath.DEFAULT;
+    double bound = fast.getMaxError();
+
+    assertEquals(Math.atan2(1, 2), fast.atan2(1, 2), bound);
+    assertEquals(Math.atan2(2, -1), fast.atan2(2, -1), bound);
+    assertEquals(Math.atan2(-1, -2), fast.atan2(-1, -2), bound);
+    assertEquals(Math.atan2(-2, 1), fast.atan2(-2, 1), bound);
+    assertEquals(Math.PI / 4, fast.atan2(3, 3), 1e-15);
+
+    assertEquals(Math.PI, fast.atan2(0.0, -1), 0);
+    assertEquals(-Math.PI, fast.atan2(-0.0, -1), 0);
+    assertEquals(Math.PI / 2, fast.atan2(1, 0), 0);
+    assertEquals(Math.PI / 4, fast.atan2(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY), 0);
+    assertTrue(Double.isNaN(fast.atan2(Double.NaN, 1)));
+  }
+
+  @Test
+  public void handlesExtremeAngles() {
+    FastMath fast = FastMath.DEFAULT;
+
+    assertEquals(Math.sin(1e6 * Math.PI + 0.5), fast.sin(1e6 * Math.PI + 0.5), 1e-6);
+    assertTrue(Math.abs(fast.cos(1e300)) <= 1);
+    assertTrue(Double.isNaN(fast.sin(Double.POSITIVE_INFINITY)));
+    assertTrue(Double.isNaN(fast.cos(Double.NaN)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsTinyTables() {
+    new FastMath(4);
+  }
+
+  private void assertWithinBound(FastMath fast) {
+    double bound = fast.getMaxError();
+
+    for (int sample = 0; sample < SAMPLES; sample++) {
+      double angle = (random.nextDouble() - 0.5) * 200 * Math.PI;
+      assertEquals(Math.sin(angle), fast.sin(angle), bound);
+      assertEquals(Math.cos(angle), fast.cos(angle), bound);
+
+      double y = random.nextGaussian(), x = random.nextGaussian();
+      assertEquals(Math.atan2(y, x), fast.atan2(y, x), bound);
+    }
+  }
+}
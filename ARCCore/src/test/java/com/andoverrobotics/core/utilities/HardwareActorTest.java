@@ -0,0 +1,184 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.Servo;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class HardwareActorTest {
+
+  private final DcMotor one = mock(DcMotor.class),
+      two = mock(DcMotor.class);
+  private final HardwareActor actor = new HardwareActor("TestActor");
+
+  @After
+  public void tearDown() throws InterruptedException {
+    actor.stop();
+  }
+
+  @Test
+  public void registeringTheSameMotorTwiceReturnsOneMotor() {
+    assertSame(actor.register(one), actor.register(one));
+    assertNotSame(actor.register(one), actor.register(two));
+  }
+
+  @Test
+  public void writesQueuedInOneDrainAreMerged() throws InterruptedException {
+    DcMotor routed = actor.register(one);
+    routed.setPower(0.2);
+    routed.setPower(0.5);
+    routed.setMode(RunMode.RUN_USING_ENCODER);
+    routed.setPower(0.9);
+
+    actor.start();
+    actor.stop();
+
+    verify(one, never()).setPower(0.2);
+    verify(one, never()).setPower(0.5);
+    InOrder order = inOrder(one);
+    order.verify(one).setMode(RunMode.RUN_USING_ENCODER);
+    order.verify(one).setPower(0.9);
+    assertEquals(4, actor.getCommandsReceived());
+    assertEquals(2, actor.getWritesSent());
+  }
+
+  @Test
+  public void unchangedWritesAreDropped() throws InterruptedException {
+    DcMotor routed = actor.register(one);
+    actor.start();
+
+    routed.setPower(0.5);
+    routed.getCurrentPosition();
+    routed.setPower(0.5);
+    routed.getCurrentPosition();
+    actor.stop();
+
+    verify(one, times(1)).setPower(0.5);
+  }
+
+  @Test
+  public void targetPositionIsSentAfterTheWritesQueuedBeforeIt() throws InterruptedException {
+    DcMotor routed = actor.register(one);
+    routed.setMode(RunMode.RUN_TO_POSITION);
+    routed.setTargetPosition(500);
+    routed.setPower(0.4);
+
+    actor.start();
+    actor.stop();
+
+    InOrder order = inOrder(one);
+    order.verify(one).setMode(RunMode.RUN_TO_POSITION);
+    order.verify(one).setTargetPosition(500);
+    order.verify(one).setPower(0.4);
+  }
+
+  @Test
+  public void readAfterWriteWaitsForAFreshSnapshot() {
+    when(one.isBusy()).thenReturn(true);
+    when(one.getCurrentPosition()).thenReturn(120);
+    DcMotor routed = actor.register(one);
+    actor.start();
+
+    routed.setMode(RunMode.RUN_TO_POSITION);
+    routed.setTargetPosition(500);
+    routed.setPower(0.4);
+
+    assertTrue(routed.isBusy());
+    assertEquals(120, routed.getCurrentPosition());
+    InOrder order = inOrder(one);
+    order.verify(one).setPower(0.4);
+    order.verify(one).isBusy();
+  }
+
+  @Test
+  public void trackedStateAnswersWithoutReadingTheMotor() {
+    when(one.getMode()).thenReturn(RunMode.RUN_WITHOUT_ENCODER);
+    DcMotor routed = actor.register(one);
+
+    assertEquals(RunMode.RUN_WITHOUT_ENCODER, routed.getMode());
+    routed.setMode(RunMode.RUN_TO_POSITION);
+    routed.setTargetPosition(42);
+    routed.setPower(0.3);
+
+    assertEquals(RunMode.RUN_TO_POSITION, routed.getMode());
+    assertEquals(42, routed.getTargetPosition());
+    assertEquals(0.3, routed.getPower(), 1e-9);
+    verify(one, times(1)).getMode();
+  }
+
+  @Test
+  public void tasksAndServoWritesRunOnTheActorThread() throws InterruptedException {
+    Servo servo = mock(Servo.class);
+    final AtomicReference<String> taskThread = new AtomicReference<>();
+    final CountDownLatch ran = new CountDownLatch(1);
+
+    actor.setPosition(servo, 0.1);
+    actor.setPosition(servo, 0.7);
+    actor.execute(new Runnable() {
+      @Override
+      public void run() {
+        taskThread.set(Thread.currentThread().getName());
+        ran.countDown();
+      }
+    });
+    actor.start();
+
+    assertTrue(ran.await(1, TimeUnit.SECONDS));
+    assertEquals("TestActor", taskThread.get());
+    verify(servo, never()).setPosition(0.1);
+    verify(servo).setPosition(0.7);
+  }
+
+  @Test
+  public void failingTaskIsRecordedAndTheActorKeepsRunning() throws InterruptedException {
+    final RuntimeException thrown = new IllegalStateException("I2C timeout");
+    DcMotor routed = actor.register(one);
+    actor.start();
+
+    actor.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw thrown;
+      }
+    });
+    routed.setPower(0.6);
+    routed.getCurrentPosition();
+
+    assertSame(thrown, actor.getFailure());
+    assertTrue(actor.isRunning());
+    verify(one).setPower(0.6);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void readBeforeStartFails() {
+    actor.register(one).getCurrentPosition();
+  }
+
+  @Test
+  public void writesAfterStopAreNotSent() throws InterruptedException {
+    DcMotor routed = actor.register(one);
+    actor.start();
+    actor.stop();
+
+    assertFalse(actor.isRunning());
+    routed.setPower(0);
+    verify(one, never()).setPower(0);
+  }
+}
@@ -0,0 +1,103 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HardwareSnapshotTest {
+
+  private final DcMotor one = mock(DcMotor.class),
+      two = mock(DcMotor.class),
+      three = mock(DcMotor.class);
+
+  private long now;
+  private final Clock clock = new Clock() {
+    @Override
+    public long nanoTime() {
+      return now;
+    }
+  };
+
+  private HardwareSnapshot snapshot = new HardwareSnapshot(10, clock);
+
+  @Before
+  public void setUp() {
+    when(one.getCurrentPosition()).thenReturn(120);
+    when(one.isBusy()).thenReturn(true);
+    when(one.getMode()).thenReturn(RunMode.RUN_TO_POSITION);
+  }
+
+  @Test
+  public void registeringTheSameMotorTwiceReturnsTheSameView() {
+    assertSame(snapshot.register(one), snapshot.register(one));
+  }
+
+  @Test
+  public void queriesWithinMaxAgeAreServedFromCache() {
+    DcMotor cached = snapshot.register(one);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(120, cached.getCurrentPosition());
+      assertTrue(cached.isBusy());
+    }
+
+    verify(one, times(1)).getCurrentPosition();
+    verify(one, times(1)).isBusy();
+    assertEquals(3, snapshot.getPhysicalReads());
+    assertEquals(10 - 3, snapshot.getReadsSaved());
+  }
+
+  @Test
+  public void queryAfterMaxAgeRefreshesCache() {
+    DcMotor cached = snapshot.register(one);
+    cached.getCurrentPosition();
+
+    when(one.getCurrentPosition()).thenReturn(150);
+    now += TimeUnit.MILLISECONDS.toNanos(5);
+    assertEquals(120, cached.getCurrentPosition());
+
+    now += TimeUnit.MILLISECONDS.toNanos(6);
+    assertEquals(150, cached.getCurrentPosition());
+  }
+
+  @Test
+  public void writeMarksOnlyThatMotorStale() {
+    DcMotor cachedOne = snapshot.register(one);
+    DcMotor cachedTwo = snapshot.register(two);
+    snapshot.refresh();
+
+    cachedOne.setMode(RunMode.RUN_USING_ENCODER);
+    when(one.getMode()).thenReturn(RunMode.RUN_USING_ENCODER);
+
+    assertEquals(RunMode.RUN_USING_ENCODER, cachedOne.getMode());
+    cachedTwo.getMode();
+
+    verify(one).setMode(RunMode.RUN_USING_ENCODER);
+    verify(one, times(2)).getMode();
+    verify(two, times(1)).getMode();
+  }
+
+  @Test
+  public void sharedMotorIsReadOncePerCycleAcrossPairs() {
+    MotorPair leftDiagonal = MotorPair.of(snapshot.register(one), snapshot.register(two));
+    MotorPair leftSide = MotorPair.of(snapshot.register(one), snapshot.register(three));
+    snapshot.refresh();
+
+    assertTrue(leftDiagonal.isBusy());
+    assertTrue(leftSide.isBusy());
+
+    verify(one, times(1)).isBusy();
+    verify(two, times(1)).isBusy();
+    verify(three, times(1)).isBusy();
+  }
+}
@@ -0,0 +1,78 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+  private final Histogram histogram = new Histogram();
+
+  @Test
+  public void emptyHistogramReportsZero() {
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getMean(), 0);
+    assertEquals(0, histogram.getPercentile(0.99));
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void smallValuesAreExact() {
+    for (int value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+
+    assertEquals(10, histogram.getCount());
+    assertEquals(5.5, histogram.getMean(), 1e-9);
+    assertEquals(5, histogram.getPercentile(0.5));
+    assertEquals(10, histogram.getPercentile(1));
+    assertEquals(10, histogram.getMax());
+  }
+
+  @Test
+  public void percentilesAreWithinBucketError() {
+    for (long value = 1; value <= 100000; value++) {
+      histogram.record(value * 1000);
+    }
+
+    assertWithinBucket(50000000, histogram.getPercentile(0.5));
+    assertWithinBucket(99000000, histogram.getPercentile(0.99));
+    assertEquals(100000000, histogram.getMax());
+  }
+
+  @Test
+  public void bucketsCoverEveryValue() {
+    long[] values = {0, 1, 15, 16, 17, 1000, 123456789, Long.MAX_VALUE};
+
+    for (long value : values) {
+      int bucket = Histogram.bucketOf(value);
+      assertTrue(Histogram.upperBoundOf(bucket) >= value);
+      if (bucket > 0) {
+        assertTrue(Histogram.upperBoundOf(bucket - 1) < value);
+      }
+    }
+  }
+
+  @Test
+  public void negativeValuesCountAsZero() {
+    histogram.record(-5);
+
+    assertEquals(1, histogram.getCount());
+    assertEquals(0, histogram.getMax());
+  }
+
+  @Test
+  public void resetDiscardsValues() {
+    histogram.record(100);
+    histogram.reset();
+
+    assertEquals(0, histogram.getCount());
+    assertEquals(0, histogram.getPercentile(0.5));
+  }
+
+  private static void assertWithinBucket(long expected, long actual) {
+    assertTrue(actual >= expected);
+    assertTrue(actual <= expected + expected / Histogram.SUB_BUCKETS);
+  }
+}
@@ -0,0 +1,121 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.utilities.MotorTimings.Operation;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class InstrumentedMotorTest {
+
+  private final MotorTimingRecorder recorder = new MotorTimingRecorder();
+  private final DcMotor physical = mock(DcMotor.class);
+  private final IMotor adapted = mock(IMotor.class);
+
+  @Test
+  public void forwardsAndTimesDcMotorCalls() {
+    when(physical.getCurrentPosition()).thenReturn(42);
+    when(physical.isBusy()).thenReturn(true);
+    DcMotor motor = recorder.instrument("motorFL", physical);
+
+    motor.setPower(0.5);
+    motor.setPower(0.25);
+    motor.setMode(RunMode.RUN_TO_POSITION);
+    assertEquals(42, motor.getCurrentPosition());
+    assertTrue(motor.isBusy());
+
+    verify(physical).setPower(0.5);
+    verify(physical).setMode(RunMode.RUN_TO_POSITION);
+    MotorTimings timings = recorder.getTimings().get(0);
+    assertEquals("motorFL", timings.getName());
+    assertEquals(2, timings.get(Operation.SET_POWER).getCount());
+    assertEquals(1, timings.get(Operation.SET_MODE).getCount());
+    assertEquals(1, timings.get(Operation.GET_CURRENT_POSITION).getCount());
+    assertEquals(1, timings.get(Operation.IS_BUSY).getCount());
+  }
+
+  @Test
+  public void timesIMotorCalls() {
+    IMotor motor = recorder.instrument("left", adapted);
+
+    motor.startRunToPosition(100, 0.5);
+    motor.addTargetPosition(10);
+    motor.isBusy();
+
+    verify(adapted).startRunToPosition(100, 0.5);
+    MotorTimings timings = ((InstrumentedMotor) motor).getTimings();
+    assertSame(recorder.getTimings().get(0), timings);
+    assertEquals(1, timings.get(Operation.RUN_TO_POSITION).getCount());
+    assertEquals(1, timings.get(Operation.SET_TARGET_POSITION).getCount());
+    assertEquals(1, timings.get(Operation.IS_BUSY).getCount());
+  }
+
+  @Test
+  public void recordsLatencyOfSlowCalls() {
+    when(physical.isBusy()).then(new Answer<Boolean>() {
+      @Override
+      public Boolean answer(InvocationOnMock invocation) throws InterruptedException {
+        Thread.sleep(5);
+        return false;
+      }
+    });
+    DcMotor motor = recorder.instrument("slow", physical);
+
+    motor.isBusy();
+
+    assertTrue(recorder.getTimings().get(0).get(Operation.IS_BUSY).getMax() >= 5e6);
+  }
+
+  @Test
+  public void disabledTimingsStillForwardCalls() {
+    recorder.setEnabled(false);
+    DcMotor motor = recorder.instrument("motorFL", physical);
+
+    motor.setPower(1);
+    recorder.instrument("left", adapted).setPower(1);
+
+    verify(physical).setPower(1);
+    verify(adapted).setPower(1);
+    for (MotorTimings timings : recorder.getTimings()) {
+      assertEquals(0, timings.get(Operation.SET_POWER).getCount());
+    }
+  }
+
+  @Test
+  public void writesCsvRowPerTimedOperation() throws Exception {
+    DcMotor motor = recorder.instrument("motorFL", physical);
+    motor.setPower(1);
+    motor.getCurrentPosition();
+
+    StringBuilder csv = new StringBuilder();
+    recorder.writeCsv(csv);
+
+    String[] rows = csv.toString().split("\n");
+    assertEquals(3, rows.length);
+    assertEquals("motor,operation,count,mean_us,p50_us,p99_us,max_us", rows[0]);
+    assertTrue(rows[1].startsWith("motorFL,SET_POWER,1,"));
+    assertTrue(rows[2].startsWith("motorFL,GET_CURRENT_POSITION,1,"));
+  }
+
+  @Test
+  public void reportsToTelemetry() {
+    Telemetry telemetry = mock(Telemetry.class);
+    recorder.instrument("left", adapted).setMode(RunMode.RUN_USING_ENCODER);
+
+    recorder.report(telemetry);
+
+    verify(telemetry).addData(eq("left SET_MODE"), anyString(), ArgumentMatchers.<Object>any());
+  }
+}
@@ -0,0 +1,125 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ModeTransitionTest {
+
+  private final IMotor one = mock(IMotor.class),
+      two = mock(IMotor.class);
+
+  @Test
+  public void modeIsConfirmedOnceEveryMotorIsWritten() throws InterruptedException {
+    Histogram latency = new Histogram();
+    ModeTransition transition = ModeTransition.start(new IMotor[]{one, two},
+        RunMode.RUN_USING_ENCODER, Clock.SYSTEM, Sleeper.SYSTEM, latency);
+
+    assertTrue(transition.await(1, TimeUnit.SECONDS));
+
+    verify(one).setMode(RunMode.RUN_USING_ENCODER);
+    verify(two).setMode(RunMode.RUN_USING_ENCODER);
+    assertEquals(0, transition.getUnconfirmedCount());
+    assertEquals(1, latency.getCount());
+    assertTrue(transition.getLatencyNanos() >= 0);
+  }
+
+  @Test
+  public void resetWaitsForEveryPositionToReadZero() throws InterruptedException {
+    when(one.isEncoderReset()).thenReturn(true);
+    when(two.isEncoderReset()).thenReturn(false);
+
+    ModeTransition transition = ModeTransition.start(new IMotor[]{one, two},
+        RunMode.STOP_AND_RESET_ENCODER);
+
+    assertFalse(transition.await(20, TimeUnit.MILLISECONDS));
+    assertEquals(1, transition.getUnconfirmedCount());
+    assertEquals(-1, transition.getLatencyNanos());
+
+    when(two.isEncoderReset()).thenReturn(true);
+
+    assertTrue(transition.await(1, TimeUnit.SECONDS));
+    assertEquals(0, transition.getUnconfirmedCount());
+  }
+
+  @Test
+  public void resetOfAPairWaitsForBothPhysicalMotors() throws InterruptedException {
+    DcMotor first = mock(DcMotor.class), second = mock(DcMotor.class);
+    when(first.getCurrentPosition()).thenReturn(1);
+    when(second.getCurrentPosition()).thenReturn(0);
+
+    ModeTransition transition = ModeTransition.start(new IMotor[]{MotorPair.of(first, second)},
+        RunMode.STOP_AND_RESET_ENCODER);
+
+    assertFalse(transition.await(20, TimeUnit.MILLISECONDS));
+
+    when(first.getCurrentPosition()).thenReturn(0);
+
+    assertTrue(transition.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void motorsAreWrittenAtTheSameTime() throws InterruptedException {
+    final CountDownLatch bothWriting = new CountDownLatch(2);
+    Answer<Void> waitForTheOther = new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws InterruptedException {
+        bothWriting.countDown();
+        if (!bothWriting.await(1, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("The other motor was not written concurrently");
+        }
+        return null;
+      }
+    };
+    doAnswer(waitForTheOther).when(one).setMode(RunMode.RUN_TO_POSITION);
+    doAnswer(waitForTheOther).when(two).setMode(RunMode.RUN_TO_POSITION);
+
+    ModeTransition transition = ModeTransition.start(new IMotor[]{one, two},
+        RunMode.RUN_TO_POSITION);
+
+    assertTrue(transition.await(2, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void failedWriteIsRethrown() throws InterruptedException {
+    doThrow(new IllegalStateException("Hub disconnected"))
+        .when(two).setMode(RunMode.RUN_USING_ENCODER);
+
+    ModeTransition transition = ModeTransition.start(new IMotor[]{one, two},
+        RunMode.RUN_USING_ENCODER);
+
+    try {
+      transition.await(1, TimeUnit.SECONDS);
+      fail("Expected the failure of the write");
+    } catch (IllegalStateException expected) {
+      assertEquals("Hub disconnected", expected.getMessage());
+    }
+  }
+
+  @Test
+  public void uninterruptibleWaitRestoresTheInterruptFlag() {
+    when(one.isEncoderReset()).thenReturn(true);
+    ModeTransition transition = ModeTransition.start(new IMotor[]{one},
+        RunMode.STOP_AND_RESET_ENCODER);
+
+    Thread.currentThread().interrupt();
+    boolean done = transition.awaitUninterruptibly(1, TimeUnit.SECONDS);
+
+    assertTrue(Thread.interrupted());
+    assertTrue(done);
+  }
+}
@@ -0,0 +1,156 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+public class MotorCommandBufferTest {
+
+  private final DcMotor one = mock(DcMotor.class),
+      two = mock(DcMotor.class),
+      three = mock(DcMotor.class),
+      four = mock(DcMotor.class);
+
+  private final MotorCommandBuffer buffer = new MotorCommandBuffer();
+
+  @Test
+  public void writesWaitForFlush() {
+    buffer.register(one).setPower(0.5);
+    verify(one, never()).setPower(anyDouble());
+
+    buffer.flush();
+    verify(one).setPower(0.5);
+  }
+
+  @Test
+  public void unchangedWriteIsDropped() {
+    DcMotor buffered = buffer.register(one);
+
+    buffered.setPower(0.5);
+    buffer.flush();
+    buffered.setPower(0.5);
+    buffer.flush();
+
+    verify(one, times(1)).setPower(0.5);
+    assertEquals(1, buffer.getLastCycleWritesAvoided());
+  }
+
+  @Test
+  public void writesToSharedMotorAreMerged() {
+    MotorPair diagonal = MotorPair.of(buffer.register(one), buffer.register(two));
+    MotorPair side = MotorPair.of(buffer.register(one), buffer.register(three));
+
+    diagonal.setPower(0.3);
+    side.setPower(0.7);
+    buffer.flush();
+
+    verify(one, never()).setPower(0.3);
+    verify(one).setPower(0.7);
+    verify(two).setPower(0.3);
+    verify(three).setPower(0.7);
+    assertEquals(1, buffer.getLastCycleWritesAvoided());
+  }
+
+  @Test
+  public void modeIsWrittenBeforePower() {
+    DcMotor buffered = buffer.register(one);
+
+    buffered.setPower(0.2);
+    buffered.setMode(RunMode.RUN_WITHOUT_ENCODER);
+    buffer.flush();
+
+    InOrder order = inOrder(one);
+    order.verify(one).setMode(RunMode.RUN_WITHOUT_ENCODER);
+    order.verify(one).setPower(0.2);
+  }
+
+  @Test
+  public void readSendsPendingWritesFirst() {
+    MotorAdapter adapter = new MotorAdapter(buffer.register(one));
+
+    adapter.startRunToPosition(100, 0.5);
+    adapter.isBusy();
+
+    InOrder order = inOrder(one);
+    order.verify(one).setMode(RunMode.RUN_TO_POSITION);
+    order.verify(one).getCurrentPosition();
+    order.verify(one).setTargetPosition(100);
+    order.verify(one).setPower(0.5);
+    order.verify(one).isBusy();
+  }
+
+  @Test
+  public void encoderResetIsNotMergedAway() {
+    DcMotor buffered = buffer.register(one);
+
+    buffered.setMode(RunMode.STOP_AND_RESET_ENCODER);
+    buffered.setMode(RunMode.RUN_USING_ENCODER);
+    buffer.flush();
+
+    InOrder order = inOrder(one);
+    order.verify(one).setMode(RunMode.STOP_AND_RESET_ENCODER);
+    order.verify(one).setMode(RunMode.RUN_USING_ENCODER);
+  }
+
+  @Test
+  public void powerIsResentAfterEncoderReset() {
+    DcMotor buffered = buffer.register(one);
+
+    buffered.setPower(0.5);
+    buffer.flush();
+    buffered.setMode(RunMode.STOP_AND_RESET_ENCODER);
+    buffer.flush();
+    buffered.setMode(RunMode.RUN_USING_ENCODER);
+    buffered.setPower(0.5);
+    buffer.flush();
+
+    InOrder order = inOrder(one);
+    order.verify(one).setPower(0.5);
+    order.verify(one).setMode(RunMode.STOP_AND_RESET_ENCODER);
+    order.verify(one).setMode(RunMode.RUN_USING_ENCODER);
+    order.verify(one).setPower(0.5);
+  }
+
+  @Test
+  public void repeatedEncoderResetIsSent() {
+    DcMotor buffered = buffer.register(one);
+
+    buffered.setMode(RunMode.STOP_AND_RESET_ENCODER);
+    buffer.flush();
+    buffer.flush();
+    buffered.setMode(RunMode.STOP_AND_RESET_ENCODER);
+    buffer.flush();
+
+    verify(one, times(2)).setMode(RunMode.STOP_AND_RESET_ENCODER);
+  }
+
+  @Test
+  public void repeatedTeleOpLoopWritesEachMotorOnce() {
+    MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+        buffer.register(one), buffer.register(two), buffer.register(three), buffer.register(four),
+        mock(OpMode.class), 5, 100);
+
+    for (int cycle = 0; cycle < 3; cycle++) {
+      drive.setStrafe(0.5, 0.7, 1);
+      buffer.flush();
+    }
+
+    for (DcMotor motor : new DcMotor[]{one, two, three, four}) {
+      verify(motor, times(1)).setMode(RunMode.RUN_WITHOUT_ENCODER);
+      verify(motor, times(1)).setPower(anyDouble());
+    }
+    // One mode write and one power write per wheel, neither of which changes anything
+    assertEquals(8, buffer.getLastCycleWritesAvoided());
+  }
+}
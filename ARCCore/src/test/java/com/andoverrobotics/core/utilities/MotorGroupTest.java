@@ -0,0 +1,176 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.andoverrobotics.core.utilities.MotorGroup.Dispatch;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import com.qualcomm.robotcore.hardware.DcMotorController;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class MotorGroupTest {
+
+  private final DcMotorController hubOne = mock(DcMotorController.class),
+      hubTwo = mock(DcMotorController.class);
+  private final DcMotor one = motorOn(hubOne),
+      two = motorOn(hubOne),
+      three = motorOn(hubTwo),
+      four = motorOn(hubTwo);
+
+  private final MotorGroup group = MotorGroup.of(
+      new DcMotor[]{one, two, three, four}, new double[]{1, -1, 0.5, -0.5});
+
+  @After
+  public void tearDown() {
+    group.shutdown();
+  }
+
+  @Test
+  public void groupsMotorsByController() {
+    assertEquals(2, group.getHubCount());
+    assertEquals(4, MotorGroup.of(mock(DcMotor.class), mock(DcMotor.class), mock(DcMotor.class),
+        mock(DcMotor.class)).getHubCount());
+  }
+
+  @Test
+  public void setPowerAppliesScales() {
+    group.setPower(0.8);
+
+    verify(one).setPower(0.8);
+    verify(two).setPower(-0.8);
+    verify(three).setPower(0.4);
+    verify(four).setPower(-0.4);
+  }
+
+  @Test
+  public void startRunToPositionScalesOffsetsAndPowers() {
+    when(one.getCurrentPosition()).thenReturn(100);
+    when(four.getCurrentPosition()).thenReturn(-30);
+    group.setDispatch(Dispatch.PARALLEL);
+
+    group.startRunToPosition(-200, 0.6);
+
+    verify(one).setMode(RunMode.RUN_TO_POSITION);
+    verify(one).setTargetPosition(-100);
+    verify(one).setPower(-0.6);
+    verify(two).setTargetPosition(200);
+    verify(two).setPower(0.6);
+    verify(three).setTargetPosition(-100);
+    verify(three).setPower(-0.3);
+    verify(four).setTargetPosition(70);
+    verify(four).setPower(0.3);
+  }
+
+  @Test
+  public void getCurrentPositionAveragesScaledPositions() {
+    when(one.getCurrentPosition()).thenReturn(100);
+    when(two.getCurrentPosition()).thenReturn(-120);
+    when(three.getCurrentPosition()).thenReturn(45);
+    when(four.getCurrentPosition()).thenReturn(-55);
+
+    assertEquals(105, group.getCurrentPosition());
+    group.setDispatch(Dispatch.PARALLEL);
+    assertEquals(105, group.getCurrentPosition());
+  }
+
+  @Test
+  public void isBusyIfAnyMotorIsBusy() {
+    group.setDispatch(Dispatch.PARALLEL);
+    assertFalse(group.isBusy());
+
+    when(four.isBusy()).thenReturn(true);
+    assertTrue(group.isBusy());
+  }
+
+  @Test
+  public void parallelDispatchCommandsHubsFromDifferentThreads() {
+    final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    Answer<Integer> recordThread = new Answer<Integer>() {
+      @Override
+      public Integer answer(InvocationOnMock invocation) {
+        threads.add(Thread.currentThread());
+        return 0;
+      }
+    };
+    when(one.getCurrentPosition()).then(recordThread);
+    when(three.getCurrentPosition()).then(recordThread);
+
+    group.setDispatch(Dispatch.PARALLEL);
+    group.getCurrentPosition();
+
+    assertEquals(2, threads.size());
+    assertTrue(threads.contains(Thread.currentThread()));
+  }
+
+  // Each hub's read waits inside the hub call until the other hub's read has started, which can
+  // only happen if the hubs are read at the same time
+  @Test
+  public void parallelDispatchOverlapsSlowHubs() {
+    final CountDownLatch bothHubsReading = new CountDownLatch(2);
+    final AtomicInteger overlappingReads = new AtomicInteger();
+    Answer<Integer> slowRead = new Answer<Integer>() {
+      @Override
+      public Integer answer(InvocationOnMock invocation) throws InterruptedException {
+        bothHubsReading.countDown();
+        if (bothHubsReading.await(5, TimeUnit.SECONDS)) {
+          overlappingReads.incrementAndGet();
+        }
+        return 0;
+      }
+    };
+    when(one.getCurrentPosition()).then(slowRead);
+    when(three.getCurrentPosition()).then(slowRead);
+
+    group.setDispatch(Dispatch.PARALLEL);
+    group.getCurrentPosition();
+
+    assertEquals(2, overlappingReads.get());
+    assertEquals(1, group.getLatency(Dispatch.PARALLEL).getCount());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void failureOnHubThreadIsRethrown() {
+    when(four.isBusy()).thenThrow(new IllegalStateException("Hub disconnected"));
+    group.setDispatch(Dispatch.PARALLEL);
+
+    group.isBusy();
+  }
+
+  @Test
+  public void shutdownFallsBackToSerialDispatch() {
+    group.setDispatch(Dispatch.PARALLEL);
+    group.setPower(1);
+    group.shutdown();
+
+    assertEquals(Dispatch.SERIAL, group.getDispatch());
+    group.setPower(0);
+    verify(three).setPower(0.0);
+    assertNotEquals(0, group.getLatency(Dispatch.SERIAL).getCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void rejectsZeroScale() {
+    MotorGroup.of(new DcMotor[]{one}, new double[]{0});
+  }
+
+  private static DcMotor motorOn(DcMotorController controller) {
+    DcMotor motor = mock(DcMotor.class);
+    when(motor.getController()).thenReturn(controller);
+    return motor;
+  }
+}
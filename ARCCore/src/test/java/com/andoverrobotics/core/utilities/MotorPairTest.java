@@ -1,5 +1,6 @@
 package com.andoverrobotics.core.utilities;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -55,6 +56,28 @@ public class MotorPairTest {
     verify(two).setMode(RunMode.RUN_USING_ENCODER);
   }
 
+  @Test
+  public void isEncoderResetRequiresBothMotorsAtZero() {
+    when(one.getCurrentPosition()).thenReturn(5);
+    when(two.getCurrentPosition()).thenReturn(-5);
+
+    assertEquals(0, pair.getCurrentPosition());
+    assertFalse(pair.isEncoderReset());
+
+    when(one.getCurrentPosition()).thenReturn(0);
+    when(two.getCurrentPosition()).thenReturn(0);
+
+    assertTrue(pair.isEncoderReset());
+  }
+
+  @Test
+  public void getCurrentPositionAveragesBothMotors() {
+    when(one.getCurrentPosition()).thenReturn(100);
+    when(two.getCurrentPosition()).thenReturn(60);
+
+    assertEquals(80, pair.getCurrentPosition());
+  }
+
   @Test
   public void isBusy() {
     when(one.isBusy()).thenReturn(true);
@@ -0,0 +1,58 @@
+package com.andoverrobotics.core.utilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class Vector2Test {
+
+  private final Vector2 vector = new Vector2(3, 4);
+
+  @Test
+  public void operationsChangeVectorInPlace() {
+    assertSame(vector, vector.add(1, 1).scale(2).subtract(new Vector2(2, 2)));
+    assertEquals(6, vector.getX(), 1e-9);
+    assertEquals(8, vector.getY(), 1e-9);
+    assertEquals(10, vector.getLength(), 1e-9);
+  }
+
+  @Test
+  public void rotatesCounterClockwise() {
+    vector.rotate(Math.PI / 2);
+
+    assertEquals(-4, vector.getX(), 1e-9);
+    assertEquals(3, vector.getY(), 1e-9);
+  }
+
+  @Test
+  public void rotatesByPrecomputedAngle() {
+    vector.set(1, 1).rotate(Vector2.COS_45, -Vector2.SIN_45);
+
+    assertEquals(Math.sqrt(2), vector.getX(), 1e-9);
+    assertEquals(0, vector.getY(), 1e-9);
+  }
+
+  @Test
+  public void rotateMatchesCoordinate() {
+    Coordinate rotated = Coordinate.fromXY(3, 4).rotate(-45);
+    vector.rotate(Math.toRadians(-45));
+
+    assertEquals(rotated.getX(), vector.getX(), 1e-9);
+    assertEquals(rotated.getY(), vector.getY(), 1e-9);
+  }
+
+  @Test
+  public void poseConvertsFieldVectorsToRobotFrame() {
+    Pose2d pose = new Pose2d(10, 10, Math.PI / 2);
+
+    // Facing the positive y-axis, the positive x-axis of the field is to the right
+    Vector2 relative = pose.toRelative(new Vector2(5, 0));
+    assertEquals(5, relative.getX(), 1e-9);
+    assertEquals(0, relative.getY(), 1e-9);
+
+    pose.translateRelative(2, 3);
+    assertEquals(12, pose.getX(), 1e-9);
+    assertEquals(13, pose.getY(), 1e-9);
+  }
+}
@@ -0,0 +1,91 @@
+package com.andoverrobotics.core.benchmarks;
+
+import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.FastMath;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the angle normalization of {@link Converter}, for headings near the normal range and for
+ * accumulated ones, and the trigonometry of {@link FastMath} against {@link Math}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AngleBenchmark {
+
+  private static final int INPUTS = 1024;
+
+  private final double[] headings = new double[INPUTS];
+  private final double[] accumulatedHeadings = new double[INPUTS];
+  private final double[] radians = new double[INPUTS];
+  private final double[] pointsX = new double[INPUTS];
+  private final double[] pointsY = new double[INPUTS];
+  private final FastMath fastMath = FastMath.DEFAULT;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(2018);
+    for (int i = 0; i < INPUTS; i++) {
+      headings[i] = random.nextDouble() * 1080 - 360;
+      accumulatedHeadings[i] = (random.nextDouble() * 2 - 1) * 360 * 1e5;
+      radians[i] = random.nextDouble() * 4 * Math.PI - 2 * Math.PI;
+      pointsX[i] = random.nextGaussian();
+      pointsY[i] = random.nextGaussian();
+    }
+  }
+
+  @Benchmark
+  public double normalizedDegrees() {
+    return Converter.normalizedDegrees(headings[nextInput()]);
+  }
+
+  @Benchmark
+  public double normalizedDegreesAccumulated() {
+    return Converter.normalizedDegrees(accumulatedHeadings[nextInput()]);
+  }
+
+  @Benchmark
+  public double degreesToRadians() {
+    return Converter.degreesToRadians(headings[nextInput()]);
+  }
+
+  @Benchmark
+  public double shortestTurnRadians() {
+    return Converter.shortestTurnRadians(radians[nextInput()]);
+  }
+
+  @Benchmark
+  public double sinMath() {
+    return Math.sin(radians[nextInput()]);
+  }
+
+  @Benchmark
+  public double sinFastMath() {
+    return fastMath.sin(radians[nextInput()]);
+  }
+
+  @Benchmark
+  public double atan2Math() {
+    int input = nextInput();
+    return Math.atan2(pointsY[input], pointsX[input]);
+  }
+
+  @Benchmark
+  public double atan2FastMath() {
+    int input = nextInput();
+    return fastMath.atan2(pointsY[input], pointsX[input]);
+  }
+
+  private int nextInput() {
+    return next++ & (INPUTS - 1);
+  }
+}
@@ -0,0 +1,64 @@
+package com.andoverrobotics.core.benchmarks;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.simulation.SegmentTimer;
+import com.andoverrobotics.core.simulation.SimulatedClock;
+import com.andoverrobotics.core.simulation.SimulatedMotor;
+import java.util.Locale;
+
+/**
+ * Runs the drive path of the Rover Ruckus autonomous on simulated NeveRest 40s, and prints the time
+ * that the robot would take for each segment and for the whole path:
+ *
+ * <pre>
+ *   ./gradlew :ARCCoreBenchmarks:simulateAutonomous
+ * </pre>
+ *
+ * The path is the one of AutonomousMaster: it clears the lander after unlatching, then samples the
+ * minerals in the worst case, where the gold is the last one checked.
+ */
+public class AutonomousSimulation {
+
+  // The drivetrain constants of AutonomousMaster
+  private static final int TICKS_PER_INCH = 125, TICKS_PER_360 = 7768;
+  private static final double DISTANCE_BETWEEN_MINERALS = 14.5,
+      DISTANCE_TO_MINERALS = 1.25 * Math.hypot(18, 14);
+
+  public static void main(String[] args) {
+    SimulatedClock clock = new SimulatedClock();
+    MecanumDrive drive = MecanumDrive.fromCrossedMotors(
+        new SimulatedMotor("motorFL", clock), new SimulatedMotor("motorFR", clock),
+        new SimulatedMotor("motorBL", clock), new SimulatedMotor("motorBR", clock),
+        null, TICKS_PER_INCH, TICKS_PER_360);
+    drive.setTimeSource(clock, clock);
+    SegmentTimer timer = new SegmentTimer(clock);
+
+    long wallStart = System.nanoTime();
+
+    timer.begin("clear latch: strafe right");
+    drive.strafeRight(5, 0.75);
+    timer.begin("clear latch: forwards");
+    drive.driveForwards(8, 0.75);
+    timer.begin("clear latch: strafe left");
+    drive.strafeLeft(5, 0.75);
+
+    timer.begin("sample: strafe to second");
+    drive.strafeInches(DISTANCE_BETWEEN_MINERALS, 0, 0.5);
+    timer.begin("sample: strafe to third");
+    drive.strafeInches(-2 * DISTANCE_BETWEEN_MINERALS, 0, 0.5);
+    timer.begin("sample: hit gold");
+    drive.driveForwards(DISTANCE_TO_MINERALS, 0.5);
+    timer.begin("sample: back up");
+    drive.driveBackwards(DISTANCE_TO_MINERALS, 0.5);
+    timer.begin("sample: return to start");
+    drive.strafeInches(DISTANCE_BETWEEN_MINERALS, 0, 0.5);
+    timer.end();
+
+    double wallSeconds = (System.nanoTime() - wallStart) / 1e9;
+    double pathSeconds = timer.getTotalNanos() / 1e9;
+
+    System.out.print(timer);
+    System.out.printf(Locale.US, "simulated in %.3f s of wall time (%.0fx real time)%n",
+        wallSeconds, pathSeconds / wallSeconds);
+  }
+}
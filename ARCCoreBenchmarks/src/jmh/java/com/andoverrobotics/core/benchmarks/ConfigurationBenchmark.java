@@ -0,0 +1,127 @@
+package com.andoverrobotics.core.benchmarks;
+
+import com.andoverrobotics.core.config.Configuration;
+import com.andoverrobotics.core.config.ConfigurationSnapshot;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link Configuration#loadToSchema} for a schema with one field of each supported type,
+ * and the retrieval of single values, against the reflective loader and the parsing on every
+ * retrieval that Configuration used before it compiled schemas and parsed values in advance; and
+ * the loading of a properties file of {@value #FILE_ENTRIES} entries from its text and from its
+ * {@link ConfigurationSnapshot}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConfigurationBenchmark {
+
+  private static final int FILE_ENTRIES = 40;
+
+  private Configuration configuration;
+  private Map<String, String> map;
+  private File propertiesFile;
+
+  // Must be static, so that it has no field that refers to the enclosing instance
+  public static class Schema {
+
+    public int autonomousTrials;
+    public double motorSpeed;
+    public boolean useEncoders;
+    public boolean useSensors;
+    public String robotName;
+  }
+
+  @Setup
+  public void setUp() throws IOException {
+    map = new HashMap<>();
+    map.put("autonomousTrials", "4");
+    map.put("motorSpeed", "0.412");
+    map.put("useEncoders", "false");
+    map.put("useSensors", "true");
+    map.put("robotName", "BenchmarkBot");
+    configuration = Configuration.from(map);
+
+    propertiesFile = File.createTempFile("benchmark", ".properties");
+    propertiesFile.deleteOnExit();
+    ConfigurationSnapshot.snapshotOf(propertiesFile).deleteOnExit();
+    Writer writer = new FileWriter(propertiesFile);
+    try {
+      for (int i = 0; i < FILE_ENTRIES; i++) {
+        writer.write("gain" + i + "=" + (0.001 * i) + "\n");
+      }
+    } finally {
+      writer.close();
+    }
+    // Generates the snapshot, so that loadSnapshot measures only the loads that use it
+    ConfigurationSnapshot.load(propertiesFile);
+  }
+
+  @Benchmark
+  public Schema loadToSchema() {
+    return configuration.loadToSchema(new Schema());
+  }
+
+  @Benchmark
+  public Schema reflectiveLoadToSchema() throws IllegalAccessException {
+    Schema schema = new Schema();
+    for (Field field : Schema.class.getDeclaredFields()) {
+      String name = field.getName();
+      switch (field.getType().getCanonicalName()) {
+        case "int":
+          field.setInt(schema, Integer.parseInt(map.get(name)));
+          break;
+        case "double":
+          field.setDouble(schema, Double.parseDouble(map.get(name)));
+          break;
+        case "boolean":
+          field.setBoolean(schema, Boolean.parseBoolean(map.get(name)));
+          break;
+        default:
+          field.set(schema, map.get(name));
+      }
+    }
+    return schema;
+  }
+
+  @Benchmark
+  public double getDouble() {
+    return configuration.getDouble("motorSpeed");
+  }
+
+  @Benchmark
+  public double parsedGetDouble() {
+    return Double.parseDouble(map.get("motorSpeed"));
+  }
+
+  @Benchmark
+  public Configuration loadPropertiesText() throws IOException {
+    Reader reader = new FileReader(propertiesFile);
+    try {
+      return Configuration.fromProperties(reader);
+    } finally {
+      reader.close();
+    }
+  }
+
+  @Benchmark
+  public Configuration loadSnapshot() throws IOException {
+    return ConfigurationSnapshot.load(propertiesFile);
+  }
+}
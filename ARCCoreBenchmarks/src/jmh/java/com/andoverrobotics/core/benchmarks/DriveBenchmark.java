@@ -0,0 +1,131 @@
+package com.andoverrobotics.core.benchmarks;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.MecanumKinematics;
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
+import com.qualcomm.robotcore.hardware.DcMotor.RunMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the TeleOp commands of {@link MecanumDrive}, which run on every loop, for a drivetrain
+ * built from its four wheels and for one built from diagonal and side pairs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DriveBenchmark {
+
+  private static final int INPUTS = 1024;
+
+  private final double[] sticksX = new double[INPUTS];
+  private final double[] sticksY = new double[INPUTS];
+  private int next;
+
+  private MecanumDrive wheelDrive;
+  private MecanumDrive pairDrive;
+
+  @Setup
+  public void setUp() {
+    // Never called by the commands; stubOnly keeps Mockito from recording invocations
+    OpMode opMode = mock(OpMode.class, withSettings().stubOnly());
+
+    wheelDrive = new MecanumDrive(new SinkMotor(), new SinkMotor(), new SinkMotor(),
+        new SinkMotor(), MecanumKinematics.crossed(), opMode, 5, 100);
+    pairDrive = new MecanumDrive(new SinkMotor(), new SinkMotor(), new SinkMotor(),
+        new SinkMotor(), opMode, 5, 100);
+
+    Random random = new Random(2018);
+    for (int i = 0; i < INPUTS; i++) {
+      sticksX[i] = random.nextDouble() * 2 - 1;
+      sticksY[i] = random.nextDouble() * 2 - 1;
+    }
+  }
+
+  @Benchmark
+  public void setStrafeWheels() {
+    int input = nextInput();
+    wheelDrive.setStrafe(sticksX[input], sticksY[input], 0.8);
+  }
+
+  @Benchmark
+  public void setStrafePairs() {
+    int input = nextInput();
+    pairDrive.setStrafe(sticksX[input], sticksY[input], 0.8);
+  }
+
+  @Benchmark
+  public void setStrafeCoordinateWheels() {
+    int input = nextInput();
+    wheelDrive.setStrafe(Coordinate.fromXY(sticksX[input], sticksY[input]), 0.8);
+  }
+
+  @Benchmark
+  public void setMovementAndRotationWheels() {
+    int input = nextInput();
+    wheelDrive.setMovementAndRotation(sticksY[input], sticksX[input]);
+  }
+
+  @Benchmark
+  public void setMovementAndRotationPairs() {
+    int input = nextInput();
+    pairDrive.setMovementAndRotation(sticksY[input], sticksX[input]);
+  }
+
+  private int nextInput() {
+    return next++ & (INPUTS - 1);
+  }
+
+  // Keeps the commands observable without measuring the invocation recording of a Mockito mock,
+  // which would dominate both the time and the allocation of every call
+  private static class SinkMotor implements IMotor {
+
+    double totalPower;
+    RunMode mode;
+
+    @Override
+    public void setPower(double power) {
+      totalPower += power;
+    }
+
+    @Override
+    public void addTargetPosition(int tickOffset) {
+    }
+
+    @Override
+    public void startRunToPosition(int tickOffset, double power) {
+    }
+
+    @Override
+    public void setMode(RunMode mode) {
+      this.mode = mode;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+      return 0;
+    }
+
+    @Override
+    public boolean isEncoderReset() {
+      return true;
+    }
+
+    @Override
+    public boolean isBusy() {
+      return false;
+    }
+  }
+}
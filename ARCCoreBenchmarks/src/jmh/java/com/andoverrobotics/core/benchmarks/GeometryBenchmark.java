@@ -0,0 +1,76 @@
+package com.andoverrobotics.core.benchmarks;
+
+import com.andoverrobotics.core.utilities.Coordinate;
+import com.andoverrobotics.core.utilities.FastMath;
+import com.andoverrobotics.core.utilities.Vector2;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the rotations and polar conversions of {@link Coordinate}, against the in-place
+ * rotation of {@link Vector2}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeometryBenchmark {
+
+  private static final int INPUTS = 1024;
+
+  private final Coordinate[] coordinates = new Coordinate[INPUTS];
+  private final int[] degrees = new int[INPUTS];
+  private final double[] distances = new double[INPUTS];
+  private final Vector2 vector = new Vector2();
+  private int next;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(2018);
+    for (int i = 0; i < INPUTS; i++) {
+      coordinates[i] = Coordinate.fromXY(random.nextDouble() * 48 - 24,
+          random.nextDouble() * 48 - 24);
+      degrees[i] = random.nextInt(720) - 360;
+      distances[i] = random.nextDouble() * 24;
+    }
+  }
+
+  @Benchmark
+  public Coordinate coordinateRotate() {
+    int input = nextInput();
+    return coordinates[input].rotate(degrees[input]);
+  }
+
+  @Benchmark
+  public Coordinate coordinateRotateFastMath() {
+    int input = nextInput();
+    return coordinates[input].rotate(degrees[input], FastMath.DEFAULT);
+  }
+
+  @Benchmark
+  public Coordinate coordinateFromPolar() {
+    int input = nextInput();
+    return Coordinate.fromPolar(distances[input], degrees[input]);
+  }
+
+  @Benchmark
+  public double coordinatePolarDirection() {
+    return coordinates[nextInput()].getPolarDirection();
+  }
+
+  @Benchmark
+  public double vectorRotateInPlace() {
+    int input = nextInput();
+    return vector.set(coordinates[input]).rotate(Vector2.COS_45, -Vector2.SIN_45).getX();
+  }
+
+  private int nextInput() {
+    return next++ & (INPUTS - 1);
+  }
+}
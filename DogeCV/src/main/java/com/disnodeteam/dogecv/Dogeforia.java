@@ -33,7 +33,6 @@ import org.firstinspires.ftc.robotcore.internal.vuforia.externalprovider.Vuforia
 import org.opencv.android.JavaCameraView;
 import org.opencv.android.Utils;
 import org.opencv.core.Core;
-import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.Point;
 import org.opencv.core.Scalar;
@@ -58,7 +57,7 @@ public class Dogeforia extends VuforiaLocalizerImpl {
     Thread workerThread;
     Bitmap outputImage;
     Bitmap bitmap;
-    Mat inputMat;
+    Mat inputMat = new Mat(); // Kept from frame to frame, so that its buffer is reused
     Mat outMat;
     BlockingQueue<CloseableFrame> frames;
     public Dogeforia(Parameters parameters) {
@@ -114,7 +113,6 @@ public class Dogeforia extends VuforiaLocalizerImpl {
 
             bitmap = convertFrameToBitmap(frame);
 
-            inputMat = new Mat(bitmap.getWidth(), bitmap.getHeight(), CvType.CV_8UC1);
             Utils.bitmapToMat(bitmap,inputMat);
 
             outMat = detector.processFrame(inputMat, null);
@@ -162,10 +160,7 @@ public class Dogeforia extends VuforiaLocalizerImpl {
                 Log.w("DogeCV", "MAT BITMAP MISMATCH OR EMPTY ERROR");
             }
 
-
-            inputMat.release();
-            outMat.release();
-
+            // The output belongs to the detector, which draws the next frame into it
 
         }else{
             Log.d("DogeCV", "No Frame!");
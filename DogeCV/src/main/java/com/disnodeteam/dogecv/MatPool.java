@@ -0,0 +1,181 @@
+package com.disnodeteam.dogecv;
+
+import org.opencv.core.Mat;
+import org.opencv.core.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pool of {@link Mat}s keyed by their size and type, so that a pipeline reuses the same native buffers on every frame
+ * instead of allocating new ones and waiting for the garbage collector to free the old ones.
+ *
+ * There are two ways to borrow a Mat:
+ *     - {@link #acquire(int, int, int)} borrows a Mat until it is handed back with {@link #release(Mat)}
+ *     - {@link #lease(int, int, int)} borrows a Mat until {@link #releaseLeases()} is called, which {@link OpenCVPipeline}
+ *       and {@link com.disnodeteam.dogecv.detectors.DogeCVDetector} do at the end of every frame
+ *
+ * A borrowed Mat has the requested size and type, but its contents are left over from its last use. It may be written by
+ * any OpenCV function; if the function reallocates it, the Mat is pooled again under its new size and type, and the
+ * reallocation is counted by {@link #getAllocationCount()}. A pipeline whose frames all have the same size stops
+ * allocating after its first frame, which that count shows: it stays the same from frame to frame.
+ *
+ * A borrowed Mat must not be released with {@link Mat#release()}, nor used after it is handed back. The pool may be used
+ * from several threads, but each Mat should only be used by the thread that borrowed it.
+ */
+public final class MatPool {
+
+    // A pooled Mat, with the shape and buffer it had when it was handed out
+    private static final class Entry {
+        final Mat mat;
+        int rows;
+        int cols;
+        int type;
+        long address;
+
+        Entry(Mat mat) {
+            this.mat = mat;
+            record();
+        }
+
+        void record() {
+            rows = mat.rows();
+            cols = mat.cols();
+            type = mat.type();
+            address = mat.dataAddr();
+        }
+    }
+
+    // Pools hold a few dozen Mats at most, so lists are scanned rather than hashed, which allocates nothing
+    private final List<Entry> free = new ArrayList<>();
+    private final List<Entry> acquired = new ArrayList<>();
+    private final List<Entry> leased = new ArrayList<>();
+
+    private long allocationCount = 0;
+
+    /**
+     * Borrows a Mat until it is handed back with {@link #release(Mat)}.
+     * @param rows - The number of rows of the Mat
+     * @param cols - The number of columns of the Mat
+     * @param type - The type of the Mat, such as {@link org.opencv.core.CvType#CV_8UC1}
+     * @return A pooled Mat of the given size and type
+     */
+    public synchronized Mat acquire(int rows, int cols, int type) {
+        Entry entry = take(rows, cols, type);
+        acquired.add(entry);
+        return entry.mat;
+    }
+
+    /**
+     * Borrows a Mat until it is handed back with {@link #release(Mat)}.
+     * @param size - The size of the Mat, as passed to functions such as {@link org.opencv.imgproc.Imgproc#resize}
+     * @param type - The type of the Mat
+     * @return A pooled Mat of the given size and type
+     */
+    public Mat acquire(Size size, int type) {
+        return acquire((int) size.height, (int) size.width, type);
+    }
+
+    /**
+     * Hands back a Mat borrowed with {@link #acquire(int, int, int)}.
+     * @param mat - The Mat to hand back
+     * @throws IllegalArgumentException if the Mat was not acquired from this pool, or has already been handed back
+     */
+    public synchronized void release(Mat mat) {
+        for (int i = 0; i < acquired.size(); i++) {
+            if (acquired.get(i).mat == mat) {
+                recycle(acquired.remove(i));
+                return;
+            }
+        }
+        throw new IllegalArgumentException("The Mat was not acquired from this pool");
+    }
+
+    /**
+     * Borrows a Mat until the end of the frame, when {@link #releaseLeases()} is called.
+     * @param rows - The number of rows of the Mat
+     * @param cols - The number of columns of the Mat
+     * @param type - The type of the Mat, such as {@link org.opencv.core.CvType#CV_8UC1}
+     * @return A pooled Mat of the given size and type
+     */
+    public synchronized Mat lease(int rows, int cols, int type) {
+        Entry entry = take(rows, cols, type);
+        leased.add(entry);
+        return entry.mat;
+    }
+
+    /**
+     * Borrows a Mat until the end of the frame, when {@link #releaseLeases()} is called.
+     * @param size - The size of the Mat, as passed to functions such as {@link org.opencv.imgproc.Imgproc#resize}
+     * @param type - The type of the Mat
+     * @return A pooled Mat of the given size and type
+     */
+    public Mat lease(Size size, int type) {
+        return lease((int) size.height, (int) size.width, type);
+    }
+
+    /**
+     * Hands back every Mat borrowed with {@link #lease(int, int, int)}.
+     */
+    public synchronized void releaseLeases() {
+        for (int i = leased.size() - 1; i >= 0; i--) {
+            recycle(leased.remove(i));
+        }
+    }
+
+    /**
+     * Frees the native memory of every Mat in the pool. Mats that are borrowed at the time are pooled again when they
+     * are handed back.
+     */
+    public synchronized void clear() {
+        for (Entry entry : free) {
+            entry.mat.release();
+        }
+        free.clear();
+    }
+
+    /**
+     * @return The number of native buffers allocated for Mats of this pool, both by the pool and by OpenCV functions
+     * that reallocated a borrowed Mat
+     */
+    public synchronized long getAllocationCount() {
+        return allocationCount;
+    }
+
+    /**
+     * @return The number of Mats that are borrowed, either acquired or leased
+     */
+    public synchronized int getBorrowedCount() {
+        return acquired.size() + leased.size();
+    }
+
+    /**
+     * @return The number of Mats that are ready to be borrowed
+     */
+    public synchronized int getFreeCount() {
+        return free.size();
+    }
+
+    private Entry take(int rows, int cols, int type) {
+        for (int i = free.size() - 1; i >= 0; i--) {
+            Entry entry = free.get(i);
+            if (entry.rows == rows && entry.cols == cols && entry.type == type) {
+                return free.remove(i);
+            }
+        }
+        allocationCount++;
+        return new Entry(new Mat(rows, cols, type));
+    }
+
+    private void recycle(Entry entry) {
+        if (entry.mat.empty()) {
+            // Released by its borrower; its buffer is gone, so it is not pooled again
+            return;
+        }
+        if (entry.mat.dataAddr() != entry.address) {
+            allocationCount++;
+        }
+        entry.record();
+        free.add(entry);
+    }
+}
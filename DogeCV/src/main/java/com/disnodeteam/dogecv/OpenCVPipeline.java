@@ -58,6 +58,16 @@ public abstract class OpenCVPipeline implements CameraBridgeViewBase.CvCameraVie
     private boolean inited = false;
     private boolean isVuforia = false;
 
+    /**
+     * The pool from which the pipeline borrows the Mats it needs while processing a frame. Mats leased from it are handed
+     * back once {@link #processFrame(Mat, Mat)} returns, so the Mat it returns must not be leased.
+     */
+    protected final MatPool matPool = new MatPool();
+
+    // The targets of the rotated camera frames, kept from frame to frame so that their buffers are reused
+    private final Mat rotatedRgba = new Mat();
+    private final Mat rotatedGray = new Mat();
+
     /**
      * Initializes the OpenCVPipeline, but implicitly uses the rear camera.
      * @param context the application context, usually hardwareMap.appContext
@@ -138,6 +148,7 @@ public abstract class OpenCVPipeline implements CameraBridgeViewBase.CvCameraVie
             cameraView.disableView();
         }
         viewDisplay.removeCurrentView(context);
+        matPool.clear();
     }
 
     /**
@@ -150,6 +161,15 @@ public abstract class OpenCVPipeline implements CameraBridgeViewBase.CvCameraVie
 
     public DrawViewSource getRawView(){return rawView;}
 
+    /**
+     * Exposes the pool of Mats used by the pipeline, whose allocation count shows whether frames are still allocating
+     * native memory.
+     * @return the MatPool.
+     */
+    public MatPool getMatPool() {
+        return matPool;
+    }
+
     /**
      * This function is called when the camera is started; overriding this may be useful to set the
      * maximum width and height parameters of an image processing pipeline.
@@ -176,8 +196,8 @@ public abstract class OpenCVPipeline implements CameraBridgeViewBase.CvCameraVie
      */
     @Override
     public Mat onCameraFrame(CameraBridgeViewBase.CvCameraViewFrame inputFrame) {
-        Mat rgba = new Mat();
-        Mat gray = new Mat();
+        Mat rgba = rotatedRgba;
+        Mat gray = rotatedGray;
 
         switch (((Activity) context).getWindowManager().getDefaultDisplay().getRotation()) {
             case Surface.ROTATION_0:
@@ -194,11 +214,16 @@ public abstract class OpenCVPipeline implements CameraBridgeViewBase.CvCameraVie
                 Core.rotate(inputFrame.gray(), gray, Core.ROTATE_180);
                 break;
         }
-        return processFrame(rgba, gray);
+        try {
+            return processFrame(rgba, gray);
+        } finally {
+            matPool.releaseLeases();
+        }
     }
 
     /**
      * Override this with the main image processing logic. This is run every time the camera recieves a frame.
+     * Mats needed only for this frame can be leased from {@link #matPool}.
      * @param rgba a {@link Mat} that is in RGBA format
      * @param gray a {@link Mat} that is already grayscale
      * @return the Mat that should be displayed to the screen; in most cases one would probably just want to return rgba
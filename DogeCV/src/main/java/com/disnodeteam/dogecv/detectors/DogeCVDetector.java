@@ -20,13 +20,19 @@ import java.util.List;
 
 public abstract class DogeCVDetector extends OpenCVPipeline{
 
+    /**
+     * Processes a downscaled frame. Mats needed only for this frame can be leased from {@link #matPool}, and may be
+     * returned, since they are handed back only once the result has been scaled for display.
+     * @param input - The downscaled frame, which is leased and must not be released
+     * @return - The Mat to display
+     */
     public abstract Mat process(Mat input);
     public abstract void useDefaults();
 
     private List<DogeCVScorer> scorers = new ArrayList<>();
     private Size initSize;
     private Size adjustedSize;
-    private Mat workingMat = new Mat();
+    private Mat displayMat = new Mat(); // Returned for display, so it is not leased
     public double maxDifference = 10;
 
     public DogeCV.DetectionSpeed speed = DogeCV.DetectionSpeed.BALANCED;
@@ -69,17 +75,22 @@ public abstract class DogeCVDetector extends OpenCVPipeline{
             adjustedSize = new Size(initSize.width * downscale, initSize.height * downscale);
         }
 
-        rgba.copyTo(workingMat);
-
-        if(workingMat.empty()){
+        if(rgba.empty()){
             return rgba;
         }
-        Imgproc.resize(workingMat, workingMat,adjustedSize); // Downscale
-        Imgproc.resize(process(workingMat),workingMat,getInitSize()); // Process and scale back to original size for viewing
-        //Print Info
-        Imgproc.putText(workingMat,"DogeCV 2018.2 " + detectorName + ": " + getAdjustedSize().toString() + " - " + speed.toString() ,new Point(5,30),0,0.5,new Scalar(0,255,255),2);
 
-        return workingMat;
+        try {
+            Mat workingMat = matPool.lease(adjustedSize, rgba.type());
+            Imgproc.resize(rgba, workingMat, adjustedSize); // Downscale
+            Imgproc.resize(process(workingMat),displayMat,getInitSize()); // Process and scale back to original size for viewing
+            //Print Info
+            Imgproc.putText(displayMat,"DogeCV 2018.2 " + detectorName + ": " + getAdjustedSize().toString() + " - " + speed.toString() ,new Point(5,30),0,0.5,new Scalar(0,255,255),2);
+
+            return displayMat;
+        } finally {
+            // Dogeforia calls this directly rather than through onCameraFrame, so the frame's leases end here
+            matPool.releaseLeases();
+        }
     }
 
     public Size getInitSize() {
@@ -51,7 +51,6 @@ public class CryptoboxDetector extends OpenCVPipeline {
     private boolean ColumnDetected = false;
     private int[] CryptoBoxPositions = new int[3];
 
-    private Mat workingMat = new Mat();
     private Mat mask = new Mat();
     private Size newSize = new Size();
 
@@ -65,32 +64,28 @@ public class CryptoboxDetector extends OpenCVPipeline {
         downScaleFactor    = 0.5;
         Size initSize= rgba.size();
         newSize  = new Size(initSize.width * downScaleFactor, initSize.height * downScaleFactor);
-        rgba.copyTo(workingMat);
-
         avgPoints = new ArrayList<>();
 
-        Imgproc.resize(workingMat, workingMat,newSize);
+        Mat workingMat = matPool.lease(newSize, rgba.type());
+        Imgproc.resize(rgba, workingMat, newSize);
         if(rotateMat) {
-            Mat tempBefore = workingMat.t();
-            Core.flip(tempBefore, workingMat, 1); //mRgba.t() is the transpose
-            tempBefore.release();
+            Mat rotated = matPool.lease(workingMat.cols(), workingMat.rows(), workingMat.type());
+            Core.transpose(workingMat, rotated);
+            Core.flip(rotated, rotated, 1);
+            workingMat = rotated;
         }
 
         switch(detectionMode){
             case RED:
-                Mat redMask = workingMat.clone();
-                colorFilterRed.process(redMask, mask);
-                redMask.release();
+                colorFilterRed.process(workingMat, mask, matPool);
                 break;
             case BLUE:
-                Mat blueMask = workingMat.clone();
-                colorFilterBlue.process(blueMask, mask);
-                blueMask.release();
+                colorFilterBlue.process(workingMat, mask, matPool);
                 break;
         }
 
         //display = new Mat(mask.height(), mask.width(), CvType.CV_8UC1);
-        ArrayList<Line> lines = (ArrayList<Line>) Lines.getOpenCvLines(mask, 1, 55);
+        ArrayList<Line> lines = (ArrayList<Line>) Lines.getOpenCvLines(mask, 1, 55, matPool);
         lines = (ArrayList<Line>) Lines.linearExtend(lines, 4, newSize);
         //lines = Lines.mergeLines(lines, 13, 300, 6);
         //lines = Lines.mergeLines(lines, 6, 2000, 4);
@@ -54,10 +54,11 @@ public class GlyphDetector extends OpenCVPipeline {
     private double chosenGlyphOffset = 0;
     private boolean foundRect = false;
 
-    private Mat workingMat = new Mat();
+    private Mat displayMat = new Mat(); // Returned for display, so it is not leased
     private Mat edges = new Mat();
     private Mat processed = new Mat();
     private Mat structure = new Mat();
+    private Mat hierarchy = new Mat();
     private Size newSize  = new Size();
     @Override
     public Mat processFrame(Mat rgba, Mat gray) {
@@ -65,86 +66,81 @@ public class GlyphDetector extends OpenCVPipeline {
         Size initSize = rgba.size();
         newSize = new Size(initSize.width * downScaleFactor, initSize.height * downScaleFactor);
 
-        rgba.copyTo(workingMat);
-        Imgproc.resize(workingMat,workingMat, newSize);
+        Mat workingMat = matPool.lease(newSize, rgba.type());
+        Imgproc.resize(rgba, workingMat, newSize);
 
         if(rotateMat){
-            Mat tempBefore = workingMat.t();
-            Core.flip(tempBefore, workingMat, 1); //mRgba.t() is the transpose
-            tempBefore.release();
+            Mat rotated = matPool.lease(workingMat.cols(), workingMat.rows(), workingMat.type());
+            Core.transpose(workingMat, rotated);
+            Core.flip(rotated, rotated, 1);
+            workingMat = rotated;
         }
 
 
         Imgproc.putText(workingMat,newSize.toString() + " - " + speed.toString(),new Point(5,15),0,0.5,new Scalar(0,255,0),1);
 
         Imgproc.cvtColor(workingMat,processed,Imgproc.COLOR_RGB2GRAY);
+        Mat blurred = matPool.lease(processed.rows(), processed.cols(), processed.type());
 
         switch (speed){
             case VERY_FAST:
 
-                Imgproc.blur(processed,processed,new Size(2,2));
+                Imgproc.blur(processed,blurred,new Size(2,2));
 
-                Imgproc.bilateralFilter(processed.clone(),processed,11,17,17);
+                Imgproc.bilateralFilter(blurred,processed,11,17,17);
 
                 Imgproc.Canny(processed,edges,15,45.0);
 
-                structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(3,3));
-                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structure);
+                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structuringElement(3));
                 break;
             case FAST:
-                Imgproc.blur(processed,processed,new Size(3,3));
+                Imgproc.blur(processed,blurred,new Size(3,3));
 
-                Imgproc.bilateralFilter(processed.clone(),processed,11,17,17);
+                Imgproc.bilateralFilter(blurred,processed,11,17,17);
 
                 Imgproc.Canny(processed,edges,15,45.0);
 
-                structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(6,6));
-                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structure);
+                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structuringElement(6));
                 break;
 
             case BALANCED:
-                Imgproc.blur(processed,processed,new Size(4,4));
+                Imgproc.blur(processed,blurred,new Size(4,4));
 
-                Imgproc.bilateralFilter(processed.clone(),processed,11,17,17);
+                Imgproc.bilateralFilter(blurred,processed,11,17,17);
 
                 Imgproc.Canny(processed,edges,15,45.0);
 
-                structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(7,7));
-                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structure);
+                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structuringElement(7));
                 break;
 
 
             case SLOW:
 
-                Imgproc.blur(processed,processed,new Size(6,6));
+                Imgproc.blur(processed,blurred,new Size(6,6));
 
-                Imgproc.bilateralFilter(processed.clone(),processed,11,17,17);
+                Imgproc.bilateralFilter(blurred,processed,11,17,17);
 
                 Imgproc.Canny(processed,edges,15,45.0);
 
 
-                structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(10,10));
-                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structure);
+                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structuringElement(10));
                 break;
 
             case VERY_SLOW:
 
-                Imgproc.blur(processed,processed,new Size(7,7));
+                Imgproc.blur(processed,blurred,new Size(7,7));
 
-                Imgproc.bilateralFilter(processed.clone(),processed,11,17,17);
+                Imgproc.bilateralFilter(blurred,processed,11,17,17);
 
                 Imgproc.Canny(processed,edges,15,45.0);
 
-                structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(15,15));
-                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structure);
+                Imgproc.morphologyEx(edges,edges,Imgproc.MORPH_CLOSE,structuringElement(15));
                 break;
         }
 
         List<MatOfPoint> contours = new ArrayList<>();
-        Mat hierarchy = new Mat();
 
         Imgproc.findContours(edges, contours, hierarchy, Imgproc.RETR_TREE, Imgproc.CHAIN_APPROX_SIMPLE);
-        hierarchy.release();
 
         double chosenScore = 0;
         Rect chosenRect = null;
@@ -247,9 +243,18 @@ public class GlyphDetector extends OpenCVPipeline {
             foundRect = true;
         }
 
-        Imgproc.resize(workingMat,workingMat,initSize);
+        Imgproc.resize(workingMat,displayMat,initSize);
 
-        return workingMat;
+        return displayMat;
+    }
+
+    // Built again only when the speed, and with it the size of the element, changes
+    private Mat structuringElement(int size) {
+        if(structure.rows() != size){
+            structure.release();
+            structure = Imgproc.getStructuringElement(Imgproc.CV_SHAPE_RECT, new Size(size,size));
+        }
+        return structure;
     }
 
 
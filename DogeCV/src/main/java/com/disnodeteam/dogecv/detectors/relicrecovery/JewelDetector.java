@@ -62,12 +62,17 @@ public class JewelDetector extends OpenCVPipeline {
     private JewelOrder lastOrder    = JewelOrder.UNKNOWN;
 
 
-    private Mat workingMat = new Mat();
+    private Mat displayMat = new Mat(); // Returned for display, so it is not leased
     private Mat blurredMat  = new Mat();
     private Mat maskRed  = new Mat();
     private Mat maskBlue  = new Mat();
     private Mat hiarchy  = new Mat();
 
+    // Reused for each contour, converted in place instead of through Java arrays
+    private MatOfPoint2f contour2f    = new MatOfPoint2f();
+    private MatOfPoint2f approxCurve  = new MatOfPoint2f();
+    private MatOfPoint   approxPoints = new MatOfPoint();
+
 
     private Size newSize = new Size();
 
@@ -76,23 +81,20 @@ public class JewelDetector extends OpenCVPipeline {
 
         Size initSize= rgba.size();
         newSize  = new Size(initSize.width * downScaleFactor, initSize.height * downScaleFactor);
-        rgba.copyTo(workingMat);
-
-        Imgproc.resize(workingMat, workingMat,newSize);
+        Mat workingMat = matPool.lease(newSize, rgba.type());
+        Imgproc.resize(rgba, workingMat, newSize);
 
         if(rotateMat){
-            Mat tempBefore = workingMat.t();
+            Mat rotated = matPool.lease(workingMat.cols(), workingMat.rows(), workingMat.type());
 
-            Core.flip(tempBefore, workingMat, -1); //mRgba.t() is the transpose
+            Core.transpose(workingMat, rotated);
+            Core.flip(rotated, rotated, -1);
 
-            tempBefore.release();
+            workingMat = rotated;
         }
 
-        Mat redConvert = workingMat.clone();
-        Mat blueConvert = workingMat.clone();
-
-        colorFilterRed.process(redConvert, maskRed);
-        colorFilterBlue.process(blueConvert, maskBlue);
+        colorFilterRed.process(workingMat, maskRed, matPool);
+        colorFilterBlue.process(workingMat, maskBlue, matPool);
 
         List<MatOfPoint> contoursRed = new ArrayList<>();
 
@@ -101,17 +103,16 @@ public class JewelDetector extends OpenCVPipeline {
         Rect chosenRedRect = null;
         double chosenRedScore = Integer.MAX_VALUE;
 
-        MatOfPoint2f approxCurve = new MatOfPoint2f();
-
         for(MatOfPoint c : contoursRed) {
-            MatOfPoint2f contour2f = new MatOfPoint2f(c.toArray());
+            c.convertTo(contour2f, CvType.CV_32F);
 
             //Processing on mMOP2f1 which is in type MatOfPoint2f
             double approxDistance = Imgproc.arcLength(contour2f, true) * 0.02;
             Imgproc.approxPolyDP(contour2f, approxCurve, approxDistance, true);
 
             //Convert back to MatOfPoint
-            MatOfPoint points = new MatOfPoint(approxCurve.toArray());
+            approxCurve.convertTo(approxPoints, CvType.CV_32S);
+            MatOfPoint points = approxPoints;
 
             // Get bounding rect of contour
             Rect rect = Imgproc.boundingRect(points);
@@ -174,14 +175,15 @@ public class JewelDetector extends OpenCVPipeline {
         double chosenBlueScore = Integer.MAX_VALUE;
 
         for(MatOfPoint c : contoursBlue) {
-            MatOfPoint2f contour2f = new MatOfPoint2f(c.toArray());
+            c.convertTo(contour2f, CvType.CV_32F);
 
             //Processing on mMOP2f1 which is in type MatOfPoint2f
             double approxDistance = Imgproc.arcLength(contour2f, true) * 0.02;
             Imgproc.approxPolyDP(contour2f, approxCurve, approxDistance, true);
 
             //Convert back to MatOfPoint
-            MatOfPoint points = new MatOfPoint(approxCurve.toArray());
+            approxCurve.convertTo(approxPoints, CvType.CV_32S);
+            MatOfPoint points = approxPoints;
 
             // Get bounding rect of contour
             Rect rect = Imgproc.boundingRect(points);
@@ -278,13 +280,11 @@ public class JewelDetector extends OpenCVPipeline {
         Imgproc.putText(workingMat,"Result: " + lastOrder.toString(),new Point(10,newSize.height - 30),0,1, new Scalar(255,255,0),1);
         Imgproc.putText(workingMat,"Current Track: " + currentOrder.toString(),new Point(10,newSize.height - 10),0,0.5, new Scalar(255,255,255),1);
 
-        Imgproc.resize(workingMat,workingMat,initSize);
+        Imgproc.resize(workingMat,displayMat,initSize);
 
-        redConvert.release();
-        blueConvert.release();
-        Imgproc.putText(workingMat,"DogeCV 1.1 Jewel: " + newSize.toString() + " - " + speed.toString() + " - " + detectionMode.toString() ,new Point(5,30),0,1.2,new Scalar(0,255,255),2);
+        Imgproc.putText(displayMat,"DogeCV 1.1 Jewel: " + newSize.toString() + " - " + speed.toString() + " - " + detectionMode.toString() ,new Point(5,30),0,1.2,new Scalar(0,255,255),2);
 
-        return workingMat;
+        return displayMat;
     }
 
 
@@ -8,6 +8,7 @@ import com.disnodeteam.dogecv.scoring.MaxAreaScorer;
 import com.disnodeteam.dogecv.scoring.PerfectAreaScorer;
 import com.disnodeteam.dogecv.scoring.RatioScorer;
 
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
@@ -26,9 +27,6 @@ import java.util.List;
 public class GoldDetector extends DogeCVDetector {
 
     // Defining Mats to be used.
-    private Mat displayMat = new Mat(); // Display debug info to the screen (this is what is returned)
-    private Mat workingMat = new Mat(); // Used for preprocessing and working with (blurring as an example)
-    private Mat maskYellow = new Mat(); // Yellow Mask returned by color filter
     private Mat hierarchy  = new Mat(); // hierarchy used by coutours
 
     // Results of the detector
@@ -57,15 +55,15 @@ public class GoldDetector extends DogeCVDetector {
     @Override
     public Mat process(Mat input) {
 
-        // Copy the input mat to our working mats, then release it for memory
+        // Lease the mats used for this frame; the input is leased as well, so it is not released
+        Mat displayMat = matPool.lease(input.size(), input.type()); // Display debug info to the screen (this is what is returned)
+        Mat workingMat = matPool.lease(input.size(), input.type()); // Used for preprocessing and working with (blurring as an example)
+        Mat maskYellow = matPool.lease(input.size(), CvType.CV_8UC1); // Mask returned by color filter
         input.copyTo(displayMat);
-        input.copyTo(workingMat);
-        input.release();
-
 
         //Preprocess the working Mat (blur it then apply a yellow filter)
-        Imgproc.GaussianBlur(workingMat,workingMat,new Size(5,5),0);
-        yellowFilter.process(workingMat.clone(),maskYellow);
+        Imgproc.GaussianBlur(input,workingMat,new Size(5,5),0);
+        yellowFilter.process(workingMat,maskYellow,matPool);
 
         //Find contours of the yellow mask and draw them to the display mat for viewing
 
@@ -15,9 +15,6 @@ import org.opencv.core.Scalar;
 import org.opencv.core.Size;
 import org.opencv.imgproc.Imgproc;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Created by Victo on 9/10/2018.
  */
@@ -31,8 +28,8 @@ public class HoughSilverDetector extends DogeCVDetector {
     public double sensitivity = 1.4; //Sensitivity of circle detector; between about 1.2 and 2.1;
     public double minDistance = 60; //Adjust with frame size! This is the minimum distance between circles
 
-    private Mat workingMat = new Mat(); //The working mat used for internal calculations, single object to avoid memory leak
-    private Mat displayMat = new Mat(); //The matrix to be displayed
+    private Mat circles = new Mat(); //A matrix of circles; each entry is an array of doubles, first coordinate is the x of the circle, second is y, third is the radius.
+    private Mat erodeKernel = Imgproc.getStructuringElement(Imgproc.MORPH_ELLIPSE, new Size(3,3)); //The kernel used to remove noise, built once
     private int results; //How many potential minerals were detected
     private Circle foundCircle; //The best detection found, if any
     private boolean isFound = false; //Whether a circle has been found at all
@@ -50,20 +47,26 @@ public class HoughSilverDetector extends DogeCVDetector {
         if(input.channels() < 0 || input.cols() <= 0){
             Log.e("DogeCV", "Bad INPUT MAT!");
         }
-        input.copyTo(workingMat); //Copies input to working matrix
-        Imgproc.cvtColor(workingMat, workingMat, Imgproc.COLOR_RGBA2RGB); //Converts from RGBA to simply RGB
-        displayMat = new Mat(); //Creates the display matrix
-        Imgproc.bilateralFilter(workingMat, displayMat, 5, 175, 175); //Similar to a Gaussian blur, but preserves edges far better.
-        displayMat.copyTo(workingMat); //Copies blurred image onto working matrix
-        Imgproc.cvtColor(workingMat, workingMat, Imgproc.COLOR_RGB2Lab); //Converts image to Lab color space for better mineral differentiation
-
-        Imgproc.erode(workingMat, workingMat, Imgproc.getStructuringElement(Imgproc.MORPH_ELLIPSE, new Size(3,3))); //Removes noise
+        int rows = input.rows();
+        int cols = input.cols();
+        Mat rgbMat = matPool.lease(rows, cols, CvType.CV_8UC3); //The input without its alpha channel
+        Mat displayMat = matPool.lease(rows, cols, CvType.CV_8UC3); //The matrix to be displayed
+        Mat workingMat = matPool.lease(rows, cols, CvType.CV_8UC3); //The working mat used for internal calculations
+        Mat lightness = matPool.lease(rows, cols, CvType.CV_8UC1); //The L channel of the Lab image
+
+        Imgproc.cvtColor(input, rgbMat, Imgproc.COLOR_RGBA2RGB); //Converts from RGBA to simply RGB
+        Imgproc.bilateralFilter(rgbMat, displayMat, 5, 175, 175); //Similar to a Gaussian blur, but preserves edges far better.
+        Imgproc.cvtColor(displayMat, workingMat, Imgproc.COLOR_RGB2Lab); //Converts blurred image to Lab color space for better mineral differentiation
+
+        Imgproc.erode(workingMat, workingMat, erodeKernel); //Removes noise
         Imgproc.GaussianBlur(workingMat, workingMat, new Size(3,3), 0); //Blurs image
-        List<Mat> channels = new ArrayList<Mat>();
-        Core.split(workingMat, channels); //Splits the three channels of the Lab image into a List
+        Core.extractChannel(workingMat, lightness, 0); //Extracts the L channel of the Lab image
+
+        Imgproc.HoughCircles(lightness, circles, Imgproc.CV_HOUGH_GRADIENT, sensitivity, minDistance); //Applies the Hough Circular transformation to find circles in the image
 
-        Mat circles = new Mat(); //A matrix of circles; each entry is an array of doubles, first coordinate is the x of the circle, second is y, third is the radius.
-        Imgproc.HoughCircles(channels.get(0), circles, Imgproc.CV_HOUGH_GRADIENT, sensitivity, minDistance); //Applies the Hough Circular transformation to find circles in the image
+        //Leased once and redrawn for each circle, rather than allocated for each circle
+        Mat mask = matPool.lease(rows, cols, CvType.CV_8UC1); //The mask of the circle
+        Mat masked = matPool.lease(rows, cols, CvType.CV_8UC3); //Receives the sections of the input image within the circle
 
         results = 0; //The number of detected circles
         Circle bestCircle = null; //Resets the best detected circle
@@ -71,15 +74,13 @@ public class HoughSilverDetector extends DogeCVDetector {
 
         //Iterates over each circle, scoring it in and checking if its better than the previous
         for (int i = 0; i < circles.width(); i++) {
-            Circle circle = new Circle(circles.get(0,i)[0],circles.get(0,i)[1],circles.get(0,i)[2]); //Retrieves circle object from matrix
-            Mat mask = Mat.zeros(workingMat.size(), CvType.CV_8UC1); //Creates an empty image to contain the mask of the circle
+            double[] found = circles.get(0,i);
+            Circle circle = new Circle(found[0],found[1],found[2]); //Retrieves circle object from matrix
+            mask.setTo(Scalar.all(0)); //Empties the mask of the previous circle
             Imgproc.circle(mask, new Point((int) circle.x, (int) circle.y), (int) circle.radius, new Scalar(255), -1); //Draws a filled-in circle on the mask
-            Mat masked = new Mat((int) getAdjustedSize().height, (int) getAdjustedSize().width, CvType.CV_8UC3); //Creates a blank matrix of the appropriate type to receive the sections of the input image
+            masked.setTo(Scalar.all(0)); //Blanks the sections of the previous circle
             workingMat.copyTo(masked, mask); //Copies only the regions of the input image contained in the mask, and therefore the circle drawn in the mask
             double score = calculateScore(masked); //Calculates the score of the circle
-            //Releases undeeded matrices to avoid memory leak
-            mask.release();
-            masked.release();
             results++; //Increments circle count by one
 
             Imgproc.circle(displayMat, new Point(circle.x, circle.y), (int) circle.radius, new Scalar(0,0,255),2); //Draws the detected circle
@@ -100,8 +101,9 @@ public class HoughSilverDetector extends DogeCVDetector {
             foundCircle = null;
         }
         //The ActivityViewDisplay accepts RGBA images, so converts to that format
-        Imgproc.cvtColor(displayMat, displayMat, Imgproc.COLOR_RGB2RGBA);
-        return displayMat;
+        Mat rgbaMat = matPool.lease(rows, cols, CvType.CV_8UC4);
+        Imgproc.cvtColor(displayMat, rgbaMat, Imgproc.COLOR_RGB2RGBA);
+        return rgbaMat;
     }
 
     @Override
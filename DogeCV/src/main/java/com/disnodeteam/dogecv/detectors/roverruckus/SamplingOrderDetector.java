@@ -10,6 +10,7 @@ import com.disnodeteam.dogecv.scoring.PerfectAreaScorer;
 import com.disnodeteam.dogecv.scoring.RatioScorer;
 
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.MatOfPoint2f;
@@ -55,12 +56,13 @@ public class SamplingOrderDetector extends DogeCVDetector {
     private boolean      isFound      = false;
 
     // Create the mats used
-    private Mat workingMat  = new Mat();
-    private Mat displayMat  = new Mat();
-    private Mat yellowMask  = new Mat();
-    private Mat whiteMask   = new Mat();
     private Mat hiarchy     = new Mat();
 
+    // Reused for each contour, converted in place instead of through Java arrays
+    private MatOfPoint2f contour2f    = new MatOfPoint2f();
+    private MatOfPoint2f approxCurve  = new MatOfPoint2f();
+    private MatOfPoint   approxPoints = new MatOfPoint();
+
     public SamplingOrderDetector() {
         super();
         this.detectorName = "Sampling Order Detector";
@@ -69,14 +71,15 @@ public class SamplingOrderDetector extends DogeCVDetector {
     @Override
     public Mat process(Mat input) {
 
-        // Copy input mat to working/display mats
+        // Lease the mats used for this frame; the input is leased as well, so it is not released
+        Mat displayMat  = matPool.lease(input.size(), input.type());
+        Mat yellowMask  = matPool.lease(input.size(), CvType.CV_8UC1);
+        Mat whiteMask   = matPool.lease(input.size(), CvType.CV_8UC1);
         input.copyTo(displayMat);
-        input.copyTo(workingMat);
-        input.release();
 
         // Generate Masks
-        yellowFilter.process(workingMat.clone(), yellowMask);
-        whiteFilter.process(workingMat.clone(), whiteMask);
+        yellowFilter.process(input, yellowMask, matPool);
+        whiteFilter.process(input, whiteMask, matPool);
 
 
         // Blur and find the countours in the masks
@@ -97,17 +100,16 @@ public class SamplingOrderDetector extends DogeCVDetector {
         Rect   chosenYellowRect  = null;
         double chosenYellowScore = Integer.MAX_VALUE;
 
-        MatOfPoint2f approxCurve = new MatOfPoint2f();
-
         for(MatOfPoint c : contoursYellow){
-            MatOfPoint2f contour2f = new MatOfPoint2f(c.toArray());
+            c.convertTo(contour2f, CvType.CV_32F);
 
             //Processing on mMOP2f1 which is in type MatOfPoint2f
             double approxDistance = Imgproc.arcLength(contour2f, true) * 0.02;
             Imgproc.approxPolyDP(contour2f, approxCurve, approxDistance, true);
 
             //Convert back to MatOfPoint
-            MatOfPoint points = new MatOfPoint(approxCurve.toArray());
+            approxCurve.convertTo(approxPoints, CvType.CV_32S);
+            MatOfPoint points = approxPoints;
 
             // Get bounding rect of contour
             Rect rect = Imgproc.boundingRect(points);
@@ -141,14 +143,15 @@ public class SamplingOrderDetector extends DogeCVDetector {
 
 
         for(MatOfPoint c : contoursWhite){
-            MatOfPoint2f contour2f = new MatOfPoint2f(c.toArray());
+            c.convertTo(contour2f, CvType.CV_32F);
 
             //Processing on mMOP2f1 which is in type MatOfPoint2f
             double approxDistance = Imgproc.arcLength(contour2f, true) * 0.02;
             Imgproc.approxPolyDP(contour2f, approxCurve, approxDistance, true);
 
             //Convert back to MatOfPoint
-            MatOfPoint points = new MatOfPoint(approxCurve.toArray());
+            approxCurve.convertTo(approxPoints, CvType.CV_32S);
+            MatOfPoint points = approxPoints;
 
             // Get bounding rect of contour
             Rect rect = Imgproc.boundingRect(points);
@@ -1,5 +1,7 @@
 package com.disnodeteam.dogecv.filters;
 
+import com.disnodeteam.dogecv.MatPool;
+
 import org.opencv.core.Mat;
 
 /**
@@ -7,6 +9,27 @@ import org.opencv.core.Mat;
  */
 
 public abstract class DogeCVColorFilter {
-    public abstract void process(Mat input, Mat mask);
+    private final MatPool scratchPool = new MatPool(); // Used when no pool is given
+
+    /**
+     * Process a image and return a mask, borrowing the Mats used for processing from the filter's own pool
+     * @param input - Input image to process, which is left unchanged
+     * @param mask - Output mask
+     */
+    public void process(Mat input, Mat mask) {
+        try {
+            process(input, mask, scratchPool);
+        } finally {
+            scratchPool.releaseLeases();
+        }
+    }
+
+    /**
+     * Process a image and return a mask, leasing the Mats used for processing from the given pool
+     * @param input - Input image to process, which is left unchanged
+     * @param mask - Output mask
+     * @param pool - Pool to lease Mats from, usually the detector's
+     */
+    public abstract void process(Mat input, Mat mask, MatPool pool);
 
 }
@@ -1,6 +1,9 @@
 package com.disnodeteam.dogecv.filters;
 
+import com.disnodeteam.dogecv.MatPool;
+
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
@@ -15,8 +18,6 @@ public class HSVColorFilter extends DogeCVColorFilter{
     private Scalar perfect = new Scalar(255,255,255); // Prefect color
     private Scalar range = new Scalar(0,0,0); // Range around perfect color
 
-    private Mat workingMat = new Mat(); // Mat used for processing
-
     /**
      * Constructor
      * @param color - Perfect Color
@@ -41,13 +42,13 @@ public class HSVColorFilter extends DogeCVColorFilter{
      * Process a image and return a mask
      * @param input - Input image to process
      * @param mask - Output mask
+     * @param pool - Pool to lease Mats from
      */
     @Override
-    public void process(Mat input, Mat mask) {
-        // Copy the input to working mat
-        workingMat = input.clone();
+    public void process(Mat input, Mat mask, MatPool pool) {
         // Convert the input to HSV color space
-        Imgproc.cvtColor(workingMat,workingMat,Imgproc.COLOR_RGB2HSV_FULL);
+        Mat workingMat = pool.lease(input.rows(), input.cols(), CvType.CV_8UC3);
+        Imgproc.cvtColor(input,workingMat,Imgproc.COLOR_RGB2HSV_FULL);
 
         // Blur the imgae
         Imgproc.GaussianBlur(workingMat,workingMat,new Size(5,5),0);
@@ -1,6 +1,9 @@
 package com.disnodeteam.dogecv.filters;
 
+import com.disnodeteam.dogecv.MatPool;
+
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
@@ -37,16 +40,17 @@ public class HSVRangeFilter extends DogeCVColorFilter{
      * Process a image and return a mask
      * @param input - Input image to process
      * @param mask - Output mask
+     * @param pool - Pool to lease Mats from
      */
     @Override
-    public void process(Mat input, Mat mask) {
+    public void process(Mat input, Mat mask, MatPool pool) {
         // Convert the input to HSV
-        Imgproc.cvtColor(input,input,Imgproc.COLOR_RGB2HSV_FULL);
+        Mat workingMat = pool.lease(input.rows(), input.cols(), CvType.CV_8UC3);
+        Imgproc.cvtColor(input,workingMat,Imgproc.COLOR_RGB2HSV_FULL);
 
         // Blur it
-        Imgproc.GaussianBlur(input,input,new Size(5,5),0);
+        Imgproc.GaussianBlur(workingMat,workingMat,new Size(5,5),0);
         // Run in range check
-        Core.inRange(input,lower,upper,mask);
-        input.release();
+        Core.inRange(workingMat,lower,upper,mask);
     }
 }
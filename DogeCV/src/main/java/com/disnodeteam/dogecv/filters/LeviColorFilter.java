@@ -3,15 +3,15 @@ package com.disnodeteam.dogecv.filters;
 import android.graphics.Color;
 import android.util.Log;
 
+import com.disnodeteam.dogecv.MatPool;
+
 import org.opencv.core.Core;
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.Scalar;
 import org.opencv.core.Size;
 import org.opencv.imgproc.Imgproc;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
  * Created by Victo on 1/1/2018.
  */
@@ -29,9 +29,6 @@ public class LeviColorFilter extends DogeCVColorFilter {
     private ColorPreset color = ColorPreset.RED;
     private double threshold = -1; // if -1 the color mode will use its own defaults
 
-    // Channels placeholder
-    private List<Mat> channels = new ArrayList<>();
-
     /**
      * Constructor
      * @param filterColor - Color Preset to use (RED,BLUE,YELLOW,WHITE)
@@ -57,10 +54,12 @@ public class LeviColorFilter extends DogeCVColorFilter {
      * Process a image and return a mask
      * @param input - Input image to process
      * @param mask - Output mask
+     * @param pool - Pool to lease Mats from
      */
     @Override
-    public void process(Mat input, Mat mask) {
-        channels = new ArrayList<>();
+    public void process(Mat input, Mat mask, MatPool pool) {
+        Mat converted = pool.lease(input.rows(), input.cols(), CvType.CV_8UC3); // Input in the filter's color space
+        Mat channel   = pool.lease(input.rows(), input.cols(), CvType.CV_8UC1); // The channel that is thresholded
 
         switch(color){
             case RED:
@@ -68,52 +67,42 @@ public class LeviColorFilter extends DogeCVColorFilter {
                     threshold = 164;
                 }
 
-                Imgproc.cvtColor(input, input, Imgproc.COLOR_RGB2Lab);
-                Imgproc.GaussianBlur(input,input,new Size(3,3),0);
-                Core.split(input, channels);
-                Imgproc.threshold(channels.get(1), mask, threshold, 255, Imgproc.THRESH_BINARY);
+                Imgproc.cvtColor(input, converted, Imgproc.COLOR_RGB2Lab);
+                Imgproc.GaussianBlur(converted,converted,new Size(3,3),0);
+                Core.extractChannel(converted, channel, 1);
+                Imgproc.threshold(channel, mask, threshold, 255, Imgproc.THRESH_BINARY);
                 break;
             case BLUE:
                 if(threshold == -1){
                     threshold = 145;
                 }
 
-                Imgproc.cvtColor(input, input, Imgproc.COLOR_RGB2YUV);
-                Imgproc.GaussianBlur(input,input,new Size(3,3),0);
-                Core.split(input, channels);
-                Imgproc.threshold(channels.get(1), mask, threshold, 255, Imgproc.THRESH_BINARY);
+                Imgproc.cvtColor(input, converted, Imgproc.COLOR_RGB2YUV);
+                Imgproc.GaussianBlur(converted,converted,new Size(3,3),0);
+                Core.extractChannel(converted, channel, 1);
+                Imgproc.threshold(channel, mask, threshold, 255, Imgproc.THRESH_BINARY);
                 break;
             case WHITE:
                 if(threshold == -1) {
                     threshold = 150;
                 }
 
-                Imgproc.cvtColor(input, input, Imgproc.COLOR_RGB2Lab);
-                Imgproc.GaussianBlur(input,input,new Size(3,3),0);
-                Core.split(input, channels);
-                Core.inRange(channels.get(0), new Scalar(threshold, 150, 40), new Scalar(255, 150, 150), mask);
+                Imgproc.cvtColor(input, converted, Imgproc.COLOR_RGB2Lab);
+                Imgproc.GaussianBlur(converted,converted,new Size(3,3),0);
+                Core.extractChannel(converted, channel, 0);
+                Core.inRange(channel, new Scalar(threshold, 150, 40), new Scalar(255, 150, 150), mask);
                 break;
             case YELLOW:
                 if(threshold == -1){
                     threshold = 70;
                 }
 
-                Imgproc.cvtColor(input, input, Imgproc.COLOR_RGB2YUV);
-                Imgproc.GaussianBlur(input,input,new Size(3,3),0);
-                Core.split(input, channels);
-                if(channels.size() > 0){
-                    Imgproc.threshold(channels.get(1), mask, threshold, 255, Imgproc.THRESH_BINARY_INV);
-                }
-
+                Imgproc.cvtColor(input, converted, Imgproc.COLOR_RGB2YUV);
+                Imgproc.GaussianBlur(converted,converted,new Size(3,3),0);
+                Core.extractChannel(converted, channel, 1);
+                Imgproc.threshold(channel, mask, threshold, 255, Imgproc.THRESH_BINARY_INV);
                 break;
         }
-
-        for(int i=0;i<channels.size();i++){
-            channels.get(i).release();
-        }
-
-        input.release();
-
     }
 
     // RED FILTER
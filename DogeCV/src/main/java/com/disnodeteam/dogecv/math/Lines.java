@@ -1,5 +1,6 @@
 package com.disnodeteam.dogecv.math;
 
+import com.disnodeteam.dogecv.MatPool;
 import com.disnodeteam.dogecv.math.Line;
 
 import java.util.ArrayList;
@@ -157,10 +158,31 @@ public class Lines {
      * @return A List of Lines found
      */
     public static List<Line> getOpenCvLines(Mat original, int scale, double minLength) {
-        Mat raw = new Mat();
-        Imgproc.resize(original.clone(), raw, new Size((int) (original.size().width/scale), (int) (original.size().height/scale)));
+        MatPool pool = new MatPool();
+        try {
+            return getOpenCvLines(original, scale, minLength, pool);
+        } finally {
+            pool.releaseLeases();
+            pool.clear();
+        }
+    }
+
+    /**
+     * Modern OpenCV line segment detection - far better than Canny, but must be carefully adjusted.
+     * @param original The original image to be scanned, as an RGB image, which is left unchanged
+     * @param scale The factor by which the image is to be downscaled
+     * @param minLength The minimum line segment length to be returned
+     * @param pool The pool to lease the downscaled image from
+     * @return A List of Lines found
+     */
+    public static List<Line> getOpenCvLines(Mat original, int scale, double minLength, MatPool pool) {
+        Size scaledSize = new Size((int) (original.size().width/scale), (int) (original.size().height/scale));
+        Mat raw = pool.lease(scaledSize, original.type());
+        Imgproc.resize(original, raw, scaledSize);
         if(raw.channels() > 1) {
-            Imgproc.cvtColor(raw, raw, Imgproc.COLOR_RGB2GRAY);
+            Mat gray = pool.lease(scaledSize, CvType.CV_8UC1);
+            Imgproc.cvtColor(raw, gray, Imgproc.COLOR_RGB2GRAY);
+            raw = gray;
         }
         Imgproc.equalizeHist(raw, raw);
         Imgproc.blur(raw, raw, new Size(3,3));
@@ -178,7 +200,6 @@ public class Lines {
             if(line.length() > minLength) lines.add(line);
         }
 
-        raw.release();
         linesM1.release();
 
         return lines;
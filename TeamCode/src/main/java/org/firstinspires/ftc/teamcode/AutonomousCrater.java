@@ -5,10 +5,10 @@ import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
 @Autonomous(name = "Autonomous (Near Crater)", group = "Autonomous")
 public class AutonomousCrater extends AutonomousMaster {
     @Override
-    public void runOpMode() {
+    protected void runAutonomous() {
         try {
-            super.runOpMode(); // To keep the setup code
-            vuforia.stop();
+            super.runAutonomous(); // To keep the setup code
+            stopVuforia();
 
             checkForInterrupt();
 
@@ -16,9 +16,14 @@ public class AutonomousCrater extends AutonomousMaster {
 
             stop();
         } catch (InterruptedException e) {
-            asyncExecutor.shutdown();
-            vuforia.stop();
+            stopVuforia();
             stop();
         }
     }
+
+    // Vuforia is only started by the routines that use it
+    private void stopVuforia() {
+        if (vuforia != null)
+            vuforia.stop();
+    }
 }
@@ -10,10 +10,10 @@ import java.util.concurrent.Future;
 @Autonomous(name = "Autonomous (Near Depot)", group = "Autonomous")
 public class AutonomousDepot extends AutonomousMaster {
     @Override
-    public void runOpMode() {
+    protected void runAutonomous() {
         try {
             setup();
-            super.runOpMode();
+            super.runAutonomous();
             checkForInterrupt();
         } catch (InterruptedException e) {
         }
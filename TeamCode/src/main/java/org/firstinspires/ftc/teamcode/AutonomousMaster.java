@@ -1,7 +1,20 @@
 package org.firstinspires.ftc.teamcode;
 
+import com.andoverrobotics.core.config.ConfigurationSnapshot;
+import com.andoverrobotics.core.config.InvalidFormatError;
+import com.andoverrobotics.core.drivetrain.Feedforward;
 import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.MotionConstraints;
+import com.andoverrobotics.core.drivetrain.MotionHandle;
+import com.andoverrobotics.core.drivetrain.MoveWatchdog;
+import com.andoverrobotics.core.utilities.Clock;
+import com.andoverrobotics.core.utilities.ControlLoop;
 import com.andoverrobotics.core.utilities.Converter;
+import com.andoverrobotics.core.utilities.HardwareActor;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.ModeTransition;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.andoverrobotics.core.utilities.ScheduledTask;
 import com.disnodeteam.dogecv.Dogeforia;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 import com.qualcomm.robotcore.hardware.DcMotor;
@@ -13,9 +26,9 @@ import org.firstinspires.ftc.teamcode.detectgold.GoldAlignDetection;
 import org.firstinspires.ftc.teamcode.detectgold.VuforiaGoldAlignDetection;
 import org.firstinspires.ftc.teamcode.detectgold.GoldDetection;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class AutonomousMaster extends LinearOpMode {
     //The distance between the front wheels, the back wheels, and the front and the back wheels, in inches.
@@ -42,24 +55,49 @@ public class AutonomousMaster extends LinearOpMode {
     protected final double PULLEY_DIAMETER_MM = 25;
     protected final double LATCH_RAISE_DISTANCE = 6 + 7.0 / 8; // How far up to move the latch lift to hook, from a position flush with the plate underneath the 80-20, in inches
     protected final double LATCH_RAISE_SPEED = 1.3; // In cm/sec
+    // Approximate full-power encoder speeds, in ticks per second, from which the watchdogs derive the deadlines of moves; measure them to tighten the deadlines
+    protected static final double DRIVE_TICKS_PER_SECOND = 2800, LATCH_TICKS_PER_SECOND = 1680 * 105 / 60.0;
+    // How long setup waits for the drive motors to confirm a new mode, in milliseconds
+    protected static final long MODE_TRANSITION_TIMEOUT_MS = 500;
+    // The configuration file in which DriveCharacterization stores the measured feedforward of the drive
+    protected static final String FEEDFORWARD_FILE = "feedforward.properties";
+    // Profiled moves plan with this fraction of full power, leaving the rest for the position correction, in power per tick
+    protected static final double PROFILE_POWER = 0.8, PROFILE_POSITION_GAIN = 0.002;
     private final double DISTANCE_BETWEEN_MINERALS = 14.5; // How far in between the minerals, in inches
     private final double DISTANCE_TO_MINERALS = 1.25 * Math.sqrt(Math.pow(18, 2) + Math.pow(14, 2)); // How far from the robot's scanning point to the minerals, in inches
 
     protected GoldAlignDetection goldAlignDetection;
     protected VuforiaGoldAlignDetection vuforiaGoldAlignDetection;
-    protected Future<?> moveLatchMotor = null;
-    protected ExecutorService asyncExecutor = Executors.newSingleThreadExecutor();
+    // Runs the latch lift and the encoder telemetry at fixed rates, on one thread
+    protected final ControlLoop controlLoop = new ControlLoop("AutonomousControl");
+    protected ScheduledTask latchTask = null;
+    // Owns the motor I/O and telemetry.update(), which the OpMode thread and the control loop would otherwise race on
+    protected final HardwareActor hardwareActor = new HardwareActor("AutonomousHardware");
+    private final AtomicBoolean telemetryUpdatePending = new AtomicBoolean();
+    // Ends drive and latch moves that are blocked by the lander or a mineral, instead of letting them run until the match ends
+    protected final MoveWatchdog driveWatchdog = new MoveWatchdog(DRIVE_TICKS_PER_SECOND), latchWatchdog = new MoveWatchdog(LATCH_TICKS_PER_SECOND);
 
     /**
-     * Sets up mecanumDrive and vuforia, uses GoldDetection to detect and collect the gold
+     * Runs the autonomous routine, then stops the control loop and the hardware actor however the routine ends
      */
     @Override
-    public void runOpMode() {
+    public final void runOpMode() {
+        try {
+            runAutonomous();
+        } finally {
+            stopHardware();
+        }
+    }
+
+    /**
+     * Sets up mecanumDrive and vuforia, uses GoldDetection to detect and collect the gold
+     */
+    protected void runAutonomous() {
         try {
             setup();
             checkForInterrupt();
 
-            moveLatchMotor = asyncExecutor.submit(updateEncoders);
+            controlLoop.schedule("encoders", 10, ControlLoop.MIN_PRIORITY, updateEncoders);
             waitForStartWithPings();
             motorLatch.setPower(1);
             telemetry.addLine("Began Raising Latch");
@@ -92,44 +130,83 @@ public class AutonomousMaster extends LinearOpMode {
     protected void setup() throws InterruptedException {
         telemetry.addData("Status", "Main Autonomous");
 
-        motorFL = hardwareMap.dcMotor.get("motorFL");
-        motorFR = hardwareMap.dcMotor.get("motorFR");
-        motorBL = hardwareMap.dcMotor.get("motorBL");
-        motorBR = hardwareMap.dcMotor.get("motorBR");
+        motorFL = hardwareActor.register(hardwareMap.dcMotor.get("motorFL"));
+        motorFR = hardwareActor.register(hardwareMap.dcMotor.get("motorFR"));
+        motorBL = hardwareActor.register(hardwareMap.dcMotor.get("motorBL"));
+        motorBR = hardwareActor.register(hardwareMap.dcMotor.get("motorBR"));
 
         motorFL.setDirection(DcMotorSimple.Direction.REVERSE);
         motorBL.setDirection(DcMotorSimple.Direction.REVERSE);
+        hardwareActor.start();
 
-        motorFL.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        motorFR.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        motorBL.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
-        motorBR.setMode(DcMotor.RunMode.STOP_AND_RESET_ENCODER);
+        // The constants above are the competition bot's; robot.properties on the phone overrides them for the test bot
+        DriveConstants driveConstants = DriveConstants.load(TICKS_PER_INCH, TICKS_PER_360, telemetry);
+        mecanumDrive = MecanumDrive.fromCrossedMotors(motorFL, motorFR, motorBL, motorBR, this, driveConstants.ticksPerInch, driveConstants.ticksPer360);
+        mecanumDrive.setDefaultDrivePower(0.5);
+        mecanumDrive.setMoveWatchdog(driveWatchdog);
+        useMeasuredFeedforward();
 
-        while (motorFL.getCurrentPosition() != 0 && motorFR.getCurrentPosition() != 0 && motorBL.getCurrentPosition() != 0 && motorBR.getCurrentPosition() != 0 && opModeIsActive()) {
-            checkForInterrupt();
+        // Resets the four encoders at once, and waits until every one of them reads zero, rather than just the first
+        ModeTransition reset = mecanumDrive.resetEncodersAsync();
+        if (!reset.await(MODE_TRANSITION_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            telemetry.addData("Encoder resets unconfirmed", reset.getUnconfirmedCount());
         }
+        mecanumDrive.setMotorModeAsync(DcMotor.RunMode.RUN_TO_POSITION).await(MODE_TRANSITION_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        telemetry.addData("Mode transitions (ns)", mecanumDrive.getModeTransitionLatency());
 
-        motorFL.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorFR.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBL.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-        motorBR.setMode(DcMotor.RunMode.RUN_TO_POSITION);
-
-        motorLatch = hardwareMap.dcMotor.get("motorLatch");
+        motorLatch = hardwareActor.register(hardwareMap.dcMotor.get("motorLatch"));
         motorLatch.setDirection(DcMotorSimple.Direction.REVERSE);
 
-        mecanumDrive = MecanumDrive.fromCrossedMotors(motorFL, motorFR, motorBL, motorBR, this, TICKS_PER_INCH, TICKS_PER_360);
-        mecanumDrive.setDefaultDrivePower(0.5);
-
         goldAlignDetection = new GoldAlignDetection(hardwareMap, CAMERA_CHOICE == VuforiaLocalizer.CameraDirection.BACK ? 0 : 1);
     }
 
+    // Makes encoder moves follow motion profiles driven by the measured feedforward; without a measurement, they keep running to position
+    private void useMeasuredFeedforward() {
+        try {
+            Feedforward feedforward = Feedforward.fromConfiguration(ConfigurationSnapshot.fromPropertiesFile(FEEDFORWARD_FILE));
+            if (!(feedforward.getVelocityGain() > 0) || !(feedforward.getAccelerationGain() > 0)) {
+                throw new IllegalArgumentException("Implausible " + feedforward);
+            }
+            mecanumDrive.setMotionConstraints(new MotionConstraints(feedforward.getMaxVelocity(PROFILE_POWER),
+                    feedforward.getMaxAcceleration(PROFILE_POWER)), feedforward, PROFILE_POSITION_GAIN);
+            telemetry.addData("Feedforward", feedforward);
+        } catch (IOException | InvalidFormatError | NoSuchFieldError | IllegalArgumentException e) {
+            telemetry.addData("Feedforward", "None (%s), running to position", e.getMessage());
+        }
+    }
+
+    // Ends the control loop, then the hardware actor, which sends the writes that are still queued
+    protected void stopHardware() {
+        try {
+            controlLoop.stop();
+            hardwareActor.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Sends the telemetry from the hardware actor's thread; an update that is already queued covers this one
+    protected void updateTelemetry() {
+        if (telemetryUpdatePending.compareAndSet(false, true)) {
+            hardwareActor.execute(telemetryUpdate);
+        }
+    }
+
+    private final Runnable telemetryUpdate = new Runnable() {
+        @Override
+        public void run() {
+            telemetryUpdatePending.set(false);
+            telemetry.update();
+        }
+    };
+
     private void waitForStartWithPings() {
         while (!opModeIsActive() && !isStopRequested()) {
             telemetry.addData("Waiting in Init", System.currentTimeMillis());
-            telemetry.update();
+            updateTelemetry();
         }
 
-        telemetry.update();
+        updateTelemetry();
     }
 
     protected void checkForInterrupt() throws InterruptedException {
@@ -137,8 +214,10 @@ public class AutonomousMaster extends LinearOpMode {
             throw new InterruptedException();
     }
 
-    protected void setLatch(final double inches, final double power) {
-        while (moveLatchMotor != null && !moveLatchMotor.isDone()) {
+    // Waits for the previous latch move to end, then moves the latch on the control loop. The latch watchdog ends a move that jams, so the wait always ends.
+    protected void setLatch(final double inches, final double power) throws InterruptedException {
+        if (latchTask != null) {
+            latchTask.await();
         }
 
         double adjustedPower = Range.clip(-1, 1, power);
@@ -148,59 +227,71 @@ public class AutonomousMaster extends LinearOpMode {
         final DcMotor.RunMode oldRunMode = motorLatch.getMode();
         motorLatch.setMode(DcMotor.RunMode.RUN_TO_POSITION);
 
-        Runnable moveLatch = new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    motorLatch.setTargetPosition((int) (4 * 1680 * 25.4 / (Math.PI * PULLEY_DIAMETER_MM) * -inches + 0.5));
-                    motorLatch.setPower(endPower);
-
-                    while (motorLatch.isBusy()) {
-                        telemetry.addData("encoder position", motorLatch.getCurrentPosition());
-                        telemetry.addData("encoder target", motorLatch.getTargetPosition());
-                        telemetry.update();
-                        checkForInterrupt();
-                    }
+        int target = (int) (4 * 1680 * 25.4 / (Math.PI * PULLEY_DIAMETER_MM) * -inches + 0.5);
+        final MoveWatchdog.Monitor latchMonitor = latchWatchdog.watch(new IMotor[]{new MotorAdapter(motorLatch)},
+                target - motorLatch.getCurrentPosition(), endPower, Clock.SYSTEM);
+        motorLatch.setTargetPosition(target);
+        motorLatch.setPower(endPower);
 
+        ControlLoop.Task moveLatch = new ControlLoop.Task() {
+            @Override
+            public boolean execute() {
+                if (isStopRequested()) {
+                    stopLatch(oldRunMode);
+                    return false;
+                }
+                if (!motorLatch.isBusy()) {
                     motorLatch.setMode(oldRunMode);
-                } catch (InterruptedException e) {
-                    motorLatch.setTargetPosition(motorLatch.getCurrentPosition());
-                    motorLatch.setPower(0);
-                    motorLatch.setMode(oldRunMode);
+                    return false;
+                }
+
+                MotionHandle.Status verdict = latchMonitor.check();
+                if (verdict != MotionHandle.Status.RUNNING) {
+                    telemetry.addData("Latch move ended", verdict);
+                    stopLatch(oldRunMode);
+                    return false;
                 }
+                telemetry.addData("encoder position", motorLatch.getCurrentPosition());
+                telemetry.addData("encoder target", motorLatch.getTargetPosition());
+                return true;
             }
         };
-        moveLatchMotor = asyncExecutor.submit(moveLatch);
+        latchTask = controlLoop.schedule("latch", 50, ControlLoop.MAX_PRIORITY, moveLatch);
     }
 
-    Runnable updateEncoders = new Runnable() {
-        @Override
-        public void run() {
-            try {
-
-                while (!isStopRequested()) {
-                    telemetry.addData("BR Position", motorBR.getCurrentPosition());
-                    telemetry.addData("BR Target", motorBR.getTargetPosition());
-                    telemetry.addData("BR Mode", motorBR.getMode());
-                    telemetry.addData("BR Power", motorBR.getPower());
-                    telemetry.addData("BL Position", motorBL.getCurrentPosition());
-                    telemetry.addData("BL Target", motorBL.getTargetPosition());
-                    telemetry.addData("BL Mode", motorBL.getMode());
-                    telemetry.addData("BL Power", motorBL.getPower());
-                    telemetry.addData("FR Position", motorFR.getCurrentPosition());
-                    telemetry.addData("FR Target", motorFR.getTargetPosition());
-                    telemetry.addData("FR Mode", motorFR.getMode());
-                    telemetry.addData("FR Power", motorFR.getPower());
-                    telemetry.addData("FL Position", motorFL.getCurrentPosition());
-                    telemetry.addData("FL Target", motorFL.getTargetPosition());
-                    telemetry.addData("FL Mode", motorFL.getMode());
-                    telemetry.addData("FL Power", motorFL.getPower());
-                    telemetry.update();
-                    checkForInterrupt();
-                }
+    // Holds the latch where it is and restores its run mode
+    private void stopLatch(DcMotor.RunMode oldRunMode) {
+        motorLatch.setTargetPosition(motorLatch.getCurrentPosition());
+        motorLatch.setPower(0);
+        motorLatch.setMode(oldRunMode);
+    }
 
-            } catch (InterruptedException e) {
+    // Reports the drive motors until the op mode stops
+    ControlLoop.Task updateEncoders = new ControlLoop.Task() {
+        @Override
+        public boolean execute() {
+            if (isStopRequested()) {
+                return false;
             }
+
+            telemetry.addData("BR Position", motorBR.getCurrentPosition());
+            telemetry.addData("BR Target", motorBR.getTargetPosition());
+            telemetry.addData("BR Mode", motorBR.getMode());
+            telemetry.addData("BR Power", motorBR.getPower());
+            telemetry.addData("BL Position", motorBL.getCurrentPosition());
+            telemetry.addData("BL Target", motorBL.getTargetPosition());
+            telemetry.addData("BL Mode", motorBL.getMode());
+            telemetry.addData("BL Power", motorBL.getPower());
+            telemetry.addData("FR Position", motorFR.getCurrentPosition());
+            telemetry.addData("FR Target", motorFR.getTargetPosition());
+            telemetry.addData("FR Mode", motorFR.getMode());
+            telemetry.addData("FR Power", motorFR.getPower());
+            telemetry.addData("FL Position", motorFL.getCurrentPosition());
+            telemetry.addData("FL Target", motorFL.getTargetPosition());
+            telemetry.addData("FL Mode", motorFL.getMode());
+            telemetry.addData("FL Power", motorFL.getPower());
+            updateTelemetry();
+            return true;
         }
     };
 
@@ -210,7 +301,7 @@ public class AutonomousMaster extends LinearOpMode {
         double distanceStrafed = 0; // How far the robot has strafed (in the positive x direction)
 
         telemetry.addData("Aligned", goldAlignDetection.isAligned());
-        telemetry.update();
+        updateTelemetry();
 
         if (goldAlignDetection.isAligned())
             mecanumDrive.driveForwards(DISTANCE_TO_MINERALS, 0.5);
@@ -221,7 +312,7 @@ public class AutonomousMaster extends LinearOpMode {
             sleep(1000);
 
             telemetry.addData("Aligned", goldAlignDetection.isAligned());
-            telemetry.update();
+            updateTelemetry();
 
             if (goldAlignDetection.isAligned())
                 mecanumDrive.driveForwards(DISTANCE_TO_MINERALS, 0.5);
@@ -0,0 +1,54 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.andoverrobotics.core.replay.DriveLog;
+import com.andoverrobotics.core.replay.DriveReplayer;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+import java.io.IOException;
+
+/**
+ * Replays the drive of the last {@link RecordingTeleOp} run, at the rate at which it was recorded.
+ */
+@Autonomous(name = "Autonomous (Replay Recording)", group = "Autonomous")
+public class AutonomousReplay extends LinearOpMode {
+    // The power per tick by which each wheel is pulled back towards its recorded position; 0 replays the powers alone
+    private static final double POSITION_GAIN = 0.002;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        DriveLog log;
+        try {
+            log = DriveLog.read(RecordingTeleOp.DRIVE_LOG);
+        } catch (IOException e) {
+            telemetry.addData("Replay", "Cannot read %s: %s", RecordingTeleOp.DRIVE_LOG, e.getMessage());
+            telemetry.update();
+            waitForStart();
+            return;
+        }
+
+        DcMotor motorFL = hardwareMap.dcMotor.get("motorFL");
+        DcMotor motorFR = hardwareMap.dcMotor.get("motorFR");
+        DcMotor motorBL = hardwareMap.dcMotor.get("motorBL");
+        DcMotor motorBR = hardwareMap.dcMotor.get("motorBR");
+
+        // Configured like MainTeleOp, so that the recorded powers mean the same thing
+        motorFR.setDirection(DcMotorSimple.Direction.REVERSE);
+        motorBR.setDirection(DcMotorSimple.Direction.REVERSE);
+
+        DriveReplayer replayer = new DriveReplayer(log, new IMotor[]{new MotorAdapter(motorFL),
+                new MotorAdapter(motorFR), new MotorAdapter(motorBL), new MotorAdapter(motorBR)});
+        replayer.setPositionGain(POSITION_GAIN);
+
+        telemetry.addData("Replay", "%d records, %.1f s", log.getRecordCount(), log.getDurationNanos() / 1e9);
+        telemetry.update();
+        waitForStart();
+
+        // Stopping the OpMode interrupts the replay, which stops the motors
+        replayer.replay();
+    }
+}
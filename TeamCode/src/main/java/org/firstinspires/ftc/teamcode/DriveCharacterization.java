@@ -0,0 +1,72 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.andoverrobotics.core.drivetrain.Characterization;
+import com.andoverrobotics.core.drivetrain.Feedforward;
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.qualcomm.robotcore.eventloop.opmode.Autonomous;
+import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
+import com.qualcomm.robotcore.hardware.DcMotor;
+import com.qualcomm.robotcore.hardware.DcMotorSimple;
+
+import java.io.IOException;
+
+/**
+ * Measures the feedforward of the drivetrain and stores it in {@link AutonomousMaster#FEEDFORWARD_FILE}, from which the autonomous
+ * OpModes plan their moves. The robot drives straight forwards and backwards, so it needs about 6 feet of clear field in both directions.
+ */
+@Autonomous(name = "Drive Characterization", group = "Tuning")
+public class DriveCharacterization extends LinearOpMode {
+    // Lower than the defaults, so that the ramps fit on the field at the robot's speed
+    private static final double RAMP_RATE = 0.08, RAMP_POWER = 0.4, STEP_POWER = 0.5;
+    private static final long STEP_MILLIS = 1000;
+
+    @Override
+    public void runOpMode() throws InterruptedException {
+        DcMotor motorFL = hardwareMap.dcMotor.get("motorFL");
+        DcMotor motorFR = hardwareMap.dcMotor.get("motorFR");
+        DcMotor motorBL = hardwareMap.dcMotor.get("motorBL");
+        DcMotor motorBR = hardwareMap.dcMotor.get("motorBR");
+
+        // Configured like AutonomousMaster, whose moves use the result
+        motorFL.setDirection(DcMotorSimple.Direction.REVERSE);
+        motorBL.setDirection(DcMotorSimple.Direction.REVERSE);
+
+        DriveConstants driveConstants = DriveConstants.load(AutonomousMaster.TICKS_PER_INCH, AutonomousMaster.TICKS_PER_360, telemetry);
+        MecanumDrive mecanumDrive = MecanumDrive.fromCrossedMotors(motorFL, motorFR, motorBL, motorBR, this,
+                driveConstants.ticksPerInch, driveConstants.ticksPer360);
+        Characterization characterization = new Characterization(mecanumDrive);
+        characterization.setQuasiStatic(RAMP_RATE, RAMP_POWER);
+        characterization.setStep(STEP_POWER, STEP_MILLIS);
+
+        telemetry.addData("Characterization", "Place the robot with clear field ahead and behind, then press start");
+        telemetry.update();
+        waitForStart();
+
+        telemetry.addData("Characterization", "Driving...");
+        telemetry.update();
+
+        Feedforward feedforward;
+        try {
+            feedforward = characterization.run();
+        } catch (IllegalArgumentException e) {
+            telemetry.addData("Characterization failed", e.getMessage());
+            telemetry.update();
+            return;
+        }
+
+        telemetry.addData("Feedforward", feedforward);
+        telemetry.addData("R squared", "%.4f", characterization.getRSquared());
+        telemetry.addData("Samples fitted", "%d of %d", characterization.getFitCount(), characterization.getSampleCount());
+        try {
+            feedforward.toConfiguration().toPropertiesFile(AutonomousMaster.FEEDFORWARD_FILE, "Measured by DriveCharacterization");
+            telemetry.addData("Saved to", AutonomousMaster.FEEDFORWARD_FILE);
+        } catch (IOException e) {
+            telemetry.addData("Cannot save", e.getMessage());
+        }
+        telemetry.update();
+
+        while (opModeIsActive()) {
+            idle();
+        }
+    }
+}
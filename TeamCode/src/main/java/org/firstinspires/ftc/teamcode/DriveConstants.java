@@ -0,0 +1,72 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.andoverrobotics.core.config.Configuration;
+import com.andoverrobotics.core.config.ConfigurationSnapshot;
+import com.andoverrobotics.core.config.InvalidSchemaError;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Configuration Schema of the drivetrain measurements that differ between the test bot and the competition bot. The values are
+ * layered: the built-in defaults of the OpMode, then robot.properties, which holds the measurements of the robot that the phone is
+ * on, then match.properties, which holds overrides for one match. Both files are optional, and each overrides only the keys it holds:
+ * <pre>
+ *   ticksPerInch=125
+ *   ticksPer360=4770
+ * </pre>
+ * Every field that is declared here is loaded from the layers, so this class declares no other fields, not even static ones.
+ */
+public class DriveConstants {
+    public int ticksPerInch;
+    public int ticksPer360;
+
+    /**
+     * Loads the layered constants, and shows each value with the layer that supplied it. If the files hold a value that is not a
+     * number, every value falls back to the built-in defaults.
+     */
+    public static DriveConstants load(int defaultTicksPerInch, int defaultTicksPer360, Telemetry telemetry) {
+        Map<String, String> defaults = new HashMap<>();
+        defaults.put("ticksPerInch", Integer.toString(defaultTicksPerInch));
+        defaults.put("ticksPer360", Integer.toString(defaultTicksPer360));
+
+        List<Configuration> layers = new ArrayList<>();
+        for (String file : new String[]{"robot.properties", "match.properties"}) {
+            try {
+                layers.add(ConfigurationSnapshot.fromPropertiesFile(file));
+            } catch (IOException e) {
+                // The layer is optional; without the file, the layers below it supply its values
+            }
+        }
+        return load(Configuration.from(defaults, "built-in"), layers, telemetry);
+    }
+
+    // Loads the built-in layer overridden by the given layers, in order, or the built-in layer alone if a layer holds an invalid value
+    static DriveConstants load(Configuration builtIn, List<Configuration> layers, Telemetry telemetry) {
+        Configuration layered = builtIn;
+        for (Configuration layer : layers) {
+            layered = layered.overriddenBy(layer);
+        }
+
+        DriveConstants constants;
+        try {
+            constants = layered.loadToSchema(new DriveConstants());
+        } catch (InvalidSchemaError e) {
+            // loadToSchema reports a value that cannot be parsed as an InvalidSchemaError, caused by an InvalidFormatError
+            telemetry.addData("Drive constants", "Invalid (%s), using built-in", e.getCause().getMessage());
+            layered = builtIn;
+            constants = builtIn.loadToSchema(new DriveConstants());
+        }
+
+        for (String key : new TreeSet<>(layered.getKeys())) {
+            telemetry.addData(key, "%s (%s)", layered.getString(key), layered.getLayer(key));
+        }
+        return constants;
+    }
+}
@@ -1,6 +1,7 @@
 package org.firstinspires.ftc.teamcode;
 
 import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.utilities.MotorCommandBuffer;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
 import com.qualcomm.robotcore.hardware.CRServo;
@@ -20,7 +21,7 @@ public class MainTeleOp extends OpMode {
     //ticksPer360: how many encoder ticks required to cause a full rotation for the robot, when this amount is applied to the left and right motors in opposite directions
     //ticksPer360 is currently calculated by multiplying ticksPerInch by the circumference of the circle with the rear axle as a diameter, as those are the wheels that are moving
     //ticksPerInch and ticksPer360 are rounded to the nearest integer
-    private static final int WHEEL_DIAMETER_IN = 4, TICKS_PER_WHEEL = 1440, TICKS_PER_INCH = (int) (TICKS_PER_WHEEL / (Math.PI * WHEEL_DIAMETER_IN) + 0.5), TICKS_PER_360 = (int) (TICKS_PER_INCH * Math.PI * ROBOT_DIAMETER + 0.5);
+    protected static final int WHEEL_DIAMETER_IN = 4, TICKS_PER_WHEEL = 1440, TICKS_PER_INCH = (int) (TICKS_PER_WHEEL / (Math.PI * WHEEL_DIAMETER_IN) + 0.5), TICKS_PER_360 = (int) (TICKS_PER_INCH * Math.PI * ROBOT_DIAMETER + 0.5);
     // KNOWN MOTOR TICKS (TICKS_PER_WHEEL_360):
     //     Tetrix DC Motors: 1440
     //     AndyMark NeveRest Motors: 1120 (Not 100% sure)
@@ -29,6 +30,7 @@ public class MainTeleOp extends OpMode {
     private final double SLOW_MODE_DIVISOR = 5;
 
     protected MecanumDrive mecanumDrive;
+    protected MotorCommandBuffer driveCommands = new MotorCommandBuffer();
     protected DcMotor motorLatch, motorExtend;
 
     protected CRServo crServoSweep, crServoBox;
@@ -57,7 +59,10 @@ public class MainTeleOp extends OpMode {
         crServoSweep = hardwareMap.crservo.get("crServoSweep");
         crServoBox = hardwareMap.crservo.get("crServoBox");
 
-        mecanumDrive = MecanumDrive.fromCrossedMotors(motorFL, motorFR, motorBL, motorBR, this, TICKS_PER_INCH, TICKS_PER_360);
+        // The constants above are the test bot's; robot.properties on the phone overrides them for the competition bot
+        DriveConstants driveConstants = DriveConstants.load(TICKS_PER_INCH, TICKS_PER_360, telemetry);
+        mecanumDrive = MecanumDrive.fromCrossedMotors(driveCommands.register(motorFL), driveCommands.register(motorFR),
+                driveCommands.register(motorBL), driveCommands.register(motorBR), this, driveConstants.ticksPerInch, driveConstants.ticksPer360);
         mecanumDrive.setDefaultDrivePower(0.5);
     }
 
@@ -95,12 +100,12 @@ public class MainTeleOp extends OpMode {
         crServoSweep.setPower(sweepPower / (isInSlowMode ? SLOW_MODE_DIVISOR : 1));
         crServoBox.setPower(boxPower / (isInSlowMode ? SLOW_MODE_DIVISOR : 1));
 
-        if (Math.abs(gamepad1.right_stick_x) > 0.1) {
-            mecanumDrive.setRotationPower(gamepad1.right_stick_x / (isInSlowMode ? SLOW_MODE_DIVISOR : 1));
-        } else {
-            mecanumDrive.setStrafe(gamepad1.left_stick_x, gamepad1.left_stick_y, 1 / (isInSlowMode ? SLOW_MODE_DIVISOR : 1));
-        }
+        double rotatePower = Math.abs(gamepad1.right_stick_x) > 0.1 ? gamepad1.right_stick_x : 0;
+        double driveDivisor = isInSlowMode ? SLOW_MODE_DIVISOR : 1;
+        mecanumDrive.setStrafeAndRotation(gamepad1.left_stick_x / driveDivisor,
+                gamepad1.left_stick_y / driveDivisor, rotatePower / driveDivisor);
 
+        driveCommands.flush();
 
     }
 
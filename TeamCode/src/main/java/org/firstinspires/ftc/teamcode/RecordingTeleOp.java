@@ -0,0 +1,66 @@
+package org.firstinspires.ftc.teamcode;
+
+import com.andoverrobotics.core.drivetrain.MecanumDrive;
+import com.andoverrobotics.core.drivetrain.MecanumKinematics;
+import com.andoverrobotics.core.replay.DriveRecorder;
+import com.andoverrobotics.core.utilities.IMotor;
+import com.andoverrobotics.core.utilities.MotorAdapter;
+import com.qualcomm.robotcore.eventloop.opmode.TeleOp;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Main TeleOp, with the drive commands and encoder positions recorded from start to stop, so that
+ * the run can be replayed by {@link AutonomousReplay}.
+ */
+@TeleOp(name = "Main TeleOp (Recording)", group = "ARC Thunder")
+public class RecordingTeleOp extends MainTeleOp {
+    public static final File DRIVE_LOG = new File(AppUtil.FIRST_FOLDER, "drive.arcd");
+
+    private DriveRecorder recorder;
+
+    @Override
+    public void start() {
+        super.start();
+
+        try {
+            recorder = new DriveRecorder(DRIVE_LOG);
+        } catch (IOException e) {
+            telemetry.addData("Recording", "Cannot open %s: %s", DRIVE_LOG, e.getMessage());
+            return;
+        }
+
+        // The same motors, in the order that AutonomousReplay expects them, with the same constants as the drive in init
+        DriveConstants driveConstants = DriveConstants.load(TICKS_PER_INCH, TICKS_PER_360, telemetry);
+        mecanumDrive = new MecanumDrive(record("motorFL"), record("motorFR"), record("motorBL"), record("motorBR"),
+                MecanumKinematics.crossed(), this, driveConstants.ticksPerInch, driveConstants.ticksPer360);
+        mecanumDrive.setDefaultDrivePower(0.5);
+    }
+
+    @Override
+    public void loop() {
+        super.loop();
+
+        if (recorder != null)
+            recorder.sample();
+    }
+
+    @Override
+    public void stop() {
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                telemetry.addData("Recording", "Cannot save %s: %s", DRIVE_LOG, e.getMessage());
+            }
+        }
+        super.stop();
+    }
+
+    private IMotor record(String motorName) {
+        return recorder.record(new MotorAdapter(driveCommands.register(hardwareMap.dcMotor.get(motorName))));
+    }
+}
@@ -61,6 +61,7 @@ public class FocalLengthCalculator extends LinearOpMode {
             double perpendicularDistance = 12;
             if (detector.isFound() && !Double.isInfinite(perpendicularDistance) && !detector.bestRectIsNull()) {
                 telemetry.addData("Focal Length", calculateFocalLength(detector.getBestRectWidth(), perpendicularDistance));
+                telemetry.addData("Mat allocations", detector.getMatPool().getAllocationCount()); // Stops growing once frames reuse their Mats
                 telemetry.update();
             }
         }
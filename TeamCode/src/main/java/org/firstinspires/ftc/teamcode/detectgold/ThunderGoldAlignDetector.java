@@ -4,6 +4,7 @@ import android.util.Log;
 
 import com.disnodeteam.dogecv.detectors.roverruckus.GoldAlignDetector;
 
+import org.opencv.core.CvType;
 import org.opencv.core.Mat;
 import org.opencv.core.MatOfPoint;
 import org.opencv.core.Point;
@@ -17,8 +18,6 @@ import java.util.List;
 
 public class ThunderGoldAlignDetector extends GoldAlignDetector {
 
-    private Mat workingMat = new Mat();
-    private Mat maskYellow = new Mat();
     private Mat hierarchy = new Mat();
 
     private boolean found = false;
@@ -40,11 +39,11 @@ public class ThunderGoldAlignDetector extends GoldAlignDetector {
             Log.e("DogeCV", "Bad INPUT MAT!");
 
         }
-        input.copyTo(workingMat);
-        input.release();
+        Mat workingMat = matPool.lease(input.size(), input.type());
+        Mat maskYellow = matPool.lease(input.size(), CvType.CV_8UC1);
 
-        Imgproc.GaussianBlur(workingMat, workingMat, new Size(5, 5), 0);
-        yellowFilter.process(workingMat.clone(), maskYellow);
+        Imgproc.GaussianBlur(input, workingMat, new Size(5, 5), 0);
+        yellowFilter.process(workingMat, maskYellow, matPool);
 
         List<MatOfPoint> contoursYellow = new ArrayList<>();
 
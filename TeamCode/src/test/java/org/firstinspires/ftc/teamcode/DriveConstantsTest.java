@@ -0,0 +1,55 @@
+package org.firstinspires.ftc.teamcode;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.andoverrobotics.core.config.Configuration;
+
+import org.firstinspires.ftc.robotcore.external.Telemetry;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+public class DriveConstantsTest {
+
+    private final Telemetry telemetry = mock(Telemetry.class);
+    private final Configuration builtIn = layer("built-in", "90", "3800");
+
+    @Test
+    public void loadGivenLayersTakesTheTopmostValues() {
+        Configuration robot = layer("robot", "125", "4770");
+        Map<String, String> match = new HashMap<>();
+        match.put("ticksPer360", "4800");
+
+        DriveConstants constants = DriveConstants.load(builtIn,
+                Arrays.asList(robot, Configuration.from(match, "match")), telemetry);
+
+        assertEquals(125, constants.ticksPerInch);
+        assertEquals(4800, constants.ticksPer360);
+    }
+
+    @Test
+    public void loadGivenMalformedLayerFallsBackToBuiltIn() {
+        Configuration robot = layer("robot", "125", "lots");
+
+        DriveConstants constants = DriveConstants.load(builtIn, Collections.singletonList(robot), telemetry);
+
+        assertEquals(90, constants.ticksPerInch);
+        assertEquals(3800, constants.ticksPer360);
+        verify(telemetry).addData(eq("Drive constants"), eq("Invalid (%s), using built-in"), anyString());
+        verify(telemetry).addData("ticksPerInch", "%s (%s)", "90", "built-in");
+    }
+
+    private static Configuration layer(String name, String ticksPerInch, String ticksPer360) {
+        Map<String, String> values = new HashMap<>();
+        values.put("ticksPerInch", ticksPerInch);
+        values.put("ticksPer360", ticksPer360);
+        return Configuration.from(values, name);
+    }
+}